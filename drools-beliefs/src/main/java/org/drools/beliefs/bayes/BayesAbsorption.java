@@ -51,6 +51,18 @@ public class BayesAbsorption {
         normalize(trgPotentials);
     }
 
+    /**
+     * Absorbs the change of the source potentials into the target ones, as absorb() does, using the
+     * index map from the target states to the source states.
+     */
+    public static void absorb(double[] trgPotentials, int[] indexMap, double[] srcPotentials, double[] oldSrcPotentials) {
+        double[] ratios = dividePotentials(srcPotentials, oldSrcPotentials);
+        for ( int i = 0, length = trgPotentials.length; i < length; i++ ) {
+            trgPotentials[i] *= ratios[indexMap[i]];
+        }
+        normalize(trgPotentials);
+    }
+
     public static void normalize(double[] array) {
         double sum = 0.0;
         for ( int i = 0, length = array.length; i < length; i++ ) {
@@ -17,30 +17,49 @@ package org.drools.beliefs.bayes;
 
 import org.drools.beliefs.graph.Graph;
 import org.drools.beliefs.graph.GraphNode;
-import org.drools.core.util.BitMaskUtil;
+import org.drools.core.util.bitmask.OpenBitSet;
 import org.kie.api.runtime.rule.FactHandle;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class BayesInstance<T> {
+    // number of potentials in a subtree of the junction tree, above which it is propagated in its own task
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+    // each likelyhood divided out of the potentials adds a rounding error of a few ulps, so after this many
+    // divisions the potentials are rebuilt from the tables instead, keeping the error within about 1e-13
+    private static final int MAX_DIVISIONS = 64;
+
     private Graph<BayesVariable>       graph;
     private JunctionTree               tree;
     private Map<String, BayesVariable> variables;
     private Map<String, BayesVariable> fieldNames;
     private BayesLikelyhood[]          likelyhoods;
-    private long                       dirty;
-    private long                       decided;
+    private BayesLikelyhood[]          appliedLikelyhoods;
+    private OpenBitSet                 dirty;
+    private OpenBitSet                 undecided;
+
+    // a message from the parent to the child of a separator, or the other way round, is pending when the
+    // sending side has changed since the last message. Pending messages are passed when a clique is read.
+    private boolean[]                  pendingToChild;
+    private boolean[]                  pendingToParent;
+    private boolean                    consistent;
+    private int                        divisions;
 
     private CliqueState[]        cliqueStates;
     private SeparatorState[]     separatorStates;
     private BayesVariableState[] varStates;
+    private int[][]              varIndexMaps;
+    private int[]                subtreeSizes;
 
     private GlobalUpdateListener globalUpdateListener;
     private PassMessageListener  passMessageListener;
@@ -62,6 +81,9 @@ public class BayesInstance<T> {
         variables = new HashMap<String, BayesVariable>();
         fieldNames = new HashMap<String, BayesVariable>();
         likelyhoods = new BayesLikelyhood[graph.size()];
+        appliedLikelyhoods = new BayesLikelyhood[graph.size()];
+        dirty = new OpenBitSet(graph.size());
+        undecided = new OpenBitSet(graph.size());
 
         cliqueStates = new CliqueState[tree.getJunctionTreeNodes().length];
         for (JunctionTreeClique clique : tree.getJunctionTreeNodes()) {
@@ -72,6 +94,11 @@ public class BayesInstance<T> {
         for ( JunctionTreeSeparator sep : tree.getJunctionTreeSeparators() ) {
             separatorStates[sep.getId()] = sep.createState();
         }
+        // nothing has been propagated yet
+        pendingToChild = new boolean[separatorStates.length];
+        pendingToParent = new boolean[separatorStates.length];
+        Arrays.fill(pendingToChild, true);
+        Arrays.fill(pendingToParent, true);
 
         varStates = new BayesVariableState[graph.size()];
         for (GraphNode<BayesVariable> node : graph) {
@@ -79,6 +106,19 @@ public class BayesInstance<T> {
             variables.put(var.getName(), var);
             varStates[var.getId()] = var.createState();
         }
+        varIndexMaps = new int[graph.size()][];
+
+        subtreeSizes = new int[cliqueStates.length];
+        initSubtreeSizes(tree.getRoot());
+    }
+
+    private int initSubtreeSizes(JunctionTreeClique clique) {
+        int size = clique.getPotentials().length;
+        for ( JunctionTreeSeparator sep : clique.getChildren() ) {
+            size += initSubtreeSizes(sep.getChild());
+        }
+        subtreeSizes[clique.getId()] = size;
+        return size;
     }
 
     public void reset() {
@@ -95,6 +135,19 @@ public class BayesInstance<T> {
             BayesVariableState varState =  varStates[var.getId()];
             varState.setDistribution( new double[ varState.getDistribution().length]);
         }
+
+        Arrays.fill(pendingToChild, true);
+        Arrays.fill(pendingToParent, true);
+        consistent = false;
+        divisions = 0;
+
+        // the evidence is applied again, on the next read or update
+        for ( int i = 0; i < likelyhoods.length; i++ ) {
+            appliedLikelyhoods[i] = null;
+            if ( likelyhoods[i] != null ) {
+                dirty.set(i);
+            }
+        }
     }
 
     public void setTargetClass(Class<T> targetClass) {
@@ -178,24 +231,28 @@ public class BayesInstance<T> {
     }
 
     public void setDecided(String varName, boolean bool) {
-
+        BayesVariable var = variables.get( varName );
+        if (  var == null ) {
+            throw new IllegalArgumentException("Variable name does not exist: " + varName);
+        }
+        setDecided( var, bool );
     }
 
     public void setDecided(BayesVariable var, boolean bool) {
         // note this is reversed, when the bit is on, the var is undecided. Default state is decided
         if ( !bool ) {
-            decided = BitMaskUtil.set(decided, var.getId());
+            undecided.set(var.getId());
         } else {
-            decided = BitMaskUtil.reset(decided, var.getId());
+            undecided.clear(var.getId());
         }
     }
 
     public boolean isDecided() {
-        return decided == 0; // >0 means one ore more variables are undecided
+        return undecided.isEmpty(); // a set bit means one ore more variables are undecided
     }
 
     public boolean isDirty() {
-        return dirty > 0; // >0 means ore or more variables are dirty
+        return !dirty.isEmpty(); // a set bit means the evidence of that variable changed, and was not applied yet
     }
 
     public void setLikelyhood(String varName, double[] distribution) {
@@ -208,15 +265,20 @@ public class BayesInstance<T> {
 
     public void unsetLikelyhood(BayesVariable var) {
         int id = var.getId();
-        this.likelyhoods[id] = null;
-        dirty = BitMaskUtil.set(dirty, id);
+        if ( this.likelyhoods[id] != null ) {
+            this.likelyhoods[id] = null;
+            dirty.set(id);
+        }
     }
 
     public void setLikelyhood(BayesVariable var, double[] distribution) {
-        GraphNode node = graph.getNode( var.getId() );
-        JunctionTreeClique clique = tree.getJunctionTreeNodes( )[var.getFamily()];
-
-        setLikelyhood( new BayesLikelyhood(graph, clique, node, distribution ) );
+        BayesLikelyhood old = this.likelyhoods[var.getId()];
+        if ( old != null && Arrays.equals( old.getDistribution(), distribution ) ) {
+            return;
+        }
+        // copied, so that changing the caller's array cannot corrupt the potentials it was applied to
+        double[] copy = distribution != null ? distribution.clone() : null;
+        setLikelyhood( new BayesLikelyhood( var, copy, getVarIndexMap( var ) ) );
     }
 
     public void setLikelyhood(BayesLikelyhood likelyhood) {
@@ -224,7 +286,7 @@ public class BayesInstance<T> {
         BayesLikelyhood old = this.likelyhoods[id];
         if ( old == null || !old.equals( likelyhood ) ) {
             this.likelyhoods[likelyhood.getVariable().getId()] = likelyhood;
-            dirty = BitMaskUtil.set(dirty, id);
+            dirty.set(id);
         }
     }
 
@@ -232,34 +294,139 @@ public class BayesInstance<T> {
         if ( !isDecided() ) {
             throw new IllegalStateException("Cannot perform global upset, while one ore more variables are undecided" );
         }
-        if ( isDirty() ) {
-            reset();
-        }
+        // all the evidence set since the last update is applied before a single propagation
         applyEvidence();
+        if ( consistent ) {
+            return;
+        }
         //recurseGlobalUpdate(tree.getRoot());
         globalUpdate(tree.getRoot());
-        dirty = 0;
     }
 
+    /**
+     * Applies the evidence that changed since it was last applied to the family cliques of the variables, and
+     * marks the messages leading away from them as pending. A likelyhood is replaced by dividing it out of its
+     * clique, unless it has zeros (like hard evidence), in which case all the potentials are reset first.
+     * They are also reset once MAX_DIVISIONS likelyhoods were divided out, to bound the rounding error.
+     */
     public void applyEvidence() {
-        for ( int i = 0; i < likelyhoods.length; i++ ) {
-            BayesLikelyhood l = likelyhoods[i];
+        if ( dirty.isEmpty() ) {
+            return;
+        }
+        int replaced = 0;
+        for ( int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1) ) {
+            BayesLikelyhood old = appliedLikelyhoods[i];
+            if ( old != null && !isSame( evidenceOf( likelyhoods[i] ), old ) ) {
+                if ( !old.isDivisible() || divisions + ++replaced > MAX_DIVISIONS ) {
+                    reset();
+                    break;
+                }
+            }
+        }
+
+        for ( int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1) ) {
+            BayesLikelyhood l = evidenceOf( likelyhoods[i] );
+            BayesLikelyhood old = appliedLikelyhoods[i];
+            if ( isSame( l, old ) ) {
+                continue;
+            }
+            int family = ( l != null ? l : old ).getVariable().getFamily();
+            double[] potentials = cliqueStates[family].getPotentials();
+            if ( old != null ) {
+                old.divideOutOf(potentials);
+                divisions++;
+            }
             if ( l != null ) {
-                int family = likelyhoods[i].getVariable().getFamily();
-                JunctionTreeClique node = tree.getJunctionTreeNodes()[family];
-                likelyhoods[i].multiplyInto(cliqueStates[family].getPotentials());
-                BayesAbsorption.normalize(cliqueStates[family].getPotentials());
+                l.multiplyInto(potentials);
             }
+            BayesAbsorption.normalize(potentials);
+            appliedLikelyhoods[i] = l;
+            markChanged(tree.getJunctionTreeNodes()[family], null);
         }
+        dirty.clear(0, likelyhoods.length);
+    }
+
+    private static BayesLikelyhood evidenceOf(BayesLikelyhood likelyhood) {
+        // an undecided variable has a likelyhood with no distribution
+        return likelyhood != null && likelyhood.getDistribution() != null ? likelyhood : null;
+    }
+
+    private static boolean isSame(BayesLikelyhood l1, BayesLikelyhood l2) {
+        return l1 == l2 || ( l1 != null && l1.equals( l2 ) );
+    }
 
+    /**
+     * Marks as pending the messages leading away from a clique that changed, stopping where they already are.
+     */
+    private void markChanged(JunctionTreeClique clique, JunctionTreeSeparator from) {
+        consistent = false;
+        for ( JunctionTreeSeparator sep : clique.getChildren() ) {
+            if ( sep != from && !pendingToChild[sep.getId()] ) {
+                pendingToChild[sep.getId()] = true;
+                markChanged(sep.getChild(), sep);
+            }
+        }
+        JunctionTreeSeparator parentSep = clique.getParentSeparator();
+        if ( parentSep != null && parentSep != from && !pendingToParent[parentSep.getId()] ) {
+            pendingToParent[parentSep.getId()] = true;
+            markChanged(parentSep.getParent(), parentSep);
+        }
+    }
+
+    /**
+     * Passes the pending messages leading to a clique, so that it reflects all the evidence. Each message is
+     * passed after the ones leading to its sending clique, and only the subtrees that changed are visited.
+     */
+    private void collectPending(JunctionTreeClique clique, JunctionTreeSeparator from) {
+        for ( JunctionTreeSeparator sep : clique.getChildren() ) {
+            if ( sep != from && pendingToParent[sep.getId()] ) {
+                collectPending(sep.getChild(), sep);
+                passMessage(sep.getChild(), sep, clique);
+                pendingToParent[sep.getId()] = false;
+            }
+        }
+        JunctionTreeSeparator parentSep = clique.getParentSeparator();
+        if ( parentSep != null && parentSep != from && pendingToChild[parentSep.getId()] ) {
+            collectPending(parentSep.getParent(), parentSep);
+            passMessage(parentSep.getParent(), parentSep, clique);
+            pendingToChild[parentSep.getId()] = false;
+        }
+    }
+
+    /**
+     * Passes the pending messages from a clique towards the leaves, once all the messages leading to it were passed.
+     * A subtree can have pending messages even if the message to its root was already passed by collectPending.
+     */
+    private void distributePending(JunctionTreeClique clique) {
+        for ( JunctionTreeSeparator sep : clique.getChildren() ) {
+            if ( pendingToChild[sep.getId()] ) {
+                passMessage(clique, sep, sep.getChild());
+                pendingToChild[sep.getId()] = false;
+            }
+            distributePending(sep.getChild());
+        }
     }
 
     public void globalUpdate(JunctionTreeClique clique) {
         if ( globalUpdateListener != null ) {
             globalUpdateListener.beforeGlobalUpdate(cliqueStates[clique.getId()]);
         }
-        collectEvidence( clique );
-        distributeEvidence( clique );
+        if ( clique.getParentSeparator() != null ) {
+            collectEvidence( clique );
+            distributeEvidence( clique );
+            Arrays.fill(pendingToChild, false);
+            Arrays.fill(pendingToParent, false);
+        } else if ( passMessageListener == null && subtreeSizes[clique.getId()] >= PARALLEL_THRESHOLD ) {
+            // listeners observe the order of the messages, so only propagate in parallel without them
+            ForkJoinPool.commonPool().invoke( new CollectEvidenceTask( clique ) );
+            ForkJoinPool.commonPool().invoke( new DistributeEvidenceTask( clique ) );
+        } else {
+            // from the root only the pending messages are passed, in the same order as collectEvidence
+            // and distributeEvidence would do
+            collectPending( clique, null );
+            distributePending( clique );
+        }
+        consistent = true;
         if ( globalUpdateListener != null ) {
             globalUpdateListener.afterGlobalUpdate(cliqueStates[clique.getId()]);
         }
@@ -369,48 +536,94 @@ public class BayesInstance<T> {
         double[] sepPots = separatorStates[sep.getId()].getPotentials();
         double[] oldSepPots = Arrays.copyOf(sepPots, sepPots.length);
 
-        BayesVariable[] sepVars = sep.getValues().toArray(new BayesVariable[sep.getValues().size()]);
-
         if ( passMessageListener != null ) {
             passMessageListener.beforeProjectAndAbsorb(sourceClique, sep, targetClique, oldSepPots);
         }
 
-        project(sepVars, cliqueStates[sourceClique.getId()], separatorStates[sep.getId()]);
+        BayesProjection.project(cliqueStates[sourceClique.getId()].getPotentials(), sep.getIndexMap(sourceClique), sepPots);
         if ( passMessageListener != null ) {
             passMessageListener.afterProject(sourceClique, sep, targetClique, oldSepPots);
         }
 
-        absorb(sepVars, cliqueStates[targetClique.getId()], separatorStates[sep.getId()], oldSepPots);
+        BayesAbsorption.absorb(cliqueStates[targetClique.getId()].getPotentials(), sep.getIndexMap(targetClique), sepPots, oldSepPots);
         if ( passMessageListener != null ) {
             passMessageListener.afterAbsorb(sourceClique, sep, targetClique, oldSepPots);
         }
     }
 
-    //private static void project(BayesVariable[] sepVars, JunctionTreeNode node, JunctionTreeSeparator sep) {
-    private static void project(BayesVariable[] sepVars, CliqueState clique, SeparatorState separator) {
-        //JunctionTreeNode node, JunctionTreeSeparator sep
-        BayesVariable[] vars = clique.getJunctionTreeClique().getValues().toArray(new BayesVariable[clique.getJunctionTreeClique().getValues().size()]);
-        int[] sepVarPos = PotentialMultiplier.createSubsetVarPos(vars, sepVars);
+    /**
+     * Collects the pending evidence of the subtrees of a clique into it. The subtrees are independent, so
+     * the large ones are collected in their own tasks, then the messages from the children are absorbed
+     * in the same order as collectPending does.
+     */
+    private class CollectEvidenceTask extends RecursiveAction {
+        private final JunctionTreeClique clique;
+
+        CollectEvidenceTask(JunctionTreeClique clique) {
+            this.clique = clique;
+        }
 
-        int sepVarNumberOfStates = PotentialMultiplier.createNumberOfStates(sepVars);
-        int[] sepVarMultipliers = PotentialMultiplier.createIndexMultipliers(sepVars, sepVarNumberOfStates);
+        @Override
+        protected void compute() {
+            List<CollectEvidenceTask> tasks = new ArrayList<CollectEvidenceTask>();
+            for ( JunctionTreeSeparator sep : clique.getChildren() ) {
+                JunctionTreeClique child = sep.getChild();
+                if ( !pendingToParent[sep.getId()] ) {
+                    continue;
+                }
+                if ( subtreeSizes[child.getId()] >= PARALLEL_THRESHOLD ) {
+                    CollectEvidenceTask task = new CollectEvidenceTask(child);
+                    task.fork();
+                    tasks.add(task);
+                } else {
+                    collectPending(child, sep);
+                }
+            }
+            for ( CollectEvidenceTask task : tasks ) {
+                task.join();
+            }
 
-        BayesProjection p = new BayesProjection(vars, clique.getPotentials(), sepVarPos, sepVarMultipliers, separator.getPotentials());
-        p.project();
+            for ( JunctionTreeSeparator sep : clique.getChildren() ) {
+                if ( pendingToParent[sep.getId()] ) {
+                    passMessage(sep.getChild(), sep, clique);
+                    pendingToParent[sep.getId()] = false;
+                }
+            }
+        }
     }
 
-    //private static void absorb(BayesVariable[] sepVars, JunctionTreeNode node, JunctionTreeSeparator sep, double[] oldSepPots ) {
-    private static void absorb(BayesVariable[] sepVars, CliqueState clique, SeparatorState separator, double[] oldSepPots ) {
-        //BayesVariable[] vars = node.getValues().toArray( new BayesVariable[node.getValues().size()] );
-        BayesVariable[] vars = clique.getJunctionTreeClique().getValues().toArray(new BayesVariable[clique.getJunctionTreeClique().getValues().size()]);
-
-        int[] sepVarPos = PotentialMultiplier.createSubsetVarPos(vars, sepVars);
+    /**
+     * Distributes the pending evidence of a clique into its subtrees. The messages to the children only read
+     * the clique, and each subtree is then distributed on its own, the large ones in their own tasks.
+     */
+    private class DistributeEvidenceTask extends RecursiveAction {
+        private final JunctionTreeClique clique;
 
-        int sepVarNumberOfStates = PotentialMultiplier.createNumberOfStates(sepVars);
-        int[] sepVarMultipliers = PotentialMultiplier.createIndexMultipliers(sepVars, sepVarNumberOfStates);
+        DistributeEvidenceTask(JunctionTreeClique clique) {
+            this.clique = clique;
+        }
 
-        BayesAbsorption p = new BayesAbsorption(sepVarPos, oldSepPots, separator.getPotentials(), sepVarMultipliers, vars, clique.getPotentials());
-        p.absorb();
+        @Override
+        protected void compute() {
+            List<DistributeEvidenceTask> tasks = new ArrayList<DistributeEvidenceTask>();
+            for ( JunctionTreeSeparator sep : clique.getChildren() ) {
+                JunctionTreeClique child = sep.getChild();
+                if ( pendingToChild[sep.getId()] ) {
+                    passMessage(clique, sep, child);
+                    pendingToChild[sep.getId()] = false;
+                }
+                if ( subtreeSizes[child.getId()] >= PARALLEL_THRESHOLD ) {
+                    DistributeEvidenceTask task = new DistributeEvidenceTask(child);
+                    task.fork();
+                    tasks.add(task);
+                } else {
+                    distributePending(child);
+                }
+            }
+            for ( DistributeEvidenceTask task : tasks ) {
+                task.join();
+            }
+        }
     }
 
     public BayesVariableState marginalize(String name) {
@@ -475,9 +688,14 @@ public class BayesInstance<T> {
 //    }
 
     public void marginalize(BayesVariableState varState) {
-        CliqueState cliqueState = cliqueStates[varState.getVariable().getFamily()];
-        JunctionTreeClique jtNode = cliqueState.getJunctionTreeClique();
-        new Marginalizer(jtNode.getValues().toArray( new BayesVariable[jtNode.getValues().size()]), cliqueState.getPotentials(), varState.getVariable(), varState.getDistribution() );
+        BayesVariable var = varState.getVariable();
+        CliqueState cliqueState = cliqueStates[var.getFamily()];
+        if ( isDecided() ) {
+            // only the messages leading to the family clique of the variable are passed
+            applyEvidence();
+            collectPending(cliqueState.getJunctionTreeClique(), null);
+        }
+        BayesProjection.project(cliqueState.getPotentials(), getVarIndexMap( var ), varState.getDistribution());
 //        System.out.print( varState.getVariable().getName() + " " );
 //        for ( double d : varState.getDistribution() ) {
 //            System.out.print(d);
@@ -486,6 +704,16 @@ public class BayesInstance<T> {
 //        System.out.println(" ");
     }
 
+    private int[] getVarIndexMap(BayesVariable var) {
+        int[] indexMap = varIndexMaps[var.getId()];
+        if ( indexMap == null ) {
+            JunctionTreeClique jtNode = tree.getJunctionTreeNodes()[var.getFamily()];
+            indexMap = PotentialMultiplier.createIndexMap(jtNode.getValues().toArray( new BayesVariable[jtNode.getValues().size()]), new BayesVariable[] { var });
+            varIndexMaps[var.getId()] = indexMap;
+        }
+        return indexMap;
+    }
+
     public SeparatorState[] getSeparatorStates() {
         return separatorStates;
     }
@@ -23,39 +23,16 @@ import java.util.Arrays;
 public class BayesLikelyhood {
     private BayesVariable variable;
     private double[]      distribution;
-    private double[][]    varPotential;
 
-    private BayesVariable[] vars;
-    private int[]           multipliers;
-    private int[]           parentVarPos;
-    private int[]           parentIndexMultipliers;
-    private int             varPos;
+    private int[]         indexMap;
 
     public BayesLikelyhood(Graph graph, JunctionTreeClique jtNode, GraphNode<BayesVariable> varNode, double[] distribution) {
-        vars = jtNode.getValues().toArray( new BayesVariable[jtNode.getValues().size()] );
+        BayesVariable[] vars = jtNode.getValues().toArray( new BayesVariable[jtNode.getValues().size()] );
 
         this.variable = varNode.getContent();
         this.distribution = distribution;
 
-        BayesVariable[] parents = new BayesVariable[varNode.getInEdges().size()];
-        for ( int i = 0; i < parents.length; i++ ) {
-            parents[i] = (BayesVariable) varNode.getInEdges().get(i).getOutGraphNode().getContent();
-        }
-
-        varPotential = new double[ this.variable.getProbabilityTable().length ][];
-        for ( int i = 0; i < varPotential.length; i++ ) {
-            varPotential[i] = distribution;
-        }
-
-        BayesVariable[] vars = jtNode.getValues().toArray( new BayesVariable[jtNode.getValues().size()] );
-        int numberOfStates = PotentialMultiplier.createNumberOfStates(vars);
-        multipliers = PotentialMultiplier.createIndexMultipliers(vars, numberOfStates);
-
-        parentVarPos = PotentialMultiplier.createSubsetVarPos(vars, parents);
-        int parentsNumberOfStates = PotentialMultiplier.createNumberOfStates(parents);
-        parentIndexMultipliers = PotentialMultiplier.createIndexMultipliers(parents, parentsNumberOfStates);
-//
-        varPos = -1;
+        int varPos = -1;
         for( int i = 0; i < vars.length; i++) {
             if ( vars[i] == variable)  {
                 varPos = i;
@@ -65,6 +42,15 @@ public class BayesLikelyhood {
         if ( varPos == -1 || varPos == vars.length ) {
             throw new IllegalStateException( "Unable to find Variable in set" );
         }
+
+        // the likelyhood is the same for every state of the parents, so only the var's own state matters
+        indexMap = PotentialMultiplier.createIndexMap(vars, new BayesVariable[] { variable });
+    }
+
+    BayesLikelyhood(BayesVariable variable, double[] distribution, int[] indexMap) {
+        this.variable = variable;
+        this.distribution = distribution;
+        this.indexMap = indexMap;
     }
 
     public BayesVariable getVariable() {
@@ -76,20 +62,28 @@ public class BayesLikelyhood {
     }
 
     public void multiplyInto(double[] trgPotential) {
-        PotentialMultiplier m = new PotentialMultiplier(varPotential, varPos, parentVarPos, parentIndexMultipliers,
-                                                        vars, multipliers, trgPotential);
-
-        m.multiple();
+        PotentialMultiplier.multiply(distribution, indexMap, trgPotential);
+    }
 
-//        int j = 0;
-//        int jlength = distribution.length;
-//        for ( int i = 0, length = potential.length; i < length; i++ ) {
-//            potential[i] = potential[i] * distribution[j++];
-//            if ( j == jlength ) {
-//                j = 0;
-//            }
-//        }
+    /**
+     * Returns true if the likelyhood can be divided out of the potentials it was multiplied into,
+     * that is if none of its values is zero.
+     */
+    public boolean isDivisible() {
+        for ( double d : distribution ) {
+            if ( d == 0.0 ) {
+                return false;
+            }
+        }
+        return true;
+    }
 
+    public void divideOutOf(double[] trgPotential) {
+        double[] inverse = new double[distribution.length];
+        for ( int i = 0; i < inverse.length; i++ ) {
+            inverse[i] = 1.0 / distribution[i];
+        }
+        PotentialMultiplier.multiply(inverse, indexMap, trgPotential);
     }
 
     @Override
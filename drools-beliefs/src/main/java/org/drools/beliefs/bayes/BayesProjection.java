@@ -52,6 +52,18 @@ public class BayesProjection {
 
     }
 
+    /**
+     * Projects the source potentials into the target ones, as project() does, using the index map
+     * from the source states to the target states.
+     */
+    public static void project(double[] srcPotentials, int[] indexMap, double[] trgPotentials) {
+        Arrays.fill(trgPotentials, 0);
+        for ( int i = 0, length = srcPotentials.length; i < length; i++ ) {
+            trgPotentials[indexMap[i]] += srcPotentials[i];
+        }
+        BayesAbsorption.normalize(trgPotentials);
+    }
+
     public static void normalize(double[] darray, double sum) {
         for ( int i = 0; i < darray.length; i++ ) {
             darray[i] /= sum;
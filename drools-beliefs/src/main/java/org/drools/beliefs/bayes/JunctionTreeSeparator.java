@@ -30,6 +30,10 @@ public class JunctionTreeSeparator {
     private JunctionTreeClique  child;
     //private double[]            potentials;
 
+    // maps the states of the parent and child cliques to the separator states, created on first use
+    private volatile int[]      parentIndexMap;
+    private volatile int[]      childIndexMap;
+
 
     public JunctionTreeSeparator(int id, JunctionTreeClique parent, JunctionTreeClique child, OpenBitSet bitSet, Graph<BayesVariable> graph) {
         this.id = id;
@@ -77,6 +81,35 @@ public class JunctionTreeSeparator {
         return values;
     }
 
+    /**
+     * Returns the index map from the states of the given clique, which is either the parent or the child
+     * of this separator, to the states of this separator. The maps are immutable, and shared by all the
+     * BayesInstances of the tree.
+     */
+    public int[] getIndexMap(JunctionTreeClique clique) {
+        if ( clique == parent ) {
+            int[] indexMap = parentIndexMap;
+            if ( indexMap == null ) {
+                indexMap = parentIndexMap = createIndexMap( parent );
+            }
+            return indexMap;
+        }
+        if ( clique == child ) {
+            int[] indexMap = childIndexMap;
+            if ( indexMap == null ) {
+                indexMap = childIndexMap = createIndexMap( child );
+            }
+            return indexMap;
+        }
+        throw new IllegalArgumentException( "Clique " + clique.getId() + " is not connected to separator " + id );
+    }
+
+    private int[] createIndexMap(JunctionTreeClique clique) {
+        BayesVariable[] cliqueVars = clique.getValues().toArray( new BayesVariable[clique.getValues().size()] );
+        BayesVariable[] sepVars = values.toArray( new BayesVariable[values.size()] );
+        return PotentialMultiplier.createIndexMap( cliqueVars, sepVars );
+    }
+
     @Override
     public String toString() {
         return "JunctionTreeSeparator{" +
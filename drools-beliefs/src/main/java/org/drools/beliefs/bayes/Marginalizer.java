@@ -19,13 +19,7 @@ public class Marginalizer {
 
     public Marginalizer(BayesVariable[]  srcVars, double[] srcPotentials, BayesVariable var,
                         double[] varDistribution) {
-        BayesVariable[]  trgVars = new BayesVariable[] { var };
-
-        int[] trgVarPos = PotentialMultiplier.createSubsetVarPos(srcVars, trgVars);
-        int trgVarNumberOfStates = PotentialMultiplier.createNumberOfStates(trgVars);
-        int[] trgVarMultipliers = PotentialMultiplier.createIndexMultipliers(trgVars, trgVarNumberOfStates);
-
-        BayesProjection p = new BayesProjection(srcVars, srcPotentials, trgVarPos, trgVarMultipliers, varDistribution);
-        p.project();
+        int[] indexMap = PotentialMultiplier.createIndexMap(srcVars, new BayesVariable[] { var });
+        BayesProjection.project(srcPotentials, indexMap, varDistribution);
     }
 }
@@ -83,6 +83,46 @@ public class PotentialMultiplier {
         return parentVarPos;
     }
 
+    /**
+     * Maps each state of vars, in the order used by the potentials, to the index of the state of
+     * the subset it projects onto. The subset vars must be in the same order as in vars.
+     * Kernels using the map are flat loops over the potentials, with no per-call index arithmetic.
+     */
+    public static int[] createIndexMap(BayesVariable[] vars, BayesVariable[] subset) {
+        int[] subsetVarPos = createSubsetVarPos(vars, subset);
+        int[] subsetMultipliers = createIndexMultipliers(subset, createNumberOfStates(subset));
+        int[] strides = new int[vars.length];
+        for ( int i = 0; i < subset.length; i++ ) {
+            strides[subsetVarPos[i]] = subsetMultipliers[i];
+        }
+
+        int[] indexMap = new int[createNumberOfStates(vars)];
+        int[] path = new int[vars.length];
+        int subsetIndex = 0;
+        for ( int i = 0; i < indexMap.length; i++ ) {
+            indexMap[i] = subsetIndex;
+            // increments the path, the last var changing the fastest
+            for ( int j = vars.length - 1; j >= 0; j-- ) {
+                if ( ++path[j] < vars[j].getOutcomes().length ) {
+                    subsetIndex += strides[j];
+                    break;
+                }
+                subsetIndex -= strides[j] * (path[j] - 1);
+                path[j] = 0;
+            }
+        }
+        return indexMap;
+    }
+
+    /**
+     * Multiplies the distribution of a var into the potentials, using the index map of the var in them.
+     */
+    public static void multiply(double[] distribution, int[] indexMap, double[] trgPotentials) {
+        for ( int i = 0, length = trgPotentials.length; i < length; i++ ) {
+            trgPotentials[i] *= distribution[indexMap[i]];
+        }
+    }
+
     public void multiple() {
         varProbabilityTableRow = 0;
         trgPotentialIndex = 0;
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.beliefs.bayes;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.drools.beliefs.bayes.ParallelGlobalUpdateTest.createJunctionTree;
+import static org.drools.beliefs.bayes.ParallelGlobalUpdateTest.distribution;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalUpdateTest {
+
+    private static final int SIZE = 127;
+    private static final int OUTCOMES = 3;
+
+    @Test
+    public void testMarginalizeWithoutGlobalUpdate() {
+        Random random = new Random( 0 );
+        JunctionTree jTree = createJunctionTree( SIZE, OUTCOMES, random );
+
+        BayesInstance incremental = new BayesInstance( jTree );
+        BayesInstance fresh = new BayesInstance( jTree );
+        for ( int i : new int[] { 3, 50, 100 } ) {
+            double[] evidence = distribution( random, OUTCOMES );
+            incremental.setLikelyhood( "x" + i, evidence );
+            fresh.setLikelyhood( "x" + i, evidence );
+        }
+        fresh.globalUpdate();
+
+        assertSameMarginals( fresh, incremental );
+    }
+
+    @Test
+    public void testChangeEvidence() {
+        Random random = new Random( 0 );
+        JunctionTree jTree = createJunctionTree( SIZE, OUTCOMES, random );
+
+        BayesInstance incremental = new BayesInstance( jTree );
+        incremental.setLikelyhood( "x7", distribution( random, OUTCOMES ) );
+        incremental.setLikelyhood( "x90", distribution( random, OUTCOMES ) );
+        incremental.globalUpdate();
+
+        // soft evidence is changed and retracted without starting over
+        double[] evidence = distribution( random, OUTCOMES );
+        incremental.setLikelyhood( "x7", evidence );
+        incremental.unsetLikelyhood( incremental.getVariables().get( "x90" ) );
+        incremental.globalUpdate();
+
+        BayesInstance fresh = new BayesInstance( jTree );
+        fresh.setLikelyhood( "x7", evidence );
+        fresh.globalUpdate();
+
+        assertSameMarginals( fresh, incremental );
+    }
+
+    @Test
+    public void testRetractHardEvidence() {
+        Random random = new Random( 0 );
+        JunctionTree jTree = createJunctionTree( SIZE, OUTCOMES, random );
+
+        BayesInstance incremental = new BayesInstance( jTree );
+        double[] evidence = distribution( random, OUTCOMES );
+        incremental.setLikelyhood( "x20", evidence );
+        incremental.setLikelyhood( "x60", new double[] { 1.0, 0.0, 0.0 } );
+        incremental.globalUpdate();
+        assertArrayEquals( new double[] { 1.0, 0.0, 0.0 }, incremental.marginalize( "x60" ).getDistribution(), 1e-9 );
+
+        incremental.unsetLikelyhood( incremental.getVariables().get( "x60" ) );
+
+        BayesInstance fresh = new BayesInstance( jTree );
+        fresh.setLikelyhood( "x20", evidence );
+        fresh.globalUpdate();
+
+        assertSameMarginals( fresh, incremental );
+    }
+
+    @Test
+    public void testOnlyPathMessagesPassed() {
+        Random random = new Random( 0 );
+        JunctionTree jTree = createJunctionTree( SIZE, OUTCOMES, random );
+
+        BayesInstance instance = new BayesInstance( jTree );
+        final int[] counter = new int[1];
+        instance.setPassMessageListener( new PassMessageListener() {
+            @Override
+            public void beforeProjectAndAbsorb(JunctionTreeClique sourceNode, JunctionTreeSeparator sep, JunctionTreeClique targetNode, double[] oldSeparatorPotentials) {
+                counter[0]++;
+            }
+
+            @Override
+            public void afterProject(JunctionTreeClique sourceNode, JunctionTreeSeparator sep, JunctionTreeClique targetNode, double[] oldSeparatorPotentials) {
+            }
+
+            @Override
+            public void afterAbsorb(JunctionTreeClique sourceNode, JunctionTreeSeparator sep, JunctionTreeClique targetNode, double[] oldSeparatorPotentials) {
+            }
+        } );
+        instance.globalUpdate();
+        int numberOfSeparators = jTree.getJunctionTreeSeparators().length;
+        assertEquals( 2 * numberOfSeparators, counter[0] );
+
+        // nothing changed, so nothing is propagated
+        counter[0] = 0;
+        instance.globalUpdate();
+        instance.marginalize( "x0" );
+        assertEquals( 0, counter[0] );
+
+        // the evidence is read within its own family clique
+        instance.setLikelyhood( "x120", distribution( random, OUTCOMES ) );
+        instance.marginalize( "x120" );
+        assertEquals( 0, counter[0] );
+
+        // only the messages on the path to the family clique of the read variable are passed
+        instance.marginalize( "x0" );
+        assertTrue( counter[0] > 0 );
+        assertTrue( counter[0] < numberOfSeparators );
+
+        // the remaining messages are passed on the next global update
+        instance.globalUpdate();
+        assertTrue( counter[0] < 2 * numberOfSeparators );
+        counter[0] = 0;
+        instance.globalUpdate();
+        assertEquals( 0, counter[0] );
+    }
+
+    @Test
+    public void testDecidedBeyondSixtyFourVariables() {
+        JunctionTree jTree = createJunctionTree( SIZE, OUTCOMES, new Random( 0 ) );
+
+        BayesInstance instance = new BayesInstance( jTree );
+        // the ids 6 and 70 would share a bit in a long mask
+        instance.setDecided( "x70", false );
+        instance.setDecided( "x6", true );
+        assertFalse( instance.isDecided() );
+
+        instance.setDecided( "x70", true );
+        assertTrue( instance.isDecided() );
+    }
+
+    @Test
+    public void testEvidenceArrayIsCopied() {
+        Random random = new Random( 0 );
+        JunctionTree jTree = createJunctionTree( SIZE, OUTCOMES, random );
+
+        BayesInstance incremental = new BayesInstance( jTree );
+        double[] evidence = distribution( random, OUTCOMES );
+        double[] expected = evidence.clone();
+        incremental.setLikelyhood( "x30", evidence );
+        incremental.globalUpdate();
+
+        // changing the array afterwards is not a change of the evidence
+        evidence[0] = evidence[0] / 2;
+        incremental.setLikelyhood( "x30", expected );
+        incremental.setLikelyhood( "x30", distribution( random, OUTCOMES ) );
+        incremental.setLikelyhood( "x30", expected );
+        incremental.globalUpdate();
+
+        BayesInstance fresh = new BayesInstance( jTree );
+        fresh.setLikelyhood( "x30", expected );
+        fresh.globalUpdate();
+
+        assertSameMarginals( fresh, incremental );
+    }
+
+    @Test
+    public void testManyEvidenceChanges() {
+        Random random = new Random( 0 );
+        JunctionTree jTree = createJunctionTree( SIZE, OUTCOMES, random );
+
+        // enough changes to go over the divisions allowed before the potentials are rebuilt
+        BayesInstance incremental = new BayesInstance( jTree );
+        double[][] evidence = new double[5][];
+        for ( int i = 0; i < 500; i++ ) {
+            evidence[i % 5] = distribution( random, OUTCOMES );
+            incremental.setLikelyhood( "x" + ( i % 5 ), evidence[i % 5] );
+            incremental.marginalize( "x0" );
+        }
+        incremental.globalUpdate();
+
+        BayesInstance fresh = new BayesInstance( jTree );
+        for ( int i = 0; i < 5; i++ ) {
+            fresh.setLikelyhood( "x" + i, evidence[i] );
+        }
+        fresh.globalUpdate();
+
+        assertSameMarginals( fresh, incremental );
+    }
+
+    private static void assertSameMarginals(BayesInstance expected, BayesInstance actual) {
+        for ( int i = 0; i < SIZE; i++ ) {
+            assertArrayEquals( expected.marginalize( "x" + i ).getDistribution(),
+                               actual.marginalize( "x" + i ).getDistribution(), 1e-9 );
+        }
+    }
+}
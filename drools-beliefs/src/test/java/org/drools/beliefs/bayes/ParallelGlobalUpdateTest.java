@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.beliefs.bayes;
+
+import org.drools.beliefs.graph.Graph;
+import org.drools.beliefs.graph.GraphNode;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.drools.beliefs.bayes.example.SprinkerTest.connectParentToChildren;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelGlobalUpdateTest {
+
+    @Test
+    public void testIndexMapProjection() {
+        Graph<BayesVariable> graph = new BayesNetwork();
+        BayesVariable[] vars = new BayesVariable[4];
+        for ( int i = 0; i < vars.length; i++ ) {
+            GraphNode<BayesVariable> node = graph.addNode();
+            vars[i] = new BayesVariable<String>( "x" + i, node.getId(), outcomes( i + 2 ), null );
+        }
+        BayesVariable[] sepVars = new BayesVariable[] { vars[1], vars[3] };
+
+        double[] potentials = new double[PotentialMultiplier.createNumberOfStates( vars )];
+        Random random = new Random( 0 );
+        for ( int i = 0; i < potentials.length; i++ ) {
+            potentials[i] = random.nextDouble();
+        }
+
+        int sepNumberOfStates = PotentialMultiplier.createNumberOfStates( sepVars );
+        double[] expected = new double[sepNumberOfStates];
+        new BayesProjection( vars, potentials, PotentialMultiplier.createSubsetVarPos( vars, sepVars ),
+                             PotentialMultiplier.createIndexMultipliers( sepVars, sepNumberOfStates ), expected ).project();
+
+        double[] actual = new double[sepNumberOfStates];
+        BayesProjection.project( potentials, PotentialMultiplier.createIndexMap( vars, sepVars ), actual );
+
+        assertArrayEquals( expected, actual, 0.0 );
+    }
+
+    @Test
+    public void testParallelSameAsSequential() {
+        // large enough for the subtrees of the junction tree to be propagated in parallel
+        Random random = new Random( 0 );
+        int size = 63;
+        int numberOfOutcomes = 8;
+        JunctionTree jTree = createJunctionTree( size, numberOfOutcomes, random );
+        int numberOfPotentials = 0;
+        for ( JunctionTreeClique clique : jTree.getJunctionTreeNodes() ) {
+            numberOfPotentials += clique.getPotentials().length;
+        }
+        assertTrue( numberOfPotentials > 1 << 14 );
+
+        BayesInstance parallel = new BayesInstance( jTree );
+        BayesInstance sequential = new BayesInstance( jTree );
+        // messages are passed sequentially when they are listened to
+        sequential.setPassMessageListener( new PassMessageListener() {
+            @Override
+            public void beforeProjectAndAbsorb(JunctionTreeClique sourceNode, JunctionTreeSeparator sep, JunctionTreeClique targetNode, double[] oldSeparatorPotentials) {
+            }
+
+            @Override
+            public void afterProject(JunctionTreeClique sourceNode, JunctionTreeSeparator sep, JunctionTreeClique targetNode, double[] oldSeparatorPotentials) {
+            }
+
+            @Override
+            public void afterAbsorb(JunctionTreeClique sourceNode, JunctionTreeSeparator sep, JunctionTreeClique targetNode, double[] oldSeparatorPotentials) {
+            }
+        } );
+
+        for ( int i : new int[] { 5, 17, 40, 62 } ) {
+            double[] evidence = distribution( random, numberOfOutcomes );
+            parallel.setLikelyhood( "x" + i, evidence );
+            sequential.setLikelyhood( "x" + i, evidence );
+        }
+        parallel.globalUpdate();
+        sequential.globalUpdate();
+
+        for ( int i = 0; i < size; i++ ) {
+            assertArrayEquals( sequential.marginalize( "x" + i ).getDistribution(),
+                               parallel.marginalize( "x" + i ).getDistribution(), 1e-12 );
+        }
+    }
+
+    /**
+     * Creates the junction tree of a binary tree of variables, each depending on its parent and grandparent,
+     * with random probability tables.
+     */
+    public static JunctionTree createJunctionTree(int size, int numberOfOutcomes, Random random) {
+        Graph<BayesVariable> graph = new BayesNetwork();
+        GraphNode<BayesVariable>[] nodes = new GraphNode[size];
+        for ( int i = 0; i < size; i++ ) {
+            nodes[i] = graph.addNode();
+            int numberOfParents = 0;
+            if ( i > 0 ) {
+                // parents are connected in the order of their ids, which is the order of the probability table
+                int parent = (i - 1) / 2;
+                if ( parent > 0 ) {
+                    connectParentToChildren( nodes[(parent - 1) / 2], nodes[i] );
+                    numberOfParents++;
+                }
+                connectParentToChildren( nodes[parent], nodes[i] );
+                numberOfParents++;
+            }
+            double[][] table = new double[(int) Math.pow( numberOfOutcomes, numberOfParents )][];
+            for ( int j = 0; j < table.length; j++ ) {
+                table[j] = distribution( random, numberOfOutcomes );
+            }
+            nodes[i].setContent( new BayesVariable<String>( "x" + i, nodes[i].getId(), outcomes( numberOfOutcomes ), table ) );
+        }
+        return new JunctionTreeBuilder( graph ).build();
+    }
+
+    private static String[] outcomes(int numberOfOutcomes) {
+        String[] outcomes = new String[numberOfOutcomes];
+        for ( int i = 0; i < numberOfOutcomes; i++ ) {
+            outcomes[i] = "o" + i;
+        }
+        return outcomes;
+    }
+
+    public static double[] distribution(Random random, int numberOfOutcomes) {
+        double[] distribution = new double[numberOfOutcomes];
+        double sum = 0;
+        for ( int i = 0; i < numberOfOutcomes; i++ ) {
+            distribution[i] = random.nextDouble() + 0.01;
+            sum += distribution[i];
+        }
+        for ( int i = 0; i < numberOfOutcomes; i++ ) {
+            distribution[i] /= sum;
+        }
+        return distribution;
+    }
+}
@@ -0,0 +1,572 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.compiler.builder.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.compiler.commons.jci.compilers.CompilationResult;
+import org.drools.compiler.commons.jci.problems.CompilationProblem;
+import org.drools.compiler.commons.jci.stores.ResourceStore;
+import org.drools.compiler.lang.descr.PackageDescr;
+import org.drools.core.common.ProjectClassLoader;
+import org.kie.api.io.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of the intermediate results of a build, keyed by a digest of their inputs, that allows to
+ * rebuild a project where only a few resources changed without parsing and compiling again the others.
+ *
+ * It is disabled by default and enabled with the drools.buildCache property, set either to "memory",
+ * or to a directory where the compiled classes are also persisted, so that they survive the JVM.
+ * It keeps:
+ * - the PackageDescrs parsed out of DRL resources, keyed by the content of the resource and the language
+ *   level. They are only kept in memory, since most descrs can't be serialized, and a copy of them is
+ *   handed out on each hit, as the build mutates them. Descrs that can't be copied are not cached.
+ * - the classes compiled out of the Java sources generated for the rules and functions of a package, and
+ *   out of the Java sources of a kjar, keyed by the content of the source and the fingerprint of the
+ *   classpath they are compiled against.
+ *
+ * The number of entries kept in memory is bounded by drools.buildCache.size, evicting the least recently
+ * used ones. The classpath fingerprint covers the classes stored in a ProjectClassLoader, the jars of the
+ * URLClassLoaders and of the system classpath, and the jars other ClassLoaders expose through their manifests.
+ * A ClassLoader exposing jars that are not local files is identified only within the JVM, so the classes
+ * compiled against it are not found again by another JVM.
+ */
+public class BuildCache {
+
+    public static final String PROPERTY_NAME = "drools.buildCache";
+    public static final String SIZE_PROPERTY_NAME = "drools.buildCache.size";
+    public static final String IN_MEMORY = "memory";
+
+    private static final int DEFAULT_SIZE = 10000;
+
+    private static final Logger log = LoggerFactory.getLogger( BuildCache.class );
+
+    private static final Map<String, BuildCache> caches = new HashMap<String, BuildCache>();
+
+    private final File directory;
+
+    private final Map<String, PackageDescr> packageDescrs;
+    private final Map<String, CompiledClasses> compiledClasses;
+
+    private final Map<ClassLoader, Fingerprint> fingerprints = new WeakHashMap<ClassLoader, Fingerprint>();
+
+    private final AtomicLong packageDescrHits = new AtomicLong();
+    private final AtomicLong packageDescrMisses = new AtomicLong();
+    private final AtomicLong compiledClassesHits = new AtomicLong();
+    private final AtomicLong compiledClassesMisses = new AtomicLong();
+
+    private BuildCache( File directory, int size ) {
+        this.directory = directory;
+        this.packageDescrs = newLruMap( size );
+        this.compiledClasses = newLruMap( size );
+    }
+
+    /**
+     * Returns the cache configured by the given value of the drools.buildCache property,
+     * the same one for all the builders using that value, or null if the value disables the cache.
+     */
+    public static BuildCache get( String value ) {
+        if ( value == null || value.trim().isEmpty() || value.trim().equalsIgnoreCase( "false" ) ) {
+            return null;
+        }
+        value = value.trim();
+        synchronized ( caches ) {
+            BuildCache cache = caches.get( value );
+            if ( cache == null ) {
+                int size = Integer.parseInt( System.getProperty( SIZE_PROPERTY_NAME, String.valueOf( DEFAULT_SIZE ) ) );
+                File directory = null;
+                if ( !value.equalsIgnoreCase( IN_MEMORY ) ) {
+                    directory = new File( value );
+                    if ( !directory.isDirectory() && !directory.mkdirs() ) {
+                        throw new RuntimeException( "Drools build cache directory is not accessible: " + directory );
+                    }
+                }
+                cache = new BuildCache( directory, size );
+                caches.put( value, cache );
+            }
+            return cache;
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns a copy of the PackageDescr cached with the given key, referring the given resource, or null.
+     */
+    public PackageDescr getPackageDescr( String key, Resource resource ) {
+        PackageDescr cached;
+        synchronized ( packageDescrs ) {
+            cached = packageDescrs.get( key );
+        }
+        if ( cached == null ) {
+            packageDescrMisses.incrementAndGet();
+            return null;
+        }
+        packageDescrHits.incrementAndGet();
+        return DescrCopier.copy( cached, resource );
+    }
+
+    public void putPackageDescr( String key, PackageDescr packageDescr ) {
+        // the build mutates the descr it is given, so the cache keeps its own copy
+        PackageDescr copy = DescrCopier.copy( packageDescr, null );
+        if ( copy != null ) {
+            synchronized ( packageDescrs ) {
+                packageDescrs.put( key, copy );
+            }
+        }
+    }
+
+    /**
+     * Returns the classes compiled out of the sources identified by the given key, or null.
+     */
+    public CompiledClasses getCompiledClasses( String key ) {
+        CompiledClasses classes;
+        synchronized ( compiledClasses ) {
+            classes = compiledClasses.get( key );
+        }
+        if ( classes == null && directory != null ) {
+            classes = readCompiledClasses( key );
+            if ( classes != null ) {
+                synchronized ( compiledClasses ) {
+                    compiledClasses.put( key, classes );
+                }
+            }
+        }
+        if ( classes == null ) {
+            compiledClassesMisses.incrementAndGet();
+        } else {
+            compiledClassesHits.incrementAndGet();
+        }
+        return classes;
+    }
+
+    public void putCompiledClasses( String key, CompiledClasses classes ) {
+        synchronized ( compiledClasses ) {
+            compiledClasses.put( key, classes );
+        }
+        if ( directory != null ) {
+            writeCompiledClasses( key, classes );
+        }
+    }
+
+    /**
+     * Removes all the entries kept in memory, and resets the statistics. The persisted classes are left in place.
+     */
+    public void clear() {
+        synchronized ( packageDescrs ) {
+            packageDescrs.clear();
+        }
+        synchronized ( compiledClasses ) {
+            compiledClasses.clear();
+        }
+        synchronized ( fingerprints ) {
+            fingerprints.clear();
+        }
+        packageDescrHits.set( 0 );
+        packageDescrMisses.set( 0 );
+        compiledClassesHits.set( 0 );
+        compiledClassesMisses.set( 0 );
+    }
+
+    public long getPackageDescrHits() {
+        return packageDescrHits.get();
+    }
+
+    public long getPackageDescrMisses() {
+        return packageDescrMisses.get();
+    }
+
+    public long getCompiledClassesHits() {
+        return compiledClassesHits.get();
+    }
+
+    public long getCompiledClassesMisses() {
+        return compiledClassesMisses.get();
+    }
+
+    /**
+     * Returns a digest of the classes visible through the given ClassLoader, other than the JDK ones.
+     */
+    public String getClassPathFingerprint( ClassLoader classLoader ) {
+        Key key = new Key().add( System.getProperty( "java.version" ) );
+        for ( ClassLoader cl = classLoader; cl != null; cl = cl.getParent() ) {
+            if ( cl instanceof ProjectClassLoader ) {
+                key.add( getStoreFingerprint( (ProjectClassLoader) cl ) );
+            } else if ( cl instanceof URLClassLoader ) {
+                for ( URL url : ( (URLClassLoader) cl ).getURLs() ) {
+                    addFile( key, url.getPath() );
+                }
+            } else if ( cl == ClassLoader.getSystemClassLoader() ) {
+                for ( String path : System.getProperty( "java.class.path", "" ).split( File.pathSeparator ) ) {
+                    addFile( key, path );
+                }
+            } else if ( isJdkClassLoader( cl ) ) {
+                // the JDK classes are covered by the java version
+            } else {
+                addJars( key, cl );
+            }
+        }
+        return key.build();
+    }
+
+    private static boolean isJdkClassLoader( ClassLoader classLoader ) {
+        for ( ClassLoader cl = ClassLoader.getSystemClassLoader(); cl != null; cl = cl.getParent() ) {
+            if ( cl == classLoader ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the jars seen through a ClassLoader that is neither a URLClassLoader nor a JDK one, found by their
+     * manifests. If any of them is not a local file, the ClassLoader is identified only within the JVM.
+     */
+    private static void addJars( Key key, ClassLoader cl ) {
+        List<String> paths = new ArrayList<String>();
+        try {
+            Enumeration<URL> manifests = cl.getResources( "META-INF/MANIFEST.MF" );
+            while ( manifests.hasMoreElements() ) {
+                String path = toJarPath( manifests.nextElement() );
+                if ( path == null ) {
+                    paths = null;
+                    break;
+                }
+                paths.add( path );
+            }
+        } catch (IOException e) {
+            paths = null;
+        }
+        if ( paths == null ) {
+            key.add( cl.getClass().getName() + "@" + System.identityHashCode( cl ) );
+            return;
+        }
+        key.add( cl.getClass().getName() );
+        for ( String path : paths ) {
+            addFile( key, path );
+        }
+    }
+
+    private static String toJarPath( URL manifest ) {
+        String url = manifest.toString();
+        int separator = url.indexOf( "!/" );
+        if ( !url.startsWith( "jar:file:" ) || separator < 0 ) {
+            return null;
+        }
+        try {
+            return new File( new URL( url.substring( "jar:".length(), separator ) ).toURI() ).getPath();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void addFile( Key key, String path ) {
+        File file = new File( path );
+        key.add( path ).add( String.valueOf( file.length() ) ).add( String.valueOf( file.lastModified() ) );
+    }
+
+    private String getStoreFingerprint( ProjectClassLoader classLoader ) {
+        Map<String, byte[]> store = classLoader.getStore();
+        if ( store == null ) {
+            return "";
+        }
+        synchronized ( classLoader ) {
+            // the digest of the store is recomputed only when a class has been stored, replaced or removed
+            long version = classLoader.getStoreVersion();
+            int size = store.size();
+            synchronized ( fingerprints ) {
+                Fingerprint fingerprint = fingerprints.get( classLoader );
+                if ( fingerprint != null && fingerprint.version == version && fingerprint.size == size ) {
+                    return fingerprint.digest;
+                }
+            }
+            Key key = new Key();
+            for ( Map.Entry<String, byte[]> entry : new TreeMap<String, byte[]>( store ).entrySet() ) {
+                if ( entry.getValue() != null ) {
+                    key.add( entry.getKey() ).add( entry.getValue() );
+                }
+            }
+            Fingerprint fingerprint = new Fingerprint( version, size, key.build() );
+            synchronized ( fingerprints ) {
+                fingerprints.put( classLoader, fingerprint );
+            }
+            return fingerprint.digest;
+        }
+    }
+
+    private CompiledClasses readCompiledClasses( String key ) {
+        File file = new File( directory, key + ".classes" );
+        if ( !file.exists() ) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream( new FileInputStream( file ) )) {
+            Map<String, byte[]> classes = new HashMap<String, byte[]>();
+            for ( int i = in.readInt(); i > 0; i-- ) {
+                String name = in.readUTF();
+                byte[] bytecode = new byte[in.readInt()];
+                in.readFully( bytecode );
+                classes.put( name, bytecode );
+            }
+            CompilationProblem[] warnings = new CompilationProblem[in.readInt()];
+            for ( int i = 0; i < warnings.length; i++ ) {
+                warnings[i] = new CachedCompilationProblem( in.readUTF(), in.readUTF(), in.readInt(), in.readInt(), in.readInt(), in.readInt() );
+            }
+            return new CompiledClasses( classes, warnings );
+        } catch (IOException e) {
+            log.warn( "Unable to read the cached classes " + file + ", they will be compiled again", e );
+            return null;
+        }
+    }
+
+    private void writeCompiledClasses( String key, CompiledClasses classes ) {
+        File file = new File( directory, key + ".classes" );
+        File tmpFile = new File( directory, key + ".classes.tmp" + Thread.currentThread().getId() );
+        try (DataOutputStream out = new DataOutputStream( new FileOutputStream( tmpFile ) )) {
+            out.writeInt( classes.classes.size() );
+            for ( Map.Entry<String, byte[]> entry : classes.classes.entrySet() ) {
+                out.writeUTF( entry.getKey() );
+                out.writeInt( entry.getValue().length );
+                out.write( entry.getValue() );
+            }
+            out.writeInt( classes.warnings.length );
+            for ( CompilationProblem warning : classes.warnings ) {
+                out.writeUTF( String.valueOf( warning.getFileName() ) );
+                out.writeUTF( String.valueOf( warning.getMessage() ) );
+                out.writeInt( warning.getStartLine() );
+                out.writeInt( warning.getStartColumn() );
+                out.writeInt( warning.getEndLine() );
+                out.writeInt( warning.getEndColumn() );
+            }
+        } catch (IOException e) {
+            log.warn( "Unable to write the cached classes " + file, e );
+            tmpFile.delete();
+            return;
+        }
+        if ( !tmpFile.renameTo( file ) ) {
+            tmpFile.delete();
+        }
+    }
+
+    private static <V> Map<String, V> newLruMap( final int size ) {
+        return new LinkedHashMap<String, V>( 16, 0.75f, true ) {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<String, V> eldest ) {
+                return size() > size;
+            }
+        };
+    }
+
+    private static class Fingerprint {
+        private final long version;
+        private final int size;
+        private final String digest;
+
+        private Fingerprint( long version, int size, String digest ) {
+            this.version = version;
+            this.size = size;
+            this.digest = digest;
+        }
+    }
+
+    /**
+     * Builds a cache key out of a digest of its parts.
+     */
+    public static class Key {
+        private final MessageDigest digest;
+
+        public Key() {
+            try {
+                digest = MessageDigest.getInstance( "SHA-256" );
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException( e );
+            }
+        }
+
+        public Key add( String value ) {
+            digest.update( String.valueOf( value ).getBytes( StandardCharsets.UTF_8 ) );
+            digest.update( (byte) 0 );
+            return this;
+        }
+
+        public Key add( byte[] value ) {
+            add( String.valueOf( value.length ) );
+            digest.update( value );
+            return this;
+        }
+
+        public String build() {
+            StringBuilder sb = new StringBuilder();
+            for ( byte b : digest.digest() ) {
+                sb.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+            }
+            return sb.toString();
+        }
+    }
+
+    public static class CompiledClasses {
+        private final Map<String, byte[]> classes;
+        private final CompilationProblem[] warnings;
+
+        public CompiledClasses( Map<String, byte[]> classes, CompilationProblem[] warnings ) {
+            this.classes = classes;
+            this.warnings = warnings;
+        }
+
+        public Map<String, byte[]> getClasses() {
+            return Collections.unmodifiableMap( classes );
+        }
+
+        public CompilationResult writeTo( ResourceStore store ) {
+            for ( Map.Entry<String, byte[]> entry : classes.entrySet() ) {
+                store.write( entry.getKey(), entry.getValue(), true );
+            }
+            return new CompilationResult( warnings );
+        }
+    }
+
+    /**
+     * A ResourceStore decorator recording the classes written by the compiler,
+     * so that they can be put in the cache once the compilation succeeds
+     */
+    public static class RecordingResourceStore implements ResourceStore {
+        private final ResourceStore delegate;
+        private final Map<String, byte[]> written = new HashMap<String, byte[]>();
+
+        public RecordingResourceStore( ResourceStore delegate ) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write( String pResourceName, byte[] pResourceData ) {
+            write( pResourceName, pResourceData, false );
+        }
+
+        @Override
+        public void write( String pResourceName, byte[] pResourceData, boolean createFolder ) {
+            written.put( pResourceName, pResourceData );
+            delegate.write( pResourceName, pResourceData, createFolder );
+        }
+
+        @Override
+        public byte[] read( String pResourceName ) {
+            return delegate.read( pResourceName );
+        }
+
+        @Override
+        public void remove( String pResourceName ) {
+            written.remove( pResourceName );
+            delegate.remove( pResourceName );
+        }
+
+        public Map<String, byte[]> getWritten() {
+            return written;
+        }
+
+        public CompiledClasses toCompiledClasses( CompilationResult result ) {
+            List<CompilationProblem> warnings = new ArrayList<CompilationProblem>();
+            for ( CompilationProblem warning : result.getWarnings() ) {
+                warnings.add( new CachedCompilationProblem( warning.getFileName(), warning.getMessage(),
+                                                            warning.getStartLine(), warning.getStartColumn(),
+                                                            warning.getEndLine(), warning.getEndColumn() ) );
+            }
+            return new CompiledClasses( new HashMap<String, byte[]>( written ), warnings.toArray( new CompilationProblem[warnings.size()] ) );
+        }
+    }
+
+    private static class CachedCompilationProblem implements CompilationProblem {
+        private final String fileName;
+        private final String message;
+        private final int startLine;
+        private final int startColumn;
+        private final int endLine;
+        private final int endColumn;
+
+        private CachedCompilationProblem( String fileName, String message, int startLine, int startColumn, int endLine, int endColumn ) {
+            this.fileName = fileName;
+            this.message = message;
+            this.startLine = startLine;
+            this.startColumn = startColumn;
+            this.endLine = endLine;
+            this.endColumn = endColumn;
+        }
+
+        @Override
+        public boolean isError() {
+            return false;
+        }
+
+        @Override
+        public String getFileName() {
+            return fileName;
+        }
+
+        @Override
+        public int getStartLine() {
+            return startLine;
+        }
+
+        @Override
+        public int getStartColumn() {
+            return startColumn;
+        }
+
+        @Override
+        public int getEndLine() {
+            return endLine;
+        }
+
+        @Override
+        public int getEndColumn() {
+            return endColumn;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return fileName + " (" + startLine + ":" + startColumn + ") : " + message;
+        }
+    }
+}
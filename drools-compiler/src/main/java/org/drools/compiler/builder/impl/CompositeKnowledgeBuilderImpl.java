@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.drools.compiler.compiler.BPMN2ProcessFactory;
 import org.drools.compiler.lang.descr.CompositePackageDescr;
@@ -32,6 +33,7 @@ import org.kie.api.io.ResourceType;
 import org.kie.api.io.ResourceWithConfiguration;
 import org.kie.internal.builder.ChangeType;
 import org.kie.internal.builder.CompositeKnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderResult;
 import org.kie.internal.builder.ResourceChange;
 import org.kie.internal.builder.ResourceChangeSet;
 import org.kie.internal.io.ResourceWithConfigurationImpl;
@@ -189,6 +191,10 @@ public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder
     private void buildResource(Map<String, CompositePackageDescr> packages, ResourceType resourceType, ResourceToPkgDescrMapper mapper) {
         List<ResourceDescr> resourcesByType = this.resourcesByType.remove(resourceType);
         if (resourcesByType != null) {
+            if (mapper == ResourceToPkgDescrMapper.DRL_TO_PKG_DESCR && kBuilder.isParallelResourcesParsing(resourcesByType.size())) {
+                buildDrlResourcesInParallel(packages, resourcesByType);
+                return;
+            }
             for (ResourceDescr resourceDescr : resourcesByType) {
                 try {
                     registerPackageDescr(resourceDescr, packages, resourceDescr.resource, mapper.map(kBuilder, resourceDescr));
@@ -205,6 +211,45 @@ public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder
         }
     }
 
+    private void buildDrlResourcesInParallel(Map<String, CompositePackageDescr> packages, List<ResourceDescr> resourceDescrs) {
+        // parsing is the only step done concurrently: the parsed resources are then registered
+        // in the same order they have been added, so the outcome is the same of the sequential build
+        ParsedResource[] parsedResources = new ParsedResource[resourceDescrs.size()];
+        IntStream.range( 0, parsedResources.length ).parallel()
+                 .forEach( i -> parsedResources[i] = parseDrl( resourceDescrs.get( i ) ) );
+
+        for (int i = 0; i < parsedResources.length; i++) {
+            ParsedResource parsedResource = parsedResources[i];
+            kBuilder.addBuilderResults( parsedResource.results );
+            if (parsedResource.exception != null) {
+                if (buildException == null) {
+                    buildException = parsedResource.exception instanceof RuntimeException ?
+                                     (RuntimeException) parsedResource.exception :
+                                     new RuntimeException( parsedResource.exception );
+                }
+            } else {
+                ResourceDescr resourceDescr = resourceDescrs.get( i );
+                registerPackageDescr(resourceDescr, packages, resourceDescr.resource, parsedResource.packageDescr);
+            }
+        }
+    }
+
+    private ParsedResource parseDrl(ResourceDescr resourceDescr) {
+        ParsedResource parsedResource = new ParsedResource();
+        try {
+            parsedResource.packageDescr = kBuilder.drlToPackageDescr( resourceDescr.resource, parsedResource.results );
+        } catch (Exception e) {
+            parsedResource.exception = e;
+        }
+        return parsedResource;
+    }
+
+    private static class ParsedResource {
+        private final List<KnowledgeBuilderResult> results = new ArrayList<>();
+        private PackageDescr packageDescr;
+        private Exception exception;
+    }
+
     private void registerPackageDescr(ResourceDescr resourceDescr, Map<String, CompositePackageDescr> packages, Resource resource, PackageDescr packageDescr) {
         if (packageDescr != null) {
             CompositePackageDescr compositePackageDescr = packages.get(packageDescr.getNamespace());
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.compiler.builder.impl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.kie.api.io.Resource;
+
+/**
+ * Makes a deep copy of a graph of descrs, as produced by the parsers, so that a cached PackageDescr
+ * can be handed out more times even if the build mutates it.
+ *
+ * Only the descrs, the arrays and the common mutable collections are copied, while strings, boxed
+ * primitives and enums are shared. A graph reaching any other kind of object can't be copied.
+ */
+class DescrCopier {
+
+    private static final String DESCR_PACKAGE = "org.drools.compiler.lang.descr.";
+
+    private static final Map<Class<?>, Field[]> fieldsByClass = new ConcurrentHashMap<Class<?>, Field[]>();
+
+    private final Map<Object, Object> copies = new IdentityHashMap<Object, Object>();
+    private final Resource resource;
+
+    private DescrCopier( Resource resource ) {
+        this.resource = resource;
+    }
+
+    /**
+     * Returns a copy of the given descr where all the resources are replaced by the given one, when not null,
+     * or null if the descr can't be copied.
+     */
+    static <T> T copy( T descr, Resource resource ) {
+        try {
+            return (T) new DescrCopier( resource ).copyValue( descr );
+        } catch (UncopyableException e) {
+            return null;
+        }
+    }
+
+    private Object copyValue( Object value ) {
+        if ( value == null || isImmutable( value ) ) {
+            return value;
+        }
+        if ( value instanceof Resource ) {
+            return resource != null ? resource : value;
+        }
+        Object copy = copies.get( value );
+        if ( copy != null ) {
+            return copy;
+        }
+
+        Class<?> clazz = value.getClass();
+        if ( clazz.isArray() ) {
+            int length = Array.getLength( value );
+            copy = Array.newInstance( clazz.getComponentType(), length );
+            copies.put( value, copy );
+            for ( int i = 0; i < length; i++ ) {
+                Array.set( copy, i, copyValue( Array.get( value, i ) ) );
+            }
+        } else if ( clazz.getName().startsWith( "java.util.Collections$Empty" ) ) {
+            copy = value;
+        } else if ( clazz == ArrayList.class || clazz == LinkedList.class || clazz == HashSet.class || clazz == LinkedHashSet.class ) {
+            Collection<Object> collection = (Collection<Object>) newInstance( clazz );
+            copies.put( value, collection );
+            for ( Object element : (Collection<?>) value ) {
+                collection.add( copyValue( element ) );
+            }
+            copy = collection;
+        } else if ( clazz == HashMap.class || clazz == LinkedHashMap.class ) {
+            Map<Object, Object> map = (Map<Object, Object>) newInstance( clazz );
+            copies.put( value, map );
+            for ( Map.Entry<?, ?> entry : ( (Map<?, ?>) value ).entrySet() ) {
+                map.put( copyValue( entry.getKey() ), copyValue( entry.getValue() ) );
+            }
+            copy = map;
+        } else if ( clazz.getName().startsWith( DESCR_PACKAGE ) ) {
+            copy = newInstance( clazz );
+            copies.put( value, copy );
+            try {
+                for ( Field field : getFields( clazz ) ) {
+                    field.set( copy, copyValue( field.get( value ) ) );
+                }
+            } catch (IllegalAccessException e) {
+                throw new UncopyableException();
+            }
+        } else {
+            throw new UncopyableException();
+        }
+        return copy;
+    }
+
+    private static boolean isImmutable( Object value ) {
+        return value instanceof String || value instanceof Boolean || value instanceof Character || value instanceof Enum || value instanceof Class ||
+               value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Float ||
+               value instanceof Short || value instanceof Byte || value instanceof BigDecimal || value instanceof BigInteger;
+    }
+
+    private static Object newInstance( Class<?> clazz ) {
+        try {
+            Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible( true );
+            return constructor.newInstance();
+        } catch (Exception e) {
+            throw new UncopyableException();
+        }
+    }
+
+    private static Field[] getFields( Class<?> clazz ) {
+        Field[] fields = fieldsByClass.get( clazz );
+        if ( fields == null ) {
+            List<Field> list = new ArrayList<Field>();
+            for ( Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass() ) {
+                for ( Field field : c.getDeclaredFields() ) {
+                    if ( !Modifier.isStatic( field.getModifiers() ) ) {
+                        field.setAccessible( true );
+                        list.add( field );
+                    }
+                }
+            }
+            fields = list.toArray( new Field[list.size()] );
+            fieldsByClass.put( clazz, fields );
+        }
+        return fields;
+    }
+
+    private static class UncopyableException extends RuntimeException {
+        private UncopyableException() {
+            super( null, null, false, false );
+        }
+    }
+}
@@ -84,6 +84,7 @@ import org.slf4j.LoggerFactory;
  * drools.dump.dir = <String>
  * drools.classLoaderCacheEnabled = true|false
  * drools.parallelRulesBuildThreshold = <int>
+ * drools.buildCache = memory|<String>
  *
  * default dialect is java.
  * Available preconfigured Accumulate functions are:
@@ -142,6 +143,8 @@ public class KnowledgeBuilderConfigurationImpl
 
     private CompilationCache                  compilationCache        = null;
 
+    private BuildCache                        buildCache;
+
     private static final Logger log = LoggerFactory.getLogger(KnowledgeBuilderConfigurationImpl.class);
 
      /**
@@ -229,6 +232,10 @@ public class KnowledgeBuilderConfigurationImpl
 
         buildDumpDirectory();
 
+        setProperty(BuildCache.PROPERTY_NAME,
+                    this.chainedProperties.getProperty(BuildCache.PROPERTY_NAME,
+                                                       null));
+
         buildSeverityMap();
 
         setProperty(ProcessStringEscapesOption.PROPERTY_NAME,
@@ -275,6 +282,8 @@ public class KnowledgeBuilderConfigurationImpl
             this.evaluatorRegistry.addEvaluatorDefinition(value);
         } else if (name.equals(DumpDirOption.PROPERTY_NAME)) {
             buildDumpDirectory(value);
+        } else if (name.equals(BuildCache.PROPERTY_NAME)) {
+            setBuildCache(BuildCache.get(value));
         } else if (name.equals(DefaultPackageNameOption.PROPERTY_NAME)) {
             setDefaultPackageName(value);
         } else if (name.equals(ProcessStringEscapesOption.PROPERTY_NAME)) {
@@ -326,6 +335,11 @@ public class KnowledgeBuilderConfigurationImpl
             return evalDef != null ? evalDef.getClass().getName() : null;
         } else if (name.equals(DumpDirOption.PROPERTY_NAME)) {
             return this.dumpDirectory != null ? this.dumpDirectory.toString() : null;
+        } else if (name.equals(BuildCache.PROPERTY_NAME)) {
+            if (this.buildCache == null) {
+                return null;
+            }
+            return this.buildCache.getDirectory() != null ? this.buildCache.getDirectory().toString() : BuildCache.IN_MEMORY;
         } else if (name.equals(ProcessStringEscapesOption.PROPERTY_NAME)) {
             return String.valueOf(isProcessStringEscapes());
         } else if (name.equals(ClassLoaderCacheOption.PROPERTY_NAME)) {
@@ -779,4 +793,15 @@ public class KnowledgeBuilderConfigurationImpl
         return this.compilationCache != null;
     }
 
+    /**
+     * Returns the cache of parsed resources and compiled classes shared across builds, or null when it is disabled
+     */
+    public BuildCache getBuildCache() {
+        return buildCache;
+    }
+
+    public void setBuildCache(BuildCache buildCache) {
+        this.buildCache = buildCache;
+    }
+
 }
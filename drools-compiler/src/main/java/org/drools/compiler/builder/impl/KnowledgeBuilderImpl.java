@@ -15,6 +15,7 @@
 
 package org.drools.compiler.builder.impl;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -400,6 +401,15 @@ public class KnowledgeBuilderImpl implements KnowledgeBuilder {
             return compositePackageDescr;
         }
 
+        // the generated DRL is needed only when it has to be dumped
+        if (this.configuration.getDumpDir() == null) {
+            PackageDescr pkg = DecisionTableFactory.loadPackageDescrFromResource(resource, dtableConfiguration, configuration.getLanguageLevel());
+            if (pkg != null) {
+                pkg.setResource(resource);
+                return pkg;
+            }
+        }
+
         String generatedDrl = DecisionTableFactory.loadFromResource(resource, dtableConfiguration);
         return generatedDrlToPackageDescr(resource, generatedDrl);
     }
@@ -562,16 +572,28 @@ public class KnowledgeBuilderImpl implements KnowledgeBuilder {
 
     PackageDescr drlToPackageDescr(Resource resource) throws DroolsParserException,
             IOException {
+        return drlToPackageDescr(resource, this.results);
+    }
+
+    /**
+     * Parses the given DRL resource collecting the parser problems in the supplied list
+     * instead of in the builder results, so that many resources can be parsed concurrently
+     * and their problems merged afterwards in a deterministic order.
+     */
+    PackageDescr drlToPackageDescr(Resource resource, List<KnowledgeBuilderResult> parseResults) throws DroolsParserException,
+            IOException {
         PackageDescr pkg;
         boolean hasErrors = false;
         if (resource instanceof DescrResource) {
             pkg = (PackageDescr) ((DescrResource) resource).getDescr();
+        } else if (configuration.getBuildCache() != null) {
+            return drlToPackageDescr(resource, parseResults, configuration.getBuildCache());
         } else {
             final DrlParser parser = new DrlParser(configuration.getLanguageLevel());
             pkg = parser.parse(resource);
-            this.results.addAll(parser.getErrors());
+            parseResults.addAll(parser.getErrors());
             if (pkg == null) {
-                addBuilderResult(new ParserError(resource, "Parser returned a null Package", 0, 0));
+                parseResults.add(new ParserError(resource, "Parser returned a null Package", 0, 0));
             }
             hasErrors = parser.hasErrors();
         }
@@ -581,6 +603,42 @@ public class KnowledgeBuilderImpl implements KnowledgeBuilder {
         return hasErrors ? null : pkg;
     }
 
+    /**
+     * Parses the DRL resource unless a resource with the same content has been already parsed, in which
+     * case a copy of its PackageDescr is taken out of the build cache. Only resources parsed without any
+     * problem are cached.
+     */
+    private PackageDescr drlToPackageDescr(Resource resource, List<KnowledgeBuilderResult> parseResults, BuildCache buildCache) throws DroolsParserException,
+            IOException {
+        // the content is read only once, as the resource could be backed by a stream
+        byte[] content = IoUtils.readBytesFromInputStream(resource.getInputStream());
+        String encoding = resource instanceof InternalResource ? ((InternalResource) resource).getEncoding() : null;
+        String key = new BuildCache.Key().add("drl")
+                                         .add(configuration.getLanguageLevel().toString())
+                                         .add(encoding)
+                                         .add(content)
+                                         .build();
+
+        PackageDescr pkg = buildCache.getPackageDescr(key, resource);
+        if (pkg == null) {
+            final DrlParser parser = new DrlParser(configuration.getLanguageLevel());
+            pkg = parser.parse(resource, new ByteArrayInputStream(content));
+            parseResults.addAll(parser.getErrors());
+            if (pkg == null) {
+                parseResults.add(new ParserError(resource, "Parser returned a null Package", 0, 0));
+                return null;
+            }
+            if (parser.hasErrors()) {
+                return null;
+            }
+            if (parser.getErrors().isEmpty()) {
+                buildCache.putPackageDescr(key, pkg);
+            }
+        }
+        pkg.setResource(resource);
+        return pkg;
+    }
+
     /**
      * Load a rule package from XML source.
      *
@@ -1119,6 +1177,14 @@ public class KnowledgeBuilderImpl implements KnowledgeBuilder {
         this.results.add(result);
     }
 
+    void addBuilderResults(Collection<? extends KnowledgeBuilderResult> results) {
+        this.results.addAll(results);
+    }
+
+    boolean isParallelResourcesParsing(int resourcesCount) {
+        return parallelRulesBuildThreshold != -1 && resourcesCount > parallelRulesBuildThreshold;
+    }
+
     public PackageRegistry getOrCreatePackageRegistry(PackageDescr packageDescr) {
         if (packageDescr == null) {
             return null;
@@ -1568,11 +1634,20 @@ public class KnowledgeBuilderImpl implements KnowledgeBuilder {
     }
 
     public void compileAll() {
-        for (PackageRegistry pkgRegistry : this.pkgRegistryMap.values()) {
-            pkgRegistry.compileAll();
+        if (isParallelPackagesCompilation()) {
+            // each package compiles its own generated sources, with its own compiler, into its own class store
+            this.pkgRegistryMap.values().parallelStream().forEach(PackageRegistry::compileAll);
+        } else {
+            for (PackageRegistry pkgRegistry : this.pkgRegistryMap.values()) {
+                pkgRegistry.compileAll();
+            }
         }
     }
 
+    private boolean isParallelPackagesCompilation() {
+        return this.kBase == null && parallelRulesBuildThreshold != -1 && this.pkgRegistryMap.size() > 1;
+    }
+
     public void reloadAll() {
         for (PackageRegistry pkgRegistry : this.pkgRegistryMap.values()) {
             pkgRegistry.getDialectRuntimeRegistry().onBeforeExecute();
@@ -15,9 +15,11 @@
 
 package org.drools.compiler.compiler;
 
+import org.drools.compiler.lang.descr.PackageDescr;
 import org.kie.api.Service;
 import org.kie.api.io.Resource;
 import org.kie.internal.builder.DecisionTableConfiguration;
+import org.kie.internal.builder.conf.LanguageLevelOption;
 
 import java.util.List;
 
@@ -29,5 +31,16 @@ public interface DecisionTableProvider extends Service {
     List<String> loadFromInputStreamWithTemplates(Resource resource,
                                                   DecisionTableConfiguration configuration);
 
+    /**
+     * Builds the PackageDescr of the decision table straight from its rows, without generating
+     * and parsing back the whole DRL. Returns null when this is not supported or not possible
+     * for the given resource, in which case the DRL returned by loadFromResource is used.
+     */
+    default PackageDescr loadPackageDescrFromResource(Resource resource,
+                                                      DecisionTableConfiguration configuration,
+                                                      LanguageLevelOption languageLevel) {
+        return null;
+    }
+
 
 }
@@ -26,6 +26,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.protobuf.ExtensionRegistry;
 import org.appformer.maven.support.DependencyFilter;
@@ -86,6 +87,8 @@ public abstract class AbstractKieModule
 
     private transient final Map<String, Results> resultsCache = new HashMap<String, Results>();
 
+    private transient final Map<String, Long> compilationTimes = new ConcurrentHashMap<String, Long>();
+
     protected ReleaseId releaseId;
 
     private transient KieModuleModel kModuleModel;
@@ -175,6 +178,23 @@ public abstract class AbstractKieModule
         resultsCache.put(kieBaseName, results);
     }
 
+    @Override
+    public long getCompilationTimeForKieBase(String kieBaseName) {
+        Long compilationTime = compilationTimes.get(kieBaseName);
+        return compilationTime != null ? compilationTime : 0L;
+    }
+
+    @Override
+    public long takeCompilationTimeForKieBase(String kieBaseName) {
+        Long compilationTime = compilationTimes.remove(kieBaseName);
+        return compilationTime != null ? compilationTime : 0L;
+    }
+
+    @Override
+    public void cacheCompilationTimeForKieBase(String kieBaseName, long compilationTime) {
+        compilationTimes.put(kieBaseName, compilationTime);
+    }
+
     public Map<String, byte[]> getClassesMap(boolean includeTypeDeclarations) {
         Map<String, byte[]> classes = new HashMap<String, byte[]>();
         for (String fileName : getFileNames()) {
@@ -207,6 +227,13 @@ public abstract class AbstractKieModule
         Collection<KiePackage> pkgs = getKnowledgePackagesForKieBase(kBaseModel.getName());
 
         if ( pkgs == null ) {
+            if ( conf == null ) {
+                // a kjar built with a KieBase image doesn't need to compile its resources again
+                InternalKnowledgeBase kBase = KieBaseImage.readKieBaseImage( this, kBaseModel, kieProject.getClassLoader() );
+                if ( kBase != null ) {
+                    return kBase;
+                }
+            }
             KnowledgeBuilder kbuilder = kieProject.buildKnowledgePackages(kBaseModel, messages);
             if ( kbuilder.hasErrors() ) {
                 // Messages already populated by the buildKnowlegePackages
@@ -204,6 +204,7 @@ public abstract class AbstractKieProject implements KieProject {
 
     public KnowledgeBuilder buildKnowledgePackages( KieBaseModelImpl kBaseModel,
                                                     ResultsImpl messages ) {
+        long start = System.currentTimeMillis();
         InternalKieModule kModule = getKieModuleForKBase(kBaseModel.getName());
         KnowledgeBuilder kbuilder = createKnowledgeBuilder( kBaseModel, kModule );
         CompositeKnowledgeBuilder ckbuilder = kbuilder.batch();
@@ -262,6 +263,7 @@ public abstract class AbstractKieProject implements KieProject {
         // cache KnowledgeBuilder and results
         kModule.cacheKnowledgeBuilderForKieBase(kBaseModel.getName(), kbuilder);
         kModule.cacheResultsForKieBase(kBaseModel.getName(), messages);
+        kModule.cacheCompilationTimeForKieBase(kBaseModel.getName(), System.currentTimeMillis() - start);
 
         return kbuilder;
     }
@@ -63,6 +63,23 @@ public interface InternalKieModule extends KieModule, Serializable {
 
     void cacheResultsForKieBase(String kieBaseName, Results results);
 
+    /**
+     * Returns the time in milliseconds spent to compile the given KieBase, or 0 if it hasn't been compiled by this KieModule.
+     */
+    default long getCompilationTimeForKieBase(String kieBaseName) {
+        return 0L;
+    }
+
+    /**
+     * Returns the time in milliseconds spent to compile the given KieBase, like getCompilationTimeForKieBase(),
+     * and forgets it, so that this compilation is accounted only to the first KieBase built out of it.
+     */
+    default long takeCompilationTimeForKieBase(String kieBaseName) {
+        return 0L;
+    }
+
+    default void cacheCompilationTimeForKieBase(String kieBaseName, long compilationTime) { }
+
     Map<String, Results> getKnowledgeResultsCache();    
     
     KieModuleModel getKieModuleModel();    
@@ -42,4 +42,8 @@ public interface InternalKieScanner extends KieScanner {
     Status getStatus();
 
     long getPollingInterval();
+
+    long getLastUpdateBuildTime();
+
+    long getLastUpdateTime();
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.compiler.kie.builder.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.drools.compiler.builder.impl.BuildCache;
+import org.drools.compiler.commons.jci.stores.ResourceStore;
+import org.drools.compiler.kproject.models.KieBaseModelImpl;
+import org.drools.compiler.kproject.models.KieModuleModelImpl;
+import org.drools.core.common.DroolsObjectInputStream;
+import org.drools.core.common.DroolsObjectOutputStream;
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.util.Drools;
+import org.kie.api.builder.Message.Level;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.builder.model.KieBaseModel;
+import org.kie.api.builder.model.KieModuleModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.drools.compiler.kie.builder.impl.KieBuilderImpl.filterFileInKBase;
+
+/**
+ * A KieBase image is the fully built KieBase, including its Rete network, serialized in the kjar at build time.
+ * When a KieContainer is created on a kjar containing the image of one of its KieBases, that KieBase is
+ * deserialized instead of being compiled and having its network built again. KieBases having a valid image
+ * are also skipped when a KieModule loaded in the KieRepository is verified.
+ *
+ * Every image is stamped with the Drools version and a digest of the kjar content it has been built from,
+ * so an image that doesn't match the sources it is packaged with anymore is ignored.
+ *
+ * Images are generated only when the kmodule configuration property drools.kbaseImage is set to true.
+ */
+public class KieBaseImage {
+
+    private static final Logger log = LoggerFactory.getLogger( KieBaseImage.class );
+
+    public static final String KBASE_IMAGE_PROPERTY = "drools.kbaseImage";
+
+    private static final String IMAGE_FILE_NAME = "kbase.image";
+
+    private KieBaseImage() { }
+
+    public static boolean isEnabled( KieModuleModel kModuleModel ) {
+        return Boolean.parseBoolean( kModuleModel.getConfigurationProperties().get( KBASE_IMAGE_PROPERTY ) );
+    }
+
+    static void writeKieBaseImages( KieModuleKieProject kProject, ResourceStore trgMfs, ResultsImpl messages ) {
+        InternalKieModule kModule = kProject.getInternalKieModule();
+        for ( KieBaseModel kBaseModel : kModule.getKieModuleModel().getKieBaseModels().values() ) {
+            // an image left by a former build doesn't describe the current sources anymore
+            trgMfs.remove( KieBuilderImpl.getKieBaseImagePath( kModule.getReleaseId(), kBaseModel.getName() ) );
+        }
+        if ( !isEnabled( kModule.getKieModuleModel() ) ) {
+            return;
+        }
+        String contentKey = getContentKey( kModule );
+        for ( KieBaseModel kBaseModel : kModule.getKieModuleModel().getKieBaseModels().values() ) {
+            if ( kModule.getKnowledgePackagesForKieBase( kBaseModel.getName() ) == null ) {
+                // only the KieBases already compiled by the verification are imaged, nothing is compiled here
+                continue;
+            }
+            try {
+                InternalKnowledgeBase kBase = kModule.createKieBase( (KieBaseModelImpl) kBaseModel, kProject, messages, null );
+                if ( kBase == null ) {
+                    continue;
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                DroolsObjectOutputStream droolsOut = new DroolsObjectOutputStream( out );
+                droolsOut.writeUTF( Drools.getFullVersion() );
+                droolsOut.writeUTF( contentKey );
+                droolsOut.writeObject( kBase );
+                droolsOut.close();
+                trgMfs.write( KieBuilderImpl.getKieBaseImagePath( kModule.getReleaseId(), kBaseModel.getName() ), out.toByteArray(), true );
+            } catch (IOException | RuntimeException e) {
+                messages.addMessage( Level.WARNING, kBaseModel.getName(), "Unable to write the image of KieBase " + kBaseModel.getName() + ": " + e.getMessage() );
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the KieBases of the given KieModule that don't have an image matching its content
+     * and then have to be compiled from their sources.
+     */
+    static String[] getKieBasesWithoutImage( InternalKieModule kModule ) {
+        List<String> kBaseNames = new ArrayList<>();
+        String contentKey = null;
+        for ( KieBaseModel kBaseModel : kModule.getKieModuleModel().getKieBaseModels().values() ) {
+            byte[] image = getImage( kModule, kBaseModel );
+            if ( image != null ) {
+                if ( contentKey == null ) {
+                    contentKey = getContentKey( kModule );
+                }
+                try (DroolsObjectInputStream in = new DroolsObjectInputStream( new ByteArrayInputStream( image ) )) {
+                    if ( isValidHeader( in, kBaseModel, contentKey ) ) {
+                        continue;
+                    }
+                } catch (IOException e) {
+                    log.warn( "Unable to read the image of KieBase " + kBaseModel.getName() + ", it will be rebuilt from sources", e );
+                }
+            }
+            kBaseNames.add( kBaseModel.getName() );
+        }
+        return kBaseNames.toArray( new String[kBaseNames.size()] );
+    }
+
+    static InternalKnowledgeBase readKieBaseImage( InternalKieModule kModule, KieBaseModel kBaseModel, ClassLoader classLoader ) {
+        byte[] image = getImage( kModule, kBaseModel );
+        if ( image == null ) {
+            return null;
+        }
+        try (DroolsObjectInputStream in = new DroolsObjectInputStream( new ByteArrayInputStream( image ), classLoader )) {
+            // the classes of the KieBase are the ones of the KieContainer, instead of a copy of them
+            in.setShareProjectClassLoader( true );
+            if ( !isValidHeader( in, kBaseModel, getContentKey( kModule ) ) ) {
+                return null;
+            }
+            return (InternalKnowledgeBase) in.readObject();
+        } catch (Exception e) {
+            log.warn( "Unable to load the image of KieBase " + kBaseModel.getName() + ", it will be rebuilt from sources", e );
+            return null;
+        }
+    }
+
+    private static byte[] getImage( InternalKieModule kModule, KieBaseModel kBaseModel ) {
+        return kModule.getBytes( KieBuilderImpl.getKieBaseImagePath( kModule.getReleaseId(), kBaseModel.getName() ) );
+    }
+
+    private static boolean isValidHeader( DroolsObjectInputStream in, KieBaseModel kBaseModel, String contentKey ) throws IOException {
+        String version = in.readUTF();
+        if ( !Drools.getFullVersion().equals( version ) ) {
+            // the network layout isn't guaranteed to be stable across releases
+            log.warn( "The image of KieBase " + kBaseModel.getName() + " has been built with version " + version +
+                      ". You should recompile your project in order to use it with current release." );
+            return false;
+        }
+        if ( !contentKey.equals( in.readUTF() ) ) {
+            log.warn( "The image of KieBase " + kBaseModel.getName() + " doesn't match the content of the kjar, it will be rebuilt from sources" );
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Digests everything a KieBase is built from: the kmodule.xml, the compiled classes, the resources
+     * of all the KieBases of the module and the dependencies it is linked to.
+     */
+    static String getContentKey( InternalKieModule kModule ) {
+        BuildCache.Key key = new BuildCache.Key().add( Drools.getFullVersion() );
+        for ( String fileName : new TreeSet<>( kModule.getFileNames() ) ) {
+            if ( isImageInput( kModule, fileName ) ) {
+                byte[] bytes = kModule.getBytes( fileName );
+                if ( bytes != null ) {
+                    key.add( fileName ).add( bytes );
+                }
+            }
+        }
+        TreeSet<String> dependencies = new TreeSet<>();
+        for ( ReleaseId dependency : kModule.getKieDependencies().keySet() ) {
+            dependencies.add( dependency.toExternalForm() );
+        }
+        for ( String dependency : dependencies ) {
+            key.add( dependency );
+        }
+        return key.build();
+    }
+
+    private static boolean isImageInput( InternalKieModule kModule, String fileName ) {
+        if ( fileName.endsWith( "/" ) || fileName.endsWith( IMAGE_FILE_NAME ) ) {
+            return false;
+        }
+        if ( fileName.equals( KieModuleModelImpl.KMODULE_JAR_PATH ) || fileName.endsWith( ".class" ) ) {
+            return true;
+        }
+        if ( fileName.startsWith( "META-INF/" ) ) {
+            return false;
+        }
+        for ( KieBaseModel kBaseModel : kModule.getKieModuleModel().getKieBaseModels().values() ) {
+            if ( filterFileInKBase( kModule, kBaseModel, fileName ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -34,6 +34,7 @@ import org.appformer.maven.support.AFReleaseId;
 import org.appformer.maven.support.AFReleaseIdImpl;
 import org.appformer.maven.support.DependencyFilter;
 import org.appformer.maven.support.PomModel;
+import org.drools.compiler.builder.impl.BuildCache;
 import org.drools.compiler.builder.impl.KnowledgeBuilderConfigurationImpl;
 import org.drools.compiler.commons.jci.compilers.CompilationResult;
 import org.drools.compiler.commons.jci.compilers.EclipseJavaCompiler;
@@ -83,6 +84,8 @@ public class KieBuilderImpl
     static final String JAVA_TEST_ROOT = "src/test/java/";
     static final String KIE_PMML_COMPILER_VERSION = "KIE PMML v2";
 
+    public static final String LAZY_KIEBASE_BUILD_PROPERTY = "drools.kieModule.lazyKieBaseBuild";
+
     private static final String RESOURCES_ROOT_DOT_SEPARATOR = RESOURCES_ROOT.replace( '/', '.' );
     private static final String SPRING_BOOT_ROOT = "BOOT-INF.classes.";
 
@@ -260,7 +263,7 @@ public class KieBuilderImpl
             if (pmmlFileNames != null && !pmmlFileNames.isEmpty()) {
                 buildPMMLPojos(pmmlFileNames,kProject);
             }
-            compileJavaClasses( kProject.getClassLoader(), classFilter );
+            compileJavaClasses( kProject.getClassLoader(), classFilter, memoryKieModule.getKieDependencies().values() );
 
             buildKieProject( results, kProject, trgMfs );
             kModule = kProject.getInternalKieModule();
@@ -336,27 +339,68 @@ public class KieBuilderImpl
         new KieMetaInfoBuilder( kModule ).writeKieModuleMetaInfo( trgMfs );
     }
 
+    void removeKieBaseImage( String kBaseName ) {
+        trgMfs.remove( getKieBaseImagePath( releaseId, kBaseName ) );
+    }
+
     public static String getCompilationCachePath( AFReleaseId releaseId,
                                                   String kbaseName ) {
         return ( (AFReleaseIdImpl) releaseId ).getCompilationCachePathPrefix() + kbaseName.replace( '.', '/' ) + "/kbase.cache";
     }
 
+    public static String getKieBaseImagePath( AFReleaseId releaseId,
+                                              String kbaseName ) {
+        return ( (AFReleaseIdImpl) releaseId ).getCompilationCachePathPrefix() + kbaseName.replace( '.', '/' ) + "/kbase.image";
+    }
+
     public static void buildKieModule( InternalKieModule kModule,
                                        ResultsImpl messages ) {
-        buildKieProject( messages, new KieModuleKieProject( kModule ), null );
+        buildKieProject( messages, new KieModuleKieProject( kModule ), null, !isLazyKieBaseBuild( kModule ) );
+    }
+
+    /**
+     * When enabled the KieBases of a KieModule loaded in the KieRepository are not compiled upfront,
+     * but only when a KieContainer requires them for the first time. Compilation errors are then reported
+     * when the faulty KieBase is requested instead of when the KieModule is added to the repository.
+     * It is enabled either by the kmodule configuration property or by the system property with the same name,
+     * the former taking precedence.
+     *
+     * The unit of laziness is the KieBase: all the packages and entry points of a KieBase are compiled together
+     * when it is requested, since its network is built out of all of them at once.
+     */
+    static boolean isLazyKieBaseBuild( InternalKieModule kModule ) {
+        String value = kModule.getKieModuleModel() != null ?
+                       kModule.getKieModuleModel().getConfigurationProperties().get( LAZY_KIEBASE_BUILD_PROPERTY ) :
+                       null;
+        return Boolean.parseBoolean( value != null ? value : System.getProperty( LAZY_KIEBASE_BUILD_PROPERTY, "false" ) );
     }
 
     private static void buildKieProject( ResultsImpl messages,
                                          KieModuleKieProject kProject,
                                          MemoryFileSystem trgMfs ) {
+        buildKieProject( messages, kProject, trgMfs, true );
+    }
+
+    private static void buildKieProject( ResultsImpl messages,
+                                         KieModuleKieProject kProject,
+                                         MemoryFileSystem trgMfs,
+                                         boolean verify ) {
         kProject.init();
-        kProject.verify( messages );
+        if ( verify ) {
+            if ( trgMfs == null ) {
+                // a KieBase coming with a valid image will be deserialized instead of being compiled
+                kProject.verify( KieBaseImage.getKieBasesWithoutImage( kProject.getInternalKieModule() ), messages );
+            } else {
+                kProject.verify( messages );
+            }
+        }
 
         if ( messages.filterMessages( Level.ERROR ).isEmpty() ) {
             InternalKieModule kModule = kProject.getInternalKieModule();
             if ( trgMfs != null ) {
                 new KieMetaInfoBuilder( kModule ).writeKieModuleMetaInfo( trgMfs );
                 kProject.writeProjectOutput(trgMfs, messages);
+                KieBaseImage.writeKieBaseImages( kProject, trgMfs, messages );
             }
             KieRepository kieRepository = KieServices.Factory.get().getRepository();
             kieRepository.addKieModule( kModule );
@@ -692,7 +736,7 @@ public class KieBuilderImpl
         return sBuilder.toString();
     }
 
-    private void compileJavaClasses( ClassLoader classLoader, Predicate<String> classFilter ) {
+    private void compileJavaClasses( ClassLoader classLoader, Predicate<String> classFilter, Collection<InternalKieModule> dependencies ) {
         List<String> classFiles = new ArrayList<String>();
         for ( String fileName : srcMfs.getFileNames() ) {
             if ( fileName.endsWith( ".class" ) ) {
@@ -729,8 +773,8 @@ public class KieBuilderImpl
         if ( !javaFiles.isEmpty() || !javaTestFiles.isEmpty() ) {
             KnowledgeBuilderConfigurationImpl kconf = new KnowledgeBuilderConfigurationImpl( classLoader );
             JavaDialectConfiguration javaConf = (JavaDialectConfiguration) kconf.getDialectConfiguration( "java" );
-            compileJavaClasses( javaConf, classLoader, javaFiles, JAVA_ROOT );
-            compileJavaClasses( javaConf, classLoader, javaTestFiles, JAVA_TEST_ROOT );
+            compileJavaClasses( javaConf, classLoader, javaFiles, JAVA_ROOT, dependencies );
+            compileJavaClasses( javaConf, classLoader, javaTestFiles, JAVA_TEST_ROOT, dependencies );
         }
     }
 
@@ -791,15 +835,32 @@ public class KieBuilderImpl
     private void compileJavaClasses( JavaDialectConfiguration javaConf,
                                      ClassLoader classLoader,
                                      List<String> javaFiles,
-                                     String rootFolder ) {
+                                     String rootFolder,
+                                     Collection<InternalKieModule> dependencies ) {
         if ( !javaFiles.isEmpty() ) {
             String[] sourceFiles = javaFiles.toArray( new String[ javaFiles.size() ] );
 
-            JavaCompiler javaCompiler = createCompiler( javaConf, rootFolder );
-            CompilationResult res = javaCompiler.compile( sourceFiles,
-                                                          srcMfs,
-                                                          trgMfs,
-                                                          classLoader );
+            CompilationResult res;
+            BuildCache buildCache = javaConf.getPackageBuilderConfiguration().getBuildCache();
+            if ( buildCache != null ) {
+                String cacheKey = getBuildCacheKey( buildCache, javaConf, classLoader, rootFolder, javaFiles, dependencies );
+                BuildCache.CompiledClasses compiledClasses = buildCache.getCompiledClasses( cacheKey );
+                if ( compiledClasses != null ) {
+                    res = compiledClasses.writeTo( trgMfs );
+                } else {
+                    BuildCache.RecordingResourceStore store = new BuildCache.RecordingResourceStore( trgMfs );
+                    res = createCompiler( javaConf, rootFolder ).compile( sourceFiles, srcMfs, store, classLoader );
+                    if ( res.getErrors().length == 0 ) {
+                        buildCache.putCompiledClasses( cacheKey, store.toCompiledClasses( res ) );
+                    }
+                }
+            } else {
+                JavaCompiler javaCompiler = createCompiler( javaConf, rootFolder );
+                res = javaCompiler.compile( sourceFiles,
+                                            srcMfs,
+                                            trgMfs,
+                                            classLoader );
+            }
 
             for ( CompilationProblem problem : res.getErrors() ) {
                 results.addMessage( problem );
@@ -810,6 +871,35 @@ public class KieBuilderImpl
         }
     }
 
+    /**
+     * The classes compiled out of the Java sources of the kjar depend on those sources, on the classes
+     * shipped as binaries in the kjar, on the dependencies and on the compiler configuration.
+     */
+    private String getBuildCacheKey( BuildCache buildCache,
+                                     JavaDialectConfiguration javaConf,
+                                     ClassLoader classLoader,
+                                     String rootFolder,
+                                     List<String> javaFiles,
+                                     Collection<InternalKieModule> dependencies ) {
+        BuildCache.Key key = new BuildCache.Key().add( "kjar" )
+                                                 .add( javaConf.getCompiler().toString() )
+                                                 .add( javaConf.getJavaLanguageLevel() )
+                                                 .add( rootFolder )
+                                                 .add( buildCache.getClassPathFingerprint( classLoader ) );
+        for ( String javaFile : javaFiles ) {
+            key.add( javaFile ).add( srcMfs.getBytes( javaFile ) );
+        }
+        for ( String fileName : srcMfs.getFileNames() ) {
+            if ( fileName.endsWith( ".class" ) ) {
+                key.add( fileName ).add( srcMfs.getBytes( fileName ) );
+            }
+        }
+        for ( InternalKieModule dependency : dependencies ) {
+            key.add( dependency.getReleaseId().toExternalForm() ).add( String.valueOf( dependency.getCreationTimestamp() ) );
+        }
+        return key.build();
+    }
+
     private JavaCompiler createCompiler( JavaDialectConfiguration javaConf,
                                          String prefix ) {
         JavaCompiler javaCompiler = JavaCompilerFactory.getInstance().loadCompiler( javaConf );
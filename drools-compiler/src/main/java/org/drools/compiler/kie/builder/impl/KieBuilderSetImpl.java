@@ -157,6 +157,7 @@ public class KieBuilderSetImpl implements KieBuilderSet {
                 } else {
                     KieServices.Factory.get().getRepository().addKieModule( kieModule );
                     kieBuilder.updateKieModuleMetaInfo();
+                    kieBuilder.removeKieBaseImage( kBaseModel.getName() );
                 }
             }
         }
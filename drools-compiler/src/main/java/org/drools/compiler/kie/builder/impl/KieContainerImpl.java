@@ -19,6 +19,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -178,8 +179,12 @@ public class KieContainerImpl
     }
 
     public Results updateToVersion(ReleaseId newReleaseId) {
+        return updateToVersion(newReleaseId, false);
+    }
+
+    private Results updateToVersion(ReleaseId newReleaseId, boolean swapKieBases) {
         checkNotClasspathKieProject();
-        Results results = update(((KieModuleKieProject) kProject).getInternalKieModule(), newReleaseId);
+        Results results = update(((KieModuleKieProject) kProject).getInternalKieModule(), newReleaseId, swapKieBases);
         if (results != null) {
             containerReleaseId = newReleaseId;
         } else {
@@ -190,11 +195,19 @@ public class KieContainerImpl
     }
 
     public Results updateDependencyToVersion(ReleaseId currentReleaseId, ReleaseId newReleaseId) {
+        return updateDependencyToVersion(currentReleaseId, newReleaseId, false);
+    }
+
+    public Results swapDependencyToVersion(ReleaseId currentReleaseId, ReleaseId newReleaseId) {
+        return updateDependencyToVersion(currentReleaseId, newReleaseId, true);
+    }
+
+    private Results updateDependencyToVersion(ReleaseId currentReleaseId, ReleaseId newReleaseId, boolean swapKieBases) {
         ReleaseId installedReleaseId = getReleaseId();
         if (currentReleaseId.getGroupId().equals(installedReleaseId.getGroupId()) &&
             currentReleaseId.getArtifactId().equals(installedReleaseId.getArtifactId())) {
             // upgrading the kProject itself: taking the kmodule from there
-            return updateToVersion(newReleaseId);
+            return updateToVersion(newReleaseId, swapKieBases);
         }
 
         checkNotClasspathKieProject();
@@ -203,7 +216,7 @@ public class KieContainerImpl
         InternalKieModule currentKM = currentReleaseId.equals(newReleaseId) ?
                                       (InternalKieModule) ((KieRepositoryImpl) kr).getOldKieModule(currentReleaseId) :
                                       (InternalKieModule) kr.getKieModule(currentReleaseId);
-        return update(currentKM, newReleaseId);
+        return update(currentKM, newReleaseId, swapKieBases);
     }
 
     private void checkNotClasspathKieProject() {
@@ -212,7 +225,7 @@ public class KieContainerImpl
         }
     }
 
-    private Results update(final InternalKieModule currentKM, final ReleaseId newReleaseId) {
+    private Results update(final InternalKieModule currentKM, final ReleaseId newReleaseId, final boolean swapKieBases) {
         final InternalKieModule newKM = (InternalKieModule) kr.getKieModule( newReleaseId );
         if (newKM == null) {
             return null;
@@ -228,8 +241,16 @@ public class KieContainerImpl
 
         final ResultsImpl results = new ResultsImpl();
 
+        Map<String, KieBase> currentKieBases = kBases;
+        if ( swapKieBases ) {
+            // the new KieBases are made available before updating the current ones, so the sessions created
+            // from now on don't have to wait for the incremental update of the existing sessions to complete
+            currentKieBases = new HashMap<String, KieBase>( kBases );
+            kBases.putAll( createUpdatedKieBases() );
+        }
+
         List<String> kbasesToRemove = new ArrayList<String>();
-        for ( Entry<String, KieBase> kBaseEntry : kBases.entrySet() ) {
+        for ( Entry<String, KieBase> kBaseEntry : currentKieBases.entrySet() ) {
             String kbaseName = kBaseEntry.getKey();
             KieBaseModelImpl newKieBaseModel = (KieBaseModelImpl) kProject.getKieBaseModel( kbaseName );
             KieBaseModelImpl currentKieBaseModel = (KieBaseModelImpl) currentKieBaseModels.get( kbaseName );
@@ -257,6 +278,21 @@ public class KieContainerImpl
         return results;
     }
 
+    private Map<String, KieBase> createUpdatedKieBases() {
+        Map<String, KieBase> updatedKieBases = new HashMap<String, KieBase>();
+        for ( String kbaseName : kBases.keySet() ) {
+            KieBaseModelImpl newKieBaseModel = (KieBaseModelImpl) kProject.getKieBaseModel( kbaseName );
+            if ( newKieBaseModel != null ) {
+                KieBase kBase = createKieBase( newKieBaseModel, kProject, new ResultsImpl(), null );
+                // if the new KieBase cannot be created the current one is kept and the incremental update reports the errors
+                if ( kBase != null ) {
+                    updatedKieBases.put( kbaseName, kBase );
+                }
+            }
+        }
+        return updatedKieBases;
+    }
+
     private List<String> getUnchangedResources( InternalKieModule newKM, KieJarChangeSet cs ) {
         List<String> dslFiles = new ArrayList<String>();
         for (String file : newKM.getFileNames()) {
@@ -386,10 +422,20 @@ public class KieContainerImpl
 
     private KieBase createKieBase(KieBaseModelImpl kBaseModel, KieProject kieProject, ResultsImpl messages, KieBaseConfiguration conf) {
         InternalKieModule kModule = kieProject.getKieModuleForKBase( kBaseModel.getName() );
+        long start = System.currentTimeMillis();
+        // a KieBase verified when its KieModule has been built has been compiled before this call
+        boolean precompiled = kModule.getKnowledgeBuilderForKieBase( kBaseModel.getName() ) != null;
         InternalKnowledgeBase kBase = kModule.createKieBase(kBaseModel, kieProject, messages, conf);
         if ( kBase == null ) {
             return null;
         }
+        long buildTime = System.currentTimeMillis() - start;
+        // the compilation is accounted once: when it happened during this call, it is already part of the elapsed time
+        long compilationTime = kModule.takeCompilationTimeForKieBase( kBaseModel.getName() );
+        if ( precompiled ) {
+            buildTime += compilationTime;
+        }
+        kBase.setBuildTime( buildTime );
         kBase.setResolvedReleaseId(containerReleaseId);
         kBase.setContainerId(containerId);
         kBase.setKieContainer(this);
@@ -240,6 +240,10 @@ public class KieRepositoryImpl
 
         public long getPollingInterval() { return 0; }
 
+        public long getLastUpdateBuildTime() { return -1; }
+
+        public long getLastUpdateTime() { return -1; }
+
         public void addListener(KieScannerEventListener listener) { }
 
         public void removeListener(KieScannerEventListener listener) { }
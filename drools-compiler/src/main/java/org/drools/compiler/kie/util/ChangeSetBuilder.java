@@ -15,6 +15,7 @@
  */
 package org.drools.compiler.kie.util;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -25,7 +26,9 @@ import java.util.List;
 import java.util.Set;
 
 import org.drools.compiler.builder.impl.KnowledgeBuilderConfigurationImpl;
+import org.drools.compiler.compiler.DecisionTableFactory;
 import org.drools.compiler.compiler.DrlParser;
+import org.drools.compiler.compiler.DroolsParserException;
 import org.drools.compiler.kie.builder.impl.InternalKieModule;
 import org.drools.compiler.lang.descr.BaseDescr;
 import org.drools.compiler.lang.descr.FunctionDescr;
@@ -33,9 +36,13 @@ import org.drools.compiler.lang.descr.GlobalDescr;
 import org.drools.compiler.lang.descr.PackageDescr;
 import org.drools.compiler.lang.descr.RuleDescr;
 import org.drools.core.io.impl.ByteArrayResource;
+import org.drools.core.util.IoUtils;
 import org.drools.core.util.StringUtils;
+import org.kie.api.builder.model.KieBaseModel;
+import org.kie.api.builder.model.RuleTemplateModel;
 import org.kie.api.io.ResourceType;
 import org.kie.internal.builder.ChangeType;
+import org.kie.internal.builder.DecisionTableConfiguration;
 import org.kie.internal.builder.ResourceChange;
 import org.kie.internal.builder.ResourceChangeSet;
 import org.slf4j.Logger;
@@ -75,7 +82,7 @@ public class ChangeSetBuilder {
                     // check that: (NOT drl file) OR (NOT equalsIgnoringSpaces)
                     if ( !ResourceType.DRL.matchesExtension(file) || !StringUtils.codeAwareEqualsIgnoreSpaces(new String(ob), new String(cb)) ) {
                         // parse the file to figure out the difference
-                        result.registerChanges( file, diffResource( file, ob, cb ) );
+                        result.registerChanges( file, diffResource( file, ob, cb, currentJar ) );
                     }
                 }
             } else {
@@ -90,34 +97,26 @@ public class ChangeSetBuilder {
 
     private static ResourceChangeSet diffResource(String file,
                                           byte[] ob,
-                                          byte[] cb) {
+                                          byte[] cb,
+                                          InternalKieModule currentJar) {
         ResourceChangeSet pkgcs = new ResourceChangeSet( file, ChangeType.UPDATED );
         ResourceType type = ResourceType.determineResourceType( file );
         if( ResourceType.DRL.equals( type ) || ResourceType.GDRL.equals( type ) || ResourceType.RDRL.equals( type ) || ResourceType.TDRL.equals( type )) {
             try {
-                PackageDescr opkg = new DrlParser().parse( new ByteArrayResource( ob ) );
-                PackageDescr cpkg = new DrlParser().parse( new ByteArrayResource( cb ) );
-                String pkgName = isEmpty(cpkg.getName()) ? getDefaultPackageName() : cpkg.getName();
-                String oldPkgName = isEmpty(opkg.getName()) ? getDefaultPackageName() : opkg.getName();
-
-                if (!oldPkgName.equals(pkgName)) {
-                    // if the package name is changed everthing has to be recreated from scratch
-                    // so it is useless to further investigate other changes
-                    return pkgcs;
-                }
-
-                for( RuleDescr crd : cpkg.getRules() ) {
-                    pkgcs.getLoadOrder().add(new ResourceChangeSet.RuleLoadOrder(pkgName, crd.getName(), crd.getLoadOrder()));
+                diffDrl( pkgcs, ob, cb );
+            } catch ( Exception e ) {
+                logger.error( "Error analyzing the contents of "+file+". Skipping.", e );
+            }
+        } else if ( ResourceType.DTABLE.equals( type ) && isDiffableDecisionTable( file, currentJar ) ) {
+            // the generated rules are named after their content when the decision table asks so,
+            // then only the rows actually changed are added, updated or removed
+            try {
+                DecisionTableConfiguration conf = (DecisionTableConfiguration) currentJar.getResourceConfiguration( file );
+                byte[] odrl = decisionTableToDrl( file, ob, conf );
+                byte[] cdrl = decisionTableToDrl( file, cb, conf );
+                if ( odrl != null && cdrl != null ) {
+                    diffDrl( pkgcs, odrl, cdrl );
                 }
-
-                List<RuleDescr> orules = new ArrayList<>( opkg.getRules() ); // needs to be cloned
-                diffDescrs(ob, cb, pkgcs, orules, cpkg.getRules(), ResourceChange.Type.RULE, RULE_CONVERTER);
-
-                List<FunctionDescr> ofuncs = new ArrayList<>( opkg.getFunctions() ); // needs to be cloned
-                diffDescrs(ob, cb, pkgcs, ofuncs, cpkg.getFunctions(), ResourceChange.Type.FUNCTION, FUNC_CONVERTER);
-
-                List<GlobalDescr> oglobals = new ArrayList<>( opkg.getGlobals() ); // needs to be cloned
-                diffDescrs(ob, cb, pkgcs, oglobals, cpkg.getGlobals(), ResourceChange.Type.GLOBAL, GLOBAL_CONVERTER);
             } catch ( Exception e ) {
                 logger.error( "Error analyzing the contents of "+file+". Skipping.", e );
             }
@@ -127,6 +126,59 @@ public class ChangeSetBuilder {
         return pkgcs;
     }
 
+    private static void diffDrl(ResourceChangeSet pkgcs,
+                                byte[] ob,
+                                byte[] cb) throws DroolsParserException, IOException {
+        PackageDescr opkg = new DrlParser().parse( new ByteArrayResource( ob ) );
+        PackageDescr cpkg = new DrlParser().parse( new ByteArrayResource( cb ) );
+        String pkgName = isEmpty(cpkg.getName()) ? getDefaultPackageName() : cpkg.getName();
+        String oldPkgName = isEmpty(opkg.getName()) ? getDefaultPackageName() : opkg.getName();
+
+        if (!oldPkgName.equals(pkgName)) {
+            // if the package name is changed everthing has to be recreated from scratch
+            // so it is useless to further investigate other changes
+            return;
+        }
+
+        for( RuleDescr crd : cpkg.getRules() ) {
+            pkgcs.getLoadOrder().add(new ResourceChangeSet.RuleLoadOrder(pkgName, crd.getName(), crd.getLoadOrder()));
+        }
+
+        List<RuleDescr> orules = new ArrayList<>( opkg.getRules() ); // needs to be cloned
+        diffDescrs(ob, cb, pkgcs, orules, cpkg.getRules(), ResourceChange.Type.RULE, RULE_CONVERTER);
+
+        List<FunctionDescr> ofuncs = new ArrayList<>( opkg.getFunctions() ); // needs to be cloned
+        diffDescrs(ob, cb, pkgcs, ofuncs, cpkg.getFunctions(), ResourceChange.Type.FUNCTION, FUNC_CONVERTER);
+
+        List<GlobalDescr> oglobals = new ArrayList<>( opkg.getGlobals() ); // needs to be cloned
+        diffDescrs(ob, cb, pkgcs, oglobals, cpkg.getGlobals(), ResourceChange.Type.GLOBAL, GLOBAL_CONVERTER);
+    }
+
+    private static boolean isDiffableDecisionTable(String file,
+                                                   InternalKieModule currentJar) {
+        if ( DecisionTableFactory.getDecisionTableProvider() == null ||
+             !( currentJar.getResourceConfiguration( file ) instanceof DecisionTableConfiguration ) ||
+             currentJar.getKieModuleModel() == null ) {
+            return false;
+        }
+        // decision tables expanded through rule templates are always rebuilt as a whole
+        for ( KieBaseModel kieBaseModel : currentJar.getKieModuleModel().getKieBaseModels().values() ) {
+            for ( RuleTemplateModel template : kieBaseModel.getRuleTemplates() ) {
+                if ( template.getDtable().equals( file ) ) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static byte[] decisionTableToDrl(String file,
+                                             byte[] bytes,
+                                             DecisionTableConfiguration conf) {
+        String drl = DecisionTableFactory.loadFromResource( new ByteArrayResource( bytes ).setSourcePath( file ), conf );
+        return drl != null ? drl.getBytes( IoUtils.UTF8_CHARSET ) : null;
+    }
+
     private interface DescrNameConverter<T extends BaseDescr> {
         String getName(T descr);
     }
@@ -25,8 +25,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.drools.compiler.builder.impl.BuildCache;
 import org.drools.compiler.builder.impl.KnowledgeBuilderConfigurationImpl;
 import org.drools.compiler.builder.impl.errors.ErrorHandler;
 import org.drools.compiler.builder.impl.errors.FunctionErrorHandler;
@@ -156,6 +159,8 @@ public class JavaDialect
     private final KnowledgeBuilderConfigurationImpl pkgConf;
     private final List<String> generatedClassList;
     private final MemoryResourceReader src;
+    // the sources, like functions, that the other generated sources of the package can refer to
+    private final Set<String> sharedSources;
     private final PackageStore packageStoreWrapper;
     private final Map<String, ErrorHandler> errorHandlers;
     private final List<KnowledgeBuilderResult> results;
@@ -177,6 +182,7 @@ public class JavaDialect
         this.results = new ArrayList<KnowledgeBuilderResult>();
 
         this.src = new MemoryResourceReader();
+        this.sharedSources = Collections.synchronizedSet(new TreeSet<String>());
 
         this.generatedClassList = Collections.synchronizedList(new ArrayList<String>());
 
@@ -408,7 +414,7 @@ public class JavaDialect
             this.errorHandlers.clear();
             return;
         }
-        final String[] classes = new String[this.generatedClassList.size()];
+        String[] classes = new String[this.generatedClassList.size()];
         this.generatedClassList.toArray(classes);
 
         File dumpDir = this.configuration.getPackageBuilderConfiguration().getDumpDir();
@@ -417,10 +423,33 @@ public class JavaDialect
                           dumpDir);
         }
 
-        final CompilationResult result = this.compiler.compile(classes,
-                                                               this.src,
-                                                               this.packageStoreWrapper,
-                                                               rootClassLoader);
+        BuildCache buildCache = this.pkgConf.getBuildCache();
+        Map<String, String> cacheKeys = buildCache != null ? getBuildCacheKeys(buildCache, classes) : null;
+        if (cacheKeys != null) {
+            classes = readFromBuildCache(buildCache, classes, cacheKeys);
+            if (classes.length == 0) {
+                this.generatedClassList.clear();
+                this.errorHandlers.clear();
+                return;
+            }
+        }
+
+        final CompilationResult result;
+        if (cacheKeys != null) {
+            BuildCache.RecordingResourceStore store = new BuildCache.RecordingResourceStore(this.packageStoreWrapper);
+            result = this.compiler.compile(classes,
+                                           this.src,
+                                           store,
+                                           rootClassLoader);
+            if (result.getErrors().length == 0) {
+                writeToBuildCache(buildCache, classes, cacheKeys, store.getWritten());
+            }
+        } else {
+            result = this.compiler.compile(classes,
+                                           this.src,
+                                           this.packageStoreWrapper,
+                                           rootClassLoader);
+        }
 
         //this will sort out the errors based on what class/file they happened in
         if (result.getErrors().length > 0) {
@@ -444,6 +473,87 @@ public class JavaDialect
         this.errorHandlers.clear();
     }
 
+    /**
+     * Computes the build cache key of each generated source, out of its content, the sources shared by the
+     * package and the classpath. Returns null when the package imports functions of other packages, since
+     * they aren't part of the classpath and the key couldn't cover them.
+     */
+    private Map<String, String> getBuildCacheKeys(BuildCache buildCache, String[] classes) {
+        for (String staticImport : this.pkg.getStaticImports()) {
+            int lastDot = staticImport.lastIndexOf('.');
+            String className = lastDot > 0 ? staticImport.substring(0, lastDot) : staticImport;
+            if (!this.sharedSources.contains(className.replace('.', '/') + ".java")) {
+                try {
+                    this.rootClassLoader.loadClass(className);
+                } catch (ClassNotFoundException | NoClassDefFoundError e) {
+                    return null;
+                }
+            }
+        }
+
+        BuildCache.Key baseKey = new BuildCache.Key().add("java")
+                                                     .add(this.configuration.getCompiler().toString())
+                                                     .add(this.configuration.getJavaLanguageLevel())
+                                                     .add(buildCache.getClassPathFingerprint(this.rootClassLoader));
+        synchronized (this.sharedSources) {
+            for (String sharedSource : this.sharedSources) {
+                byte[] content = this.src.getBytes(sharedSource);
+                if (content != null) {
+                    baseKey.add(sharedSource).add(content);
+                }
+            }
+        }
+        String base = baseKey.build();
+
+        Map<String, String> keys = new HashMap<String, String>();
+        for (String fileName : classes) {
+            keys.put(fileName, new BuildCache.Key().add(base).add(fileName).add(this.src.getBytes(fileName)).build());
+        }
+        return keys;
+    }
+
+    /**
+     * Writes in the package the classes found in the build cache, returning the sources that still have to be compiled
+     */
+    private String[] readFromBuildCache(BuildCache buildCache, String[] classes, Map<String, String> cacheKeys) {
+        List<String> toCompile = new ArrayList<String>();
+        for (String fileName : classes) {
+            BuildCache.CompiledClasses compiledClasses = buildCache.getCompiledClasses(cacheKeys.get(fileName));
+            if (compiledClasses != null) {
+                compiledClasses.writeTo(this.packageStoreWrapper);
+            } else {
+                toCompile.add(fileName);
+            }
+        }
+        return toCompile.toArray(new String[toCompile.size()]);
+    }
+
+    /**
+     * Puts in the build cache the classes compiled out of each source, including its inner classes
+     */
+    private void writeToBuildCache(BuildCache buildCache, String[] classes, Map<String, String> cacheKeys, Map<String, byte[]> written) {
+        Map<String, Map<String, byte[]>> classesBySource = new HashMap<String, Map<String, byte[]>>();
+        for (String fileName : classes) {
+            classesBySource.put(fileName, new HashMap<String, byte[]>());
+        }
+        for (Map.Entry<String, byte[]> entry : written.entrySet()) {
+            String name = entry.getKey().substring(0, entry.getKey().length() - ".class".length());
+            Map<String, byte[]> sourceClasses = classesBySource.get(name + ".java");
+            for (int i = name.lastIndexOf('$'); sourceClasses == null && i > name.lastIndexOf('/'); i = name.lastIndexOf('$', i - 1)) {
+                sourceClasses = classesBySource.get(name.substring(0, i) + ".java");
+            }
+            // classes of sources compiled only because they are referred are not attributed to any of the given sources
+            if (sourceClasses != null) {
+                sourceClasses.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<String, Map<String, byte[]>> entry : classesBySource.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                buildCache.putCompiledClasses(cacheKeys.get(entry.getKey()), new BuildCache.CompiledClasses(entry.getValue(), new CompilationProblem[0]));
+            }
+        }
+    }
+
     /**
      * @param classes
      * @param dumpDir
@@ -563,6 +673,7 @@ public class JavaDialect
                             this.src,
                             new FunctionErrorHandler(functionDescr,
                                                      "Function Compilation error"));
+        this.sharedSources.add(functionClassName.replace('.', '/') + ".java");
 
         final LineMappings mapping = new LineMappings(functionClassName);
         mapping.setStartLine(functionDescr.getLine());
@@ -591,6 +702,7 @@ public class JavaDialect
 
         src.add(resourceName,
                 content);
+        this.sharedSources.add(resourceName);
 
         this.errorHandlers.put(resourceName,
                                new SrcErrorHandler("Src compile error"));
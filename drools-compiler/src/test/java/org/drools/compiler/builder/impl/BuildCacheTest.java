@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.compiler.builder.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.core.common.ProjectClassLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BuildCacheTest extends CommonTestMethodBase {
+
+    private BuildCache buildCache;
+
+    @Before
+    public void enableCache() {
+        System.setProperty( BuildCache.PROPERTY_NAME, BuildCache.IN_MEMORY );
+        buildCache = BuildCache.get( BuildCache.IN_MEMORY );
+        buildCache.clear();
+    }
+
+    @After
+    public void disableCache() {
+        System.clearProperty( BuildCache.PROPERTY_NAME );
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        System.clearProperty( BuildCache.PROPERTY_NAME );
+        assertNull( new KnowledgeBuilderConfigurationImpl().getBuildCache() );
+
+        System.setProperty( BuildCache.PROPERTY_NAME, BuildCache.IN_MEMORY );
+        assertSame( buildCache, new KnowledgeBuilderConfigurationImpl().getBuildCache() );
+    }
+
+    @Test
+    public void testRebuildWithoutParsingAndCompiling() throws Exception {
+        final KieServices ks = KieServices.Factory.get();
+        final ReleaseId releaseId = ks.newReleaseId( "org.kie", "build-cache", "1.0" );
+
+        buildModule( ks, releaseId, "Hello" );
+        assertEquals( 0, buildCache.getPackageDescrHits() );
+        assertEquals( 2, buildCache.getPackageDescrMisses() );
+        assertEquals( 0, buildCache.getCompiledClassesHits() );
+        final long compiledClasses = buildCache.getCompiledClassesMisses();
+        assertTrue( compiledClasses > 0 );
+
+        // the same module is built again without invoking the parser nor the Java compiler
+        buildModule( ks, releaseId, "Hello" );
+        assertEquals( 2, buildCache.getPackageDescrHits() );
+        assertEquals( 2, buildCache.getPackageDescrMisses() );
+        assertEquals( compiledClasses, buildCache.getCompiledClassesHits() );
+        assertEquals( compiledClasses, buildCache.getCompiledClassesMisses() );
+
+        assertEquals( "Hello fact", fire( ks, releaseId ) );
+    }
+
+    @Test
+    public void testOnlyChangedResourceIsRebuilt() throws Exception {
+        final KieServices ks = KieServices.Factory.get();
+        final ReleaseId releaseId = ks.newReleaseId( "org.kie", "build-cache-changed", "1.0" );
+
+        buildModule( ks, releaseId, "Hello" );
+        final long compiledClasses = buildCache.getCompiledClassesMisses();
+
+        buildModule( ks, releaseId, "Bye" );
+        // only the resource of the changed rule is parsed again, and only its classes are compiled
+        assertEquals( 1, buildCache.getPackageDescrHits() );
+        assertEquals( 3, buildCache.getPackageDescrMisses() );
+        assertTrue( buildCache.getCompiledClassesHits() > 0 );
+        assertTrue( buildCache.getCompiledClassesMisses() - compiledClasses < compiledClasses );
+
+        assertEquals( "Bye fact", fire( ks, releaseId ) );
+    }
+
+    @Test
+    public void testChangedJavaSourceIsRecompiled() throws Exception {
+        final KieServices ks = KieServices.Factory.get();
+        final ReleaseId releaseId = ks.newReleaseId( "org.kie", "build-cache-java", "1.0" );
+
+        final KieFileSystem kfs = ks.newKieFileSystem().generateAndWritePomXML( releaseId );
+        kfs.write( "src/main/java/org/kie/test/Greeter.java", greeter( "Hello" ) );
+        assertTrue( ks.newKieBuilder( kfs ).buildAll().getResults().getMessages( Message.Level.ERROR ).isEmpty() );
+
+        kfs.write( "src/main/java/org/kie/test/Greeter.java", greeter( "Bye" ) );
+        final KieBuilder kieBuilder = ks.newKieBuilder( kfs ).buildAll();
+        assertTrue( kieBuilder.getResults().getMessages( Message.Level.ERROR ).isEmpty() );
+        assertEquals( 0, buildCache.getCompiledClassesHits() );
+
+        final Class<?> greeterClass = ks.newKieContainer( releaseId ).getClassLoader().loadClass( "org.kie.test.Greeter" );
+        assertEquals( "Bye", greeterClass.getField( "GREETING" ).get( null ) );
+    }
+
+    private String fire( KieServices ks, ReleaseId releaseId ) {
+        final KieSession ksession = ks.newKieContainer( releaseId ).newKieSession();
+        final List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "fact" );
+        ksession.fireAllRules();
+        ksession.dispose();
+        assertEquals( 1, list.size() );
+        return list.get( 0 );
+    }
+
+    private void buildModule( KieServices ks, ReleaseId releaseId, String greeting ) {
+        final KieFileSystem kfs = ks.newKieFileSystem().generateAndWritePomXML( releaseId );
+        kfs.write( "src/main/java/org/kie/test/Greeter.java", greeter( "Hello" ) );
+        kfs.write( "src/main/resources/org/kie/test/functions.drl",
+                   "package org.kie.test\n" +
+                   "global java.util.List list\n" +
+                   "function String greet(String greeting, String s) {\n" +
+                   "  return greeting + \" \" + s;\n" +
+                   "}\n" );
+        kfs.write( "src/main/resources/org/kie/test/rule.drl",
+                   "package org.kie.test\n" +
+                   "rule R when\n" +
+                   "  $s : String()\n" +
+                   "then\n" +
+                   "  list.add( greet( \"" + greeting + "\", $s ) );\n" +
+                   "end\n" +
+                   "rule Other when\n" +
+                   "  $i : Integer()\n" +
+                   "then\n" +
+                   "  list.add( greet( Greeter.GREETING, $i.toString() ) );\n" +
+                   "end\n" );
+        final KieBuilder kieBuilder = ks.newKieBuilder( kfs ).buildAll();
+        assertTrue( kieBuilder.getResults().getMessages( Message.Level.ERROR ).isEmpty() );
+    }
+
+    @Test
+    public void testFingerprintChangesWhenAClassIsReplaced() {
+        ProjectClassLoader classLoader = ProjectClassLoader.createProjectClassLoader();
+        classLoader.storeClass( "org.kie.test.A", new byte[] { 1, 2, 3 } );
+        String fingerprint = buildCache.getClassPathFingerprint( classLoader );
+        assertEquals( fingerprint, buildCache.getClassPathFingerprint( classLoader ) );
+
+        classLoader.storeClass( "org.kie.test.A", new byte[] { 1, 2, 4 } );
+        String replaced = buildCache.getClassPathFingerprint( classLoader );
+        assertNotEquals( fingerprint, replaced );
+
+        // the same content gives the same fingerprint, whatever the arrays holding it
+        classLoader.storeClass( "org.kie.test.A", new byte[] { 1, 2, 3 } );
+        assertEquals( fingerprint, buildCache.getClassPathFingerprint( classLoader ) );
+    }
+
+    @Test
+    public void testFingerprintOfOtherClassLoadersIsStable() {
+        // a ClassLoader that is not a URLClassLoader is identified by the jars it exposes, not by its identity
+        ClassLoader parent = getClass().getClassLoader();
+        String fingerprint = buildCache.getClassPathFingerprint( new PlainClassLoader( parent ) );
+        assertEquals( fingerprint, buildCache.getClassPathFingerprint( new PlainClassLoader( parent ) ) );
+    }
+
+    private static class PlainClassLoader extends ClassLoader {
+        private PlainClassLoader( ClassLoader parent ) {
+            super( parent );
+        }
+    }
+
+    private String greeter( String greeting ) {
+        return "package org.kie.test;\n" +
+               "public class Greeter {\n" +
+               "    public static final String GREETING = \"" + greeting + "\";\n" +
+               "}\n";
+    }
+}
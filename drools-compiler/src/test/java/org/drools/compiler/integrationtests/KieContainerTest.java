@@ -28,6 +28,9 @@ import org.drools.compiler.CommonTestMethodBase;
 import org.drools.compiler.compiler.io.Folder;
 import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
 import org.drools.core.impl.InternalKieContainer;
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
 import org.drools.compiler.kie.builder.impl.MemoryKieModule;
 import org.junit.Test;
 import org.kie.api.KieServices;
@@ -402,6 +405,107 @@ public class KieContainerTest extends CommonTestMethodBase {
         assertNotNull(sessionModel);
     }
 
+    @Test
+    public void testLazyKieBaseBuild() {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "test-lazy-kbase-build", "1.0.0");
+
+        String kmodule = "<kmodule xmlns=\"http://www.drools.org/xsd/kmodule\">\n" +
+                         "  <kbase name=\"kbase1\" packages=\"org.kie.test1\">\n" +
+                         "    <ksession name=\"ksession1\"/>\n" +
+                         "  </kbase>\n" +
+                         "  <kbase name=\"kbase2\" packages=\"org.kie.test2\"/>\n" +
+                         "</kmodule>";
+        Resource drl1 = ks.getResources().newByteArrayResource( createDRL( "org.kie.test1", "ruleA" ).getBytes() ).setTargetPath( "org/kie/test1/rules.drl" );
+        Resource drl2 = ks.getResources().newByteArrayResource( createDRL( "org.kie.test2", "ruleB" ).getBytes() ).setTargetPath( "org/kie/test2/rules.drl" );
+        byte[] jar = createJar( ks, kmodule, o -> true, releaseId, drl1, drl2 );
+
+        System.setProperty( KieBuilderImpl.LAZY_KIEBASE_BUILD_PROPERTY, "true" );
+        try {
+            InternalKieModule kieModule = (InternalKieModule) ks.getRepository().addKieModule( ks.getResources().newByteArrayResource( jar ) );
+            assertTrue( kieModule.build().getMessages().isEmpty() );
+            assertNull( kieModule.getKnowledgeBuilderForKieBase( "kbase1" ) );
+            assertNull( kieModule.getKnowledgeBuilderForKieBase( "kbase2" ) );
+
+            KieContainer kieContainer = ks.newKieContainer( releaseId );
+            KieSession ksession = kieContainer.newKieSession( "ksession1" );
+            List<String> list = new ArrayList<String>();
+            ksession.setGlobal( "list", list );
+            ksession.fireAllRules();
+            assertEquals( 1, list.size() );
+            assertEquals( "ruleA", list.get( 0 ) );
+
+            // only the requested KieBase has been built
+            assertNotNull( kieModule.getKnowledgeBuilderForKieBase( "kbase1" ) );
+            assertNull( kieModule.getKnowledgeBuilderForKieBase( "kbase2" ) );
+            assertTrue( ( (InternalKnowledgeBase) kieContainer.getKieBase( "kbase1" ) ).getBuildTime() > 0 );
+        } finally {
+            System.clearProperty( KieBuilderImpl.LAZY_KIEBASE_BUILD_PROPERTY );
+        }
+    }
+
+    @Test
+    public void testKieBaseBuildTimeIncludesCompilation() throws Exception {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "test-kbase-build-time", "1.0.0");
+
+        String kmodule = "<kmodule xmlns=\"http://www.drools.org/xsd/kmodule\">\n" +
+                         "  <kbase name=\"kbase1\" packages=\"org.kie.test1\">\n" +
+                         "    <ksession name=\"ksession1\"/>\n" +
+                         "  </kbase>\n" +
+                         "</kmodule>";
+        Resource drl = ks.getResources().newByteArrayResource( createDRL( "org.kie.test1", "ruleA" ).getBytes() ).setTargetPath( "org/kie/test1/rules.drl" );
+        byte[] jar = createJar( ks, kmodule, o -> true, releaseId, drl );
+
+        InternalKieModule kieModule = (InternalKieModule) ks.getRepository().addKieModule( ks.getResources().newByteArrayResource( jar ) );
+        assertTrue( kieModule.build().getMessages().isEmpty() );
+        // the KieBase has been compiled when the KieModule has been built
+        long compilationTime = kieModule.getCompilationTimeForKieBase( "kbase1" );
+        assertTrue( compilationTime > 0 );
+
+        InternalKnowledgeBase kbase = (InternalKnowledgeBase) ks.newKieContainer( releaseId ).getKieBase( "kbase1" );
+        assertTrue( kbase.getBuildTime() >= compilationTime );
+        // the compilation is accounted only to the first KieBase built out of it
+        assertEquals( 0, kieModule.getCompilationTimeForKieBase( "kbase1" ) );
+
+        // the build time is a metric of this JVM, not part of the serialized KieBase
+        assertEquals( 0, SerializationHelper.serializeObject( kbase ).getBuildTime() );
+    }
+
+    @Test
+    public void testLazyKieBaseBuildFromKieModuleConfiguration() {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "test-lazy-kbase-build-conf", "1.0.0");
+
+        String kmodule = "<kmodule xmlns=\"http://www.drools.org/xsd/kmodule\">\n" +
+                         "  <configuration>\n" +
+                         "    <property key=\"" + KieBuilderImpl.LAZY_KIEBASE_BUILD_PROPERTY + "\" value=\"true\"/>\n" +
+                         "  </configuration>\n" +
+                         "  <kbase name=\"kbase1\" packages=\"org.kie.test1\">\n" +
+                         "    <ksession name=\"ksession1\"/>\n" +
+                         "  </kbase>\n" +
+                         "</kmodule>";
+        Resource drl = ks.getResources().newByteArrayResource( createDRL( "org.kie.test1", "ruleA" ).getBytes() ).setTargetPath( "org/kie/test1/rules.drl" );
+        byte[] jar = createJar( ks, kmodule, o -> true, releaseId, drl );
+
+        InternalKieModule kieModule = (InternalKieModule) ks.getRepository().addKieModule( ks.getResources().newByteArrayResource( jar ) );
+        assertTrue( kieModule.build().getMessages().isEmpty() );
+        assertNull( kieModule.getKnowledgeBuilderForKieBase( "kbase1" ) );
+
+        assertNotNull( ks.newKieContainer( releaseId ).getKieBase( "kbase1" ) );
+        assertNotNull( kieModule.getKnowledgeBuilderForKieBase( "kbase1" ) );
+    }
+
+    private String createDRL(String pkg, String ruleName) {
+        return "package " + pkg + "\n" +
+               "global java.util.List list\n" +
+               "rule " + ruleName + "\n" +
+               "when\n" +
+               "then\n" +
+               "list.add( drools.getRule().getName() );\n" +
+               "end\n";
+    }
+
     private String createDRL(String ruleName) {
         return "package org.kie.test\n" +
                "global java.util.List list\n" +
@@ -18,11 +18,13 @@ package org.drools.compiler.integrationtests;
 import java.io.InputStream;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import org.drools.compiler.builder.impl.KnowledgeBuilderImpl;
 import org.drools.compiler.compiler.PMMLCompiler;
 import org.drools.compiler.compiler.PMMLResource;
 import org.drools.core.definitions.impl.KnowledgePackageImpl;
@@ -46,6 +48,7 @@ import org.kie.api.internal.utils.ServiceRegistryImpl;
 import org.kie.api.io.Resource;
 import org.kie.api.io.ResourceType;
 import org.kie.api.runtime.KieSession;
+import org.kie.internal.builder.CompositeKnowledgeBuilder;
 import org.kie.internal.builder.KnowledgeBuilder;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
 import org.kie.internal.builder.KnowledgeBuilderResult;
@@ -67,6 +70,92 @@ public class KnowledgeBuilderTest {
         this.fileManager.tearDown();
     }
 
+    @Test
+    public void testCompositeKnowledgeBuilderParsingResourcesInParallel() throws Exception {
+        // more resources than the parallel build threshold, so they get parsed concurrently
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        CompositeKnowledgeBuilder batch = kbuilder.batch().type( ResourceType.DRL );
+        for (int i = 0; i < 30; i++) {
+            String rule = "package org.drools.compiler.test" + ( i % 3 ) + "\n" +
+                          "rule R" + i + " when\n" +
+                          "   String( length == " + i + " )\n" +
+                          "then\n" +
+                          "end";
+            batch.add( ResourceFactory.newByteArrayResource( rule.getBytes() ) );
+        }
+        batch.add( ResourceFactory.newByteArrayResource( "package org.drools.compiler.test0\nrule Broken1 when then".getBytes() ) );
+        batch.add( ResourceFactory.newByteArrayResource( "package org.drools.compiler.test1\nrule Broken2 when then".getBytes() ) );
+        batch.build();
+
+        assertTrue( kbuilder.hasErrors() );
+        List<String> errors = new ArrayList<String>();
+        for (KnowledgeBuilderResult error : kbuilder.getErrors()) {
+            errors.add( error.getMessage() );
+        }
+
+        KnowledgeBuilder sequentialBuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        sequentialBuilder.add( ResourceFactory.newByteArrayResource( "package org.drools.compiler.test0\nrule Broken1 when then".getBytes() ), ResourceType.DRL );
+        sequentialBuilder.add( ResourceFactory.newByteArrayResource( "package org.drools.compiler.test1\nrule Broken2 when then".getBytes() ), ResourceType.DRL );
+        List<String> expectedErrors = new ArrayList<String>();
+        for (KnowledgeBuilderResult error : sequentialBuilder.getErrors()) {
+            expectedErrors.add( error.getMessage() );
+        }
+        assertEquals( expectedErrors, errors );
+
+        int rules = 0;
+        for (KiePackage kpkg : ( (KnowledgeBuilderImpl) kbuilder ).getPackages()) {
+            rules += kpkg.getRules().size();
+        }
+        assertEquals( 30, rules );
+    }
+
+    @Test
+    public void testCompositeKnowledgeBuilderCompilingPackagesInParallel() throws Exception {
+        // the Java sources generated for the functions and the rules of each package are compiled concurrently
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        CompositeKnowledgeBuilder batch = kbuilder.batch().type( ResourceType.DRL );
+        for (int i = 0; i < 4; i++) {
+            String drl = "package org.drools.compiler.test" + i + "\n" +
+                         "global java.util.List list\n" +
+                         "function String label(String s) { return \"" + i + "-\" + s; }\n" +
+                         "rule R" + i + " when\n" +
+                         "   $s : String()\n" +
+                         "then\n" +
+                         "   list.add( label( $s ) );\n" +
+                         "end";
+            batch.add( ResourceFactory.newByteArrayResource( drl.getBytes() ) );
+        }
+        batch.build();
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        InternalKnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addPackages( kbuilder.getKnowledgePackages() );
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "a" );
+        ksession.fireAllRules();
+        Collections.sort( list );
+        assertEquals( Arrays.asList( "0-a", "1-a", "2-a", "3-a" ), list );
+        ksession.dispose();
+
+        // a compilation error is reported against its own package only
+        KnowledgeBuilder brokenBuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        batch = brokenBuilder.batch().type( ResourceType.DRL );
+        for (int i = 0; i < 4; i++) {
+            String drl = "package org.drools.compiler.test" + i + "\n" +
+                         "rule R" + i + " when\n" +
+                         "   $s : String()\n" +
+                         "then\n" +
+                         "   " + ( i == 2 ? "$s.noSuchMethod();" : "$s.length();" ) + "\n" +
+                         "end";
+            batch.add( ResourceFactory.newByteArrayResource( drl.getBytes() ) );
+        }
+        batch.build();
+        assertEquals( 1, brokenBuilder.getErrors().size() );
+        assertTrue( brokenBuilder.getErrors().iterator().next().getMessage().contains( "R2" ) );
+    }
+
     @Test
     public void testCompositeKnowledgeBuilder() throws Exception {
         String rule = "package org.drools.compiler.test\n" +
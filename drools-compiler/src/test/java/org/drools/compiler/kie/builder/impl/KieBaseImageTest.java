@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.compiler.kie.builder.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
+import org.drools.core.common.ProjectClassLoader;
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.util.ClassUtils;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieModule;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.builder.model.KieBaseModel;
+import org.kie.api.io.Resource;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class KieBaseImageTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "package org.drools.test\n" +
+            "global java.util.List list\n" +
+            "declare Person name : String end\n" +
+            "rule Init when\n" +
+            "  String( $s : this )\n" +
+            "then\n" +
+            "  insert( new Person( $s ) );\n" +
+            "end\n" +
+            "rule R when\n" +
+            "  Person( $name : name )\n" +
+            "then\n" +
+            "  list.add( $name );\n" +
+            "end\n";
+
+    @Test
+    public void testKieBaseLoadedFromImage() {
+        final KieServices ks = KieServices.Factory.get();
+        final ReleaseId releaseId = ks.newReleaseId( "org.kie", "kbase-image", "1.0" );
+
+        final KieModule kieModule = createAndDeployJar( ks, kmodule( true ), releaseId, drl( ks ) );
+        assertNotNull( ( (InternalKieModule) kieModule ).getBytes( KieBuilderImpl.getKieBaseImagePath( releaseId, "kbase1" ) ) );
+
+        assertFired( ks.newKieContainer( releaseId ) );
+    }
+
+    @Test
+    public void testVerifiedKieModuleLoadsImageWithoutCompiling() {
+        final KieServices ks = KieServices.Factory.get();
+        final ReleaseId releaseId = ks.newReleaseId( "org.kie", "kbase-image-verified", "1.0" );
+
+        final InternalKieModule kieModule = (InternalKieModule) deployJar( ks, createJar( ks, kmodule( true ), o -> true, releaseId, drl( ks, DRL ) ) );
+
+        // same as done by the KieScanner when it loads a kjar in the repository
+        final ResultsImpl messages = new ResultsImpl();
+        KieBuilderImpl.buildKieModule( kieModule, messages );
+        assertTrue( messages.getMessages().isEmpty() );
+
+        assertFired( ks.newKieContainer( releaseId ) );
+        // the KnowledgeBuilder is cached only when the KieBase is compiled
+        assertNull( kieModule.getKnowledgeBuilderForKieBase( "kbase1" ) );
+    }
+
+    @Test
+    public void testStaleImageIsIgnored() {
+        final KieServices ks = KieServices.Factory.get();
+        final ReleaseId releaseId = ks.newReleaseId( "org.kie", "kbase-image-stale", "1.0" );
+
+        final MemoryFileSystem mfs = MemoryFileSystem.readFromJar( createJar( ks, kmodule( true ), o -> true, releaseId, drl( ks, DRL ) ) );
+        mfs.write( "org/drools/test/rules.drl", DRL.replace( "list.add( $name );", "list.add( \"Hello \" + $name );" ).getBytes(), true );
+        final InternalKieModule kieModule = (InternalKieModule) deployJar( ks, mfs.writeAsBytes() );
+
+        final ResultsImpl messages = new ResultsImpl();
+        KieBuilderImpl.buildKieModule( kieModule, messages );
+        assertNotNull( kieModule.getKnowledgeBuilderForKieBase( "kbase1" ) );
+
+        assertFired( ks.newKieContainer( releaseId ), "Hello Mario" );
+    }
+
+    @Test
+    public void testNoImageByDefault() {
+        final KieServices ks = KieServices.Factory.get();
+        final ReleaseId releaseId = ks.newReleaseId( "org.kie", "kbase-no-image", "1.0" );
+
+        final KieModule kieModule = createAndDeployJar( ks, kmodule( false ), releaseId, drl( ks ) );
+        assertNull( ( (InternalKieModule) kieModule ).getBytes( KieBuilderImpl.getKieBaseImagePath( releaseId, "kbase1" ) ) );
+
+        assertFired( ks.newKieContainer( releaseId ) );
+    }
+
+    @Test
+    public void testImageSharesTheClassLoaderOfTheContainer() {
+        final KieServices ks = KieServices.Factory.get();
+        final ReleaseId releaseId = ks.newReleaseId( "org.kie", "kbase-image-classes", "1.0" );
+
+        final InternalKieModule kieModule = (InternalKieModule) createAndDeployJar( ks, kmodule( true ), releaseId, drl( ks ) );
+        final KieBaseModel kBaseModel = kieModule.getKieModuleModel().getKieBaseModels().get( "kbase1" );
+
+        ProjectClassLoader classLoader = ProjectClassLoader.createProjectClassLoader();
+        InternalKnowledgeBase kBase = KieBaseImage.readKieBaseImage( kieModule, kBaseModel, classLoader );
+        assertNotNull( kBase );
+        assertSame( classLoader, kBase.getRootClassLoader() );
+        assertFalse( classLoader.getStore().isEmpty() );
+
+        // a class of the image differing from the one of the container means the image is stale
+        ProjectClassLoader otherClassLoader = ProjectClassLoader.createProjectClassLoader();
+        for ( Map.Entry<String, byte[]> entry : classLoader.getStore().entrySet() ) {
+            byte[] bytecode = entry.getValue().clone();
+            bytecode[bytecode.length - 1]++;
+            otherClassLoader.storeClass( ClassUtils.convertResourceToClassName( entry.getKey() ), entry.getKey(), bytecode );
+        }
+        assertNull( KieBaseImage.readKieBaseImage( kieModule, kBaseModel, otherClassLoader ) );
+    }
+
+    private void assertFired( KieContainer kieContainer ) {
+        assertFired( kieContainer, "Mario" );
+    }
+
+    private void assertFired( KieContainer kieContainer, String expected ) {
+        final KieSession ksession = kieContainer.newKieSession( "ksession1" );
+        final List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "Mario" );
+        ksession.fireAllRules();
+        assertEquals( 1, list.size() );
+        assertEquals( expected, list.get( 0 ) );
+    }
+
+    private Resource drl( KieServices ks ) {
+        return drl( ks, DRL );
+    }
+
+    private Resource drl( KieServices ks, String drl ) {
+        return ks.getResources().newByteArrayResource( drl.getBytes() ).setSourcePath( "org/drools/test/rules.drl" );
+    }
+
+    private String kmodule( boolean image ) {
+        return "<kmodule xmlns=\"http://www.drools.org/xsd/kmodule\">\n" +
+               ( image ? "  <configuration>\n" +
+                         "    <property key=\"" + KieBaseImage.KBASE_IMAGE_PROPERTY + "\" value=\"true\"/>\n" +
+                         "  </configuration>\n" : "" ) +
+               "  <kbase name=\"kbase1\" packages=\"org.drools.test\">\n" +
+               "    <ksession name=\"ksession1\"/>\n" +
+               "  </kbase>\n" +
+               "</kmodule>";
+    }
+}
@@ -45,6 +45,7 @@ public class DroolsObjectInputStream extends ObjectInputStream
     private InternalWorkingMemory           workingMemory;
     private Package                         pkg;
     private ClassFieldAccessorStore         store;
+    private boolean                         shareProjectClassLoader;
 
     private Map<AccessorKey, List<Consumer<InternalReadAccessor>>> extractorBinders = new HashMap<>();
     
@@ -160,6 +161,18 @@ public class DroolsObjectInputStream extends ObjectInputStream
     }
 
 
+    public boolean isShareProjectClassLoader() {
+        return shareProjectClassLoader;
+    }
+
+    /**
+     * When set, a KieBase read from this stream adds its classes to the ProjectClassLoader the stream has been
+     * created with, instead of defining them in a ProjectClassLoader of its own.
+     */
+    public void setShareProjectClassLoader( boolean shareProjectClassLoader ) {
+        this.shareProjectClassLoader = shareProjectClassLoader;
+    }
+
     public Map<String, Object> getCustomExtensions() {
         return customExtensions;
     }
@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.drools.core.util.ClassUtils;
 import org.kie.internal.utils.KieTypeResolver;
@@ -50,6 +51,9 @@ public class ProjectClassLoader extends ClassLoader implements KieTypeResolver {
 
     private Map<String, byte[]> store;
 
+    // incremented on every change of the store made through this ClassLoader
+    private final AtomicLong storeVersion = new AtomicLong();
+
     private Map<String, ClassBytecode> definedTypes;
 
     private final Set<String> nonExistingClasses = new HashSet<String>();
@@ -137,6 +141,7 @@ public class ProjectClassLoader extends ClassLoader implements KieTypeResolver {
     public static ProjectClassLoader createProjectClassLoader(ClassLoader parent, Map<String, byte[]> store) {
         ProjectClassLoader projectClassLoader = createProjectClassLoader(parent);
         projectClassLoader.store = store;
+        projectClassLoader.storeVersion.incrementAndGet();
         return projectClassLoader;
     }
 
@@ -228,6 +233,7 @@ public class ProjectClassLoader extends ClassLoader implements KieTypeResolver {
     public synchronized void undefineClass(String name) {
         String resourceName = convertClassToResourcePath(name);
         if (store.remove(resourceName) != null) {
+            storeVersion.incrementAndGet();
             if (CACHE_NON_EXISTING_CLASSES) {
                 nonExistingClasses.add(name);
             }
@@ -254,6 +260,7 @@ public class ProjectClassLoader extends ClassLoader implements KieTypeResolver {
             store = new HashMap<String, byte[]>();
         }
         store.put(resourceName, bytecode);
+        storeVersion.incrementAndGet();
         if (CACHE_NON_EXISTING_CLASSES) {
             nonExistingClasses.remove(name);
         }
@@ -343,6 +350,15 @@ public class ProjectClassLoader extends ClassLoader implements KieTypeResolver {
         return store;
     }
 
+    /**
+     * Returns a counter of the changes of the store, that differs from the former one whenever a class
+     * has been stored, replaced or removed since. The store has to be changed through storeClass() and
+     * undefineClass() for this to be tracked.
+     */
+    public long getStoreVersion() {
+        return storeVersion.get();
+    }
+
     public void setDroolsClassLoader(ClassLoader droolsClassLoader) {
         if (getParent() != droolsClassLoader) {
             this.droolsClassLoader = droolsClassLoader;
@@ -369,6 +385,7 @@ public class ProjectClassLoader extends ClassLoader implements KieTypeResolver {
                 store = new HashMap<String, byte[]>();
             }
             store.putAll(other.store);
+            storeVersion.incrementAndGet();
         }
         nonExistingClasses.addAll(other.nonExistingClasses);
     }
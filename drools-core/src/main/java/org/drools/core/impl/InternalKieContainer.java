@@ -59,6 +59,13 @@ public interface InternalKieContainer extends KieContainer {
 
     Results updateDependencyToVersion(ReleaseId currentReleaseId, ReleaseId newReleaseId);
 
+    /**
+     * Updates a dependency like {@link #updateDependencyToVersion(ReleaseId, ReleaseId)}, but also replaces the cached
+     * KieBases with new ones created from the updated KieModule, so that the sessions created afterwards use them
+     * straight away. The KieBases of the existing sessions are still incrementally updated.
+     */
+    Results swapDependencyToVersion(ReleaseId currentReleaseId, ReleaseId newReleaseId);
+
     InputStream getPomAsStream();
 
     /**
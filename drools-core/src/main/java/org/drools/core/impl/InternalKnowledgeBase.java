@@ -135,6 +135,8 @@ public interface InternalKnowledgeBase extends KieBase {
 	void setResolvedReleaseId(ReleaseId currentReleaseId);
 	String getContainerId();
 	void setContainerId(String containerId);
+	long getBuildTime();
+	void setBuildTime(long buildTime);
     void setKieContainer( InternalKieContainer kieContainer );
 	void initMBeans();
 
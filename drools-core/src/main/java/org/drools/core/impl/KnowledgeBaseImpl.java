@@ -20,9 +20,11 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.Externalizable;
 import java.io.IOException;
+import java.io.InvalidClassException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -114,6 +116,7 @@ import static org.drools.core.common.ProjectClassLoader.createProjectClassLoader
 import static org.drools.core.util.BitMaskUtil.isSet;
 import static org.drools.core.util.ClassUtils.areNullSafeEquals;
 import static org.drools.core.util.ClassUtils.convertClassToResourcePath;
+import static org.drools.core.util.ClassUtils.convertResourceToClassName;
 
 public class KnowledgeBaseImpl
     implements
@@ -183,6 +186,7 @@ public class KnowledgeBaseImpl
 
     private ReleaseId resolvedReleaseId;
     private String containerId;
+    private transient long buildTime;
     private AtomicBoolean mbeanRegistered = new AtomicBoolean(false);
 
     private RuleUnitRegistry ruleUnitRegistry = new RuleUnitRegistry();
@@ -417,7 +421,10 @@ public class KnowledgeBaseImpl
         boolean classLoaderCacheEnabled = droolsStream.readBoolean();
         Map<String, byte[]> store = (Map<String, byte[]>) droolsStream.readObject();
 
-        this.rootClassLoader = createProjectClassLoader(droolsStream.getParentClassLoader(), store);
+        boolean shareProjectClassLoader = droolsStream instanceof DroolsObjectInputStream && ((DroolsObjectInputStream) droolsStream).isShareProjectClassLoader();
+        this.rootClassLoader = shareProjectClassLoader ?
+                               restoreClassLoader(droolsStream.getParentClassLoader(), store) :
+                               createProjectClassLoader(droolsStream.getParentClassLoader(), store);
 
         droolsStream.setClassLoader(this.rootClassLoader);
         droolsStream.setKnowledgeBase(this);
@@ -513,6 +520,30 @@ public class KnowledgeBaseImpl
         }
     }
 
+    /**
+     * Adds the classes of a KieBase image to the ProjectClassLoader of the KieContainer reading it, so that the
+     * KieBase and the application see the same classes. A class the ProjectClassLoader already holds with a
+     * different bytecode means the image has been built against other sources, and fails the deserialization.
+     */
+    private static ClassLoader restoreClassLoader(ClassLoader parentClassLoader, Map<String, byte[]> store) throws InvalidClassException {
+        if (!(parentClassLoader instanceof ProjectClassLoader)) {
+            return createProjectClassLoader(parentClassLoader, store);
+        }
+        ProjectClassLoader projectClassLoader = (ProjectClassLoader) parentClassLoader;
+        if (store != null) {
+            for (Map.Entry<String, byte[]> entry : store.entrySet()) {
+                byte[] bytecode = projectClassLoader.getBytecode(entry.getKey());
+                if (bytecode == null) {
+                    projectClassLoader.storeClass(convertResourceToClassName(entry.getKey()), entry.getKey(), entry.getValue());
+                } else if (!Arrays.equals(bytecode, entry.getValue())) {
+                    throw new InvalidClassException(convertResourceToClassName(entry.getKey()),
+                                                    "the serialized KieBase has a different bytecode for this class than its ClassLoader");
+                }
+            }
+        }
+        return projectClassLoader;
+    }
+
     /**
      * Handles the write serialization of the Package. Patterns in Rules may reference generated data which cannot be serialized by default methods.
      * The Package uses PackageCompilationData to hold a reference to the generated bytecode. The generated bytecode must be restored before any Rules.
@@ -1782,6 +1813,16 @@ public class KnowledgeBaseImpl
         this.containerId = containerId;
     }
 
+    @Override
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    @Override
+    public void setBuildTime(long buildTime) {
+        this.buildTime = buildTime;
+    }
+
     @Override
     public void setKieContainer( InternalKieContainer kieContainer ) {
         this.kieContainer = kieContainer;
@@ -72,6 +72,7 @@ public class KnowledgeBaseMonitoring
     private static final String ATTR_GLOBALS       = "Globals";
     private static final String ATTR_SESSION_COUNT = "SessionCount";
     private static final String ATTR_ID            = "Id";
+    private static final String ATTR_BUILD_TIME    = "BuildTime";
 
     private static final String OP_STOP_INTERNAL_MBEANS  = "stopInternalMBeans";
     private static final String OP_START_INTERNAL_MBEANS = "startInternalMBeans";
@@ -124,7 +125,7 @@ public class KnowledgeBaseMonitoring
      *  Initialize the open mbean metadata
      */
     private void initOpenMBeanInfo() {
-        OpenMBeanAttributeInfoSupport[] attributes = new OpenMBeanAttributeInfoSupport[4];
+        OpenMBeanAttributeInfoSupport[] attributes = new OpenMBeanAttributeInfoSupport[5];
         OpenMBeanConstructorInfoSupport[] constructors = new OpenMBeanConstructorInfoSupport[1];
         OpenMBeanOperationInfoSupport[] operations = new OpenMBeanOperationInfoSupport[2];
         MBeanNotificationInfo[] notifications = new MBeanNotificationInfo[0];
@@ -156,6 +157,12 @@ public class KnowledgeBaseMonitoring
                                                                true,
                                                                false,
                                                                false );
+            attributes[4] = new OpenMBeanAttributeInfoSupport( ATTR_BUILD_TIME,
+                                                               "Time in milliseconds spent to build this Knowledge Base",
+                                                               SimpleType.LONG,
+                                                               true,
+                                                               false,
+                                                               false );
             //No arg constructor                
             constructors[0] = new OpenMBeanConstructorInfoSupport( "KnowledgeBaseMonitoringMXBean",
                                                                    "Constructs a KnowledgeBaseMonitoringMXBean instance.",
@@ -226,6 +233,10 @@ public class KnowledgeBaseMonitoring
         return kbase.getWorkingMemoryCounter();
     }
 
+    public long getBuildTime() {
+        return kbase.getBuildTime();
+    }
+
     public void startInternalMBeans() {
         for ( EntryPointNode epn : kbase.getRete().getEntryPointNodes().values() ) {
             for ( ObjectTypeNode otn : epn.getObjectTypeNodes().values() ) {
@@ -277,6 +288,8 @@ public class KnowledgeBaseMonitoring
             }
         } else if ( attributeName.equals( ATTR_PACKAGES ) ) {
             return getPackages();
+        } else if ( attributeName.equals( ATTR_BUILD_TIME ) ) {
+            return Long.valueOf( getBuildTime() );
         }
         throw new AttributeNotFoundException( "Cannot find " + attributeName + " attribute " );
     }
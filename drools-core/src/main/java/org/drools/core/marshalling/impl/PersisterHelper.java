@@ -41,6 +41,7 @@ import org.drools.core.marshalling.impl.ProtobufMessages.Header.StrategyIndex.Bu
 import org.drools.core.reteoo.PropagationQueuingNode.PropagateAction;
 import org.drools.core.rule.SlidingTimeWindow.BehaviorExpireWMAction;
 import org.drools.core.spi.Tuple;
+import org.drools.core.util.ClassUtils;
 import org.drools.core.util.Drools;
 import org.drools.core.util.KeyStoreHelper;
 import org.kie.api.marshalling.ObjectMarshallingStrategy;
@@ -337,8 +338,8 @@ public class PersisterHelper {
             for ( ProtobufMessages.RuntimeClassDef def : _header.getRuntimeClassDefinitionsList() ) {
                 String resourceName = def.getClassFqName();
                 byte[] byteCode = def.getClassDef().toByteArray();
-                if ( ! pcl.getStore().containsKey( resourceName ) ) {
-                    pcl.getStore().put(resourceName, byteCode);
+                if ( pcl.getBytecode( resourceName ) == null ) {
+                    pcl.storeClass( ClassUtils.convertResourceToClassName( resourceName ), resourceName, byteCode );
                 }
             }
         }
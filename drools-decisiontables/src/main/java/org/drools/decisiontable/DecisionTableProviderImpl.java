@@ -16,12 +16,16 @@
 package org.drools.decisiontable;
 
 import org.drools.compiler.compiler.DecisionTableProvider;
+import org.drools.compiler.compiler.DroolsParserException;
+import org.drools.compiler.lang.descr.PackageDescr;
 import org.drools.core.util.StringUtils;
+import org.drools.template.model.Package;
 import org.kie.api.io.Resource;
 import org.kie.internal.builder.DecisionTableConfiguration;
 import org.kie.internal.builder.DecisionTableInputType;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
 import org.kie.internal.builder.RuleTemplateConfiguration;
+import org.kie.internal.builder.conf.LanguageLevelOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +51,20 @@ public class DecisionTableProviderImpl
         }
     }
 
+    public PackageDescr loadPackageDescrFromResource(Resource resource,
+                                                     DecisionTableConfiguration configuration,
+                                                     LanguageLevelOption languageLevel) {
+        if ( !PackageDescrRenderer.isEnabled() ) {
+            return null;
+        }
+        try {
+            Package ruleSet = parseRuleSet( resource, configuration );
+            return ruleSet != null ? new PackageDescrRenderer( resource, languageLevel ).render( ruleSet ) : null;
+        } catch (DroolsParserException e) {
+            throw new RuntimeException( e );
+        }
+    }
+
     public List<String> loadFromInputStreamWithTemplates(Resource resource,
                                                          DecisionTableConfiguration configuration) {
         List<String> drls = new ArrayList<String>( configuration.getRuleTemplateConfigurations().size() );
@@ -90,6 +108,34 @@ public class DecisionTableProviderImpl
         return null;
     }
 
+    private Package parseRuleSet(Resource resource,
+                                 DecisionTableConfiguration configuration) {
+        SpreadsheetCompiler compiler = new SpreadsheetCompiler();
+
+        if ( configuration == null ) {
+            return compiler.parseRuleSet( resource,
+                                          InputType.XLS );
+        }
+
+        switch ( configuration.getInputType() ) {
+            case XLS :
+            case XLSX :
+                if ( StringUtils.isEmpty( configuration.getWorksheetName() ) ) {
+                    return compiler.parseRuleSet( resource,
+                                                  InputType.XLS );
+                } else {
+                    return compiler.parseRuleSet( resource,
+                                                  configuration.getWorksheetName() );
+                }
+            case CSV : {
+                return compiler.parseRuleSet( resource,
+                                              InputType.CSV );
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Adapts a <code>Reader</code> as an <code>InputStream</code>. Adapted from
      * <CODE>StringInputStream</CODE>.
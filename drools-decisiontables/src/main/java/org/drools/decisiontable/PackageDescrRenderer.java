@@ -0,0 +1,300 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.decisiontable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.drools.compiler.compiler.DrlParser;
+import org.drools.compiler.compiler.DroolsParserException;
+import org.drools.compiler.lang.api.CEDescrBuilder;
+import org.drools.compiler.lang.api.DescrFactory;
+import org.drools.compiler.lang.api.PackageDescrBuilder;
+import org.drools.compiler.lang.api.PatternDescrBuilder;
+import org.drools.compiler.lang.api.RuleDescrBuilder;
+import org.drools.compiler.lang.descr.AndDescr;
+import org.drools.compiler.lang.descr.AttributeDescr;
+import org.drools.compiler.lang.descr.PackageDescr;
+import org.drools.compiler.lang.descr.RuleDescr;
+import org.drools.core.util.StringUtils;
+import org.drools.template.model.Condition;
+import org.drools.template.model.Consequence;
+import org.drools.template.model.DRLOutput;
+import org.drools.template.model.Package;
+import org.drools.template.model.Rule;
+import org.kie.api.io.Resource;
+import org.kie.internal.builder.conf.LanguageLevelOption;
+
+/**
+ * Builds the PackageDescr of a decision table straight from the rule model produced by the
+ * RuleSheetListener, instead of rendering the whole package as DRL and parsing it back.
+ *
+ * Only the package header (imports, globals, functions, queries and declares) is still
+ * rendered and parsed. Rules are built with the descr builders: their consequences are plain
+ * text anyway, and conditions of the form [$id :] Type( constraint, ... ) are split into
+ * their constraints, which are parsed later by the rule builder as it happens for DRL. A rule
+ * having any other kind of condition, or metadata, is rendered and parsed on its own.
+ *
+ * render() returns null when something could not be parsed, so that the caller falls back
+ * to the DRL, and reports the errors against it.
+ */
+public class PackageDescrRenderer {
+
+    public static final String DIRECT_PACKAGE_DESCR_PROPERTY = "drools.decisiontable.directPackageDescr";
+
+    private static final Pattern patPattern = Pattern.compile( "(?:([A-Za-z_$][\\w$]*)\\s*:(?!=)\\s*)?([A-Za-z_$][\\w$]*(?:\\s*\\.\\s*[A-Za-z_$][\\w$]*)*)\\s*\\(" );
+
+    private static final Set<String> keywords = new HashSet<String>( Arrays.asList( "eval", "not", "exists", "forall", "accumulate", "acc",
+                                                                                     "collect", "from", "and", "or", "if", "do", "break", "window" ) );
+
+    private final Resource resource;
+    private final LanguageLevelOption languageLevel;
+
+    public PackageDescrRenderer( Resource resource,
+                                 LanguageLevelOption languageLevel ) {
+        this.resource = resource;
+        this.languageLevel = languageLevel;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean( System.getProperty( DIRECT_PACKAGE_DESCR_PROPERTY, "false" ) );
+    }
+
+    public PackageDescr render( Package ruleSet ) throws DroolsParserException {
+        DRLOutput header = new DRLOutput();
+        ruleSet.renderHeaderDRL( header );
+        PackageDescr pkg = parse( header.getDRL() );
+        if ( pkg == null ) {
+            return null;
+        }
+
+        PackageDescrBuilder builder = DescrFactory.newPackage( resource ).name( pkg.getNamespace() );
+        for ( Rule rule : ruleSet.getRules() ) {
+            RuleDescr ruleDescr = buildRule( builder, rule );
+            if ( ruleDescr == null ) {
+                DRLOutput out = new DRLOutput();
+                rule.renderDRL( out );
+                PackageDescr rulePkg = parse( out.getDRL() );
+                if ( rulePkg == null || rulePkg.getRules().size() != 1 ) {
+                    return null;
+                }
+                ruleDescr = rulePkg.getRules().get( 0 );
+                ruleDescr.setNamespace( pkg.getNamespace() );
+            }
+            pkg.addRule( ruleDescr );
+            // applies the package attributes, as the parser does when a rule ends
+            pkg.afterRuleAdded( ruleDescr );
+        }
+        return pkg;
+    }
+
+    private PackageDescr parse( String drl ) throws DroolsParserException {
+        DrlParser parser = new DrlParser( languageLevel );
+        PackageDescr pkg = parser.parse( resource, drl );
+        return parser.hasErrors() ? null : pkg;
+    }
+
+    private RuleDescr buildRule( PackageDescrBuilder builder,
+                                 Rule rule ) {
+        if ( !rule.getMetadata().isEmpty() ) {
+            return null;
+        }
+        RuleDescrBuilder ruleBuilder = builder.newRule().name( unquote( rule.getName() ) );
+
+        for ( Map.Entry<String, String> attribute : rule.getAttributes().entrySet() ) {
+            if ( !addAttribute( ruleBuilder, attribute.getKey(), attribute.getValue() ) ) {
+                return null;
+            }
+        }
+
+        CEDescrBuilder<RuleDescrBuilder, AndDescr> lhs = ruleBuilder.lhs();
+        for ( Condition condition : rule.getConditions() ) {
+            if ( !addPattern( lhs, condition.getSnippet() ) ) {
+                return null;
+            }
+        }
+
+        // same text the parser would find between 'then' and 'end' in the rendered rule
+        StringBuilder rhs = new StringBuilder();
+        for ( Consequence consequence : rule.getConsequences() ) {
+            rhs.append( "\t\t" ).append( consequence.getSnippet() ).append( "\n" );
+        }
+        ruleBuilder.rhs( rhs.toString() );
+
+        return ruleBuilder.getDescr();
+    }
+
+    /**
+     * Adds the attribute as the parser would do when reading the value rendered by the rule model.
+     */
+    private boolean addAttribute( RuleDescrBuilder rule,
+                                  String name,
+                                  String value ) {
+        switch ( name ) {
+            case "salience" :
+            case "enabled" :
+                rule.attribute( name, value, AttributeDescr.Type.EXPRESSION );
+                return true;
+            case "no-loop" :
+            case "lock-on-active" :
+            case "auto-focus" :
+                rule.attribute( name, value, AttributeDescr.Type.BOOLEAN );
+                return true;
+            case "activation-group" :
+            case "agenda-group" :
+            case "ruleflow-group" :
+                rule.attribute( name, unquote( value ), AttributeDescr.Type.STRING );
+                return true;
+            case "date-effective" :
+            case "date-expires" :
+                rule.attribute( name, unquote( value ), AttributeDescr.Type.DATE );
+                return true;
+            case "calendars" :
+                rule.attribute( name, "[ " + value + " ]", AttributeDescr.Type.LIST );
+                return true;
+            case "timer" :
+                rule.attribute( name, value.substring( 1, value.length() - 1 ), AttributeDescr.Type.EXPRESSION );
+                return true;
+            case "duration" :
+                rule.attribute( name, value, AttributeDescr.Type.NUMBER );
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the condition to the LHS if it is a single pattern with plain constraints.
+     */
+    private boolean addPattern( CEDescrBuilder<RuleDescrBuilder, AndDescr> lhs,
+                                String snippet ) {
+        if ( snippet == null ) {
+            return false;
+        }
+        String text = snippet.trim();
+        Matcher matcher = patPattern.matcher( text );
+        if ( !matcher.lookingAt() || keywords.contains( matcher.group( 2 ) ) ) {
+            return false;
+        }
+        List<String> constraints = splitConstraints( text, matcher.end() );
+        if ( constraints == null ) {
+            return false;
+        }
+
+        PatternDescrBuilder<?> pattern = lhs.pattern( matcher.group( 2 ).replaceAll( "\\s", "" ) );
+        if ( matcher.group( 1 ) != null ) {
+            pattern.id( matcher.group( 1 ), false );
+        }
+        for ( String constraint : constraints ) {
+            pattern.constraint( constraint );
+        }
+        return true;
+    }
+
+    /**
+     * Splits the text following the opening parenthesis of a pattern in its top level constraints.
+     * Returns null unless that parenthesis is closed at the end of the text, or if the constraints
+     * use anything the parser handles on its own, like positional or nested constraints and comments.
+     */
+    private List<String> splitConstraints( String text,
+                                           int start ) {
+        List<String> constraints = new ArrayList<String>();
+        int depth = 0;
+        int constraintStart = start;
+        char quote = 0;
+        for ( int i = start; i < text.length(); i++ ) {
+            char c = text.charAt( i );
+            if ( quote != 0 ) {
+                if ( c == '\\' ) {
+                    i++;
+                } else if ( c == quote ) {
+                    quote = 0;
+                }
+                continue;
+            }
+            switch ( c ) {
+                case '"' :
+                case '\'' :
+                    quote = c;
+                    break;
+                case '(' :
+                    if ( text.charAt( i - 1 ) == '.' ) {
+                        return null;
+                    }
+                    // falls through
+                case '[' :
+                case '{' :
+                    depth++;
+                    break;
+                case ']' :
+                case '}' :
+                    depth--;
+                    break;
+                case ')' :
+                    if ( depth == 0 ) {
+                        if ( i != text.length() - 1 || !addConstraint( constraints, text.substring( constraintStart, i ), true ) ) {
+                            return null;
+                        }
+                        return constraints;
+                    }
+                    depth--;
+                    break;
+                case ',' :
+                    if ( depth == 0 ) {
+                        if ( !addConstraint( constraints, text.substring( constraintStart, i ), false ) ) {
+                            return null;
+                        }
+                        constraintStart = i + 1;
+                    }
+                    break;
+                case ';' :
+                    return null;
+                case '/' :
+                    if ( i + 1 < text.length() && ( text.charAt( i + 1 ) == '/' || text.charAt( i + 1 ) == '*' ) ) {
+                        return null;
+                    }
+                    break;
+            }
+        }
+        return null;
+    }
+
+    private boolean addConstraint( List<String> constraints,
+                                   String constraint,
+                                   boolean last ) {
+        constraint = constraint.trim();
+        if ( constraint.length() == 0 ) {
+            // only an empty pattern can have an empty constraint
+            return last && constraints.isEmpty();
+        }
+        constraints.add( constraint );
+        return true;
+    }
+
+    private static String unquote( String value ) {
+        value = value.trim();
+        if ( value.length() >= 2 && value.startsWith( "\"" ) && value.endsWith( "\"" ) ) {
+            value = value.substring( 1, value.length() - 1 );
+        }
+        return StringUtils.unescapeJava( value );
+    }
+}
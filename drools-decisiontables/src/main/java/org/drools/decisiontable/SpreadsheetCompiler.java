@@ -111,6 +111,33 @@ public class SpreadsheetCompiler {
         return listenerToString( listener );
     }
 
+    /**
+     * Parses the spreadsheet into the rule model, without rendering it as DRL.
+     *
+     * @param resource
+     *            The spreadsheet. Uses the first worksheet found for the decision
+     *            tables, ignores others.
+     * @param type
+     *            The type of the file - InputType.CSV or InputType.XLS
+     * @return the rule model, ready to be rendered.
+     */
+    public Package parseRuleSet(final Resource resource,
+                                final InputType type) {
+        final RuleSheetListener listener = new DefaultRuleSheetListener();
+        parseResource( type.createParser( listener ), resource );
+        return listener.getRuleSet();
+    }
+
+    /**
+     * Parses the named worksheet of the spreadsheet into the rule model,
+     * without rendering it as DRL. Only works with XLS format spreadsheets.
+     */
+    public Package parseRuleSet(final Resource resource,
+                                final String worksheetName) {
+        return getRuleSheetListener( resource,
+                                     worksheetName ).getRuleSet();
+    }
+
     public String listenerToString( RuleSheetListener listener ) {
         final Package rulePackage = listener.getRuleSet();
         final DRLOutput out = new DRLOutput();
@@ -16,11 +16,16 @@
 
 package org.drools.decisiontable.parser;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.drools.decisiontable.parser.xls.PropertiesSheetListener;
 import org.drools.decisiontable.parser.xls.PropertiesSheetListener.CaseInsensitiveMap;
@@ -61,6 +66,11 @@ import static org.drools.template.model.Rule.MAX_ROWS;
  * All subsequent rows identify rules with the set, providing values to be
  * inserted where there are markers in the code snippets defined in the third
  * row, or for the attribute identified by the column header.
+ *
+ * Rules are named after the table and their row, unless they have a NAME column.
+ * When the ContentRuleNames flag is set, a hash of the row content is used instead
+ * of the row number: a rule then keeps its name when rows are added or removed
+ * before it, so an incremental update only replaces the rows actually changed.
  * 
  *         href="mailto:michael.neale@gmail.com"> Michael Neale </a>
  */
@@ -77,6 +87,7 @@ implements RuleSheetListener {
     public static final String            MIN_SALIENCE_TAG       = "SequentialMinPriority";
     public static final String            MAX_SALIENCE_TAG       = "SequentialMaxPriority";
     public static final String            NUMERIC_DISABLED_FLAG  = "NumericDisabled";
+    public static final String            CONTENT_RULE_NAMES_FLAG = "ContentRuleNames";
     public static final String            VARIABLES_TAG          = "Variables";
     public static final String            RULE_TABLE_TAG         = "ruletable";
     public static final String            RULESET_TAG            = "RuleSet";
@@ -95,6 +106,9 @@ implements RuleSheetListener {
     private boolean                       _currentSequentialFlag   = false;                       // indicates that we are in sequential mode
     private boolean                       _currentEscapeQuotesFlag = true;                        // indicates that we are escaping quotes
     private boolean                       _currentNumericDisabledFlag = false;                    // indicates that we use String instead of double
+    private boolean                       _currentContentRuleNamesFlag = false;                   // indicates that rules are named after the content of their row
+    private StringBuilder                 _currentRuleContent;                                    // content of the current row, while it has to be named after it
+    private final Set<String>             _contentRuleNames = new HashSet<String>();              // used to tell apart the rules of identical rows
     private int                           _currentSalience = MAX_ROWS;                            // set to the start value of the salience and decremented for each row
     private int                           _minSalienceTag = 0;                                    // used to check if this minimum salience value is not violated
 
@@ -299,6 +313,10 @@ implements RuleSheetListener {
      * As when there are merged/spanned cells, they may be left out.
      */
     private void flushRule() {
+        if ( _currentRuleContent != null && _currentRuleContent.length() > 0 ) {
+            _currentRule.setName( contentRuleName( _currentRuleContent.toString() ) );
+            _currentRuleContent = null;
+        }
         for ( SourceBuilder src : sourceBuilders ) {
             if ( src.hasValues() ) {
                 switch ( src.getActionTypeCode() ) {
@@ -368,6 +386,7 @@ implements RuleSheetListener {
         this._currentSequentialFlag = getFlagValue(SEQUENTIAL_FLAG, false);
         this._currentEscapeQuotesFlag = getFlagValue(ESCAPE_QUOTES_FLAG, true);
         this._currentNumericDisabledFlag = getFlagValue(NUMERIC_DISABLED_FLAG, false);
+        this._currentContentRuleNamesFlag = getFlagValue(CONTENT_RULE_NAMES_FLAG, false);
 
         this._currentSalience = getNumericValue( MAX_SALIENCE_TAG, this._currentSalience );
         this._minSalienceTag = getNumericValue(MIN_SALIENCE_TAG, this._minSalienceTag);
@@ -605,6 +624,10 @@ implements RuleSheetListener {
             this._ruleRow++;
         }
 
+        if ( this._currentRuleContent != null ) {
+            this._currentRuleContent.append( column - this._ruleStartColumn ).append( '=' ).append( value ).append( '\n' );
+        }
+
         switch( actionType.getCode() ){
         case CONDITION:
         case ACTION:
@@ -633,6 +656,8 @@ implements RuleSheetListener {
             break;
         case NAME:
             this._currentRule.setName( value );
+            // an explicit name wins over the content one
+            this._currentRuleContent = null;
             break;
         case DESCRIPTION:
             this._currentRule.setDescription( value );
@@ -693,10 +718,36 @@ implements RuleSheetListener {
         final String name = this._currentRulePrefix + "_" + spreadsheetRow;
         final Rule rule = new Rule( name, salience, spreadsheetRow );
         rule.setComment( " rule values at " + ruleCell + ", header at " + headCell );
+        this._currentRuleContent = this._currentContentRuleNamesFlag ? new StringBuilder() : null;
 
         return rule;
     }
 
+    /**
+     * Names the rule after the hash of its row, adding a counter when the same row appears more than once.
+     */
+    private String contentRuleName(final String content) {
+        final String name = this._currentRulePrefix + "_" + contentHash( content );
+        String uniqueName = name;
+        for ( int i = 2; !this._contentRuleNames.add( uniqueName ); i++ ) {
+            uniqueName = name + "_" + i;
+        }
+        return uniqueName;
+    }
+
+    private static String contentHash(final String content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance( "MD5" ).digest( content.getBytes( StandardCharsets.UTF_8 ) );
+            final StringBuilder hash = new StringBuilder();
+            for ( int i = 0; i < 8; i++ ) {
+                hash.append( Character.forDigit( ( digest[i] >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( digest[i] & 0xF, 16 ) );
+            }
+            return hash.toString();
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new RuntimeException( e );
+        }
+    }
+
     private boolean isCellValueEmpty(final String value) {
         return value == null || "".equals( value.trim() );
     }
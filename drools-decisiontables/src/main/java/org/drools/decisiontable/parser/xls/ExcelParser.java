@@ -17,6 +17,7 @@
 package org.drools.decisiontable.parser.xls;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -26,6 +27,7 @@ import java.util.Locale;
 import java.util.Map;
 
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.CellValue;
@@ -82,6 +84,13 @@ public class ExcelParser
 
     public void parseFile( InputStream inStream ) {
         try {
+            if ( StreamingExcelParser.isEnabled() ) {
+                inStream = FileMagic.prepareToCheckMagic( inStream );
+                if ( FileMagic.valueOf( inStream ) == FileMagic.OOXML ) {
+                    new StreamingExcelParser( _listeners, _useFirstSheet ).parseFile( inStream );
+                    return;
+                }
+            }
             parseWorkbook( WorkbookFactory.create( inStream ) );
         } catch ( InvalidFormatException e ) {
             throw new DecisionTableParseException( "An error occurred opening the workbook. It is possible that the encoding of the document did not match the encoding of the reader.",
@@ -94,6 +103,10 @@ public class ExcelParser
 
     public void parseFile( File file ) {
         try {
+            if ( StreamingExcelParser.isEnabled() && isOOXML( file ) ) {
+                new StreamingExcelParser( _listeners, _useFirstSheet ).parseFile( file );
+                return;
+            }
             parseWorkbook( WorkbookFactory.create( file, (String)null, true ) );
         } catch ( InvalidFormatException e ) {
             throw new DecisionTableParseException( "An error occurred opening the workbook. It is possible that the encoding of the document did not match the encoding of the reader.",
@@ -104,6 +117,12 @@ public class ExcelParser
         }
     }
 
+    private static boolean isOOXML( File file ) throws IOException {
+        try (InputStream is = FileMagic.prepareToCheckMagic( new FileInputStream( file ) )) {
+            return FileMagic.valueOf( is ) == FileMagic.OOXML;
+        }
+    }
+
     public void parseWorkbook( Workbook workbook ) {
         try {
             if ( _useFirstSheet ) {
@@ -308,7 +327,7 @@ public class ExcelParser
         }
     }
 
-    private boolean isNumericDisabled( List<? extends DataListener> listeners ) {
+    static boolean isNumericDisabled( List<? extends DataListener> listeners ) {
         for ( DataListener listener : listeners ) {
             if (listener instanceof DefaultRuleSheetListener) {
                 return ((DefaultRuleSheetListener)listener).isNumericDisabled();
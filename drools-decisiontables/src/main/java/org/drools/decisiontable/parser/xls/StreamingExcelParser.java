@@ -0,0 +1,356 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.decisiontable.parser.xls;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.drools.decisiontable.parser.DecisionTableParser;
+import org.drools.template.parser.DataListener;
+import org.drools.template.parser.DecisionTableParseException;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Parse an xlsx spreadsheet with the SAX based event model of POI, pushing cell info into the SheetListener
+ * interface row by row, without loading the whole workbook in memory.
+ *
+ * Cells are notified with the same values as the ExcelParser, except for formulas which are never evaluated:
+ * the value cached in the workbook by the application that saved it is used instead.
+ *
+ * The ExcelParser delegates to this parser for xlsx files when the system property
+ * drools.decisiontable.xlsx.streaming is set to true.
+ */
+public class StreamingExcelParser
+        implements
+        DecisionTableParser {
+
+    public static final String STREAMING_PROPERTY = "drools.decisiontable.xlsx.streaming";
+
+    private final Map<String, List<DataListener>> _listeners;
+    private final boolean _useFirstSheet;
+
+    public StreamingExcelParser( final Map<String, List<DataListener>> sheetListeners,
+                                 final boolean useFirstSheet ) {
+        this._listeners = sheetListeners;
+        this._useFirstSheet = useFirstSheet;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean( System.getProperty( STREAMING_PROPERTY, "false" ) );
+    }
+
+    /**
+     * OPCPackage.open(InputStream) unzips the whole workbook in memory: the stream is spooled
+     * to a temporary file instead, whose entries are then read on demand.
+     */
+    public void parseFile( InputStream inStream ) {
+        Path spooled = null;
+        try {
+            spooled = Files.createTempFile( "drools-decisiontable", ".xlsx" );
+            Files.copy( inStream, spooled, StandardCopyOption.REPLACE_EXISTING );
+        } catch ( IOException e ) {
+            deleteSpooled( spooled );
+            throw new DecisionTableParseException( "Failed to open Excel stream, " + "please check that the content is xlsx format.",
+                                                   e );
+        }
+        try {
+            parseFile( spooled.toFile() );
+        } finally {
+            deleteSpooled( spooled );
+        }
+    }
+
+    private static void deleteSpooled( Path spooled ) {
+        if ( spooled != null ) {
+            try {
+                Files.deleteIfExists( spooled );
+            } catch ( IOException e ) {
+                spooled.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    public void parseFile( File file ) {
+        try {
+            parsePackage( OPCPackage.open( file, PackageAccess.READ ) );
+        } catch ( OpenXML4JException | SAXException e ) {
+            throw new DecisionTableParseException( "An error occurred opening the workbook. It is possible that the encoding of the document did not match the encoding of the reader.",
+                                                   e );
+        } catch ( IOException e ) {
+            throw new DecisionTableParseException( "Failed to open Excel stream, " + "please check that the content is xlsx format.",
+                                                   e );
+        }
+    }
+
+    private void parsePackage( OPCPackage pkg ) throws IOException, OpenXML4JException, SAXException {
+        try {
+            parseSheets( pkg );
+        } finally {
+            // the package is only read, closing it would try to save it
+            pkg.revert();
+        }
+    }
+
+    private void parseSheets( OPCPackage pkg ) throws IOException, OpenXML4JException, SAXException {
+        XSSFReader reader = new XSSFReader( pkg );
+        ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable( pkg );
+        StylesTable styles = reader.getStylesTable();
+
+        Set<String> missingSheets = new LinkedHashSet<String>( _listeners.keySet() );
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        while ( sheets.hasNext() ) {
+            try (InputStream sheet = sheets.next()) {
+                String sheetName = _useFirstSheet ? ExcelParser.DEFAULT_RULESHEET_NAME : sheets.getSheetName();
+                List<DataListener> listeners = _listeners.get( sheetName );
+                if ( listeners != null ) {
+                    // the merged regions are at the end of the sheet, after the cells: read them in a first pass
+                    List<CellRangeAddress> mergedRanges = new ArrayList<CellRangeAddress>();
+                    parse( sheet, new MergedCellsHandler( mergedRanges ) );
+                    try (InputStream cells = sheets.getSheetPart().getInputStream()) {
+                        parse( cells, new SheetHandler( listeners, strings, styles, mergedRanges ) );
+                    }
+                    missingSheets.remove( sheetName );
+                }
+            }
+            if ( _useFirstSheet ) {
+                break;
+            }
+        }
+        if ( !missingSheets.isEmpty() ) {
+            throw new IllegalStateException( "Could not find the sheetName (" + missingSheets.iterator().next()
+                                             + ") in the workbook sheetNames." );
+        }
+    }
+
+    private void parse( InputStream sheet, DefaultHandler handler ) throws IOException, SAXException {
+        try {
+            XMLReader xmlReader = SAXHelper.newXMLReader();
+            xmlReader.setContentHandler( handler );
+            xmlReader.parse( new InputSource( sheet ) );
+        } catch ( ParserConfigurationException e ) {
+            throw new SAXException( e );
+        }
+    }
+
+    private static class MergedCellsHandler extends DefaultHandler {
+
+        private final List<CellRangeAddress> mergedRanges;
+
+        private MergedCellsHandler( List<CellRangeAddress> mergedRanges ) {
+            this.mergedRanges = mergedRanges;
+        }
+
+        @Override
+        public void startElement( String uri, String localName, String qName, Attributes attributes ) {
+            if ( "mergeCell".equals( localName ) ) {
+                mergedRanges.add( CellRangeAddress.valueOf( attributes.getValue( "ref" ) ) );
+            }
+        }
+    }
+
+    private static class SheetHandler extends DefaultHandler {
+
+        private final List<DataListener> listeners;
+        private final ReadOnlySharedStringsTable strings;
+        private final StylesTable styles;
+        private final List<CellRangeAddress> mergedRanges;
+        private final Map<CellRangeAddress, String> mergedValues = new HashMap<CellRangeAddress, String>();
+        private final DataFormatter formatter = new DataFormatter( Locale.ENGLISH );
+        private final boolean numericDisabled;
+
+        private int nextRow = 0;
+        private int currentRow = -1;
+        private int currentColumn = -1;
+        private final List<Integer> rowColumns = new ArrayList<Integer>();
+        private final List<String> rowValues = new ArrayList<String>();
+
+        private String cellType;
+        private String cellStyle;
+        private boolean collecting;
+        private final StringBuilder text = new StringBuilder();
+
+        private SheetHandler( List<DataListener> listeners,
+                              ReadOnlySharedStringsTable strings,
+                              StylesTable styles,
+                              List<CellRangeAddress> mergedRanges ) {
+            this.listeners = listeners;
+            this.strings = strings;
+            this.styles = styles;
+            this.mergedRanges = mergedRanges;
+            this.numericDisabled = ExcelParser.isNumericDisabled( listeners );
+        }
+
+        @Override
+        public void startElement( String uri, String localName, String qName, Attributes attributes ) {
+            if ( "row".equals( localName ) ) {
+                String r = attributes.getValue( "r" );
+                currentRow = r != null ? Integer.parseInt( r ) - 1 : nextRow;
+                currentColumn = -1;
+            } else if ( "c".equals( localName ) ) {
+                String r = attributes.getValue( "r" );
+                currentColumn = r != null ? new CellReference( r ).getCol() : currentColumn + 1;
+                cellType = attributes.getValue( "t" );
+                cellStyle = attributes.getValue( "s" );
+                text.setLength( 0 );
+            } else if ( "v".equals( localName ) || "t".equals( localName ) ) {
+                // formulas (f elements) are skipped, their cached value is in the v element
+                collecting = true;
+            }
+        }
+
+        @Override
+        public void characters( char[] ch, int start, int length ) {
+            if ( collecting ) {
+                text.append( ch, start, length );
+            }
+        }
+
+        @Override
+        public void endElement( String uri, String localName, String qName ) {
+            if ( "v".equals( localName ) || "t".equals( localName ) ) {
+                collecting = false;
+            } else if ( "c".equals( localName ) ) {
+                rowColumns.add( currentColumn );
+                rowValues.add( getCellValue() );
+            } else if ( "row".equals( localName ) ) {
+                flushRow();
+            }
+        }
+
+        @Override
+        public void endDocument() {
+            for ( DataListener listener : listeners ) {
+                listener.finishSheet();
+            }
+        }
+
+        private void flushRow() {
+            // rows without any content are not in the sheet, but still notified as empty ones
+            for ( ; nextRow < currentRow; nextRow++ ) {
+                newRow( nextRow, 0 );
+            }
+            int lastColumn = -1;
+            for ( int column : rowColumns ) {
+                lastColumn = Math.max( lastColumn, column );
+            }
+            // same as Row.getLastCellNum(), which is -1 for a row without cells
+            newRow( currentRow, lastColumn >= 0 ? lastColumn + 1 : -1 );
+
+            for ( int i = 0; i < rowColumns.size(); i++ ) {
+                int column = rowColumns.get( i );
+                String value = rowValues.get( i );
+                int mergedColStart = DataListener.NON_MERGED;
+                CellRangeAddress merged = getRangeIfMerged( currentRow, column );
+                if ( merged != null ) {
+                    mergedColStart = merged.getFirstColumn();
+                    if ( merged.getFirstRow() == currentRow && merged.getFirstColumn() == column ) {
+                        mergedValues.put( merged, value );
+                    } else {
+                        value = mergedValues.get( merged );
+                    }
+                }
+                for ( DataListener listener : listeners ) {
+                    listener.newCell( currentRow, column, value, mergedColStart );
+                }
+            }
+            rowColumns.clear();
+            rowValues.clear();
+            nextRow = currentRow + 1;
+        }
+
+        private void newRow( int row, int cols ) {
+            for ( DataListener listener : listeners ) {
+                listener.newRow( row, cols );
+            }
+        }
+
+        private CellRangeAddress getRangeIfMerged( int row, int column ) {
+            for ( CellRangeAddress r : mergedRanges ) {
+                if ( r.isInRange( row, column ) ) {
+                    return r;
+                }
+            }
+            return null;
+        }
+
+        private String getCellValue() {
+            String value = text.toString();
+            if ( "s".equals( cellType ) ) {
+                return value.isEmpty() ? "" : strings.getEntryAt( Integer.parseInt( value ) );
+            }
+            if ( "b".equals( cellType ) ) {
+                return "1".equals( value ) ? "true" : "false";
+            }
+            if ( value.isEmpty() || !( cellType == null || "n".equals( cellType ) ) ) {
+                // inline strings, formula strings, errors and ISO dates
+                return value;
+            }
+            double num = Double.parseDouble( value );
+            if ( !numericDisabled && num - Math.round( num ) != 0 ) {
+                return String.valueOf( num );
+            }
+            return formatNumber( num );
+        }
+
+        private String formatNumber( double num ) {
+            XSSFCellStyle style = null;
+            if ( cellStyle != null ) {
+                style = styles.getStyleAt( Integer.parseInt( cellStyle ) );
+            } else if ( styles.getNumCellStyles() > 0 ) {
+                style = styles.getStyleAt( 0 );
+            }
+            if ( style == null ) {
+                return formatter.formatRawCellContents( num, 0, BuiltinFormats.getBuiltinFormat( 0 ) );
+            }
+            short formatIndex = style.getDataFormat();
+            String formatString = style.getDataFormatString();
+            if ( formatString == null ) {
+                formatString = BuiltinFormats.getBuiltinFormat( formatIndex );
+            }
+            return formatter.formatRawCellContents( num, formatIndex, formatString );
+        }
+    }
+}
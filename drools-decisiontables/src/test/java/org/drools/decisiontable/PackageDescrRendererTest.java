@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.decisiontable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.compiler.compiler.DrlParser;
+import org.drools.compiler.lang.descr.AttributeDescr;
+import org.drools.compiler.lang.descr.BaseDescr;
+import org.drools.compiler.lang.descr.ExprConstraintDescr;
+import org.drools.compiler.lang.descr.PackageDescr;
+import org.drools.compiler.lang.descr.PatternDescr;
+import org.drools.compiler.lang.descr.RuleDescr;
+import org.drools.template.model.DRLOutput;
+import org.drools.template.model.Package;
+import org.junit.After;
+import org.junit.Test;
+import org.kie.api.io.Resource;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.builder.conf.LanguageLevelOption;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.utils.KieHelper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+public class PackageDescrRendererTest {
+
+    @After
+    public void clearProperty() {
+        System.clearProperty( PackageDescrRenderer.DIRECT_PACKAGE_DESCR_PROPERTY );
+    }
+
+    @Test
+    public void testSameDescrsAsGeneratedDrl() throws Exception {
+        assertSameDescrs( "/data/IntegrationExampleTest.xls" );
+        assertSameDescrs( "/data/ComplexWorkbook.xls" );
+        assertSameDescrs( "/data/BasicWorkbook.xls" );
+    }
+
+    @Test
+    public void testExecuteDirectPackageDescr() {
+        System.setProperty( PackageDescrRenderer.DIRECT_PACKAGE_DESCR_PROPERTY, "true" );
+
+        KieSession ksession = new KieHelper().addResource( ResourceFactory.newClassPathResource( "/data/IntegrationExampleTest.xls", getClass() ),
+                                                           ResourceType.DTABLE ).build().newKieSession();
+        ksession.insert( new Cheese( "stilton", 42 ) );
+        ksession.insert( new Person( "michael", "stilton", 42 ) );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        ksession.fireAllRules();
+        assertEquals( 1, list.size() );
+        assertEquals( "Old man stilton", list.get( 0 ) );
+    }
+
+    private void assertSameDescrs( String path ) throws Exception {
+        Resource resource = ResourceFactory.newClassPathResource( path, getClass() );
+        Package ruleSet = new SpreadsheetCompiler().parseRuleSet( resource, InputType.XLS );
+
+        DRLOutput out = new DRLOutput();
+        ruleSet.renderDRL( out );
+        DrlParser parser = new DrlParser( LanguageLevelOption.DRL6 );
+        PackageDescr expected = parser.parse( resource, out.getDRL() );
+        assertFalse( parser.getErrors().toString(), parser.hasErrors() );
+
+        PackageDescr actual = new PackageDescrRenderer( resource, LanguageLevelOption.DRL6 ).render( ruleSet );
+        assertNotNull( actual );
+
+        assertEquals( expected.getNamespace(), actual.getNamespace() );
+        assertEquals( expected.getImports().size(), actual.getImports().size() );
+        assertEquals( expected.getGlobals().size(), actual.getGlobals().size() );
+        assertEquals( expected.getFunctions().size(), actual.getFunctions().size() );
+        assertEquals( expected.getRules().size(), actual.getRules().size() );
+        for ( int i = 0; i < expected.getRules().size(); i++ ) {
+            assertSameRule( expected.getRules().get( i ), actual.getRules().get( i ) );
+        }
+    }
+
+    private void assertSameRule( RuleDescr expected, RuleDescr actual ) {
+        assertEquals( expected.getName(), actual.getName() );
+        assertEquals( expected.getNamespace(), actual.getNamespace() );
+        assertEquals( expected.getAttributes().keySet(), actual.getAttributes().keySet() );
+        for ( AttributeDescr attribute : expected.getAttributes().values() ) {
+            AttributeDescr other = actual.getAttributes().get( attribute.getName() );
+            assertEquals( attribute.getValue(), other.getValue() );
+            assertEquals( attribute.getType(), other.getType() );
+        }
+        assertEquals( expected.getConsequence().toString().trim(), actual.getConsequence().toString().trim() );
+
+        List<BaseDescr> expectedLhs = expected.getLhs().getDescrs();
+        List<BaseDescr> actualLhs = actual.getLhs().getDescrs();
+        assertEquals( expectedLhs.size(), actualLhs.size() );
+        for ( int i = 0; i < expectedLhs.size(); i++ ) {
+            assertEquals( expectedLhs.get( i ).getClass(), actualLhs.get( i ).getClass() );
+            if ( expectedLhs.get( i ) instanceof PatternDescr ) {
+                assertSamePattern( (PatternDescr) expectedLhs.get( i ), (PatternDescr) actualLhs.get( i ) );
+            }
+        }
+    }
+
+    private void assertSamePattern( PatternDescr expected, PatternDescr actual ) {
+        assertEquals( expected.getObjectType(), actual.getObjectType() );
+        assertEquals( expected.getIdentifier(), actual.getIdentifier() );
+        List<? extends BaseDescr> expectedConstraints = expected.getConstraint().getDescrs();
+        List<? extends BaseDescr> actualConstraints = actual.getConstraint().getDescrs();
+        assertEquals( expectedConstraints.size(), actualConstraints.size() );
+        for ( int i = 0; i < expectedConstraints.size(); i++ ) {
+            assertEquals( ( (ExprConstraintDescr) expectedConstraints.get( i ) ).getExpression(),
+                          ( (ExprConstraintDescr) actualConstraints.get( i ) ).getExpression() );
+            assertEquals( ( (ExprConstraintDescr) expectedConstraints.get( i ) ).getType(),
+                          ( (ExprConstraintDescr) actualConstraints.get( i ) ).getType() );
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.decisiontable.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.drools.decisiontable.parser.xls.ExcelParser;
+import org.drools.decisiontable.parser.xls.StreamingExcelParser;
+import org.drools.template.parser.DataListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the ExcelParser, which loads the whole workbook, with the StreamingExcelParser
+ * reading the same xlsx from a stream, spooled to a temporary file, or directly from a file.
+ * Run it with -prof gc to compare the allocations too.
+ */
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExcelParserBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    private int numberOfRows;
+
+    @Param({"10"})
+    private int numberOfColumns;
+
+    private byte[] xlsx;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        xlsx = generateWorkbook(numberOfRows, numberOfColumns);
+        file = File.createTempFile("excel-parser-benchmark", ".xlsx");
+        Files.write(file.toPath(), xlsx);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public void excelParser(Blackhole bh) throws Exception {
+        new ExcelParser(new BlackholeListener(bh)).parseWorkbook(WorkbookFactory.create(new ByteArrayInputStream(xlsx)));
+    }
+
+    @Benchmark
+    public void streamingFromStream(Blackhole bh) {
+        new StreamingExcelParser(listeners(bh), true).parseFile(new ByteArrayInputStream(xlsx));
+    }
+
+    @Benchmark
+    public void streamingFromFile(Blackhole bh) {
+        new StreamingExcelParser(listeners(bh), true).parseFile(file);
+    }
+
+    private static Map<String, List<DataListener>> listeners(Blackhole bh) {
+        return Collections.<String, List<DataListener>>singletonMap(ExcelParser.DEFAULT_RULESHEET_NAME,
+                                                                    Collections.<DataListener>singletonList(new BlackholeListener(bh)));
+    }
+
+    private static byte[] generateWorkbook(int rows, int columns) throws IOException {
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("Rules");
+        for (int i = 0; i < rows; i++) {
+            Row row = sheet.createRow(i);
+            for (int j = 0; j < columns; j++) {
+                if (j % 2 == 0) {
+                    row.createCell(j).setCellValue("value" + (i % 100) + "_" + j);
+                } else {
+                    row.createCell(j).setCellValue(i * 0.5 + j);
+                }
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        return out.toByteArray();
+    }
+
+    private static class BlackholeListener implements DataListener {
+
+        private final Blackhole bh;
+
+        private BlackholeListener(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void startSheet(String name) {
+            bh.consume(name);
+        }
+
+        @Override
+        public void finishSheet() {
+        }
+
+        @Override
+        public void newRow(int rowNumber, int columns) {
+            bh.consume(rowNumber);
+        }
+
+        @Override
+        public void newCell(int row, int column, String value, int mergedColStart) {
+            bh.consume(value);
+        }
+    }
+}
@@ -16,18 +16,30 @@
 package org.drools.decisiontable.integrationtests;
 
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.drools.decisiontable.Person;
 import org.junit.Test;
+import org.kie.api.KieBase;
 import org.kie.api.KieServices;
 import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
 import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.builder.Results;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
 import org.kie.internal.builder.IncrementalResults;
 import org.kie.internal.builder.InternalKieBuilder;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 
 public class IncrementalCompilationTest {
 
@@ -114,4 +126,80 @@ public class IncrementalCompilationTest {
 
     }
 
+    @Test
+    public void testUpdateToVersionReplacesOnlyTheChangedRow() throws Exception {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId1 = ks.newReleaseId( "org.kie", "dtable-rows", "1.0.0" );
+        ReleaseId releaseId2 = ks.newReleaseId( "org.kie", "dtable-rows", "1.0.1" );
+        deployDecisionTable( ks, releaseId1, "1,2" );
+        deployDecisionTable( ks, releaseId2, "1,5" );
+
+        KieContainer kieContainer = ks.newKieContainer( releaseId1 );
+        KieBase kieBase = kieContainer.getKieBase();
+        Map<String, Rule> oldRules = getRules( kieBase );
+        assertEquals( 3, oldRules.size() );
+        assertEquals( 2, fireOnAge( kieContainer, 1 ) );
+
+        Results results = kieContainer.updateToVersion( releaseId2 );
+        assertFalse( results.getMessages( Message.Level.ERROR ).toString(), results.hasMessages( Message.Level.ERROR ) );
+        assertSame( kieBase, kieContainer.getKieBase() );
+
+        // the rules of the rows left untouched are the very same, only the edited row got a new one
+        Map<String, Rule> newRules = getRules( kieBase );
+        assertEquals( 3, newRules.size() );
+        Set<String> removed = new HashSet<String>( oldRules.keySet() );
+        removed.removeAll( newRules.keySet() );
+        Set<String> added = new HashSet<String>( newRules.keySet() );
+        added.removeAll( oldRules.keySet() );
+        assertEquals( 1, removed.size() );
+        assertEquals( 1, added.size() );
+        for ( Map.Entry<String, Rule> entry : oldRules.entrySet() ) {
+            if ( !removed.contains( entry.getKey() ) ) {
+                assertSame( entry.getValue(), newRules.get( entry.getKey() ) );
+            }
+        }
+        assertEquals( 5, fireOnAge( kieContainer, 1 ) );
+        assertEquals( 3, fireOnAge( kieContainer, 2 ) );
+    }
+
+    private void deployDecisionTable( KieServices ks, ReleaseId releaseId, String editedRow ) {
+        String csv = "\"RuleSet\",\"org.drools.decisiontable\"\n" +
+                     "\"ContentRuleNames\",\"true\"\n" +
+                     "\"Import\",\"org.drools.decisiontable.Person\"\n" +
+                     ",\n" +
+                     "\"RuleTable Age change\",\n" +
+                     "\"CONDITION\",\"ACTION\"\n" +
+                     "\"person:Person\",\"person\"\n" +
+                     "\"age == $param\",\"setAge($param)\"\n" +
+                     "\"age\",\"new Age\"\n" +
+                     "0,1\n" +
+                     editedRow + "\n" +
+                     "2,3\n";
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML( releaseId );
+        kfs.write( "src/main/resources/org/drools/decisiontable/rows.csv", csv );
+        KieBuilder kieBuilder = ks.newKieBuilder( kfs ).buildAll();
+        assertEquals( kieBuilder.getResults().toString(), 0, kieBuilder.getResults().getMessages( Message.Level.ERROR ).size() );
+    }
+
+    private Map<String, Rule> getRules( KieBase kieBase ) {
+        Map<String, Rule> rules = new HashMap<String, Rule>();
+        for ( Rule rule : kieBase.getKiePackage( "org.drools.decisiontable" ).getRules() ) {
+            rules.put( rule.getName(), rule );
+        }
+        return rules;
+    }
+
+    private int fireOnAge( KieContainer kieContainer, int age ) {
+        KieSession ksession = kieContainer.newKieSession();
+        try {
+            Person person = new Person( "John", "", age );
+            ksession.insert( person );
+            ksession.fireAllRules();
+            return person.getAge();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
 }
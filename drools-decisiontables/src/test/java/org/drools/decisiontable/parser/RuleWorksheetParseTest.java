@@ -564,6 +564,42 @@ public class RuleWorksheetParseTest {
         assertEquals( "Cheese(price == 6600)", cond.getSnippet() );
     }
 
+    @Test
+    public void testContentRuleNames() {
+        makeRuleSet();
+        makeAttribute( DefaultRuleSheetListener.CONTENT_RULE_NAMES_FLAG, "true" );
+        makeRuleTable();
+        makeRow( 11, "C",              "A"          );
+        makeRow( 12, "foo: Foo",       "foo"        );
+        makeRow( 13, "attr == $param", "x($param)"  );
+        makeRow( 15, "1",              "1"          );
+        makeRow( 16, "2",              "2"          );
+        listener.finishSheet();
+        List<Rule> rules = listener.getRuleSet().getRules();
+
+        // a row inserted before the others, and a duplicated one, don't change the names of the existing rules
+        makeRuleSet();
+        makeAttribute( DefaultRuleSheetListener.CONTENT_RULE_NAMES_FLAG, "true" );
+        makeRuleTable();
+        makeRow( 11, "C",              "A"          );
+        makeRow( 12, "foo: Foo",       "foo"        );
+        makeRow( 13, "attr == $param", "x($param)"  );
+        makeRow( 15, "0",              "0"          );
+        makeRow( 16, "1",              "1"          );
+        makeRow( 17, "2",              "2"          );
+        makeRow( 18, "2",              "2"          );
+        listener.finishSheet();
+        List<Rule> newRules = listener.getRuleSet().getRules();
+
+        assertEquals( 4, newRules.size() );
+        assertTrue( rules.get( 0 ).getName().startsWith( "myRuleTable_" ) );
+        assertFalse( rules.get( 0 ).getName().equals( "myRuleTable_16" ) );
+        assertEquals( rules.get( 0 ).getName(), newRules.get( 1 ).getName() );
+        assertEquals( rules.get( 1 ).getName(), newRules.get( 2 ).getName() );
+        assertEquals( rules.get( 1 ).getName() + "_2", newRules.get( 3 ).getName() );
+        assertFalse( newRules.get( 0 ).getName().equals( newRules.get( 1 ).getName() ) );
+    }
+
     /**
      * Utility method showing how to get a rule sheet listener from a stream.
      */
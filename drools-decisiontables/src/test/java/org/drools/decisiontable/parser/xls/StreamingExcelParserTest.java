@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.decisiontable.parser.xls;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.drools.template.parser.DataListener;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingExcelParserTest {
+
+    @Test
+    public void testSameEventsAsExcelParser() throws Exception {
+        byte[] xlsx = createWorkbook();
+
+        RecordingListener expected = new RecordingListener();
+        new ExcelParser( expected ).parseWorkbook( WorkbookFactory.create( new ByteArrayInputStream( xlsx ) ) );
+
+        RecordingListener streamed = new RecordingListener();
+        new StreamingExcelParser( listeners( streamed ), true ).parseFile( new ByteArrayInputStream( xlsx ) );
+
+        assertTrue( streamed.events.contains( "cell 4,1,3.5,-1" ) );
+        assertTrue( streamed.events.contains( "cell 6,2,Merged,1" ) );
+        assertEquals( expected.events, streamed.events );
+    }
+
+    @Test
+    public void testSameEventsFromFile() throws Exception {
+        byte[] xlsx = createWorkbook();
+        File file = File.createTempFile( "streaming-excel-parser", ".xlsx" );
+        try {
+            Files.write( file.toPath(), xlsx );
+
+            RecordingListener fromStream = new RecordingListener();
+            new StreamingExcelParser( listeners( fromStream ), true ).parseFile( new ByteArrayInputStream( xlsx ) );
+
+            RecordingListener fromFile = new RecordingListener();
+            new StreamingExcelParser( listeners( fromFile ), true ).parseFile( file );
+
+            assertEquals( fromStream.events, fromFile.events );
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingSheet() throws Exception {
+        Map<String, List<DataListener>> listeners = Collections.<String, List<DataListener>>singletonMap( "Missing", Collections.<DataListener>singletonList( new RecordingListener() ) );
+        new StreamingExcelParser( listeners, false ).parseFile( new ByteArrayInputStream( createWorkbook() ) );
+    }
+
+    private Map<String, List<DataListener>> listeners( DataListener listener ) {
+        return Collections.<String, List<DataListener>>singletonMap( ExcelParser.DEFAULT_RULESHEET_NAME, Collections.singletonList( listener ) );
+    }
+
+    private byte[] createWorkbook() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet( "Rules" );
+
+        Row row = sheet.createRow( 0 );
+        row.createCell( 0 ).setCellValue( "RuleSet" );
+        row.createCell( 1 ).setCellValue( "org.drools" );
+
+        // row 1 and 2 are missing
+        row = sheet.createRow( 3 );
+        row.createCell( 1 ).setCellValue( 42 );
+        row.createCell( 2 ).setCellValue( true );
+        row.createCell( 3 );
+
+        row = sheet.createRow( 4 );
+        row.createCell( 1 ).setCellValue( 3.5 );
+        row.createCell( 2 ).setCellFormula( "B4*2" );
+        row.createCell( 3 ).setCellFormula( "CONCATENATE(\"a\",\"b\")" );
+
+        row = sheet.createRow( 5 );
+        row.createCell( 1 ).setCellValue( "Merged" );
+        row.createCell( 2 );
+        row = sheet.createRow( 6 );
+        row.createCell( 1 );
+        row.createCell( 2 );
+        sheet.addMergedRegion( new CellRangeAddress( 5, 6, 1, 2 ) );
+
+        // store the formula values in the workbook
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write( out );
+        workbook.close();
+        return out.toByteArray();
+    }
+
+    private static class RecordingListener implements DataListener {
+
+        private final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void startSheet( String name ) {
+            events.add( "start " + name );
+        }
+
+        @Override
+        public void finishSheet() {
+            events.add( "finish" );
+        }
+
+        @Override
+        public void newRow( int rowNumber, int columns ) {
+            events.add( "row " + rowNumber + "," + columns );
+        }
+
+        @Override
+        public void newCell( int row, int column, String value, int mergedColStart ) {
+            events.add( "cell " + row + "," + column + "," + value + "," + mergedColStart );
+        }
+    }
+}
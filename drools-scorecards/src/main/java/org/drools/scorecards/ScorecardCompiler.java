@@ -136,6 +136,14 @@ public class ScorecardCompiler {
         return drl;
     }
 
+    /**
+     * Returns an evaluator scoring the compiled scorecard without rules, or null if there is
+     * no scorecard or it uses something the evaluator does not support.
+     */
+    public ScorecardEvaluator getEvaluator() {
+        return ScorecardEvaluator.create( pmmlDocument );
+    }
+
     /* convienence method for use from Guvnor*/
     public static String convertToDRL(PMML pmml, DrlType drlType) {
         if (pmml != null) {
@@ -0,0 +1,774 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.scorecards;
+
+import org.dmg.pmml.pmml_4_2.descr.Attribute;
+import org.dmg.pmml.pmml_4_2.descr.Characteristic;
+import org.dmg.pmml.pmml_4_2.descr.Characteristics;
+import org.dmg.pmml.pmml_4_2.descr.CompoundPredicate;
+import org.dmg.pmml.pmml_4_2.descr.DATATYPE;
+import org.dmg.pmml.pmml_4_2.descr.DataField;
+import org.dmg.pmml.pmml_4_2.descr.FIELDUSAGETYPE;
+import org.dmg.pmml.pmml_4_2.descr.False;
+import org.dmg.pmml.pmml_4_2.descr.LocalTransformations;
+import org.dmg.pmml.pmml_4_2.descr.MiningField;
+import org.dmg.pmml.pmml_4_2.descr.MiningSchema;
+import org.dmg.pmml.pmml_4_2.descr.Output;
+import org.dmg.pmml.pmml_4_2.descr.OutputField;
+import org.dmg.pmml.pmml_4_2.descr.PMML;
+import org.dmg.pmml.pmml_4_2.descr.RESULTFEATURE;
+import org.dmg.pmml.pmml_4_2.descr.Scorecard;
+import org.dmg.pmml.pmml_4_2.descr.SimplePredicate;
+import org.dmg.pmml.pmml_4_2.descr.SimpleSetPredicate;
+import org.dmg.pmml.pmml_4_2.descr.Targets;
+import org.dmg.pmml.pmml_4_2.descr.True;
+import org.drools.pmml.pmml_4_2.PMML4Helper;
+import org.drools.pmml.pmml_4_2.extensions.AggregationStrategy;
+import org.drools.scorecards.pmml.ScorecardPMMLUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+
+/**
+ * Scores a PMML Scorecard directly, giving the same results as the rules generated
+ * from it: the score, the ranking of the reason codes and the output fields.
+ *
+ * Each characteristic is compiled once. When its attributes are disjoint intervals of
+ * a numeric field, as the bins generated from the spreadsheets are, the intervals are
+ * sorted and the matching one is found with a binary search; otherwise the attributes
+ * are tested one by one. Partial scores and reason code points are then summed in a
+ * single pass over the characteristics, without inserting anything in a session.
+ *
+ * As in the rules, predicates on missing fields are false, two attributes of the same
+ * characteristic giving the same partial score count once, and the points of attributes
+ * without a reason code are ranked under "null", the code the rules are generated with.
+ */
+public class ScorecardEvaluator {
+
+    private static final int SUM = 0;
+    private static final int AVERAGE = 1;
+    private static final int MAX = 2;
+    private static final int MIN = 3;
+
+    private final String modelName;
+    private final Map<String, Integer> fieldIndexes;
+    private final DATATYPE[] fieldTypes;
+    private final Double initialScore;
+    private final int aggregator;
+    private final boolean weighted;
+    private final boolean useReasonCodes;
+    private final boolean pointsBelow;
+    private final CompiledCharacteristic[] characteristics;
+    private final String[] scoreFields;
+    private final String[] reasonCodeFields;
+    private final int[] reasonCodeRanks;
+
+    private ScorecardEvaluator(Scorecard scorecard, Map<String, Integer> fieldIndexes, DATATYPE[] fieldTypes,
+                               AggregationStrategy strategy, List<CompiledCharacteristic> characteristics,
+                               List<String> scoreFields, List<String> reasonCodeFields, List<Integer> reasonCodeRanks) {
+        Number zero = scorecard.getInitialScore();
+        this.modelName = scorecard.getModelName();
+        this.fieldIndexes = fieldIndexes;
+        this.fieldTypes = fieldTypes;
+        this.initialScore = zero != null ? zero.doubleValue() : null;
+        this.aggregator = toAggregator(strategy.getAggregator());
+        this.weighted = strategy.isWeighted();
+        this.useReasonCodes = Boolean.TRUE.equals(scorecard.getUseReasonCodes());
+        this.pointsBelow = scorecard.getReasonCodeAlgorithm() == null || "pointsBelow".equals(scorecard.getReasonCodeAlgorithm());
+        this.characteristics = characteristics.toArray(new CompiledCharacteristic[characteristics.size()]);
+        this.scoreFields = scoreFields.toArray(new String[scoreFields.size()]);
+        this.reasonCodeFields = reasonCodeFields.toArray(new String[reasonCodeFields.size()]);
+        this.reasonCodeRanks = new int[reasonCodeRanks.size()];
+        for (int i = 0; i < this.reasonCodeRanks.length; i++) {
+            this.reasonCodeRanks[i] = reasonCodeRanks.get(i);
+        }
+    }
+
+    /**
+     * Returns an evaluator for the first scorecard of the document, or null if the document
+     * has none, or if the scorecard uses something the evaluator does not support: targets,
+     * local transformations, missing value replacements, restrictions on the values of
+     * the fields, surrogate or xor predicates, complex partial scores, output features
+     * other than the predicted value and the reason codes, or a minimum or maximum
+     * aggregation which could have nothing to aggregate, which the rules do not score.
+     */
+    public static ScorecardEvaluator create(PMML pmml) {
+        if (pmml == null || pmml.getDataDictionary() == null) {
+            return null;
+        }
+        Scorecard scorecard = null;
+        for (Object model : pmml.getAssociationModelsAndBaselineModelsAndClusteringModels()) {
+            if (model instanceof Scorecard) {
+                scorecard = (Scorecard) model;
+                break;
+            }
+        }
+        if (scorecard == null) {
+            return null;
+        }
+
+        Map<String, DataField> dataFields = new HashMap<String, DataField>();
+        for (DataField dataField : pmml.getDataDictionary().getDataFields()) {
+            dataFields.put(dataField.getName(), dataField);
+        }
+
+        MiningSchema schema = null;
+        Output output = null;
+        Characteristics chars = null;
+        for (Object obj : scorecard.getExtensionsAndCharacteristicsAndMiningSchemas()) {
+            if (obj instanceof MiningSchema) {
+                schema = (MiningSchema) obj;
+            } else if (obj instanceof Output) {
+                output = (Output) obj;
+            } else if (obj instanceof Characteristics) {
+                chars = (Characteristics) obj;
+            } else if (obj instanceof Targets || obj instanceof LocalTransformations) {
+                return null;
+            }
+        }
+        if (schema == null || chars == null) {
+            return null;
+        }
+
+        Map<String, Integer> fieldIndexes = new HashMap<String, Integer>();
+        List<DATATYPE> fieldTypes = new ArrayList<DATATYPE>();
+        List<String> scoreFields = new ArrayList<String>();
+        for (MiningField miningField : schema.getMiningFields()) {
+            FIELDUSAGETYPE usage = miningField.getUsageType();
+            if (usage == FIELDUSAGETYPE.PREDICTED || usage == FIELDUSAGETYPE.TARGET) {
+                scoreFields.add(miningField.getName());
+                continue;
+            } else if (usage != null && usage != FIELDUSAGETYPE.ACTIVE) {
+                continue;
+            }
+            DataField dataField = dataFields.get(miningField.getName());
+            if (dataField == null || !isSupported(dataField.getDataType()) || miningField.getMissingValueReplacement() != null
+                    || !dataField.getValues().isEmpty() || !dataField.getIntervals().isEmpty()) {
+                return null;
+            }
+            fieldIndexes.put(miningField.getName(), fieldTypes.size());
+            fieldTypes.add(dataField.getDataType());
+        }
+
+        List<String> reasonCodeFields = new ArrayList<String>();
+        List<Integer> reasonCodeRanks = new ArrayList<Integer>();
+        if (output != null) {
+            for (OutputField outputField : output.getOutputFields()) {
+                if (outputField.getFeature() == null || outputField.getFeature() == RESULTFEATURE.PREDICTED_VALUE) {
+                    scoreFields.add(outputField.getName());
+                } else if (outputField.getFeature() == RESULTFEATURE.REASON_CODE) {
+                    Number rank = outputField.getRank();
+                    reasonCodeFields.add(outputField.getName());
+                    reasonCodeRanks.add(rank != null ? rank.intValue() : 1);
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        Compiler compiler = new Compiler(scorecard, fieldIndexes, fieldTypes.toArray(new DATATYPE[fieldTypes.size()]));
+        List<CompiledCharacteristic> characteristics = new ArrayList<CompiledCharacteristic>();
+        for (Characteristic characteristic : chars.getCharacteristics()) {
+            CompiledCharacteristic compiled = compiler.compile(characteristic);
+            if (compiled == null) {
+                return null;
+            }
+            characteristics.add(compiled);
+        }
+
+        String strategy = ScorecardPMMLUtils.getExtensionValue(scorecard.getExtensionsAndCharacteristicsAndMiningSchemas(), "scoringStrategy");
+        AggregationStrategy aggregationStrategy = PMML4Helper.resolveAggregationStrategy(strategy);
+        int aggregator = toAggregator(aggregationStrategy.getAggregator());
+        if ((aggregator == MIN || aggregator == MAX) && !alwaysScores(characteristics)) {
+            return null;
+        }
+        return new ScorecardEvaluator(scorecard, fieldIndexes, compiler.fieldTypes, aggregationStrategy,
+                                      characteristics, scoreFields, reasonCodeFields, reasonCodeRanks);
+    }
+
+    /**
+     * The min and max accumulate functions give null when nothing matches, and no score at all,
+     * while sum and average give 0: a minimum or maximum is only reproduced when some characteristic
+     * has an attribute with a true predicate.
+     */
+    private static boolean alwaysScores(List<CompiledCharacteristic> characteristics) {
+        for (CompiledCharacteristic characteristic : characteristics) {
+            if (characteristic.alwaysMatches) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSupported(DATATYPE type) {
+        return type == DATATYPE.DOUBLE || type == DATATYPE.FLOAT || type == DATATYPE.INTEGER
+                || type == DATATYPE.STRING || type == DATATYPE.BOOLEAN;
+    }
+
+    private static boolean isNumeric(DATATYPE type) {
+        return type == DATATYPE.DOUBLE || type == DATATYPE.FLOAT || type == DATATYPE.INTEGER;
+    }
+
+    private static int toAggregator(String aggregator) {
+        if ("average".equals(aggregator)) {
+            return AVERAGE;
+        } else if ("max".equals(aggregator)) {
+            return MAX;
+        } else if ("min".equals(aggregator)) {
+            return MIN;
+        }
+        return SUM;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    /**
+     * Scores the values of the fields, by field name. Null or absent values are missing.
+     */
+    public ScorecardResult evaluate(Map<String, ?> values) {
+        Object[] row = new Object[fieldTypes.length];
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            Integer index = fieldIndexes.get(entry.getKey());
+            if (index != null) {
+                row[index] = convert(fieldTypes[index], entry.getValue());
+            }
+        }
+
+        double total = 0.0;
+        int count = 0;
+        List<String> codes = useReasonCodes ? new ArrayList<String>() : null;
+        Map<String, BigDecimal> codePoints = useReasonCodes ? new HashMap<String, BigDecimal>() : null;
+        int[] matches = new int[0];
+        for (CompiledCharacteristic characteristic : characteristics) {
+            matches = characteristic.match(row, matches);
+            for (int i = 0; i < matches.length && matches[i] >= 0; i++) {
+                int attribute = matches[i];
+                double value = characteristic.partialScores[attribute];
+                double weighted = this.weighted ? value * characteristic.weights[attribute] : value;
+                if (count == 0) {
+                    total = weighted;
+                } else if (aggregator == MAX) {
+                    total = Math.max(total, weighted);
+                } else if (aggregator == MIN) {
+                    total = Math.min(total, weighted);
+                } else {
+                    total += weighted;
+                }
+                count++;
+
+                String code = characteristic.reasonCodes[attribute];
+                if (codes != null) {
+                    double base = characteristic.baselineScore;
+                    BigDecimal points = BigDecimal.valueOf(pointsBelow ? base - value : value - base);
+                    BigDecimal sum = codePoints.get(code);
+                    if (sum == null) {
+                        codes.add(code);
+                        codePoints.put(code, points);
+                    } else {
+                        codePoints.put(code, sum.add(points));
+                    }
+                }
+            }
+        }
+        // as the average accumulate function, an average of nothing is 0
+        if (aggregator == AVERAGE && count > 0) {
+            total /= count;
+        }
+        // without an initial score the scoring rule never fires, and the score stays 0
+        double score = initialScore != null ? initialScore + total : 0.0;
+
+        LinkedHashMap<String, Double> ranking = new LinkedHashMap<String, Double>();
+        if (codes != null) {
+            final Map<String, Double> points = new HashMap<String, Double>();
+            for (String code : codes) {
+                points.put(code, codePoints.get(code).doubleValue());
+            }
+            // stable sort: codes with the same points keep the order they were found in
+            String[] sorted = codes.toArray(new String[codes.size()]);
+            Arrays.sort(sorted, new Comparator<String>() {
+                @Override
+                public int compare(String c1, String c2) {
+                    return Double.compare(points.get(c2), points.get(c1));
+                }
+            });
+            for (String code : sorted) {
+                ranking.put(code, points.get(code));
+            }
+        }
+
+        LinkedHashMap<String, Object> outputs = new LinkedHashMap<String, Object>();
+        for (String field : scoreFields) {
+            outputs.put(field, score);
+        }
+        for (int i = 0; i < reasonCodeFields.length; i++) {
+            outputs.put(reasonCodeFields[i], reasonCode(ranking, reasonCodeRanks[i]));
+        }
+        return new ScorecardResult(score, ranking, outputs);
+    }
+
+    /**
+     * Picks the reason code of the given rank as the output rules do: the last
+     * code with non negative points among the first rank ones.
+     */
+    private static String reasonCode(Map<String, Double> ranking, int rank) {
+        String code = null;
+        int ix = 0;
+        for (Map.Entry<String, Double> entry : ranking.entrySet()) {
+            if (ix++ >= rank) {
+                break;
+            }
+            if (entry.getValue() >= 0) {
+                code = entry.getKey();
+            }
+        }
+        return code;
+    }
+
+    private static Object convert(DATATYPE type, Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (isNumeric(type)) {
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            }
+            try {
+                return Double.valueOf(value.toString().trim());
+            } catch (NumberFormatException nfe) {
+                return null;
+            }
+        } else if (type == DATATYPE.BOOLEAN) {
+            return value instanceof Boolean ? value : Boolean.valueOf(value.toString().trim());
+        }
+        return value.toString();
+    }
+
+    /**
+     * A predicate on the values of the active fields.
+     */
+    interface Condition {
+
+        boolean test(Object[] values);
+    }
+
+    static final class CompiledCharacteristic {
+
+        private Condition[] conditions;
+        private double[] partialScores;
+        private double[] weights;
+        private String[] reasonCodes;
+        private double baselineScore;
+        private boolean alwaysMatches;
+
+        // binary search over disjoint intervals, sorted by lower bound
+        private int field = -1;
+        private Interval[] intervals;
+
+        /**
+         * Returns the indexes of the attributes that match, followed by -1 if they
+         * are less than the length of the array, reusing the array if possible.
+         */
+        int[] match(Object[] values, int[] matches) {
+            if (matches.length < conditions.length) {
+                matches = new int[conditions.length];
+            }
+            int n = 0;
+            if (intervals != null) {
+                Object value = values[field];
+                if (value != null) {
+                    Interval interval = Interval.find(intervals, (Double) value);
+                    if (interval != null) {
+                        matches[n++] = interval.attribute;
+                    }
+                }
+            } else {
+                for (int i = 0; i < conditions.length; i++) {
+                    if (conditions[i] != null && conditions[i].test(values) && !hasScore(matches, n, partialScores[i])) {
+                        matches[n++] = i;
+                    }
+                }
+            }
+            if (n < matches.length) {
+                matches[n] = -1;
+            }
+            return matches;
+        }
+
+        /**
+         * The partial scores of a characteristic are logically inserted facts keyed by their value:
+         * an attribute scoring the same points as one that already matched does not count again.
+         */
+        private boolean hasScore(int[] matches, int n, double score) {
+            for (int i = 0; i < n; i++) {
+                if (partialScores[matches[i]] == score) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A range of values of a numeric field, which an attribute matches.
+     */
+    static final class Interval {
+
+        private final int attribute;
+        private double lower = Double.NEGATIVE_INFINITY;
+        private boolean lowerClosed;
+        private double upper = Double.POSITIVE_INFINITY;
+        private boolean upperClosed;
+
+        Interval(int attribute) {
+            this.attribute = attribute;
+        }
+
+        /**
+         * Narrows the interval with the comparison, returns false if the operator is not a comparison.
+         */
+        boolean restrict(String operator, double value) {
+            if ("lessThan".equals(operator) || "lessOrEqual".equals(operator)) {
+                boolean closed = "lessOrEqual".equals(operator);
+                if (value < upper || (value == upper && !closed)) {
+                    upper = value;
+                    upperClosed = closed;
+                }
+            } else if ("greaterThan".equals(operator) || "greaterOrEqual".equals(operator)) {
+                boolean closed = "greaterOrEqual".equals(operator);
+                if (value > lower || (value == lower && !closed)) {
+                    lower = value;
+                    lowerClosed = closed;
+                }
+            } else if ("equal".equals(operator)) {
+                return restrict("greaterOrEqual", value) && restrict("lessOrEqual", value);
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        boolean contains(double x) {
+            return (x > lower || (lowerClosed && x == lower)) && (x < upper || (upperClosed && x == upper));
+        }
+
+        boolean startsAfter(double x) {
+            return lower > x || (lower == x && !lowerClosed);
+        }
+
+        boolean isEmpty() {
+            return lower > upper || (lower == upper && !(lowerClosed && upperClosed));
+        }
+
+        /**
+         * Sorts the intervals by lower bound, returning null unless they are disjoint.
+         */
+        static Interval[] sort(List<Interval> intervals) {
+            Interval[] sorted = intervals.toArray(new Interval[intervals.size()]);
+            Arrays.sort(sorted, new Comparator<Interval>() {
+                @Override
+                public int compare(Interval i1, Interval i2) {
+                    if (i1.lower != i2.lower) {
+                        return Double.compare(i1.lower, i2.lower);
+                    }
+                    return Boolean.compare(i2.lowerClosed, i1.lowerClosed);
+                }
+            });
+            for (int i = 1; i < sorted.length; i++) {
+                Interval previous = sorted[i - 1];
+                Interval next = sorted[i];
+                if (previous.upper > next.lower || (previous.upper == next.lower && previous.upperClosed && next.lowerClosed)) {
+                    return null;
+                }
+            }
+            return sorted;
+        }
+
+        /**
+         * Finds the interval containing x: the last one that does not start after x, if any.
+         */
+        static Interval find(Interval[] sorted, double x) {
+            int lo = 0;
+            int hi = sorted.length - 1;
+            int found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid].startsAfter(x)) {
+                    hi = mid - 1;
+                } else {
+                    found = mid;
+                    lo = mid + 1;
+                }
+            }
+            return found >= 0 && sorted[found].contains(x) ? sorted[found] : null;
+        }
+    }
+
+    /**
+     * Compiles the characteristics, resolving the reason codes and the baseline scores
+     * they inherit, as the scorecard compiler rules do.
+     */
+    private static final class Compiler {
+
+        private final Scorecard scorecard;
+        private final Map<String, Integer> fieldIndexes;
+        private final DATATYPE[] fieldTypes;
+        private final boolean useReasonCodes;
+
+        Compiler(Scorecard scorecard, Map<String, Integer> fieldIndexes, DATATYPE[] fieldTypes) {
+            this.scorecard = scorecard;
+            this.fieldIndexes = fieldIndexes;
+            this.fieldTypes = fieldTypes;
+            this.useReasonCodes = Boolean.TRUE.equals(scorecard.getUseReasonCodes());
+        }
+
+        CompiledCharacteristic compile(Characteristic characteristic) {
+            List<Attribute> attributes = characteristic.getAttributes();
+            CompiledCharacteristic compiled = new CompiledCharacteristic();
+            compiled.conditions = new Condition[attributes.size()];
+            compiled.partialScores = new double[attributes.size()];
+            compiled.weights = new double[attributes.size()];
+            compiled.reasonCodes = new String[attributes.size()];
+
+            Number baseline = characteristic.getBaselineScore() != null ? characteristic.getBaselineScore() : scorecard.getBaselineScore();
+            if (baseline == null && useReasonCodes) {
+                return null;
+            }
+            compiled.baselineScore = baseline != null ? baseline.doubleValue() : 0.0;
+
+            List<Interval> intervals = new ArrayList<Interval>();
+            int intervalField = -1;
+            for (int i = 0; i < attributes.size(); i++) {
+                Attribute attribute = attributes.get(i);
+                Number partialScore = attribute.getPartialScore();
+                if (partialScore == null) {
+                    return null;
+                }
+                compiled.partialScores[i] = partialScore.doubleValue();
+
+                String weight = ScorecardPMMLUtils.getExtensionValue(attribute.getExtensions(), "weight");
+                try {
+                    compiled.weights[i] = weight != null ? Double.parseDouble(weight.trim()) : 1.0;
+                } catch (NumberFormatException nfe) {
+                    return null;
+                }
+
+                String code = attribute.getReasonCode();
+                if ((code == null || code.isEmpty()) && characteristic.getReasonCode() != null && !characteristic.getReasonCode().isEmpty()) {
+                    code = characteristic.getReasonCode();
+                }
+                // the rules are generated with the code as a string literal, "null" if missing
+                compiled.reasonCodes[i] = String.valueOf(code);
+
+                // attributes with other predicates have no rule, and never score
+                Object predicate = attribute.getSimplePredicate() != null ? attribute.getSimplePredicate()
+                        : attribute.getCompoundPredicate() != null ? attribute.getCompoundPredicate()
+                        : attribute.getSimpleSetPredicate();
+                if (predicate == null) {
+                    intervals = null;
+                    continue;
+                }
+                compiled.conditions[i] = compilePredicate(predicate);
+                if (compiled.conditions[i] == null) {
+                    return null;
+                }
+                compiled.alwaysMatches |= predicate instanceof True;
+
+                if (intervals != null) {
+                    Interval interval = new Interval(i);
+                    int field = toInterval(predicate, interval);
+                    if (field < 0 || (intervalField >= 0 && field != intervalField) || interval.isEmpty()) {
+                        intervals = null;
+                    } else {
+                        intervalField = field;
+                        intervals.add(interval);
+                    }
+                }
+            }
+
+            if (intervals != null && !intervals.isEmpty()) {
+                compiled.intervals = Interval.sort(intervals);
+                compiled.field = intervalField;
+            }
+            return compiled;
+        }
+
+        /**
+         * Restricts the interval to the values matching the predicate, if it is a comparison of a
+         * numeric field with a constant, or a conjunction of them. Returns the index of the field, or -1.
+         */
+        private int toInterval(Object predicate, Interval interval) {
+            if (predicate instanceof SimplePredicate) {
+                SimplePredicate sp = (SimplePredicate) predicate;
+                Integer field = fieldIndexes.get(sp.getField());
+                if (field == null || !isNumeric(fieldTypes[field]) || sp.getValue() == null) {
+                    return -1;
+                }
+                Double value = (Double) convert(fieldTypes[field], sp.getValue());
+                return value != null && interval.restrict(sp.getOperator(), value) ? field : -1;
+            } else if (predicate instanceof CompoundPredicate && "and".equals(((CompoundPredicate) predicate).getBooleanOperator())) {
+                int field = -1;
+                for (Object sub : ((CompoundPredicate) predicate).getSimplePredicatesAndCompoundPredicatesAndSimpleSetPredicates()) {
+                    int subField = toInterval(sub, interval);
+                    if (subField < 0 || (field >= 0 && subField != field)) {
+                        return -1;
+                    }
+                    field = subField;
+                }
+                return field;
+            }
+            return -1;
+        }
+
+        private Condition compilePredicate(Object predicate) {
+            if (predicate instanceof True) {
+                return new Condition() {
+                    @Override
+                    public boolean test(Object[] values) {
+                        return true;
+                    }
+                };
+            } else if (predicate instanceof False) {
+                return new Condition() {
+                    @Override
+                    public boolean test(Object[] values) {
+                        return false;
+                    }
+                };
+            } else if (predicate instanceof SimplePredicate) {
+                return compileSimple((SimplePredicate) predicate);
+            } else if (predicate instanceof SimpleSetPredicate) {
+                return compileSet((SimpleSetPredicate) predicate);
+            } else if (predicate instanceof CompoundPredicate) {
+                return compileCompound((CompoundPredicate) predicate);
+            }
+            return null;
+        }
+
+        private Condition compileSimple(SimplePredicate sp) {
+            final Integer field = fieldIndexes.get(sp.getField());
+            final String operator = sp.getOperator();
+            if (field == null) {
+                return null;
+            }
+            if ("isMissing".equals(operator)) {
+                return new Condition() {
+                    @Override
+                    public boolean test(Object[] values) {
+                        return values[field] == null;
+                    }
+                };
+            }
+            final Object constant = convert(fieldTypes[field], sp.getValue());
+            if (constant == null || !Arrays.asList("equal", "notEqual", "lessThan", "lessOrEqual", "greaterThan", "greaterOrEqual").contains(operator)) {
+                return null;
+            }
+            if (fieldTypes[field] == DATATYPE.BOOLEAN && !("equal".equals(operator) || "notEqual".equals(operator))) {
+                return null;
+            }
+            return new Condition() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public boolean test(Object[] values) {
+                    Object value = values[field];
+                    if (value == null) {
+                        return false;
+                    }
+                    int cmp = ((Comparable<Object>) value).compareTo(constant);
+                    switch (operator) {
+                        case "equal":
+                            return cmp == 0;
+                        case "notEqual":
+                            return cmp != 0;
+                        case "lessThan":
+                            return cmp < 0;
+                        case "lessOrEqual":
+                            return cmp <= 0;
+                        case "greaterThan":
+                            return cmp > 0;
+                        default:
+                            return cmp >= 0;
+                    }
+                }
+            };
+        }
+
+        private Condition compileSet(SimpleSetPredicate ssp) {
+            final Integer field = fieldIndexes.get(ssp.getField());
+            if (field == null || ssp.getArray() == null || ssp.getArray().getContent() == null) {
+                return null;
+            }
+            final boolean in = "isIn".equals(ssp.getBooleanOperator());
+            if (!in && !"isNotIn".equals(ssp.getBooleanOperator())) {
+                return null;
+            }
+            final Set<Object> set = new HashSet<Object>();
+            StringTokenizer tokens = new StringTokenizer(ssp.getArray().getContent());
+            while (tokens.hasMoreTokens()) {
+                Object value = convert(fieldTypes[field], tokens.nextToken());
+                if (value == null) {
+                    return null;
+                }
+                set.add(value);
+            }
+            return new Condition() {
+                @Override
+                public boolean test(Object[] values) {
+                    Object value = values[field];
+                    return value != null && set.contains(value) == in;
+                }
+            };
+        }
+
+        private Condition compileCompound(CompoundPredicate cp) {
+            final boolean and = "and".equals(cp.getBooleanOperator());
+            if (!and && !"or".equals(cp.getBooleanOperator())) {
+                return null;
+            }
+            List<Condition> subConditions = new ArrayList<Condition>();
+            for (Object sub : cp.getSimplePredicatesAndCompoundPredicatesAndSimpleSetPredicates()) {
+                Condition condition = compilePredicate(sub);
+                if (condition == null) {
+                    return null;
+                }
+                subConditions.add(condition);
+            }
+            final Condition[] conditions = subConditions.toArray(new Condition[subConditions.size()]);
+            return new Condition() {
+                @Override
+                public boolean test(Object[] values) {
+                    for (Condition condition : conditions) {
+                        if (condition.test(values) != and) {
+                            return !and;
+                        }
+                    }
+                    return and;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.scorecards;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The outcome of a ScorecardEvaluator: the final score, the reason codes
+ * ranked as the scorecard rules do, and the values of the output fields.
+ */
+public class ScorecardResult {
+
+    private final double score;
+    private final Map<String, Double> ranking;
+    private final Map<String, Object> outputs;
+
+    ScorecardResult(double score, LinkedHashMap<String, Double> ranking, LinkedHashMap<String, Object> outputs) {
+        this.score = score;
+        this.ranking = Collections.unmodifiableMap(ranking);
+        this.outputs = Collections.unmodifiableMap(outputs);
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * The points of each reason code, from the highest to the lowest.
+     * Empty when the scorecard does not use reason codes.
+     */
+    public Map<String, Double> getRanking() {
+        return ranking;
+    }
+
+    /**
+     * The values of the target and of the output fields, by field name.
+     */
+    public Map<String, Object> getOutputs() {
+        return outputs;
+    }
+
+    public Object getOutput(String fieldName) {
+        return outputs.get(fieldName);
+    }
+
+    @Override
+    public String toString() {
+        return "ScorecardResult{score=" + score + ", ranking=" + ranking + ", outputs=" + outputs + "}";
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.scorecards;
+
+import org.dmg.pmml.pmml_4_2.descr.Attribute;
+import org.dmg.pmml.pmml_4_2.descr.Characteristic;
+import org.dmg.pmml.pmml_4_2.descr.Characteristics;
+import org.dmg.pmml.pmml_4_2.descr.PMML;
+import org.dmg.pmml.pmml_4_2.descr.Scorecard;
+import org.drools.pmml.pmml_4_2.PMML4Helper;
+import org.drools.scorecards.pmml.ScorecardPMMLExtensionNames;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.definition.type.FactType;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.ClassObjectFilter;
+import org.kie.api.runtime.KieSession;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.drools.scorecards.ScorecardCompiler.DrlType.INTERNAL_DECLARED_TYPES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ScorecardEvaluatorTest {
+
+    @Test
+    public void testPointsBelow() throws Exception {
+        ScorecardEvaluator evaluator = compile(ScorecardCompiler.DEFAULT_SHEET_NAME).getEvaluator();
+        assertNotNull(evaluator);
+
+        ScorecardResult result = evaluator.evaluate(input(10, null, null, false));
+        assertEquals(129.0, result.getScore(), 0.0);
+        assertEquals(Arrays.asList("VL002", "AGE02"), new ArrayList<String>(result.getRanking().keySet()));
+        assertEquals(16.0, result.getRanking().get("VL002"), 0.0);
+        assertEquals(-20.0, result.getRanking().get("AGE02"), 0.0);
+        assertEquals(129.0, result.getOutput(ScorecardPMMLExtensionNames.DEFAULT_PREDICTED_FIELD));
+        assertEquals(129.0, result.getOutput("calculatedScore"));
+        assertEquals("VL002", result.getOutput("reasonCode"));
+
+        result = evaluator.evaluate(input(0, "SKYDIVER", null, false));
+        assertEquals(99.0, result.getScore(), 0.0);
+        assertEquals(Arrays.asList("OCC01", "VL002", "AGE01"), new ArrayList<String>(result.getRanking().keySet()));
+        assertEquals(109.0, result.getRanking().get("OCC01"), 0.0);
+        assertEquals(0.0, result.getRanking().get("AGE01"), 0.0);
+        assertEquals("OCC01", result.getOutput("reasonCode"));
+
+        result = evaluator.evaluate(input(20, "TEACHER", "AP", true));
+        assertEquals(141.0, result.getScore(), 0.0);
+        assertEquals(Arrays.asList("OCC02", "RS001", "VL001", "AGE03"), new ArrayList<String>(result.getRanking().keySet()));
+        assertEquals(22.0, result.getRanking().get("RS001"), 0.0);
+        assertEquals("OCC02", result.getOutput("reasonCode"));
+    }
+
+    @Test
+    public void testPointsAbove() throws Exception {
+        ScorecardEvaluator evaluator = compile("scorecards_pointsAbove").getEvaluator();
+        assertNotNull(evaluator);
+
+        ScorecardResult result = evaluator.evaluate(input(10, null, null, false));
+        assertEquals(29.0, result.getScore(), 0.0);
+        assertEquals(Arrays.asList("AGE02", "VL002"), new ArrayList<String>(result.getRanking().keySet()));
+        assertEquals("AGE02", result.getOutput("reasonCode"));
+
+        result = evaluator.evaluate(input(0, "SKYDIVER", null, false));
+        assertEquals(-1.0, result.getScore(), 0.0);
+        assertEquals(Arrays.asList("AGE01", "VL002", "OCC01"), new ArrayList<String>(result.getRanking().keySet()));
+        assertEquals(-109.0, result.getRanking().get("OCC01"), 0.0);
+        assertEquals("AGE01", result.getOutput("reasonCode"));
+
+        result = evaluator.evaluate(input(20, "TEACHER", "AP", true));
+        assertEquals(41.0, result.getScore(), 0.0);
+        assertEquals(Arrays.asList("AGE03", "VL001", "RS001", "OCC02"), new ArrayList<String>(result.getRanking().keySet()));
+        assertEquals("AGE03", result.getOutput("reasonCode"));
+    }
+
+    @Test
+    public void testSameResultsAsRules() throws Exception {
+        for (String sheet : Arrays.asList(ScorecardCompiler.DEFAULT_SHEET_NAME, "scorecards_pointsAbove", "scorecards_pointsBelow")) {
+            assertSameResultsAsRules(sheet, compile(sheet));
+        }
+    }
+
+    @Test
+    public void testSameResultsAsRulesWithoutReasonCodes() throws Exception {
+        ScorecardCompiler scorecardCompiler = compile(ScorecardCompiler.DEFAULT_SHEET_NAME);
+        Characteristic characteristic = getCharacteristics(scorecardCompiler.getPMMLDocument()).getCharacteristics().get(0);
+        characteristic.setReasonCode(null);
+        for (Attribute attribute : characteristic.getAttributes()) {
+            attribute.setReasonCode(null);
+        }
+
+        ScorecardEvaluator evaluator = scorecardCompiler.getEvaluator();
+        assertNotNull(evaluator);
+        assertTrue(evaluator.evaluate(input(10, null, null, false)).getRanking().containsKey("null"));
+        assertSameResultsAsRules(ScorecardCompiler.DEFAULT_SHEET_NAME, scorecardCompiler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertSameResultsAsRules(String sheet, ScorecardCompiler scorecardCompiler) throws Exception {
+        ScorecardEvaluator evaluator = scorecardCompiler.getEvaluator();
+        assertNotNull(evaluator);
+
+        KieServices ks = KieServices.Factory.get();
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.write(ks.getResources().newByteArrayResource(scorecardCompiler.getDRL().getBytes())
+                          .setSourcePath(sheet + ".drl")
+                          .setResourceType(ResourceType.DRL));
+        KieBuilder kieBuilder = ks.newKieBuilder(kfs);
+        kieBuilder.buildAll();
+        KieBase kbase = ks.newKieContainer(kieBuilder.getKieModule().getReleaseId()).getKieBase();
+        FactType scorecardType = kbase.getFactType("org.drools.scorecards.example", "SampleScore");
+        FactType scorecardInternalsType = kbase.getFactType(PMML4Helper.pmmlDefaultPackageName(), "ScoreCard");
+        FactType scorecardOutputType = kbase.getFactType("org.drools.scorecards.example", "SampleScoreOutput");
+
+        for (int age : new int[]{0, 10, 20, 40}) {
+            for (String occupation : new String[]{null, "SKYDIVER", "TEACHER"}) {
+                for (String residenceState : new String[]{null, "AP", "KN"}) {
+                    for (boolean validLicense : new boolean[]{true, false}) {
+                        KieSession session = kbase.newKieSession();
+                        Object scorecard = scorecardType.newInstance();
+                        scorecardType.set(scorecard, "age", age);
+                        scorecardType.set(scorecard, "occupation", occupation);
+                        scorecardType.set(scorecard, "residenceState", residenceState);
+                        scorecardType.set(scorecard, "validLicense", validLicense);
+                        session.insert(scorecard);
+                        session.fireAllRules();
+                        Object scorecardInternals = session.getObjects(new ClassObjectFilter(scorecardInternalsType.getFactClass())).iterator().next();
+                        Object scorecardOutput = session.getObjects(new ClassObjectFilter(scorecardOutputType.getFactClass())).iterator().next();
+
+                        ScorecardResult result = evaluator.evaluate(input(age, occupation, residenceState, validLicense));
+                        String message = sheet + " " + result;
+                        assertEquals(message, scorecardType.get(scorecard, "scorecard__calculatedScore"), result.getScore());
+                        assertEquals(message, scorecardOutputType.get(scorecardOutput, "reasonCode"), result.getOutput("reasonCode"));
+
+                        // codes with the same points can be ranked in any order by the rules
+                        Map<String, Double> ranking = (Map<String, Double>) scorecardInternalsType.get(scorecardInternals, "ranking");
+                        assertEquals(message, ranking, result.getRanking());
+                        assertEquals(message, new ArrayList<Double>(ranking.values()), new ArrayList<Double>(result.getRanking().values()));
+                        session.dispose();
+                    }
+                }
+            }
+        }
+    }
+
+    private Characteristics getCharacteristics(PMML pmml) {
+        for (Object model : pmml.getAssociationModelsAndBaselineModelsAndClusteringModels()) {
+            if (model instanceof Scorecard) {
+                for (Object obj : ((Scorecard) model).getExtensionsAndCharacteristicsAndMiningSchemas()) {
+                    if (obj instanceof Characteristics) {
+                        return (Characteristics) obj;
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("No characteristics in " + pmml);
+    }
+
+    private ScorecardCompiler compile(String sheet) {
+        ScorecardCompiler scorecardCompiler = new ScorecardCompiler(INTERNAL_DECLARED_TYPES);
+        scorecardCompiler.compileFromExcel(PMMLDocumentTest.class.getResourceAsStream("/scoremodel_reasoncodes.xls"), sheet);
+        assertEquals(0, scorecardCompiler.getScorecardParseErrors().size());
+        return scorecardCompiler;
+    }
+
+    private Map<String, Object> input(int age, String occupation, String residenceState, boolean validLicense) {
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("age", age);
+        values.put("occupation", occupation);
+        values.put("residenceState", residenceState);
+        values.put("validLicense", validLicense);
+        return values;
+    }
+}
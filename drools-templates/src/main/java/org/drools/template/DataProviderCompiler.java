@@ -20,7 +20,9 @@ import org.drools.template.parser.DefaultTemplateContainer;
 import org.drools.template.parser.TemplateContainer;
 import org.drools.template.parser.TemplateDataListener;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -117,6 +119,43 @@ public class DataProviderCompiler {
         return listener.renderDRL();
     }
 
+    /**
+     * Generates DRL from a data provider for the spreadsheet data and templates,
+     * writing it to the given Writer instead of returning it as a String.
+     *
+     * @param dataProvider   the data provider for the spreadsheet data
+     * @param templateStream the InputStream for reading the templates
+     * @param out            the Writer receiving the generated DRL text
+     */
+    public void compile(final DataProvider dataProvider,
+                        final InputStream templateStream,
+                        final Writer out) throws IOException {
+        DefaultTemplateContainer tc = new DefaultTemplateContainer(templateStream);
+        closeStream(templateStream);
+        compile(dataProvider,
+                new TemplateDataListener(tc),
+                out);
+    }
+
+    /**
+     * Generates DRL from a data provider for the spreadsheet data and templates,
+     * writing it to the given Writer instead of returning it as a String.
+     *
+     * @param dataProvider the data provider for the spreadsheet data
+     * @param listener     a template data listener
+     * @param out          the Writer receiving the generated DRL text
+     */
+    public void compile(final DataProvider dataProvider,
+                        final TemplateDataListener listener,
+                        final Writer out) throws IOException {
+        List<DataListener> listeners = new ArrayList<DataListener>();
+        listeners.add(listener);
+        listener.startRendering(out);
+        processData(dataProvider,
+                    listeners);
+        listener.renderDRL(out);
+    }
+
     private void processData(final DataProvider dataProvider,
                              List<DataListener> listeners) {
         for (int i = 0; dataProvider.hasNext(); i++) {
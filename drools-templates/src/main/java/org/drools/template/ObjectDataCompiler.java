@@ -20,7 +20,9 @@ import org.drools.template.parser.DefaultTemplateContainer;
 import org.drools.template.parser.TemplateContainer;
 import org.drools.template.parser.TemplateDataListener;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.util.Collection;
 
 /**
@@ -57,4 +59,22 @@ public class ObjectDataCompiler extends DataProviderCompiler {
         return compile(new ObjectDataProvider(tc, objs),
                        new TemplateDataListener(tc));
     }
+
+    /**
+     * Compile templates, substituting from a collection of maps or objects
+     * into the given template, and write the expanded rules to the given Writer.
+     *
+     * @param objs           objs the collection of maps or objects
+     * @param templateStream the template as a stream
+     * @param out            the Writer receiving the expanded rules
+     */
+    public void compile(final Collection<?> objs,
+                        final InputStream templateStream,
+                        final Writer out) throws IOException {
+        TemplateContainer tc = new DefaultTemplateContainer(templateStream);
+        closeStream(templateStream);
+        compile(new ObjectDataProvider(tc, objs),
+                new TemplateDataListener(tc),
+                out);
+    }
 }
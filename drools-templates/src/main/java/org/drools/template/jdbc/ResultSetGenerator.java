@@ -20,7 +20,9 @@ import org.drools.template.parser.DefaultTemplateContainer;
 import org.drools.template.parser.TemplateContainer;
 import org.drools.template.parser.TemplateDataListener;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -80,6 +82,43 @@ public class ResultSetGenerator {
         return listener.renderDRL();
     }
 
+    /**
+     * Generates DRL from a data provider for the spreadsheet data and templates,
+     * writing it to the given Writer instead of returning it as a String.
+     *
+     * @param rs             the resultset for the table data
+     * @param templateStream the InputStream for reading the templates
+     * @param out            the Writer receiving the generated DRL text
+     */
+    public void compile(final ResultSet rs,
+                        final InputStream templateStream,
+                        final Writer out) throws IOException {
+        TemplateContainer tc = new DefaultTemplateContainer(templateStream);
+        closeStream(templateStream);
+        compile(rs,
+                new TemplateDataListener(tc),
+                out);
+    }
+
+    /**
+     * Generates DRL from a data provider for the spreadsheet data and templates,
+     * writing it to the given Writer instead of returning it as a String.
+     *
+     * @param rs       the resultset for the table data
+     * @param listener a template data listener
+     * @param out      the Writer receiving the generated DRL text
+     */
+    public void compile(final ResultSet rs,
+                        final TemplateDataListener listener,
+                        final Writer out) throws IOException {
+        List<DataListener> listeners = new ArrayList<DataListener>();
+        listeners.add(listener);
+        listener.startRendering(out);
+        processData(rs,
+                    listeners);
+        listener.renderDRL(out);
+    }
+
     /**
      * Iterate through the resultset.
      *
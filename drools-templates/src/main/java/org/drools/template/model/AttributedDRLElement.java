@@ -16,6 +16,7 @@
 
 package org.drools.template.model;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -121,6 +122,14 @@ public abstract class AttributedDRLElement extends DRLElement {
         return this._attr2value.get(name).toString();
     }
 
+    /**
+     * @return the attributes, keyed by their DRL name, with their values
+     * as they are rendered in DRL.
+     */
+    public Map<String, String> getAttributes() {
+        return Collections.unmodifiableMap(this._attr2value);
+    }
+
     public String getSalience() {
         return this._attr2value.get("salience");
     }
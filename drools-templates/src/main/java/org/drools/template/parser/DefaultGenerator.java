@@ -17,11 +17,20 @@
 package org.drools.template.parser;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import org.kie.internal.concurrent.ExecutorProviderFactory;
 import org.mvel2.integration.VariableResolverFactory;
 import org.mvel2.integration.impl.MapVariableResolverFactory;
 import org.mvel2.templates.CompiledTemplate;
@@ -32,16 +41,39 @@ import org.mvel2.templates.TemplateRuntime;
 
 /**
  * Generate the rules for a decision table row from a rule template.
+ * <p/>
+ * The rows are expanded in chunks, which are submitted to the shared executor
+ * as soon as they are complete, while the following rows are still being
+ * matched. The output keeps the order in which the rows have been generated:
+ * the chunks are collected in order as soon as they are expanded, or streamed
+ * to the Writer given to streamTo(Writer), and no more than MAX_IN_FLIGHT of
+ * them are waiting to be collected at any time.
  */
 public class DefaultGenerator
         implements
         Generator {
 
+    public static final String PARALLEL_EXPANSION_PROPERTY = "drools.template.parallelExpansion";
+
+    static final int CHUNK_SIZE = 256;
+
+    static final int MAX_IN_FLIGHT = Math.max( 2, Runtime.getRuntime().availableProcessors() * 2 );
+
+    private static final boolean PARALLEL_EXPANSION = Boolean.parseBoolean( System.getProperty( PARALLEL_EXPANSION_PROPERTY, "true" ) );
+
     private Map<String, RuleTemplate> ruleTemplates;
 
+    // replaced, and never modified, once shared with the chunks being expanded
     private TemplateRegistry registry = new SimpleTemplateRegistry();
 
-    private List<String> rules = new ArrayList<String>();
+    private List<Expansion> pending = new ArrayList<Expansion>();
+
+    private final Deque<Future<String>> chunks = new ArrayDeque<Future<String>>();
+
+    // the rules of the chunks already collected, unless streamed to the output
+    private final StringBuilder drl = new StringBuilder();
+
+    private Writer output;
 
     public DefaultGenerator( final Map<String, RuleTemplate> t ) {
         ruleTemplates = t;
@@ -57,7 +89,6 @@ public class DefaultGenerator
                           Row row ) {
         try {
             CompiledTemplate template = getTemplate( templateName );
-            VariableResolverFactory factory = new MapVariableResolverFactory();
             Map<String, Object> vars = new HashMap<String, Object>();
 
             initializePriorCommaConstraints( vars );
@@ -70,17 +101,71 @@ public class DefaultGenerator
                 cell.addValue( vars );
             }
 
-            String drl = String.valueOf( TemplateRuntime.execute( template,
-                                                                  vars,
-                                                                  factory,
-                                                                  registry ) );
-
-            rules.add( drl );
+            pending.add( new Expansion( template,
+                                        vars,
+                                        row.getRowNumber() ) );
+            if ( pending.size() >= CHUNK_SIZE ) {
+                submitPending();
+            }
+        } catch ( RuntimeException e ) {
+            throw e;
         } catch ( Exception e ) {
             throw new RuntimeException( e );
         }
     }
 
+    private void submitPending() throws IOException {
+        if ( !pending.isEmpty() ) {
+            Chunk chunk = new Chunk( pending,
+                                     registry );
+            pending = new ArrayList<Expansion>();
+            if ( PARALLEL_EXPANSION ) {
+                chunks.add( ExecutorProviderFactory.getExecutorProvider().getExecutor().submit( chunk ) );
+            } else {
+                chunks.add( CompletableFuture.completedFuture( chunk.call() ) );
+            }
+        }
+        collectChunks( false );
+    }
+
+    /**
+     * Collects the chunks already expanded, in order, waiting for the oldest ones
+     * while more than MAX_IN_FLIGHT are in flight, or for all of them if required.
+     */
+    private void collectChunks( boolean all ) throws IOException {
+        while ( !chunks.isEmpty() && ( all || chunks.size() > MAX_IN_FLIGHT || chunks.peek().isDone() ) ) {
+            String rules = getRules( chunks.poll() );
+            if ( output != null ) {
+                output.write( rules );
+            } else {
+                drl.append( rules );
+            }
+        }
+    }
+
+    private String getRules( Future<String> chunk ) {
+        try {
+            return chunk.get();
+        } catch ( InterruptedException e ) {
+            cancelChunks();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
+        } catch ( ExecutionException e ) {
+            cancelChunks();
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException( e.getCause() );
+        }
+    }
+
+    private void cancelChunks() {
+        for ( Future<String> chunk : chunks ) {
+            chunk.cancel( false );
+        }
+        chunks.clear();
+    }
+
     private void initializePriorCommaConstraints( final Map<String, Object> vars ) {
         for ( int depth = 0; depth < 10; depth++ ) {
             vars.put( "hasPriorCommaConstraint" + depth,
@@ -100,8 +185,15 @@ public class DefaultGenerator
         if ( !registry.contains( templateName ) ) {
             RuleTemplate template = ruleTemplates.get( templateName );
             contents = TemplateCompiler.compileTemplate( template.getContents() );
-            registry.addNamedTemplate( templateName,
-                                       contents );
+            // the current registry may be in use by the chunks being expanded
+            TemplateRegistry newRegistry = new SimpleTemplateRegistry();
+            for ( String name : registry.getNames() ) {
+                newRegistry.addNamedTemplate( name,
+                                              registry.getNamedTemplate( name ) );
+            }
+            newRegistry.addNamedTemplate( templateName,
+                                          contents );
+            registry = newRegistry;
         } else {
             contents = registry.getNamedTemplate( templateName );
         }
@@ -114,11 +206,85 @@ public class DefaultGenerator
      * @see org.kie.decisiontable.parser.Generator#getDrl()
      */
     public String getDrl() {
-        StringBuffer sb = new StringBuffer();
-        for ( String rule : rules ) {
-            sb.append( rule ).append( "\n" );
+        StringWriter out = new StringWriter();
+        try {
+            writeDrl( out );
+        } catch ( IOException e ) {
+            throw new RuntimeException( e );
+        }
+        return out.toString();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.kie.decisiontable.parser.Generator#writeDrl(java.io.Writer)
+     */
+    public void writeDrl( Writer out ) throws IOException {
+        submitPending();
+        collectChunks( true );
+        if ( out != output ) {
+            out.write( drl.toString() );
+        }
+    }
+
+    /**
+     * Writes the rules generated so far to the given Writer, and the following ones
+     * as soon as they are expanded, instead of keeping them in memory: a final
+     * writeDrl(Writer) with the same Writer writes the remaining ones. The rules
+     * already streamed are not returned by getDrl() anymore.
+     */
+    public void streamTo( Writer out ) throws IOException {
+        out.write( drl.toString() );
+        drl.setLength( 0 );
+        output = out;
+    }
+
+    private static class Expansion {
+
+        private final CompiledTemplate template;
+        private final Map<String, Object> vars;
+        private final int rowNumber;
+
+        private Expansion( CompiledTemplate template,
+                           Map<String, Object> vars,
+                           int rowNumber ) {
+            this.template = template;
+            this.vars = vars;
+            this.rowNumber = rowNumber;
+        }
+    }
+
+    private static class Chunk
+            implements
+            Callable<String> {
+
+        private final List<Expansion> expansions;
+        private final TemplateRegistry registry;
+
+        private Chunk( List<Expansion> expansions,
+                       TemplateRegistry registry ) {
+            this.expansions = expansions;
+            this.registry = registry;
+        }
+
+        public String call() {
+            StringBuilder sb = new StringBuilder();
+            for ( Expansion expansion : expansions ) {
+                VariableResolverFactory factory = new MapVariableResolverFactory();
+                try {
+                    sb.append( TemplateRuntime.execute( expansion.template,
+                                                        expansion.vars,
+                                                        factory,
+                                                        registry ) ).append( "\n" );
+                } catch ( RuntimeException e ) {
+                    throw new RuntimeException( "Unable to expand the template for row " + expansion.rowNumber +
+                                                " (in the chunk of rows " + expansions.get( 0 ).rowNumber +
+                                                " to " + expansions.get( expansions.size() - 1 ).rowNumber + ")", e );
+                }
+            }
+            return sb.toString();
         }
-        return sb.toString();
     }
 
 }
@@ -16,6 +16,9 @@
 
 package org.drools.template.parser;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  * <a href="stevearoonie@gmail.com">Steven Williams</a>
  * Generate the rules for a decision table
@@ -26,4 +29,11 @@ public interface Generator {
 
     String getDrl();
 
+    /**
+     * Writes the generated rules to the given Writer, instead of returning them all in a String.
+     */
+    default void writeDrl(Writer out) throws IOException {
+        out.write(getDrl());
+    }
+
 }
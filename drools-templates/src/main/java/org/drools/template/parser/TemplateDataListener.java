@@ -16,9 +16,11 @@
 
 package org.drools.template.parser;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
 
-import org.drools.template.model.DRLOutput;
 import org.kie.api.runtime.KieSession;
 
 /**
@@ -46,6 +48,8 @@ public class TemplateDataListener
 
     private boolean checkEmptyRows = true;
 
+    private Writer renderingTo;
+
     // private WorkingMemoryFileLogger logger;
 
     public TemplateDataListener( final TemplateContainer tc ) {
@@ -196,12 +200,38 @@ public class TemplateDataListener
     }
 
     public String renderDRL() {
-        DRLOutput out = new DRLOutput();
-        out.writeLine( templateContainer.getHeader() );
+        StringWriter out = new StringWriter();
+        try {
+            renderDRL( out );
+        } catch ( IOException e ) {
+            throw new RuntimeException( e );
+        }
+        return out.toString();
+    }
 
-        out.writeLine( generator.getDrl() );
-        // System.err.println(out.getDRL());
-        return out.getDRL();
+    /**
+     * Writes the header to the given Writer, and the rules as soon as they are
+     * generated if the generator supports it, before the data are processed.
+     * A final renderDRL(Writer) with the same Writer completes the DRL.
+     */
+    public void startRendering( Writer out ) throws IOException {
+        out.write( templateContainer.getHeader() + "\n" );
+        if ( generator instanceof DefaultGenerator ) {
+            ( (DefaultGenerator) generator ).streamTo( out );
+        }
+        renderingTo = out;
+    }
+
+    /**
+     * Writes the header and the generated rules to the given Writer, without
+     * holding the whole DRL in memory.
+     */
+    public void renderDRL( Writer out ) throws IOException {
+        if ( out != renderingTo ) {
+            out.write( templateContainer.getHeader() + "\n" );
+        }
+        generator.writeDrl( out );
+        out.write( "\n" );
     }
 
 }
@@ -18,10 +18,13 @@ package org.drools.template.parser;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class DefaultGeneratorTest {
     private DefaultGenerator g;
@@ -56,9 +59,13 @@ public class DefaultGeneratorTest {
         rt3.addColumn("col1");
         rt3.addColumn("col2");
         rt3.setContents("@{row.rowNumber} @{col1} @{col2}");
+        RuleTemplate rt4 = new RuleTemplate("rt4", tc);
+        rt4.addColumn("col1");
+        rt4.setContents("@{col1.noSuchMethod()}");
         t.put("rt1", rt1);
         t.put("rt2", rt2);
         t.put("rt3", rt3);
+        t.put("rt4", rt4);
         g = new DefaultGenerator(t);
     }
 
@@ -91,4 +98,64 @@ public class DefaultGeneratorTest {
         assertEquals("1 value1 value2\n\n", drl);
     }
 
+    @Test
+    public void testGenerateManyRowsKeepsOrder() throws Exception {
+        Column[] columns = {new StringColumn("col1"), new StringColumn("col2")};
+        int rows = DefaultGenerator.CHUNK_SIZE * 3 + 7;
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            Row r = new Row(i, columns);
+            r.getCell(0).setValue("a" + i);
+            r.getCell(1).setValue("b" + i);
+            g.generate("rt3", r);
+            g.generate("rt1", r);
+            expected.append(i).append(" a").append(i).append(" b").append(i).append("\n\n");
+            expected.append("Test template 1\n\n");
+        }
+        assertEquals(expected.toString(), g.getDrl());
+
+        StringWriter out = new StringWriter();
+        g.writeDrl(out);
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    public void testStreamRowsAsTheyAreExpanded() throws Exception {
+        Column[] columns = {new StringColumn("col1"), new StringColumn("col2")};
+        StringWriter out = new StringWriter();
+        g.streamTo(out);
+
+        int rows = DefaultGenerator.CHUNK_SIZE * (DefaultGenerator.MAX_IN_FLIGHT + 2);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            Row r = new Row(i, columns);
+            r.getCell(0).setValue("a" + i);
+            r.getCell(1).setValue("b" + i);
+            g.generate("rt3", r);
+            expected.append(i).append(" a").append(i).append(" b").append(i).append("\n\n");
+        }
+        // no more than MAX_IN_FLIGHT chunks are kept waiting
+        assertTrue(out.getBuffer().length() >= DefaultGenerator.CHUNK_SIZE);
+        assertEquals(expected.substring(0, out.getBuffer().length()), out.toString());
+
+        g.writeDrl(out);
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    public void testFailingRowIsReported() {
+        Column[] columns = {new StringColumn("col1"), new StringColumn("col2")};
+        try {
+            for (int i = 0; i < DefaultGenerator.CHUNK_SIZE + 1; i++) {
+                Row r = new Row(i + 10, columns);
+                r.getCell(0).setValue("a" + i);
+                g.generate("rt4", r);
+            }
+            g.getDrl();
+            fail("The template cannot be expanded");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("row 10 (in the chunk of rows 10 to " + (DefaultGenerator.CHUNK_SIZE + 9) + ")"));
+        }
+    }
+
 }
@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -61,6 +62,8 @@ import static org.drools.compiler.kproject.ReleaseIdImpl.adapt;
 
 public class KieRepositoryScannerImpl implements InternalKieScanner {
 
+    public static final String BACKGROUND_UPDATE_PROPERTY = "kie.scanner.backgroundUpdate";
+
     private Timer timer;
 
     private static final Logger log = LoggerFactory.getLogger(KieScanner.class);
@@ -78,6 +81,15 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
     private KieScannerMBean mbean;
 
     private long pollingInterval;
+
+    private volatile boolean backgroundUpdate = Boolean.parseBoolean(System.getProperty(BACKGROUND_UPDATE_PROPERTY, "false"));
+
+    // identifies the background update in progress, reset when the scanner is stopped in order to discard it
+    private Object backgroundUpdateToken;
+
+    private volatile long lastUpdateBuildTime = -1;
+
+    private volatile long lastUpdateTime = -1;
     
     private KieScannerEventSupport listeners = new KieScannerEventSupport();
     
@@ -263,6 +275,7 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
             timer.cancel();
             timer = null;
         }
+        backgroundUpdateToken = null;
         this.pollingInterval = 0;
         changeStatus( Status.STOPPED );
     }
@@ -270,6 +283,36 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
     public synchronized long getPollingInterval() {
         return this.pollingInterval;
     }
+
+    public boolean isBackgroundUpdate() {
+        return backgroundUpdate;
+    }
+
+    /**
+     * When enabled the scheduled scans build the updated KieModules without holding the lock of this scanner,
+     * so that its status can be queried and it can be stopped while an update is in progress.
+     * Only the final swap of the KieModules in the KieContainer is performed in mutual exclusion: it replaces
+     * the KieBases of the KieContainer with new ones, so the sessions created afterwards use them straight away,
+     * while the KieBases of the existing sessions are incrementally updated as in the foreground mode.
+     */
+    public void setBackgroundUpdate(boolean backgroundUpdate) {
+        this.backgroundUpdate = backgroundUpdate;
+    }
+
+    /**
+     * Returns the time in milliseconds spent to build the KieModules of the last update, or -1 if no update happened yet.
+     */
+    public long getLastUpdateBuildTime() {
+        return lastUpdateBuildTime;
+    }
+
+    /**
+     * Returns the time in milliseconds spent by the last update, including both the build of the new KieModules
+     * and their swap in the KieContainer, or -1 if no update happened yet.
+     */
+    public long getLastUpdateTime() {
+        return lastUpdateTime;
+    }
     
     public void shutdown() {
         if( getStatus() != Status.SHUTDOWN ) {
@@ -287,6 +330,10 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
 
     private class ScanTask extends TimerTask {
         public void run() {
+            if (backgroundUpdate) {
+                scanInBackground();
+                return;
+            }
             synchronized (KieRepositoryScannerImpl.this) {
                 // don't scan if the scanner was already stopped! This would lead to inconsistent scanner behavior.
                 if (status == Status.STOPPED) {
@@ -298,10 +345,102 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
         }
     }
 
+    private void scanInBackground() {
+        Map<DependencyDescriptor, Artifact> updatedArtifacts;
+        ArtifactResolver resolver;
+        Object token = new Object();
+        synchronized (this) {
+            if (status != Status.RUNNING) {
+                return;
+            }
+            changeStatus( Status.SCANNING );
+            // the scanned versions are committed only when the update is applied, so a discarded update is found again by the next scan
+            updatedArtifacts = findUpdates();
+            if (updatedArtifacts.isEmpty()) {
+                changeStatus( Status.RUNNING );
+                return;
+            }
+            // a resolver owned by this update, since the shared one can be used by the synchronized methods while building
+            resolver = getResolverFor(kieContainer, true);
+            backgroundUpdateToken = token;
+            changeStatus( Status.UPDATING );
+        }
+
+        long start = System.currentTimeMillis();
+        // the dependencies don't depend on each other and can be built in parallel, while the container's
+        // own kjar has to be built after them in order to be linked to the updated dependencies
+        Map.Entry<DependencyDescriptor, Artifact> containerEntry = null;
+        List<ModuleUpdate> updates = new ArrayList<ModuleUpdate>();
+        for (Map.Entry<DependencyDescriptor, Artifact> entry : updatedArtifacts.entrySet()) {
+            if (entry.getKey().isSameArtifact(kieContainer.getContainerReleaseId())) {
+                containerEntry = entry;
+            } else {
+                // the resolver is not thread safe: the artifacts are resolved sequentially and only their build is parallel
+                updates.add( prepareKieModuleInBackground(entry.getKey(), entry.getValue(), resolver) );
+            }
+        }
+        updates.parallelStream().forEach( this::buildKieModuleInBackground );
+        if (containerEntry != null) {
+            updates.add( buildKieModuleInBackground( prepareKieModuleInBackground(containerEntry.getKey(), containerEntry.getValue(), resolver) ) );
+        }
+        long buildTime = System.currentTimeMillis() - start;
+
+        synchronized (this) {
+            if (status != Status.UPDATING || backgroundUpdateToken != token) {
+                // the scanner has been stopped or shut down while building: leave both the KieContainer and the
+                // scanned versions untouched, so the artifacts will be found again by the next scan
+                log.info("The update of the following artifacts has been discarded because the scanner has been stopped: " + updatedArtifacts);
+                return;
+            }
+            try {
+                commitScannedVersions(updatedArtifacts);
+                boolean allUpdatesSucceeded = true;
+                for (ModuleUpdate update : updates) {
+                    allUpdatesSucceeded = applyUpdate(update, true) && allUpdatesSucceeded;
+                }
+                lastUpdateBuildTime = buildTime;
+                lastUpdateTime = System.currentTimeMillis() - start;
+                if ( allUpdatesSucceeded ) {
+                    log.info("The following artifacts have been updated in background in " + lastUpdateTime +
+                             " ms (" + buildTime + " ms to build them): " + updatedArtifacts);
+                } else {
+                    log.error("Some errors occured while updating the following artifacts: " + updatedArtifacts);
+                }
+            } finally {
+                backgroundUpdateToken = null;
+                changeStatus( Status.RUNNING );
+            }
+        }
+    }
+
+    private ModuleUpdate prepareKieModuleInBackground(DependencyDescriptor oldDependency, Artifact artifact, ArtifactResolver resolver) {
+        try {
+            return prepareKieModule(oldDependency, artifact, resolver);
+        } catch (RuntimeException e) {
+            ModuleUpdate update = new ModuleUpdate(oldDependency, artifact, new DependencyDescriptor(artifact).getReleaseId(), null);
+            update.failed(e);
+            return update;
+        }
+    }
+
+    private ModuleUpdate buildKieModuleInBackground(ModuleUpdate update) {
+        try {
+            return buildKieModule(update);
+        } catch (RuntimeException e) {
+            update.failed(e);
+            return update;
+        }
+    }
+
     public synchronized void scanNow() {
         if (getStatus() == Status.SHUTDOWN ) {
             throw new IllegalStateException("The scanner was already shut down and can no longer be used.");
         }
+        if (getStatus() == Status.UPDATING ) {
+            // a background update is building the artifacts: scanning now would apply them a second time
+            log.info("An update is already in progress, the scan has been skipped");
+            return;
+        }
         // Polling can be started so remember the original state.
         final Status originalStatus = status;
         try {
@@ -312,6 +451,7 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
                 return;
             }
             changeStatus( Status.UPDATING );
+            long start = System.currentTimeMillis();
 
             boolean allUpdatesSucceeded = true;
             // build the dependencies first
@@ -326,6 +466,8 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
             if (containerEntry != null) {
                 allUpdatesSucceeded = updateKieModule(containerEntry.getKey(), containerEntry.getValue()) && allUpdatesSucceeded;
             }
+            // builds and swaps are interleaved here, so the whole update is accounted as build time
+            lastUpdateTime = lastUpdateBuildTime = System.currentTimeMillis() - start;
 
             if ( allUpdatesSucceeded ) {
                 log.info("The following artifacts have been updated: " + updatedArtifacts);
@@ -341,23 +483,82 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
     }
 
     private boolean updateKieModule(DependencyDescriptor oldDependency, Artifact artifact) {
+        return applyUpdate( buildKieModule( prepareKieModule(oldDependency, artifact, artifactResolver) ), false );
+    }
+
+    /**
+     * Creates the KieModule of the given artifact and resolves its dependencies through the given resolver.
+     */
+    private ModuleUpdate prepareKieModule(DependencyDescriptor oldDependency, Artifact artifact, ArtifactResolver resolver) {
         org.appformer.maven.support.AFReleaseId newReleaseId = new DependencyDescriptor( artifact).getReleaseId();
         InternalKieModule kieModule = createKieModule(newReleaseId, artifact.getFile());
         if (kieModule != null) {
-            addDependencies(kieModule, artifactResolver, artifactResolver.getArtifactDependecies(newReleaseId.toString()));
-            ResultsImpl messages = kieModule.build();
-            if ( messages.filterMessages(Message.Level.ERROR).isEmpty()) {
-                Results updateMessages = kieContainer.updateDependencyToVersion(adapt( oldDependency.getArtifactReleaseId() ), adapt( newReleaseId ));
-                oldDependency.setArtifactVersion(artifact.getVersion());
-                messages.getMessages().addAll( updateMessages.getMessages() ); // append all update Results into build Results to notify listeners
-            }
-            listeners.fireKieScannerUpdateResultsEventImpl(messages);
-            return !messages.hasMessages(Message.Level.ERROR);
+            addDependencies(kieModule, resolver, resolver.getArtifactDependecies(newReleaseId.toString()));
+        }
+        return new ModuleUpdate(oldDependency, artifact, newReleaseId, kieModule);
+    }
+
+    /**
+     * Builds a KieModule already prepared by {@link #prepareKieModule(DependencyDescriptor, Artifact, ArtifactResolver)}
+     * without using any resolver, so the builds of different KieModules can run in parallel.
+     */
+    private ModuleUpdate buildKieModule(ModuleUpdate update) {
+        if (update.kieModule != null && update.messages == null) {
+            update.messages = update.kieModule.build();
+        }
+        return update;
+    }
+
+    private boolean applyUpdate(ModuleUpdate update, boolean swapKieBases) {
+        ResultsImpl messages = update.messages;
+        if (messages == null) {
+            return false;
+        }
+        if ( messages.filterMessages(Message.Level.ERROR).isEmpty()) {
+            ReleaseId currentReleaseId = adapt( update.oldDependency.getArtifactReleaseId() );
+            Results updateMessages = swapKieBases ?
+                                     kieContainer.swapDependencyToVersion(currentReleaseId, adapt( update.newReleaseId )) :
+                                     kieContainer.updateDependencyToVersion(currentReleaseId, adapt( update.newReleaseId ));
+            update.oldDependency.setArtifactVersion(update.artifact.getVersion());
+            messages.getMessages().addAll( updateMessages.getMessages() ); // append all update Results into build Results to notify listeners
+        }
+        listeners.fireKieScannerUpdateResultsEventImpl(messages);
+        return !messages.hasMessages(Message.Level.ERROR);
+    }
+
+    private static class ModuleUpdate {
+        private final DependencyDescriptor oldDependency;
+        private final Artifact artifact;
+        private final org.appformer.maven.support.AFReleaseId newReleaseId;
+        private final InternalKieModule kieModule;
+        private ResultsImpl messages;
+
+        private ModuleUpdate(DependencyDescriptor oldDependency, Artifact artifact, org.appformer.maven.support.AFReleaseId newReleaseId, InternalKieModule kieModule) {
+            this.oldDependency = oldDependency;
+            this.artifact = artifact;
+            this.newReleaseId = newReleaseId;
+            this.kieModule = kieModule;
+        }
+
+        private void failed(RuntimeException e) {
+            // a failure is reported only for the artifact that caused it, the other ones are still updated
+            log.error("Unable to build the artifact " + artifact, e);
+            messages = new ResultsImpl();
+            messages.addMessage(Message.Level.ERROR, null, "Unable to build the artifact " + artifact + ": " + e.getMessage());
         }
-        return false;
     }
 
     private Map<DependencyDescriptor, Artifact> scanForUpdates() {
+        Map<DependencyDescriptor, Artifact> newArtifacts = findUpdates();
+        commitScannedVersions(newArtifacts);
+        return newArtifacts;
+    }
+
+    /**
+     * Finds the artifacts newer than the ones currently in use, without recording their versions as scanned.
+     * The returned map is keyed by the descriptors of the artifacts currently in use.
+     */
+    private Map<DependencyDescriptor, Artifact> findUpdates() {
         artifactResolver = getResolverFor(kieContainer, true);
 
         if ( !kieProjectDescr.getReleaseId().equals( this.kieContainer.getReleaseId() ) ) {
@@ -372,7 +573,6 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
             DependencyDescriptor resolvedDep = new DependencyDescriptor(newArtifact);
             if (resolvedDep.isNewerThan(kieProjectDescr)) {
                 newArtifacts.put(kieProjectDescr, newArtifact);
-                kieProjectDescr = new DependencyDescriptor(newArtifact);
             }
         }
 
@@ -385,7 +585,6 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
                     DependencyDescriptor newDep = new DependencyDescriptor(newArtifact);
                     if (newDep.isNewerThan(oldDep)) {
                         newArtifacts.put(oldDep, newArtifact);
-                        usedDependencies.put(artifactId, newDep);
                     }
                 }
             }
@@ -394,6 +593,17 @@ public class KieRepositoryScannerImpl implements InternalKieScanner {
         return newArtifacts;
     }
 
+    private void commitScannedVersions(Map<DependencyDescriptor, Artifact> newArtifacts) {
+        for (Map.Entry<DependencyDescriptor, Artifact> entry : newArtifacts.entrySet()) {
+            DependencyDescriptor newDep = new DependencyDescriptor(entry.getValue());
+            if (entry.getKey() == kieProjectDescr) {
+                kieProjectDescr = newDep;
+            } else {
+                usedDependencies.put(adapt( entry.getKey().getReleaseIdWithoutVersion() ), newDep);
+            }
+        }
+    }
+
     private Map<ReleaseId, DependencyDescriptor> indexArtifacts() {
         Map<ReleaseId, DependencyDescriptor> depsMap = new HashMap<ReleaseId, DependencyDescriptor>();
         for (DependencyDescriptor dep : artifactResolver.getAllDependecies()) {
@@ -23,6 +23,10 @@ public interface KieScannerMBean {
 
     public abstract String getStatus();
 
+    public abstract long getLastUpdateBuildTime();
+
+    public abstract long getLastUpdateTime();
+
     public abstract void scanNow();
 
     public abstract void start(long pollingInterval);
@@ -64,6 +64,22 @@ public class KieScannerMBeanImpl implements KieScannerMBean {
         return this.scanner.getStatus().toString();
     }
     
+    /* (non-Javadoc)
+     * @see org.kie.scanner.management.KieScannerMBean#getLastUpdateBuildTime()
+     */
+    @Override
+    public long getLastUpdateBuildTime() {
+        return this.scanner.getLastUpdateBuildTime();
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.scanner.management.KieScannerMBean#getLastUpdateTime()
+     */
+    @Override
+    public long getLastUpdateTime() {
+        return this.scanner.getLastUpdateTime();
+    }
+
     /* (non-Javadoc)
      * @see org.kie.scanner.management.KieScannerMBean#scanNow()
      */
@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.model.Dependency;
@@ -37,6 +39,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
 import org.kie.api.KieServices;
 import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
@@ -61,6 +64,7 @@ import static org.appformer.maven.integration.MavenRepository.getMavenRepository
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -131,9 +135,11 @@ public class KieRepositoryScannerTest extends AbstractKieCiTest {
 
         // since I am not calling start() on the scanner it means it won't have automatic scheduled scanning
         KieScanner scanner = ks.newKieScanner(kieContainer);
+        assertEquals(-1, ((InternalKieScanner) scanner).getLastUpdateTime());
 
         // scan the maven repo to get the new kjar version and deploy it on the kcontainer
         scanner.scanNow();
+        assertTrue(((InternalKieScanner) scanner).getLastUpdateTime() > 0);
 
         // create a ksesion and check it works as expected
         KieSession ksession2 = kieContainer.newKieSession("KSession1");
@@ -1123,6 +1129,52 @@ public class KieRepositoryScannerTest extends AbstractKieCiTest {
     }
 
 
+    @Test
+    public void testKScannerBackgroundUpdate() throws Exception {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "scanner-background-test", "1.0-SNAPSHOT");
+
+        InternalKieModule kJar1 = createKieJar(ks, releaseId, "rule1", "rule2");
+        KieContainer kieContainer = ks.newKieContainer(releaseId);
+
+        KieMavenRepository repository = getKieMavenRepository();
+        repository.installArtifact(releaseId, kJar1, createKPom(fileManager, releaseId));
+
+        KieSession ksession = kieContainer.newKieSession("KSession1");
+        checkKSession(ksession, "rule1", "rule2");
+
+        KieSession existingSession = kieContainer.newKieSession("KSession1");
+        KieBase kieBase = kieContainer.getKieBase("KBase1");
+
+        KieRepositoryScannerImpl scanner = (KieRepositoryScannerImpl) ks.newKieScanner(kieContainer);
+        scanner.setBackgroundUpdate(true);
+
+        CountDownLatch updated = new CountDownLatch(1);
+        scanner.addListener( new KieScannerEventListener() {
+            public void onKieScannerStatusChangeEvent(KieScannerStatusChangeEvent statusChange) { }
+            public void onKieScannerUpdateResultsEvent(KieScannerUpdateResultsEvent updateResults) {
+                assertFalse( updateResults.getResults().hasMessages(Message.Level.ERROR) );
+                updated.countDown();
+            }
+        } );
+
+        scanner.start(100);
+        try {
+            InternalKieModule kJar2 = createKieJar(ks, releaseId, "rule2", "rule3");
+            repository.installArtifact(releaseId, kJar2, createKPom(fileManager, releaseId));
+
+            assertTrue( updated.await( 10, TimeUnit.SECONDS ) );
+            // the new sessions are created from a new KieBase, while the existing ones are incrementally updated
+            assertNotSame( kieBase, kieContainer.getKieBase("KBase1") );
+            checkKSession(kieContainer.newKieSession("KSession1"), "rule2", "rule3");
+            checkKSession(existingSession, "rule2", "rule3");
+        } finally {
+            scanner.stop();
+            ks.getRepository().removeKieModule(releaseId);
+        }
+        assertEquals(InternalKieScanner.Status.STOPPED, scanner.getStatus());
+    }
+
 
     private void testKScannerWithKJarContainingClassLoadedFromClassLoader(boolean differentKbases) throws Exception {
         // DROOLS-1231
@@ -75,4 +75,16 @@ public interface DMNDecisionResult {
      */
     boolean hasErrors();
 
+    /**
+     * Returns the time spent evaluating the expression of the decision,
+     * not including the evaluation of its requirements.
+     *
+     * @return the evaluation time in nanoseconds, or zero if the
+     *         decision expression wasn't evaluated or the time
+     *         is not available.
+     */
+    default long getEvaluationTime() {
+        return 0;
+    }
+
 }
@@ -17,6 +17,8 @@
 package org.kie.dmn.api.core;
 
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.kie.dmn.api.core.event.DMNRuntimeEventManager;
 
@@ -52,6 +54,31 @@ public interface DMNRuntime extends DMNRuntimeEventManager {
      */
     DMNResult evaluateAll( DMNModel model, DMNContext context );
 
+    /**
+     * Evaluate all decisions for the model, once for each one of the given contexts.
+     * The results are produced lazily, as the returned stream is consumed.
+     *
+     * @param model the model to evaluate
+     * @param contexts the contexts with all the input variables, one for each evaluation
+     * @param parallel when true the contexts are evaluated concurrently, and the registered
+     *                 listeners are then notified from several threads
+     *
+     * @return the results of the evaluations, in the order of the contexts
+     */
+    default Stream<DMNResult> evaluateAll( DMNModel model, Stream<? extends DMNContext> contexts, boolean parallel ) {
+        Stream<? extends DMNContext> batch = parallel ? contexts.parallel() : contexts.sequential();
+        return batch.map( context -> evaluateAll( model, context ) );
+    }
+
+    /**
+     * Evaluate all decisions for the model, once for each one of the given contexts.
+     *
+     * @see #evaluateAll(DMNModel, Stream, boolean)
+     */
+    default Stream<DMNResult> evaluateAll( DMNModel model, Iterable<? extends DMNContext> contexts, boolean parallel ) {
+        return evaluateAll( model, StreamSupport.stream( contexts.spliterator(), false ), parallel );
+    }
+
     /**
      * Evaluate the decision identified by the given name and
      * all dependent decisions, given the context
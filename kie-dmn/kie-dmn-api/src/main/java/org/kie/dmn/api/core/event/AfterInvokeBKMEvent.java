@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.api.core.event;
+
+import java.util.List;
+
+import org.kie.dmn.api.core.ast.BusinessKnowledgeModelNode;
+
+/**
+ * Fired after each invocation of a Business Knowledge Model function, when the memoization
+ * of the BKM invocations is enabled.
+ */
+public interface AfterInvokeBKMEvent
+        extends DMNEvent {
+
+    BusinessKnowledgeModelNode getBusinessKnowledgeModel();
+
+    List<Object> getInvocationParameters();
+
+    /**
+     * @return true if the result of this invocation has been taken from the memoized ones
+     */
+    boolean isMemoized();
+
+    /**
+     * @return the number of invocations of this BKM answered from the memoized results so far
+     */
+    long getMemoizationHits();
+
+    /**
+     * @return the number of invocations of this BKM which had to be actually evaluated so far
+     */
+    long getMemoizationMisses();
+}
@@ -29,4 +29,6 @@ public interface DMNRuntimeEventListener {
     void beforeEvaluateDecisionTable(BeforeEvaluateDecisionTableEvent event);
 
     void afterEvaluateDecisionTable(AfterEvaluateDecisionTableEvent event);
+
+    default void afterInvokeBKM(AfterInvokeBKMEvent event) { }
 }
@@ -16,12 +16,24 @@
 
 package org.kie.dmn.core.api;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.core.definitions.InternalKnowledgePackage;
+import org.drools.core.impl.KnowledgeBaseImpl;
+import org.kie.api.KieBase;
+import org.kie.api.definition.KiePackage;
+import org.kie.api.io.ResourceType;
 import org.kie.dmn.api.core.DMNCompiler;
 import org.kie.dmn.api.core.DMNCompilerConfiguration;
 import org.kie.dmn.api.core.DMNContext;
+import org.kie.dmn.api.core.DMNPackage;
+import org.kie.dmn.api.core.DMNRuntime;
 import org.kie.dmn.core.compiler.DMNCompilerConfigurationImpl;
 import org.kie.dmn.core.compiler.DMNCompilerImpl;
 import org.kie.dmn.core.impl.DMNContextImpl;
+import org.kie.dmn.core.impl.DMNRuntimeImpl;
 
 public final class DMNFactory {
 
@@ -39,6 +51,29 @@ public final class DMNFactory {
         return new DMNCompilerConfigurationImpl();
     }
 
+    /**
+     * Creates a DMNRuntime for the given compiled DMN packages, which doesn't require a KieSession
+     * and can be shared among threads.
+     */
+    public static DMNRuntime newRuntime(Collection<? extends DMNPackage> dmnPackages, ClassLoader rootClassLoader) {
+        return new DMNRuntimeImpl(dmnPackages, rootClassLoader);
+    }
+
+    /**
+     * Creates a DMNRuntime for the DMN models of the given KieBase, which doesn't require a KieSession
+     * and can be shared among threads. The models are the ones in the KieBase at the time of this call.
+     */
+    public static DMNRuntime newRuntime(KieBase kieBase) {
+        List<DMNPackage> dmnPackages = new ArrayList<>();
+        for (KiePackage kpkg : kieBase.getKiePackages()) {
+            DMNPackage dmnPkg = (DMNPackage) ((InternalKnowledgePackage) kpkg).getResourceTypePackages().get(ResourceType.DMN);
+            if (dmnPkg != null) {
+                dmnPackages.add(dmnPkg);
+            }
+        }
+        return newRuntime(dmnPackages, ((KnowledgeBaseImpl) kieBase).getRootClassLoader());
+    }
+
     private DMNFactory() {
         // Constructing instances is not allowed for this Factory
     }
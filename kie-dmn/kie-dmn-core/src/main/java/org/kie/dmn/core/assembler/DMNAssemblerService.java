@@ -16,6 +16,7 @@
 
 package org.kie.dmn.core.assembler;
 
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -78,14 +79,18 @@ public class DMNAssemblerService implements KieAssemblerService {
         DMNMarshaller dmnMarshaller = dmnCompiler.getMarshaller();
         if (resources.size() == 1) {
             // quick path:
-            internalAddResource(kbuilderImpl, dmnCompiler, resources.iterator().next(), Collections.emptyList());
+            internalAddResource(kbuilderImpl, dmnCompiler, resources.iterator().next(), null, null, Collections.emptyList());
             return;
         }
         List<DMNResource> dmnResources = new ArrayList<>();
         for (ResourceWithConfiguration r : resources) {
-            Definitions definitions = dmnMarshaller.unmarshal(r.getResource().getReader());
+            // the resource is read only once, and the definitions of a model already compiled are at hand,
+            // no need to unmarshal them again
+            String content = DMNCompilerImpl.readContent(r.getResource());
+            DMNModel cached = dmnCompiler.getCachedModel(r.getResource(), content);
+            Definitions definitions = cached != null ? cached.getDefinitions() : dmnMarshaller.unmarshal(new StringReader(content));
             QName modelID = new QName(definitions.getNamespace(), definitions.getName());
-            DMNResource dmnResource = new DMNResource(modelID, r, definitions);
+            DMNResource dmnResource = new DMNResource(modelID, r, content, definitions);
             dmnResources.add(dmnResource);
         }
         // enrich with imports
@@ -102,14 +107,14 @@ public class DMNAssemblerService implements KieAssemblerService {
         Collection<DMNModel> dmnModels = new ArrayList<>();
 
         for (DMNResource dmnRes : sortedDmnResources) {
-            DMNModel dmnModel = internalAddResource(kbuilderImpl, dmnCompiler, dmnRes.getResAndConfig(), dmnModels);
+            DMNModel dmnModel = internalAddResource(kbuilderImpl, dmnCompiler, dmnRes.getResAndConfig(), dmnRes.getContent(), dmnRes.getDefinitions(), dmnModels);
             dmnModels.add(dmnModel);
         }
     }
 
-    private DMNModel internalAddResource(KnowledgeBuilderImpl kbuilder, DMNCompiler dmnCompiler, ResourceWithConfiguration r, Collection<DMNModel> dmnModels) throws Exception {
+    private DMNModel internalAddResource(KnowledgeBuilderImpl kbuilder, DMNCompilerImpl dmnCompiler, ResourceWithConfiguration r, String content, Definitions definitions, Collection<DMNModel> dmnModels) throws Exception {
         r.getBeforeAdd().accept(kbuilder);
-        DMNModel dmnModel = compileResourceToModel(kbuilder, dmnCompiler, r.getResource(), dmnModels);
+        DMNModel dmnModel = compileResourceToModel(kbuilder, dmnCompiler, r.getResource(), content, definitions, dmnModels);
         r.getAfterAdd().accept(kbuilder);
         return dmnModel;
     }
@@ -118,7 +123,7 @@ public class DMNAssemblerService implements KieAssemblerService {
     public void addResource(Object kbuilder, Resource resource, ResourceType type, ResourceConfiguration configuration) throws Exception {
         logger.warn("invoked legacy addResource (no control on the order of the assembler compilation): " + resource.getSourcePath());
         KnowledgeBuilderImpl kbuilderImpl = (KnowledgeBuilderImpl) kbuilder;
-        DMNCompiler dmnCompiler = kbuilderImpl.getCachedOrCreate( DMN_COMPILER_CACHE_KEY, () -> getCompiler( kbuilderImpl ) );
+        DMNCompilerImpl dmnCompiler = (DMNCompilerImpl) kbuilderImpl.getCachedOrCreate( DMN_COMPILER_CACHE_KEY, () -> getCompiler( kbuilderImpl ) );
 
         Collection<DMNModel> dmnModels = new ArrayList<>();
         for (PackageRegistry pr : kbuilderImpl.getPackageRegistry().values()) {
@@ -129,11 +134,11 @@ public class DMNAssemblerService implements KieAssemblerService {
             }
         }
 
-        compileResourceToModel(kbuilderImpl, dmnCompiler, resource, dmnModels);
+        compileResourceToModel(kbuilderImpl, dmnCompiler, resource, null, null, dmnModels);
     }
 
-    private DMNModel compileResourceToModel(KnowledgeBuilderImpl kbuilderImpl, DMNCompiler dmnCompiler, Resource resource, Collection<DMNModel> dmnModels) {
-        DMNModel model = dmnCompiler.compile(resource, dmnModels);
+    private DMNModel compileResourceToModel(KnowledgeBuilderImpl kbuilderImpl, DMNCompilerImpl dmnCompiler, Resource resource, String content, Definitions definitions, Collection<DMNModel> dmnModels) {
+        DMNModel model = dmnCompiler.compile(resource, content, definitions, dmnModels);
         if( model != null ) {
             String namespace = model.getNamespace();
 
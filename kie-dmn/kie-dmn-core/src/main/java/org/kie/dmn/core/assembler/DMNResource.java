@@ -12,12 +12,18 @@ public class DMNResource {
 
     private final QName modelID;
     private final ResourceWithConfiguration resAndConfig;
+    private final String content;
     private final Definitions definitions;
     private final List<QName> dependencies = new ArrayList<>();
 
     public DMNResource(QName modelID, ResourceWithConfiguration resAndConfig, Definitions definitions) {
+        this(modelID, resAndConfig, null, definitions);
+    }
+
+    public DMNResource(QName modelID, ResourceWithConfiguration resAndConfig, String content, Definitions definitions) {
         this.modelID = modelID;
         this.resAndConfig = resAndConfig;
+        this.content = content;
         this.definitions = definitions;
     }
 
@@ -29,6 +35,13 @@ public class DMNResource {
         return resAndConfig;
     }
 
+    /**
+     * @return the content already read out of the resource, or null if it has to be read again.
+     */
+    public String getContent() {
+        return content;
+    }
+
     public Definitions getDefinitions() {
         return definitions;
     }
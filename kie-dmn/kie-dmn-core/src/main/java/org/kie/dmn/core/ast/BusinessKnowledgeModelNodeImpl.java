@@ -16,8 +16,12 @@
 
 package org.kie.dmn.core.ast;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.kie.dmn.api.core.DMNType;
 import org.kie.dmn.api.core.ast.BusinessKnowledgeModelNode;
+import org.kie.dmn.api.core.ast.DMNNode;
 import org.kie.dmn.core.api.DMNExpressionEvaluator;
 import org.kie.dmn.model.v1_1.BusinessKnowledgeModel;
 
@@ -28,6 +32,7 @@ public class BusinessKnowledgeModelNodeImpl
     private BusinessKnowledgeModel bkm;
     private DMNExpressionEvaluator evaluator;
     private DMNType                resultType;
+    private boolean                referencesOnlyParameters;
 
     public BusinessKnowledgeModelNodeImpl() {
     }
@@ -68,6 +73,41 @@ public class BusinessKnowledgeModelNodeImpl
         this.resultType = resultType;
     }
 
+    /**
+     * @return true if the body of this BKM references only its parameters and the BKMs it requires,
+     * so that the results of its invocations can be memoized, provided that the required BKMs do the same
+     */
+    public boolean isReferencesOnlyParameters() {
+        return referencesOnlyParameters;
+    }
+
+    public void setReferencesOnlyParameters(boolean referencesOnlyParameters) {
+        this.referencesOnlyParameters = referencesOnlyParameters;
+    }
+
+    /**
+     * @return true if this BKM and all the BKMs it requires, directly or not, reference only their parameters
+     */
+    public boolean isMemoizable() {
+        return isMemoizable( new HashSet<>() );
+    }
+
+    private boolean isMemoizable(Set<BusinessKnowledgeModelNodeImpl> visited) {
+        if ( !visited.add( this ) ) {
+            // recursive invocation, already being checked
+            return true;
+        }
+        if ( !referencesOnlyParameters ) {
+            return false;
+        }
+        for ( DMNNode dep : getDependencies().values() ) {
+            if ( dep instanceof BusinessKnowledgeModelNodeImpl && !((BusinessKnowledgeModelNodeImpl) dep).isMemoizable( visited ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public DMNType getType() {
         return getResultType();
@@ -20,6 +20,7 @@ import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNMessage;
 import org.kie.dmn.api.core.DMNResult;
 import org.kie.dmn.api.core.DMNType;
+import org.kie.dmn.api.core.ast.BusinessKnowledgeModelNode;
 import org.kie.dmn.core.api.DMNExpressionEvaluator;
 import org.kie.dmn.core.api.EvaluatorResult;
 import org.kie.dmn.core.api.EvaluatorResult.ResultType;
@@ -27,15 +28,22 @@ import org.kie.dmn.api.core.event.DMNRuntimeEventManager;
 import org.kie.dmn.core.impl.BaseDMNTypeImpl;
 import org.kie.dmn.core.impl.DMNContextImpl;
 import org.kie.dmn.core.impl.DMNResultImpl;
+import org.kie.dmn.core.impl.DMNRuntimeEventManagerUtils;
 import org.kie.dmn.core.util.Msg;
 import org.kie.dmn.core.util.MsgUtil;
 import org.kie.dmn.feel.lang.EvaluationContext;
 import org.kie.dmn.feel.runtime.functions.BaseFEELFunction;
+import org.kie.dmn.feel.util.EvalHelper;
 import org.kie.dmn.model.v1_1.FunctionDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAmount;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class DMNFunctionDefinitionEvaluator
@@ -106,6 +114,10 @@ public class DMNFunctionDefinitionEvaluator
         private final DMNRuntimeEventManager eventManager;
         private final DMNResultImpl resultContext;
         private final FunctionDefinition functionDefinition;
+        private BusinessKnowledgeModelNode memoizedBKM;
+        private Map<List<Object>, Object> memoizedResults;
+        private final AtomicLong memoizationHits;
+        private final AtomicLong memoizationMisses;
 
         public DMNFunction(String name, List<FormalParameter> parameters, FunctionDefinition functionDefinition, DMNExpressionEvaluator evaluator, DMNRuntimeEventManager eventManager, DMNResultImpl result) {
             super( name );
@@ -114,9 +126,134 @@ public class DMNFunctionDefinitionEvaluator
             this.evaluator = evaluator;
             this.eventManager = eventManager;
             this.resultContext = result;
+            this.memoizationHits = new AtomicLong();
+            this.memoizationMisses = new AtomicLong();
+        }
+
+        private DMNFunction(DMNFunction function, DMNRuntimeEventManager eventManager, DMNResultImpl result) {
+            super( function.getName() );
+            this.functionDefinition = function.functionDefinition;
+            this.parameters = function.parameters;
+            this.evaluator = function.evaluator;
+            this.eventManager = eventManager;
+            this.resultContext = result;
+            this.memoizedBKM = function.memoizedBKM;
+            this.memoizedResults = function.memoizedResults;
+            this.memoizationHits = function.memoizationHits;
+            this.memoizationMisses = function.memoizationMisses;
+        }
+
+        /**
+         * Returns a copy of this function invoked within the given result and notifying the given event manager,
+         * so that it can be used by another evaluation without evaluating the function definition again.
+         * The memoized results, if any, are shared with this function.
+         */
+        public DMNFunction bindTo(DMNRuntimeEventManager eventManager, DMNResultImpl result) {
+            return new DMNFunction( this, eventManager, result );
+        }
+
+        /**
+         * Memoizes the results of the invocations of this function, keyed by the values of the parameters,
+         * keeping at most the given number of results. Only meant for the functions of the BKMs whose body
+         * references only their parameters, see BusinessKnowledgeModelNodeImpl#isMemoizable().
+         */
+        public void enableMemoization(BusinessKnowledgeModelNode bkm, int maxSize) {
+            this.memoizedBKM = bkm;
+            this.memoizedResults = new LinkedHashMap<List<Object>, Object>( 16, 0.75f, true ) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+                    return size() > maxSize;
+                }
+            };
         }
 
         public Object invoke(EvaluationContext ctx, Object[] params) {
+            if( memoizedResults == null ) {
+                return invokeEvaluator( params );
+            }
+            List<Object> key = memoizationKey( params );
+            if( key == null ) {
+                // some parameter can't be safely used as a key
+                return invokeEvaluator( params );
+            }
+            boolean memoized;
+            Object value;
+            synchronized ( memoizedResults ) {
+                value = memoizedResults.get( key );
+                memoized = value != null || memoizedResults.containsKey( key );
+            }
+            long hits;
+            long misses;
+            if( memoized ) {
+                hits = memoizationHits.incrementAndGet();
+                misses = memoizationMisses.get();
+            } else {
+                misses = memoizationMisses.incrementAndGet();
+                hits = memoizationHits.get();
+                int messages = resultContext.getMessages().size();
+                value = invokeEvaluator( params );
+                // failed invocations are not memoized, so that their errors are reported again
+                if( resultContext.getMessages().size() == messages ) {
+                    synchronized ( memoizedResults ) {
+                        memoizedResults.put( key, value );
+                    }
+                }
+            }
+            DMNRuntimeEventManagerUtils.fireAfterInvokeBKM( eventManager, memoizedBKM, resultContext, key, memoized, hits, misses );
+            return value;
+        }
+
+        /**
+         * Returns an immutable key for the given parameters, where the numbers equal by value are the same,
+         * or null if some parameter is not a FEEL value which can be safely copied, like a mutable POJO
+         */
+        private static List<Object> memoizationKey(Object[] params) {
+            List<Object> key = new ArrayList<>( params.length );
+            for( Object param : params ) {
+                Object normalized = normalize( param );
+                if( normalized == NOT_MEMOIZABLE ) {
+                    return null;
+                }
+                key.add( normalized );
+            }
+            return Collections.unmodifiableList( key );
+        }
+
+        private static final Object NOT_MEMOIZABLE = new Object();
+
+        private static Object normalize(Object value) {
+            if( value == null || value instanceof String || value instanceof Boolean || value instanceof Temporal || value instanceof TemporalAmount ) {
+                // the java.time types are immutable
+                return value;
+            } else if( value instanceof BigDecimal || value instanceof BigInteger || value instanceof Long || value instanceof Integer
+                       || value instanceof Short || value instanceof Byte ) {
+                BigDecimal number = EvalHelper.getBigDecimalOrNull( value );
+                return number.signum() == 0 ? BigDecimal.ZERO : number.stripTrailingZeros();
+            } else if( value instanceof List ) {
+                List<Object> copy = new ArrayList<>( ((List<?>) value).size() );
+                for( Object element : (List<?>) value ) {
+                    Object normalized = normalize( element );
+                    if( normalized == NOT_MEMOIZABLE ) {
+                        return NOT_MEMOIZABLE;
+                    }
+                    copy.add( normalized );
+                }
+                return Collections.unmodifiableList( copy );
+            } else if( value instanceof Map ) {
+                Map<Object, Object> copy = new HashMap<>();
+                for( Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet() ) {
+                    Object normalized = normalize( entry.getValue() );
+                    if( normalized == NOT_MEMOIZABLE || !(entry.getKey() instanceof String) ) {
+                        return NOT_MEMOIZABLE;
+                    }
+                    copy.put( entry.getKey(), normalized );
+                }
+                return Collections.unmodifiableMap( copy );
+            }
+            return NOT_MEMOIZABLE;
+        }
+
+        private Object invokeEvaluator(Object[] params) {
             DMNContext previousContext = resultContext.getContext();
             try {
                 if( evaluator != null ) {
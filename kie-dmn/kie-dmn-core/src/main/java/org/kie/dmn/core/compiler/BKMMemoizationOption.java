@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.compiler;
+
+import org.kie.dmn.core.assembler.DMNAssemblerService;
+
+/**
+ * When set to a positive value, the results of the invocations of each Business Knowledge Model are memoized
+ * during an evaluation, keyed by the values of the invocation parameters, keeping at most this number of results
+ * per BKM in LRU order.
+ *
+ * Only the BKMs whose body references just their parameters and the BKMs they require, which in turn do the same,
+ * are memoized, as a BKM is otherwise evaluated in the whole context of its invocation. Numbers equal by value are
+ * the same key, and invocations with parameters which are not FEEL values, like POJOs, are not memoized.
+ * An invocation answered from the memoized results doesn't fire again the events of the BKM body.
+ */
+public class BKMMemoizationOption implements DMNOption {
+
+    private static final long serialVersionUID = 510l;
+
+    public static final String PROPERTY_NAME = DMNAssemblerService.ORG_KIE_DMN_PREFIX + ".runtime.bkmMemoization";
+
+    /**
+     * The default value for this option
+     */
+    public static final int DEFAULT_VALUE = 0;
+
+    private final int cacheSize;
+
+    public BKMMemoizationOption(int value) {
+        this.cacheSize = value;
+    }
+
+    public BKMMemoizationOption(String value) {
+        this.cacheSize = value == null || value.trim().isEmpty() ? DEFAULT_VALUE : Integer.parseInt(value.trim());
+    }
+
+    @Override
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isBKMMemoization() {
+        return cacheSize > 0;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.compiler;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.kie.dmn.api.core.ast.BusinessKnowledgeModelNode;
+import org.kie.dmn.api.core.ast.DMNNode;
+import org.kie.dmn.api.feel.runtime.events.FEELEvent;
+import org.kie.dmn.core.ast.BusinessKnowledgeModelNodeImpl;
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.CompilerContext;
+import org.kie.dmn.feel.lang.ast.ASTNode;
+import org.kie.dmn.feel.lang.ast.FunctionDefNode;
+import org.kie.dmn.feel.lang.ast.IterationContextNode;
+import org.kie.dmn.feel.lang.ast.NameDefNode;
+import org.kie.dmn.feel.lang.ast.NameRefNode;
+import org.kie.dmn.feel.lang.ast.PathExpressionNode;
+import org.kie.dmn.feel.lang.ast.QualifiedNameNode;
+import org.kie.dmn.feel.lang.impl.CompiledExpressionImpl;
+import org.kie.dmn.feel.lang.impl.FEELImpl;
+import org.kie.dmn.feel.lang.types.BuiltInType;
+import org.kie.dmn.feel.runtime.functions.BuiltInFunctions;
+import org.kie.dmn.feel.util.EvalHelper;
+import org.kie.dmn.model.v1_1.Binding;
+import org.kie.dmn.model.v1_1.Context;
+import org.kie.dmn.model.v1_1.ContextEntry;
+import org.kie.dmn.model.v1_1.DecisionRule;
+import org.kie.dmn.model.v1_1.DMNModelInstrumentedBase;
+import org.kie.dmn.model.v1_1.DecisionTable;
+import org.kie.dmn.model.v1_1.Expression;
+import org.kie.dmn.model.v1_1.FunctionDefinition;
+import org.kie.dmn.model.v1_1.InformationItem;
+import org.kie.dmn.model.v1_1.InputClause;
+import org.kie.dmn.model.v1_1.Invocation;
+import org.kie.dmn.model.v1_1.LiteralExpression;
+import org.kie.dmn.model.v1_1.OutputClause;
+import org.kie.dmn.model.v1_1.Relation;
+import org.kie.dmn.model.v1_1.UnaryTests;
+
+/**
+ * Checks if the body of a Business Knowledge Model references only its parameters, the BKMs it requires,
+ * the FEEL built-in functions and the names it defines itself, like context entries and iteration variables.
+ * Only such a BKM can have its invocations memoized, as it is invoked on a copy of the whole context
+ * of the caller, and could otherwise depend on the values of the decisions and input data.
+ *
+ * The check is conservative: a body which is not entirely made of FEEL expressions, or which cannot be
+ * compiled, or which references any other name, like the fields of the items in a filter, doesn't qualify.
+ */
+class BKMReferencesAnalyzer {
+
+    private final FEEL feel;
+    private final Set<String> referenced = new HashSet<>();
+    private final Set<String> defined = new HashSet<>();
+    private boolean analyzable = true;
+
+    private BKMReferencesAnalyzer(FEEL feel) {
+        this.feel = feel;
+        this.feel.addListener( event -> {
+            if ( event.getSeverity() == FEELEvent.Severity.ERROR ) {
+                analyzable = false;
+            }
+        } );
+    }
+
+    static boolean referencesOnlyParameters(DMNFEELHelper feelHelper, BusinessKnowledgeModelNodeImpl bkm) {
+        FunctionDefinition funcDef = bkm.getBusinessKnowledModel().getEncapsulatedLogic();
+        if ( funcDef == null || funcDef.getAdditionalAttributes().get( FunctionDefinition.KIND_QNAME ) != null ) {
+            return false;
+        }
+        BKMReferencesAnalyzer analyzer = new BKMReferencesAnalyzer( feelHelper.newFEELInstance() );
+        for ( InformationItem parameter : funcDef.getFormalParameter() ) {
+            analyzer.define( parameter.getName() );
+        }
+        analyzer.define( bkm.getName() );
+        for ( DMNNode dep : bkm.getDependencies().values() ) {
+            if ( dep instanceof BusinessKnowledgeModelNode ) {
+                analyzer.define( dep.getName() );
+            }
+        }
+        Stream.of( BuiltInFunctions.getFunctions() ).forEach( f -> analyzer.define( f.getName() ) );
+        analyzer.define( "?" );
+
+        analyzer.analyze( funcDef.getExpression() );
+        return analyzer.analyzable && analyzer.defined.containsAll( analyzer.referenced );
+    }
+
+    private void define(String name) {
+        if ( name != null ) {
+            defined.add( EvalHelper.normalizeVariableName( name ) );
+        }
+    }
+
+    private void analyze(Expression expression) {
+        if ( expression == null ) {
+            return;
+        } else if ( expression instanceof LiteralExpression ) {
+            LiteralExpression literal = (LiteralExpression) expression;
+            if ( literal.getImportedValues() != null || !isFEEL( literal.getExpressionLanguage() ) ) {
+                analyzable = false;
+            } else {
+                analyze( literal.getText(), false );
+            }
+        } else if ( expression instanceof Context ) {
+            for ( ContextEntry entry : ((Context) expression).getContextEntry() ) {
+                if ( entry.getVariable() != null ) {
+                    define( entry.getVariable().getName() );
+                }
+                analyze( entry.getExpression() );
+            }
+        } else if ( expression instanceof DecisionTable ) {
+            DecisionTable dt = (DecisionTable) expression;
+            for ( InputClause input : dt.getInput() ) {
+                analyze( input.getInputExpression() );
+                analyze( input.getInputValues() );
+            }
+            for ( OutputClause output : dt.getOutput() ) {
+                analyze( output.getOutputValues() );
+                analyze( output.getDefaultOutputEntry() );
+            }
+            for ( DecisionRule rule : dt.getRule() ) {
+                rule.getInputEntry().forEach( this::analyze );
+                rule.getOutputEntry().forEach( this::analyze );
+            }
+        } else if ( expression instanceof Invocation ) {
+            Invocation invocation = (Invocation) expression;
+            analyze( invocation.getExpression() );
+            for ( Binding binding : invocation.getBinding() ) {
+                analyze( binding.getExpression() );
+            }
+        } else if ( expression instanceof Relation ) {
+            ((Relation) expression).getRow().forEach( this::analyze );
+        } else if ( expression instanceof org.kie.dmn.model.v1_1.List ) {
+            ((org.kie.dmn.model.v1_1.List) expression).getExpression().forEach( this::analyze );
+        } else if ( expression instanceof FunctionDefinition ) {
+            FunctionDefinition funcDef = (FunctionDefinition) expression;
+            if ( funcDef.getAdditionalAttributes().get( FunctionDefinition.KIND_QNAME ) != null ) {
+                analyzable = false;
+                return;
+            }
+            funcDef.getFormalParameter().forEach( p -> define( p.getName() ) );
+            analyze( funcDef.getExpression() );
+        } else {
+            analyzable = false;
+        }
+    }
+
+    private void analyze(UnaryTests unaryTests) {
+        if ( unaryTests != null ) {
+            if ( !isFEEL( unaryTests.getExpressionLanguage() ) ) {
+                analyzable = false;
+            } else {
+                analyze( unaryTests.getText(), true );
+            }
+        }
+    }
+
+    private void analyze(String text, boolean unaryTests) {
+        if ( text == null || text.trim().isEmpty() || !analyzable ) {
+            return;
+        }
+        CompilerContext ctx = feel.newCompilerContext();
+        // so that the multi-word names in the scope of the BKM are parsed as such
+        defined.forEach( name -> ctx.addInputVariableType( name, BuiltInType.UNKNOWN ) );
+        CompiledExpressionImpl compiled = (CompiledExpressionImpl) ( unaryTests ? ((FEELImpl) feel).compileExpressionList( text, ctx ) : feel.compile( text, ctx ) );
+        if ( compiled == null || compiled.getExpression() == null ) {
+            analyzable = false;
+        } else {
+            collect( compiled.getExpression() );
+        }
+    }
+
+    private void collect(ASTNode node) {
+        if ( node == null ) {
+            return;
+        } else if ( node instanceof NameRefNode ) {
+            referenced.add( EvalHelper.normalizeVariableName( node.getText() ) );
+        } else if ( node instanceof NameDefNode ) {
+            define( ((NameDefNode) node).getName() );
+        } else if ( node instanceof QualifiedNameNode ) {
+            // the following parts are accessors of the first one
+            collect( ((QualifiedNameNode) node).getParts().get( 0 ) );
+        } else if ( node instanceof PathExpressionNode ) {
+            // the name is an accessor of the expression
+            collect( ((PathExpressionNode) node).getExpression() );
+        } else {
+            if ( node instanceof FunctionDefNode ) {
+                ((FunctionDefNode) node).getFormalParameters().forEach( this::collect );
+            } else if ( node instanceof IterationContextNode ) {
+                collect( ((IterationContextNode) node).getName() );
+            }
+            Arrays.stream( node.getChildrenNode() ).forEach( this::collect );
+        }
+    }
+
+    private static boolean isFEEL(String expressionLanguage) {
+        return expressionLanguage == null || expressionLanguage.equals( DMNModelInstrumentedBase.URI_FEEL ) || expressionLanguage.equalsIgnoreCase( "FEEL" );
+    }
+}
@@ -73,6 +73,8 @@ public class BusinessKnowledgeModelCompiler implements DRGElementCompiler {
             FunctionDefinition funcDef = bkmi.getBusinessKnowledModel().getEncapsulatedLogic();
             DMNExpressionEvaluator exprEvaluator = compiler.getEvaluatorCompiler().compileExpression( ctx, model, bkmi, bkmi.getName(), funcDef );
             bkmi.setEvaluator( exprEvaluator );
+            // the memoization can also be enabled on the runtime, so this is always checked
+            bkmi.setReferencesOnlyParameters( BKMReferencesAnalyzer.referencesOnlyParameters( compiler.getFeelHelper(), bkmi ) );
         } finally {
             ctx.exitFrame();
         }
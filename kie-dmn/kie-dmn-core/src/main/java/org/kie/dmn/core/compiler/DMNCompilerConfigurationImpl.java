@@ -61,6 +61,15 @@ public class DMNCompilerConfigurationImpl implements DMNCompilerConfiguration {
         if (RuntimeTypeCheckOption.class.equals(option)) {
             return (T) new RuntimeTypeCheckOption(properties.get(RuntimeTypeCheckOption.PROPERTY_NAME));
         }
+        if (DecisionTreeOption.class.equals(option)) {
+            return (T) new DecisionTreeOption(properties.get(DecisionTreeOption.PROPERTY_NAME));
+        }
+        if (ParallelEvaluationOption.class.equals(option)) {
+            return (T) new ParallelEvaluationOption(properties.get(ParallelEvaluationOption.PROPERTY_NAME));
+        }
+        if (BKMMemoizationOption.class.equals(option)) {
+            return (T) new BKMMemoizationOption(properties.get(BKMMemoizationOption.PROPERTY_NAME));
+        }
         return null;
     }
 
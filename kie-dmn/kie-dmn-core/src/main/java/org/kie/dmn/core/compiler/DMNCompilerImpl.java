@@ -18,6 +18,7 @@ package org.kie.dmn.core.compiler;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -117,20 +118,79 @@ public class DMNCompilerImpl
 
     @Override
     public DMNModel compile(Resource resource, Collection<DMNModel> dmnModels) {
+        return compile(resource, null, dmnModels);
+    }
+
+    public DMNModel compile(Resource resource, Definitions dmndefs, Collection<DMNModel> dmnModels) {
+        return compile(resource, null, dmndefs, dmnModels);
+    }
+
+    /**
+     * Compiles the given resource, reusing a copy of the model already compiled in this JVM for the same content
+     * and configuration if any and if the model cache is enabled, see {@link DMNModelCache}. When not null, the supplied content and definitions are assumed to be the ones
+     * read and unmarshalled out of the resource, and are used instead of reading the resource again.
+     */
+    public DMNModel compile(Resource resource, String content, Definitions dmndefs, Collection<DMNModel> dmnModels) {
         try {
-            DMNModel model = compile(resource.getReader(), dmnModels);
-            if (model == null) {
-                return null;
-            } else {
-                ((DMNModelImpl) model).setResource(resource);
-                return model;
+            if (!DMNModelCache.isEnabled()) {
+                DMNModel model = dmndefs != null ? compile(dmndefs, dmnModels) : compile(content != null ? new StringReader(content) : resource.getReader(), dmnModels);
+                return withResource(model, resource);
+            }
+            if (content == null) {
+                content = readContent(resource);
             }
+            String key = DMNModelCache.computeKey((DMNCompilerConfigurationImpl) dmnCompilerConfig, resource.getSourcePath(), content);
+            ClassLoader classLoader = ((DMNCompilerConfigurationImpl) dmnCompilerConfig).getRootClassLoader();
+            DMNModel cached = DMNModelCache.get(classLoader, key);
+            if (cached != null) {
+                return withResource(cached, resource);
+            }
+            DMNModel model = dmndefs != null ? compile(dmndefs, dmnModels) : compile(new StringReader(content), dmnModels);
+            // a model importing other ones depends on them, not only on its own content
+            if (model != null && !hasDMNImports(model.getDefinitions())) {
+                DMNModelCache.put(classLoader, key, model);
+            }
+            return withResource(model, resource);
         } catch ( IOException e ) {
             logger.error( "Error retrieving reader for resource: " + resource.getSourcePath(), e );
         }
         return null;
     }
 
+    /**
+     * Returns a copy of the model already compiled in this JVM for the given resource and content,
+     * or null if not available.
+     */
+    public DMNModel getCachedModel(Resource resource, String content) {
+        if (!DMNModelCache.isEnabled()) {
+            return null;
+        }
+        String key = DMNModelCache.computeKey((DMNCompilerConfigurationImpl) dmnCompilerConfig, resource.getSourcePath(), content);
+        return withResource(DMNModelCache.get(((DMNCompilerConfigurationImpl) dmnCompilerConfig).getRootClassLoader(), key), resource);
+    }
+
+    private static DMNModel withResource(DMNModel model, Resource resource) {
+        if (model != null) {
+            ((DMNModelImpl) model).setResource(resource);
+        }
+        return model;
+    }
+
+    private static boolean hasDMNImports(Definitions dmndefs) {
+        return dmndefs.getImport().stream().anyMatch(i -> ImportDMNResolverUtil.whichImportType(i) == ImportType.DMN);
+    }
+
+    public static String readContent(Resource resource) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[4096];
+        try (Reader reader = resource.getReader()) {
+            for (int read = reader.read(buffer); read != -1; read = reader.read(buffer)) {
+                sb.append(buffer, 0, read);
+            }
+        }
+        return sb.toString();
+    }
+
     @Override
     public DMNModel compile(Reader source, Collection<DMNModel> dmnModels) {
         try {
@@ -158,6 +218,8 @@ public class DMNCompilerImpl
         }
         DMNModelImpl model = new DMNModelImpl(dmndefs);
         model.setRuntimeTypeCheck(((DMNCompilerConfigurationImpl) dmnCompilerConfig).getOption(RuntimeTypeCheckOption.class).isRuntimeTypeCheck());
+        model.setParallelEvaluation(((DMNCompilerConfigurationImpl) dmnCompilerConfig).getOption(ParallelEvaluationOption.class).isParallelEvaluation());
+        model.setBKMMemoizationSize(((DMNCompilerConfigurationImpl) dmnCompilerConfig).getOption(BKMMemoizationOption.class).getCacheSize());
         DMNCompilerContext ctx = new DMNCompilerContext();
 
         if (!dmndefs.getImport().isEmpty()) {
@@ -504,5 +566,9 @@ public class DMNCompilerImpl
     public DMNEvaluatorCompiler getEvaluatorCompiler() {
         return evaluatorCompiler;
     }
+
+    public DMNFEELHelper getFeelHelper() {
+        return feel;
+    }
     
 }
\ No newline at end of file
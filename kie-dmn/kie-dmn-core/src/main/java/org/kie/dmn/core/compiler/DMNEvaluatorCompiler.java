@@ -34,6 +34,8 @@ import org.kie.dmn.feel.lang.CompiledExpression;
 import org.kie.dmn.feel.runtime.FEELFunction;
 import org.kie.dmn.feel.runtime.UnaryTest;
 import org.kie.dmn.feel.runtime.decisiontables.DTDecisionRule;
+import org.kie.dmn.feel.runtime.decisiontables.DTDecisionTree;
+import org.kie.dmn.feel.runtime.decisiontables.DTInputEntry;
 import org.kie.dmn.feel.runtime.decisiontables.DTInputClause;
 import org.kie.dmn.feel.runtime.decisiontables.DTOutputClause;
 import org.kie.dmn.feel.runtime.decisiontables.DecisionTableImpl;
@@ -553,10 +555,7 @@ public class DMNEvaluatorCompiler {
                         ctx.exitFrame();
                     }
                 }
-                rule.getInputEntry().add( (c, x) -> tests.stream().anyMatch( t -> {
-                    Boolean result = t.apply( c, x );
-                    return result != null && result;
-                } ) );
+                rule.getInputEntry().add( new DTInputEntry( tests ) );
             }
             for ( LiteralExpression le : dr.getOutputEntry() ) {
                 String expressionText = le.getText();
@@ -607,7 +606,14 @@ public class DMNEvaluatorCompiler {
         FEEL feelInstance = feel.newFEELInstance();
 
         DecisionTableImpl dti = new DecisionTableImpl(dtName, parameterNames, inputs, outputs, rules, hp, feelInstance);
-        DTInvokerFunction dtf = new DTInvokerFunction( dti );
+        DTDecisionTree decisionTree = null;
+        if ( ((DMNCompilerConfigurationImpl) compiler.getDmnCompilerConfig()).getOption( DecisionTreeOption.class ).isDecisionTree() ) {
+            decisionTree = dti.compileDecisionTree();
+            if ( decisionTree == null ) {
+                logger.debug( "Decision table {} can't be compiled into a decision tree, its rules will be tested in table order", dtName );
+            }
+        }
+        DTInvokerFunction dtf = new DTInvokerFunction( dti, decisionTree );
         DMNDTExpressionEvaluator dtee = new DMNDTExpressionEvaluator(node, feelInstance, dtf);
         return dtee;
     }
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.compiler;
+
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import org.drools.core.common.ProjectClassLoader;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.api.marshalling.v1_1.DMNExtensionRegister;
+import org.kie.dmn.core.impl.DMNModelImpl;
+import org.kie.dmn.feel.lang.FEELProfile;
+
+/**
+ * Keeps the DMN models already compiled in this JVM, keyed by a digest of the content of their resource
+ * and of the compiler configuration. This allows to create again a KieContainer on the same kjar, or to
+ * rebuild a kjar where only other resources changed, without unmarshalling the XML and compiling the
+ * FEEL expressions of the unchanged models.
+ *
+ * Entries are partitioned by the ClassLoader actually defining the types the models can resolve, since the
+ * same model could resolve different types against a different classpath, and evicted in LRU order. Each
+ * KieContainer has its own ProjectClassLoader, but when the kjar doesn't define any class this just delegates
+ * to its parent, which is then used as partition so that the containers on the same kjar share the models.
+ * Models are softly referenced, as their compiled expressions are in turn referencing the ClassLoader they
+ * have been compiled with.
+ *
+ * The cached models are never handed out: the callers always receive a copy, which they can freely alter.
+ *
+ * The cache is disabled by default and enabled by setting the maximum number of models kept for each ClassLoader
+ * with the {@value #CACHE_SIZE_PROPERTY} system property. It is shared by the whole JVM and nothing is persisted,
+ * neither to the KieModuleCache nor elsewhere, so only the containers and the rebuilds happening in the same JVM
+ * benefit from it. Note that a cached model keeps its ClassLoader, and then the classes of an undeployed kjar,
+ * reachable until the garbage collector clears the soft references.
+ */
+class DMNModelCache {
+
+    public static final String CACHE_SIZE_PROPERTY = "org.kie.dmn.compiler.modelCache.size";
+
+    private static final Map<ClassLoader, Map<String, SoftReference<DMNModelImpl>>> cache = new WeakHashMap<>();
+
+    private DMNModelCache() { }
+
+    static boolean isEnabled() {
+        return getMaxSize() > 0;
+    }
+
+    private static int getMaxSize() {
+        return Integer.getInteger(CACHE_SIZE_PROPERTY, 0);
+    }
+
+    static DMNModel get(ClassLoader classLoader, String key) {
+        DMNModelImpl model = lookup(getPartition(classLoader), key);
+        return model != null ? model.copy() : null;
+    }
+
+    private static synchronized DMNModelImpl lookup(ClassLoader partition, String key) {
+        Map<String, SoftReference<DMNModelImpl>> entries = cache.get(partition);
+        if (entries == null) {
+            return null;
+        }
+        SoftReference<DMNModelImpl> ref = entries.get(key);
+        DMNModelImpl model = ref != null ? ref.get() : null;
+        if (ref != null && model == null) {
+            entries.remove(key);
+        }
+        return model;
+    }
+
+    static void put(ClassLoader classLoader, String key, DMNModel model) {
+        store(getPartition(classLoader), key, ((DMNModelImpl) model).copy());
+    }
+
+    private static synchronized void store(ClassLoader partition, String key, DMNModelImpl model) {
+        Map<String, SoftReference<DMNModelImpl>> entries = cache.get(partition);
+        if (entries == null) {
+            entries = new LinkedHashMap<String, SoftReference<DMNModelImpl>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SoftReference<DMNModelImpl>> eldest) {
+                    return size() > getMaxSize();
+                }
+            };
+            cache.put(partition, entries);
+        }
+        entries.put(key, new SoftReference<>(model));
+    }
+
+    static ClassLoader getPartition(ClassLoader classLoader) {
+        ClassLoader partition = classLoader;
+        while (partition instanceof ProjectClassLoader && partition.getParent() != null && !definesClasses((ProjectClassLoader) partition)) {
+            partition = partition.getParent();
+        }
+        return partition;
+    }
+
+    private static boolean definesClasses(ProjectClassLoader classLoader) {
+        Map<String, byte[]> store = classLoader.getStore();
+        return store != null && !store.isEmpty();
+    }
+
+    static synchronized void clear() {
+        cache.clear();
+    }
+
+    static String computeKey(DMNCompilerConfigurationImpl config, String sourcePath, String content) {
+        MessageDigest digest = newDigest();
+        update(digest, String.valueOf(sourcePath));
+        update(digest, content);
+        // properties drive the compiler options, see DMNCompilerConfigurationImpl.getOption()
+        for (Map.Entry<String, String> property : new TreeMap<>(config.getProperties()).entrySet()) {
+            update(digest, property.getKey());
+            update(digest, String.valueOf(property.getValue()));
+        }
+        for (FEELProfile profile : config.getFeelProfiles()) {
+            update(digest, profile.getClass().getName());
+        }
+        for (DRGElementCompiler compiler : config.getDRGElementCompilers()) {
+            update(digest, compiler.getClass().getName());
+        }
+        for (DMNExtensionRegister extension : config.getRegisteredExtensions()) {
+            update(digest, extension.getClass().getName());
+        }
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
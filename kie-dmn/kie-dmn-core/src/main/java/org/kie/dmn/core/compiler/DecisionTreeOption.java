@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.compiler;
+
+import org.kie.dmn.core.assembler.DMNAssemblerService;
+
+/**
+ * When enabled, the decision tables whose input entries are all literals or dashes are compiled into decision trees,
+ * which find the matching rules by looking up the input values instead of evaluating the unary tests of every rule.
+ * The other decision tables, as well as the input values a decision tree can't decide (null or of a different type
+ * than the literals), are still evaluated by testing the rules in table order, so the matched rules are the same.
+ */
+public class DecisionTreeOption implements DMNOption {
+
+    private static final long serialVersionUID = 510l;
+
+    public static final String PROPERTY_NAME = DMNAssemblerService.ORG_KIE_DMN_PREFIX + ".decisiontable.tree";
+
+    /**
+     * The default value for this option
+     */
+    public static final boolean DEFAULT_VALUE = false;
+
+    private final boolean decisionTree;
+
+    public DecisionTreeOption(boolean value) {
+        this.decisionTree = value;
+    }
+
+    public DecisionTreeOption(String value) {
+        this.decisionTree = value == null ? DEFAULT_VALUE : Boolean.valueOf(value);
+    }
+
+    @Override
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isDecisionTree() {
+        return decisionTree;
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.kie.dmn.core.compiler.profiles;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.kie.dmn.api.marshalling.v1_1.DMNExtensionRegister;
+import org.kie.dmn.core.compiler.DMNProfile;
+import org.kie.dmn.core.compiler.DRGElementCompiler;
+import org.kie.dmn.feel.parser.feel11.profiles.FixedPrecisionFEELProfile;
+
+/**
+ * Enables the FEEL fixed precision arithmetic for DMN models, it can be added to the kmodule with the property
+ * org.kie.dmn.profiles.fixedPrecision = org.kie.dmn.core.compiler.profiles.FixedPrecisionDMNProfile
+ */
+public final class FixedPrecisionDMNProfile extends FixedPrecisionFEELProfile implements DMNProfile {
+
+    @Override
+    public List<DMNExtensionRegister> getExtensionRegisters() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<DRGElementCompiler> getDRGElementCompilers() {
+        return Collections.emptyList();
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.impl;
+
+import java.util.List;
+
+import org.kie.dmn.api.core.DMNResult;
+import org.kie.dmn.api.core.ast.BusinessKnowledgeModelNode;
+import org.kie.dmn.api.core.event.AfterInvokeBKMEvent;
+
+public class AfterInvokeBKMEventImpl
+        implements AfterInvokeBKMEvent {
+
+    private final BusinessKnowledgeModelNode bkm;
+    private final DMNResult                  result;
+    private final List<Object>               parameters;
+    private final boolean                    memoized;
+    private final long                       hits;
+    private final long                       misses;
+
+    public AfterInvokeBKMEventImpl(BusinessKnowledgeModelNode bkm, DMNResult result, List<Object> parameters, boolean memoized, long hits, long misses) {
+        this.bkm = bkm;
+        this.result = result;
+        this.parameters = parameters;
+        this.memoized = memoized;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    @Override
+    public BusinessKnowledgeModelNode getBusinessKnowledgeModel() {
+        return this.bkm;
+    }
+
+    @Override
+    public DMNResult getResult() {
+        return this.result;
+    }
+
+    @Override
+    public List<Object> getInvocationParameters() {
+        return this.parameters;
+    }
+
+    @Override
+    public boolean isMemoized() {
+        return this.memoized;
+    }
+
+    @Override
+    public long getMemoizationHits() {
+        return this.hits;
+    }
+
+    @Override
+    public long getMemoizationMisses() {
+        return this.misses;
+    }
+
+    @Override
+    public String toString() {
+        return "AfterInvokeBKMEvent{ name='"+bkm.getName()+"' id='"+bkm.getId()+"' memoized="+memoized+" hits="+hits+" misses="+misses+" }";
+    }
+
+}
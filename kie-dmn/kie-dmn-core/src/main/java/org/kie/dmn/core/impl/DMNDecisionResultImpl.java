@@ -28,6 +28,7 @@ public class DMNDecisionResultImpl
     private Object           result;
     private List<DMNMessage> messages;
     private DecisionEvaluationStatus status;
+    private long             evaluationTime;
 
     public DMNDecisionResultImpl(String decisionId, String decisionName) {
         this( decisionId, decisionName, DecisionEvaluationStatus.NOT_EVALUATED, null, new ArrayList<>(  ) );
@@ -77,6 +78,15 @@ public class DMNDecisionResultImpl
         this.result = result;
     }
 
+    @Override
+    public long getEvaluationTime() {
+        return evaluationTime;
+    }
+
+    public void setEvaluationTime(long evaluationTime) {
+        this.evaluationTime = evaluationTime;
+    }
+
     @Override
     public List<DMNMessage> getMessages() {
         return messages;
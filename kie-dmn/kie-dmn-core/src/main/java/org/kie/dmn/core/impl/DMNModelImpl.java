@@ -82,6 +82,14 @@ public class DMNModelImpl
      * a compile-time preference to indicate if type-check should be performed during runtime evaluation. 
      */
     private boolean runtimeTypeCheck = false;
+    /**
+     * a compile-time preference to indicate if independent decisions should be evaluated in parallel.
+     */
+    private boolean parallelEvaluation = false;
+    /**
+     * a compile-time preference to indicate how many results of the invocations of each BKM should be memoized.
+     */
+    private int bkmMemoizationSize = 0;
 
     private Map<String, QName> importAliases = new HashMap<>();
 
@@ -326,6 +334,49 @@ public class DMNModelImpl
         this.runtimeTypeCheck = runtimeTypeCheck;
     }
 
+    /**
+     * @return a compile-time preference to indicate if independent decisions should be evaluated in parallel.
+     */
+    public boolean isParallelEvaluation() {
+        return parallelEvaluation;
+    }
+
+    public void setParallelEvaluation(boolean parallelEvaluation) {
+        this.parallelEvaluation = parallelEvaluation;
+    }
+
+    /**
+     * @return a compile-time preference to indicate how many results of the invocations of each BKM should be memoized.
+     */
+    public int getBKMMemoizationSize() {
+        return bkmMemoizationSize;
+    }
+
+    public void setBKMMemoizationSize(int bkmMemoizationSize) {
+        this.bkmMemoizationSize = bkmMemoizationSize;
+    }
+
+    /**
+     * Returns a copy of this model which can be altered, or given a different resource, without affecting this one.
+     * The compiled nodes and types are immutable once the compilation is over, and are shared with the copy.
+     */
+    public DMNModelImpl copy() {
+        DMNModelImpl copy = new DMNModelImpl(definitions);
+        copy.serializedAs = serializedAs;
+        copy.resource = resource;
+        copy.inputs = new HashMap<>(inputs);
+        copy.decisions = new HashMap<>(decisions);
+        copy.bkms = new HashMap<>(bkms);
+        copy.itemDefs = new HashMap<>(itemDefs);
+        copy.messages.addAll(messages.getMessages());
+        copy.types = types;
+        copy.runtimeTypeCheck = runtimeTypeCheck;
+        copy.parallelEvaluation = parallelEvaluation;
+        copy.bkmMemoizationSize = bkmMemoizationSize;
+        copy.importAliases = new HashMap<>(importAliases);
+        return copy;
+    }
+
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeObject(serializedAs);
@@ -372,6 +423,8 @@ public class DMNModelImpl
         this.messages  = compiledModel.messages  ;
         this.types     = compiledModel.types     ;
         this.runtimeTypeCheck = compiledModel.runtimeTypeCheck;
+        this.parallelEvaluation = compiledModel.parallelEvaluation;
+        this.bkmMemoizationSize = compiledModel.bkmMemoizationSize;
     }
 
     public void setImportAliasForNS(String iAlias, String iNS, String iModelName) {
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.api.core.DMNPackage;
+import org.kie.dmn.core.compiler.DMNProfile;
+
+/**
+ * Holds the models of a fixed set of compiled DMN packages. Everything is computed once at construction time,
+ * so that a DMNRuntime built on it can be shared among threads.
+ */
+class DMNPackagesDMNRuntimeKB implements DMNRuntimeKB {
+
+    private final List<DMNModel> models;
+    private final Map<String, Map<String, DMNModel>> modelsByNamespace;
+    private final List<DMNProfile> profiles;
+    private final ClassLoader rootClassLoader;
+
+    DMNPackagesDMNRuntimeKB(Collection<? extends DMNPackage> dmnPackages, ClassLoader rootClassLoader) {
+        List<DMNModel> allModels = new ArrayList<>();
+        Map<String, Map<String, DMNModel>> byNamespace = new HashMap<>();
+        // need list to preserve ordering
+        List<DMNProfile> allProfiles = new ArrayList<>();
+        for (DMNPackage dmnPkg : dmnPackages) {
+            allModels.addAll(dmnPkg.getAllModels().values());
+            byNamespace.computeIfAbsent(dmnPkg.getNamespace(), ns -> new HashMap<>()).putAll(dmnPkg.getAllModels());
+            if (dmnPkg instanceof DMNPackageImpl) {
+                for (DMNProfile p : ((DMNPackageImpl) dmnPkg).getProfiles()) {
+                    if (!allProfiles.contains(p)) {
+                        allProfiles.add(p);
+                    }
+                }
+            }
+        }
+        this.models = Collections.unmodifiableList(allModels);
+        this.modelsByNamespace = byNamespace;
+        this.profiles = Collections.unmodifiableList(allProfiles);
+        this.rootClassLoader = rootClassLoader;
+    }
+
+    @Override
+    public List<DMNModel> getModels() {
+        return new ArrayList<>(models);
+    }
+
+    @Override
+    public DMNModel getModel(String namespace, String modelName) {
+        Map<String, DMNModel> namespaceModels = modelsByNamespace.get(namespace);
+        return namespaceModels != null ? namespaceModels.get(modelName) : null;
+    }
+
+    @Override
+    public List<DMNProfile> getProfiles() {
+        return profiles;
+    }
+
+    @Override
+    public ClassLoader getRootClassLoader() {
+        return rootClassLoader;
+    }
+}
@@ -16,8 +16,8 @@
 
 package org.kie.dmn.core.impl;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.kie.dmn.api.core.DMNRuntime;
 import org.kie.dmn.api.core.event.DMNRuntimeEventListener;
@@ -25,7 +25,8 @@ import org.kie.dmn.api.core.event.DMNRuntimeEventManager;
 
 public class DMNRuntimeEventManagerImpl implements DMNRuntimeEventManager {
 
-    private Set<DMNRuntimeEventListener> listeners = new HashSet<>();
+    // listeners are rarely changed but iterated on each event, possibly by many threads
+    private Set<DMNRuntimeEventListener> listeners = new CopyOnWriteArraySet<>();
 
     private DMNRuntime dmnRuntime;
 
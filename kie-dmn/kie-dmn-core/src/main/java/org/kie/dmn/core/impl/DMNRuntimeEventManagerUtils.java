@@ -25,6 +25,7 @@ import org.kie.dmn.api.core.ast.DecisionNode;
 import org.kie.dmn.api.core.event.AfterEvaluateBKMEvent;
 import org.kie.dmn.api.core.event.AfterEvaluateDecisionEvent;
 import org.kie.dmn.api.core.event.AfterEvaluateDecisionTableEvent;
+import org.kie.dmn.api.core.event.AfterInvokeBKMEvent;
 import org.kie.dmn.api.core.event.BeforeEvaluateBKMEvent;
 import org.kie.dmn.api.core.event.BeforeEvaluateDecisionEvent;
 import org.kie.dmn.api.core.event.BeforeEvaluateDecisionTableEvent;
@@ -67,7 +68,12 @@ public final class DMNRuntimeEventManagerUtils {
         notifyListeners( eventManager, l -> l.afterEvaluateDecisionTable( event ) );
     }
 
-    private static void notifyListeners(DMNRuntimeEventManager eventManager, Consumer<DMNRuntimeEventListener> consumer) {
+    public static void fireAfterInvokeBKM( DMNRuntimeEventManager eventManager, BusinessKnowledgeModelNode bkm, DMNResult result, List<Object> parameters, boolean memoized, long hits, long misses ) {
+        AfterInvokeBKMEvent event = new AfterInvokeBKMEventImpl( bkm, result, parameters, memoized, hits, misses );
+        notifyListeners( eventManager, l -> l.afterInvokeBKM( event ) );
+    }
+
+    static void notifyListeners(DMNRuntimeEventManager eventManager, Consumer<DMNRuntimeEventListener> consumer) {
         for( DMNRuntimeEventListener listener : eventManager.getListeners() ) {
             try {
                 consumer.accept( listener );
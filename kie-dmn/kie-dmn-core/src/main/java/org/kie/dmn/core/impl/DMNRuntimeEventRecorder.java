@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+import org.kie.dmn.api.core.DMNRuntime;
+import org.kie.dmn.api.core.event.AfterEvaluateBKMEvent;
+import org.kie.dmn.api.core.event.AfterEvaluateDecisionEvent;
+import org.kie.dmn.api.core.event.AfterEvaluateDecisionTableEvent;
+import org.kie.dmn.api.core.event.AfterInvokeBKMEvent;
+import org.kie.dmn.api.core.event.BeforeEvaluateBKMEvent;
+import org.kie.dmn.api.core.event.BeforeEvaluateDecisionEvent;
+import org.kie.dmn.api.core.event.BeforeEvaluateDecisionTableEvent;
+import org.kie.dmn.api.core.event.DMNRuntimeEventListener;
+import org.kie.dmn.api.core.event.DMNRuntimeEventManager;
+
+/**
+ * An event manager used while evaluating a decision on a worker thread. Its listeners are notified on that
+ * thread, and by default it has a single one, keeping the events so that they can be notified later to the
+ * listeners of the runtime, in a deterministic order.
+ */
+class DMNRuntimeEventRecorder implements DMNRuntimeEventManager {
+
+    private final DMNRuntime runtime;
+    private final Set<DMNRuntimeEventListener> listeners = new CopyOnWriteArraySet<>();
+    private final List<Consumer<DMNRuntimeEventListener>> events = new ArrayList<>();
+
+    DMNRuntimeEventRecorder(DMNRuntime runtime) {
+        this.runtime = runtime;
+        // no need to record anything if nobody is listening
+        if ( !runtime.getListeners().isEmpty() ) {
+            listeners.add( new RecordingListener() );
+        }
+    }
+
+    void replay(DMNRuntimeEventManager eventManager) {
+        for ( Consumer<DMNRuntimeEventListener> event : events ) {
+            DMNRuntimeEventManagerUtils.notifyListeners( eventManager, event );
+        }
+    }
+
+    @Override
+    public void addListener(DMNRuntimeEventListener listener) {
+        listeners.add( listener );
+    }
+
+    @Override
+    public void removeListener(DMNRuntimeEventListener listener) {
+        listeners.remove( listener );
+    }
+
+    @Override
+    public Set<DMNRuntimeEventListener> getListeners() {
+        return Collections.unmodifiableSet( listeners );
+    }
+
+    @Override
+    public DMNRuntime getRuntime() {
+        return runtime;
+    }
+
+    private class RecordingListener implements DMNRuntimeEventListener {
+
+        @Override
+        public void beforeEvaluateDecision(BeforeEvaluateDecisionEvent event) {
+            events.add( l -> l.beforeEvaluateDecision( event ) );
+        }
+
+        @Override
+        public void afterEvaluateDecision(AfterEvaluateDecisionEvent event) {
+            events.add( l -> l.afterEvaluateDecision( event ) );
+        }
+
+        @Override
+        public void beforeEvaluateBKM(BeforeEvaluateBKMEvent event) {
+            events.add( l -> l.beforeEvaluateBKM( event ) );
+        }
+
+        @Override
+        public void afterEvaluateBKM(AfterEvaluateBKMEvent event) {
+            events.add( l -> l.afterEvaluateBKM( event ) );
+        }
+
+        @Override
+        public void beforeEvaluateDecisionTable(BeforeEvaluateDecisionTableEvent event) {
+            events.add( l -> l.beforeEvaluateDecisionTable( event ) );
+        }
+
+        @Override
+        public void afterEvaluateDecisionTable(AfterEvaluateDecisionTableEvent event) {
+            events.add( l -> l.afterEvaluateDecisionTable( event ) );
+        }
+
+        @Override
+        public void afterInvokeBKM(AfterInvokeBKMEvent event) {
+            events.add( l -> l.afterInvokeBKM( event ) );
+        }
+    }
+}
@@ -18,16 +18,17 @@ package org.kie.dmn.core.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
-import org.drools.core.definitions.InternalKnowledgePackage;
-import org.drools.core.impl.KnowledgeBaseImpl;
-import org.kie.api.internal.io.ResourceTypePackage;
-import org.kie.api.io.ResourceType;
 import org.kie.api.runtime.KieRuntime;
 import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNDecisionResult;
@@ -41,14 +42,18 @@ import org.kie.dmn.api.core.ast.DMNNode;
 import org.kie.dmn.api.core.ast.DecisionNode;
 import org.kie.dmn.api.core.ast.InputDataNode;
 import org.kie.dmn.api.core.event.DMNRuntimeEventListener;
+import org.kie.dmn.api.core.event.DMNRuntimeEventManager;
 import org.kie.dmn.core.api.DMNFactory;
 import org.kie.dmn.core.api.EvaluatorResult;
 import org.kie.dmn.core.ast.BusinessKnowledgeModelNodeImpl;
 import org.kie.dmn.core.ast.DMNBaseNode;
+import org.kie.dmn.core.ast.DMNFunctionDefinitionEvaluator.DMNFunction;
 import org.kie.dmn.core.ast.DecisionNodeImpl;
 import org.kie.dmn.core.ast.InputDataNodeImpl;
+import org.kie.dmn.core.compiler.BKMMemoizationOption;
 import org.kie.dmn.core.compiler.DMNOption;
 import org.kie.dmn.core.compiler.DMNProfile;
+import org.kie.dmn.core.compiler.ParallelEvaluationOption;
 import org.kie.dmn.core.compiler.RuntimeTypeCheckOption;
 import org.kie.dmn.core.util.Msg;
 import org.kie.dmn.core.util.MsgUtil;
@@ -58,55 +63,89 @@ import org.slf4j.LoggerFactory;
 
 import static org.kie.dmn.api.core.DMNDecisionResult.DecisionEvaluationStatus.EVALUATING;
 import static org.kie.dmn.api.core.DMNDecisionResult.DecisionEvaluationStatus.FAILED;
+import static org.kie.dmn.api.core.DMNDecisionResult.DecisionEvaluationStatus.NOT_EVALUATED;
 import static org.kie.dmn.api.core.DMNDecisionResult.DecisionEvaluationStatus.SKIPPED;
 
 public class DMNRuntimeImpl
         implements DMNRuntime {
     private static final Logger logger = LoggerFactory.getLogger( DMNRuntimeImpl.class );
 
-    private KieRuntime                         runtime;
+    private DMNRuntimeKB                       runtimeKB;
     private DMNRuntimeEventManagerImpl         eventManager;
 
     private boolean overrideRuntimeTypeCheck = false;
+    private boolean overrideParallelEvaluation = false;
+    private int overrideBKMMemoizationSize = 0;
+    private Executor executor = ForkJoinPool.commonPool();
 
     public DMNRuntimeImpl(KieRuntime runtime) {
-        this.runtime = runtime;
+        this( new KieRuntimeDMNRuntimeKB( runtime ) );
+    }
+
+    /**
+     * Creates a DMNRuntime evaluating the models of the given compiled DMN packages, without any KieSession.
+     * The set of models is fixed at construction time, so once configured this runtime can be shared among threads.
+     */
+    public DMNRuntimeImpl(Collection<? extends DMNPackage> dmnPackages, ClassLoader rootClassLoader) {
+        this( new DMNPackagesDMNRuntimeKB( dmnPackages, rootClassLoader ) );
+    }
+
+    private DMNRuntimeImpl(DMNRuntimeKB runtimeKB) {
+        this.runtimeKB = runtimeKB;
         this.eventManager = new DMNRuntimeEventManagerImpl();
     }
 
     @Override
     public List<DMNModel> getModels() {
-        List<DMNModel> models = new ArrayList<>(  );
-        runtime.getKieBase().getKiePackages().forEach( kpkg -> {
-            DMNPackage dmnPkg = (DMNPackage) ((InternalKnowledgePackage) kpkg).getResourceTypePackages().get( ResourceType.DMN );
-            if( dmnPkg != null ) {
-                dmnPkg.getAllModels().values().forEach( model -> models.add( model ) );
-            }
-        } );
-        return models;
+        return runtimeKB.getModels();
     }
 
     @Override
     public DMNModel getModel(String namespace, String modelName) {
-        InternalKnowledgePackage kpkg = (InternalKnowledgePackage) runtime.getKieBase().getKiePackage( namespace );
-        if( kpkg == null ) {
-            return null;
-        }
-        Map<ResourceType, ResourceTypePackage> map = kpkg.getResourceTypePackages();
-        DMNPackage dmnpkg = (DMNPackage) map.get( ResourceType.DMN );
-        return dmnpkg != null ? dmnpkg.getModel( modelName ) : null;
+        return runtimeKB.getModel( namespace, modelName );
     }
 
     @Override
     public DMNResult evaluateAll(DMNModel model, DMNContext context) {
         boolean performRuntimeTypeCheck = performRuntimeTypeCheck(model);
         DMNResultImpl result = createResult( model, context );
+        if ( performParallelEvaluation( model ) ) {
+            evaluateInParallel( result, model.getDecisions(), performRuntimeTypeCheck );
+            return result;
+        }
         for( DecisionNode decision : model.getDecisions() ) {
-            evaluateDecision(context, result, decision, performRuntimeTypeCheck);
+            evaluateDecision(context, result, decision, performRuntimeTypeCheck, this);
         }
         return result;
     }
 
+    /**
+     * Evaluates all decisions of the model for each one of the given contexts. What only depends on the model
+     * and on the options of this runtime, like the type check flag and the levels of the decisions evaluated
+     * in parallel, is resolved once for the whole batch, while each context still gets its own result.
+     *
+     * When parallel is true the contexts are evaluated concurrently on the common ForkJoinPool, and the
+     * decisions of each context are in turn evaluated in parallel if the parallel evaluation option is enabled.
+     */
+    @Override
+    public Stream<DMNResult> evaluateAll(DMNModel model, Stream<? extends DMNContext> contexts, boolean parallel) {
+        boolean performRuntimeTypeCheck = performRuntimeTypeCheck(model);
+        List<DecisionNode> decisions = new ArrayList<>( model.getDecisions() );
+        List<List<DecisionNode>> levels = performParallelEvaluation( model ) ? sortByLevel( decisions ) : null;
+        Stream<? extends DMNContext> batch = parallel ? contexts.parallel() : contexts.sequential();
+        return batch.map( context -> {
+            DMNResultImpl result = createResult( model, context, decisions );
+            if ( levels != null ) {
+                evaluateLevelsInParallel( result, levels, performRuntimeTypeCheck );
+            } else {
+                for ( DecisionNode decision : decisions ) {
+                    evaluateDecision( context, result, decision, performRuntimeTypeCheck, this );
+                }
+            }
+            return result;
+        } );
+    }
+
     @Override
     public DMNResult evaluateDecisionByName(DMNModel model, String decisionName, DMNContext context) {
         return evaluateByName(model, context, decisionName);
@@ -120,6 +159,19 @@ public class DMNRuntimeImpl
     @Override
     public DMNResult evaluateByName( DMNModel model, DMNContext context, String... decisionNames ) {
         final DMNResultImpl result = createResult( model, context );
+        if ( performParallelEvaluation( model ) ) {
+            List<DecisionNode> decisions = new ArrayList<>();
+            for ( String name : decisionNames ) {
+                DecisionNode decision = model.getDecisionByName( name );
+                if ( decision != null ) {
+                    decisions.add( decision );
+                } else {
+                    MsgUtil.reportMessage( logger, DMNMessage.Severity.ERROR, null, result, null, null, Msg.DECISION_NOT_FOUND_FOR_NAME, name );
+                }
+            }
+            evaluateInParallel( result, decisions, performRuntimeTypeCheck( model ) );
+            return result;
+        }
         for (String name : decisionNames) {
             evaluateByNameInternal( model, context, result, name );
         }
@@ -130,7 +182,7 @@ public class DMNRuntimeImpl
         boolean performRuntimeTypeCheck = performRuntimeTypeCheck(model);
         DecisionNode decision = model.getDecisionByName( name );
         if ( decision != null ) {
-            evaluateDecision(context, result, decision, performRuntimeTypeCheck);
+            evaluateDecision(context, result, decision, performRuntimeTypeCheck, this);
         } else {
             MsgUtil.reportMessage( logger,
                                    DMNMessage.Severity.ERROR,
@@ -146,6 +198,19 @@ public class DMNRuntimeImpl
     @Override
     public DMNResult evaluateById( DMNModel model, DMNContext context, String... decisionIds ) {
         final DMNResultImpl result = createResult( model, context );
+        if ( performParallelEvaluation( model ) ) {
+            List<DecisionNode> decisions = new ArrayList<>();
+            for ( String id : decisionIds ) {
+                DecisionNode decision = model.getDecisionById( id );
+                if ( decision != null ) {
+                    decisions.add( decision );
+                } else {
+                    MsgUtil.reportMessage( logger, DMNMessage.Severity.ERROR, null, result, null, null, Msg.DECISION_NOT_FOUND_FOR_ID, id );
+                }
+            }
+            evaluateInParallel( result, decisions, performRuntimeTypeCheck( model ) );
+            return result;
+        }
         for ( String id : decisionIds ) {
             evaluateByIdInternal( model, context, result, id );
         }
@@ -156,7 +221,7 @@ public class DMNRuntimeImpl
         boolean performRuntimeTypeCheck = performRuntimeTypeCheck(model);
         DecisionNode decision = model.getDecisionById( id );
         if ( decision != null ) {
-            evaluateDecision(context, result, decision, performRuntimeTypeCheck);
+            evaluateDecision(context, result, decision, performRuntimeTypeCheck, this);
         } else {
             MsgUtil.reportMessage( logger,
                                    DMNMessage.Severity.ERROR,
@@ -185,16 +250,20 @@ public class DMNRuntimeImpl
     }
 
     private DMNResultImpl createResult(DMNModel model, DMNContext context) {
+        return createResult( model, context, model.getDecisions() );
+    }
+
+    private DMNResultImpl createResult(DMNModel model, DMNContext context, Collection<DecisionNode> decisions) {
         DMNResultImpl result = new DMNResultImpl(model);
         result.setContext( context.clone() );
 
-        for( DecisionNode decision : model.getDecisions() ) {
+        for( DecisionNode decision : decisions ) {
             result.setDecisionResult( decision.getId(), new DMNDecisionResultImpl( decision.getId(), decision.getName() ) );
         }
         return result;
     }
 
-    private void evaluateBKM(DMNContext context, DMNResultImpl result, BusinessKnowledgeModelNode b, boolean typeCheck) {
+    private void evaluateBKM(DMNContext context, DMNResultImpl result, BusinessKnowledgeModelNode b, boolean typeCheck, DMNRuntimeEventManager dmrem) {
         BusinessKnowledgeModelNodeImpl bkm = (BusinessKnowledgeModelNodeImpl) b;
         if (isNodeValueDefined(result, bkm)) {
             // already resolved
@@ -214,7 +283,7 @@ public class DMNRuntimeImpl
             return;
         }
         try {
-            DMNRuntimeEventManagerUtils.fireBeforeEvaluateBKM( eventManager, bkm, result );
+            DMNRuntimeEventManagerUtils.fireBeforeEvaluateBKM( dmrem, bkm, result );
             for( DMNNode dep : bkm.getDependencies().values() ) {
                 if (typeCheck && !checkDependencyValueIsValid(dep, result)) {
                     MsgUtil.reportMessage( logger,
@@ -233,7 +302,7 @@ public class DMNRuntimeImpl
                 }
                 if (!isNodeValueDefined(result, dep)) {
                     if( dep instanceof BusinessKnowledgeModelNode ) {
-                        evaluateBKM(context, result, (BusinessKnowledgeModelNode) dep, typeCheck);
+                        evaluateBKM(context, result, (BusinessKnowledgeModelNode) dep, typeCheck, dmrem);
                     } else {
                         MsgUtil.reportMessage( logger,
                                                DMNMessage.Severity.ERROR,
@@ -250,9 +319,14 @@ public class DMNRuntimeImpl
                 }
             }
 
-            EvaluatorResult er = bkm.getEvaluator().evaluate( this, result );
+            EvaluatorResult er = bkm.getEvaluator().evaluate( dmrem, result );
             if( er.getResultType() == EvaluatorResult.ResultType.SUCCESS ) {
                 FEELFunction resultFn = (FEELFunction) er.getResult();
+                int memoizationSize = getBKMMemoizationSize( result.getModel() );
+                // the BKMs depending on the context of their invocation, other than the parameters, are not memoized
+                if ( memoizationSize > 0 && resultFn instanceof DMNFunction && bkm.isMemoizable() ) {
+                    ((DMNFunction) resultFn).enableMemoization( bkm, memoizationSize );
+                }
                 if (bkm.getModelNamespace().equals(result.getModel().getNamespace())) {
                     // TODO check of the return type will need calculation/inference of function return type.
                     result.getContext().set(bkm.getBusinessKnowledModel().getVariable().getName(), resultFn);
@@ -274,7 +348,7 @@ public class DMNRuntimeImpl
                                    getIdentifier( bkm ),
                                    t.getMessage() );
         } finally {
-            DMNRuntimeEventManagerUtils.fireAfterEvaluateBKM( eventManager, bkm, result );
+            DMNRuntimeEventManagerUtils.fireAfterEvaluateBKM( dmrem, bkm, result );
         }
     }
 
@@ -295,7 +369,7 @@ public class DMNRuntimeImpl
         }
     }
 
-    private boolean evaluateDecision(DMNContext context, DMNResultImpl result, DecisionNode d, boolean typeCheck) {
+    private boolean evaluateDecision(DMNContext context, DMNResultImpl result, DecisionNode d, boolean typeCheck, DMNRuntimeEventManager dmrem) {
         DecisionNodeImpl decision = (DecisionNodeImpl) d;
         if( result.getContext().isDefined( decision.getName() ) ) {
             // already resolved
@@ -308,7 +382,7 @@ public class DMNRuntimeImpl
             }
         }
         try {
-            DMNRuntimeEventManagerUtils.fireBeforeEvaluateDecision( eventManager, decision, result );
+            DMNRuntimeEventManagerUtils.fireBeforeEvaluateDecision( dmrem, decision, result );
             boolean missingInput = false;
             DMNDecisionResultImpl dr = (DMNDecisionResultImpl) result.getDecisionResultById( decision.getId() );
             dr.setEvaluationStatus(DMNDecisionResult.DecisionEvaluationStatus.EVALUATING);
@@ -343,7 +417,7 @@ public class DMNRuntimeImpl
                 }
                 if( ! result.getContext().isDefined( dep.getName() ) ) {
                     if( dep instanceof DecisionNode ) {
-                        if (!evaluateDecision(context, result, (DecisionNode) dep, typeCheck)) {
+                        if (!evaluateDecision(context, result, (DecisionNode) dep, typeCheck, dmrem)) {
                             missingInput = true;
                             DMNMessage message = MsgUtil.reportMessage( logger,
                                                                         DMNMessage.Severity.ERROR,
@@ -357,7 +431,7 @@ public class DMNRuntimeImpl
                             reportFailure( dr, message, DMNDecisionResult.DecisionEvaluationStatus.SKIPPED );
                         }
                     } else if( dep instanceof BusinessKnowledgeModelNode ) {
-                        evaluateBKM(context, result, (BusinessKnowledgeModelNode) dep, typeCheck);
+                        evaluateBKM(context, result, (BusinessKnowledgeModelNode) dep, typeCheck, dmrem);
                     } else {
                         missingInput = true;
                         DMNMessage message = MsgUtil.reportMessage( logger,
@@ -391,7 +465,9 @@ public class DMNRuntimeImpl
                 return false;
             }
             try {
-                EvaluatorResult er = decision.getEvaluator().evaluate( this, result );
+                long start = System.nanoTime();
+                EvaluatorResult er = decision.getEvaluator().evaluate( dmrem, result );
+                dr.setEvaluationTime( System.nanoTime() - start );
                 if( er.getResultType() == EvaluatorResult.ResultType.SUCCESS ) {
                     Object value = er.getResult();
                     if( ! decision.getResultType().isCollection() && value instanceof Collection &&
@@ -451,7 +527,7 @@ public class DMNRuntimeImpl
             }
             return true;
         } finally {
-            DMNRuntimeEventManagerUtils.fireAfterEvaluateDecision( eventManager, decision, result );
+            DMNRuntimeEventManagerUtils.fireAfterEvaluateDecision( dmrem, decision, result );
         }
     }
 
@@ -473,10 +549,166 @@ public class DMNRuntimeImpl
         return overrideRuntimeTypeCheck || ((DMNModelImpl) model).isRuntimeTypeCheck();
     }
 
+    public boolean performParallelEvaluation(DMNModel model) {
+        return overrideParallelEvaluation || ((DMNModelImpl) model).isParallelEvaluation();
+    }
+
+    public int getBKMMemoizationSize(DMNModel model) {
+        return overrideBKMMemoizationSize > 0 ? overrideBKMMemoizationSize : ((DMNModelImpl) model).getBKMMemoizationSize();
+    }
+
     public final <T extends DMNOption> void setOption(T option) {
         if (option instanceof RuntimeTypeCheckOption) {
             this.overrideRuntimeTypeCheck = ((RuntimeTypeCheckOption) option).isRuntimeTypeCheck();
         }
+        if (option instanceof ParallelEvaluationOption) {
+            this.overrideParallelEvaluation = ((ParallelEvaluationOption) option).isParallelEvaluation();
+        }
+        if (option instanceof BKMMemoizationOption) {
+            this.overrideBKMMemoizationSize = ((BKMMemoizationOption) option).getCacheSize();
+        }
+    }
+
+    /**
+     * Sets the executor running the decision evaluations when the parallel evaluation is enabled.
+     * By default the common ForkJoinPool is used.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Evaluates the given decisions and their requirements by levels: the decisions of a level only depend on
+     * decisions of the previous levels, so they are evaluated concurrently, each one on a copy of the result.
+     * The copies are then merged back in order, replaying the events they recorded, so that the outcome doesn't
+     * depend on the order in which the tasks completed.
+     */
+    private void evaluateInParallel(DMNResultImpl result, Collection<DecisionNode> decisions, boolean typeCheck) {
+        evaluateLevelsInParallel( result, sortByLevel( decisions ), typeCheck );
+    }
+
+    private void evaluateLevelsInParallel(DMNResultImpl result, List<List<DecisionNode>> levels, boolean typeCheck) {
+        for ( List<DecisionNode> level : levels ) {
+            // as in the sequential evaluation each BKM is evaluated once, then its function is bound to every task
+            for ( DecisionNode decision : level ) {
+                for ( DMNNode dep : decision.getDependencies().values() ) {
+                    if ( dep instanceof BusinessKnowledgeModelNode ) {
+                        evaluateBKM( result.getContext(), result, (BusinessKnowledgeModelNode) dep, typeCheck, this );
+                    }
+                }
+            }
+            if ( level.size() == 1 ) {
+                new DecisionTask( level.get( 0 ), result ).evaluate( typeCheck ).mergeInto( result );
+                continue;
+            }
+            List<CompletableFuture<DecisionTask>> tasks = new ArrayList<>();
+            for ( DecisionNode decision : level ) {
+                DecisionTask task = new DecisionTask( decision, result );
+                tasks.add( CompletableFuture.supplyAsync( () -> task.evaluate( typeCheck ), executor ) );
+            }
+            for ( CompletableFuture<DecisionTask> task : tasks ) {
+                task.join().mergeInto( result );
+            }
+        }
+    }
+
+    private static List<List<DecisionNode>> sortByLevel(Collection<DecisionNode> decisions) {
+        Map<DecisionNode, Integer> levels = new LinkedHashMap<>();
+        for ( DecisionNode decision : decisions ) {
+            computeLevel( decision, levels, new HashSet<>() );
+        }
+        List<List<DecisionNode>> sorted = new ArrayList<>();
+        for ( Map.Entry<DecisionNode, Integer> entry : levels.entrySet() ) {
+            while ( sorted.size() <= entry.getValue() ) {
+                sorted.add( new ArrayList<>() );
+            }
+            sorted.get( entry.getValue() ).add( entry.getKey() );
+        }
+        return sorted;
+    }
+
+    private static int computeLevel(DecisionNode decision, Map<DecisionNode, Integer> levels, Set<DecisionNode> visiting) {
+        Integer level = levels.get( decision );
+        if ( level != null ) {
+            return level;
+        }
+        if ( !visiting.add( decision ) ) {
+            // a cycle in the requirements, it will be reported when evaluating the decision
+            return -1;
+        }
+        int max = 0;
+        for ( DMNNode dep : decision.getDependencies().values() ) {
+            if ( dep instanceof DecisionNode ) {
+                max = Math.max( max, computeLevel( (DecisionNode) dep, levels, visiting ) + 1 );
+            }
+        }
+        levels.put( decision, max );
+        return max;
+    }
+
+    private class DecisionTask {
+        private final DecisionNode decision;
+        private final DMNResultImpl result;
+        private final DMNRuntimeEventRecorder events = new DMNRuntimeEventRecorder( DMNRuntimeImpl.this );
+
+        private DecisionTask(DecisionNode decision, DMNResultImpl parent) {
+            this.decision = decision;
+            this.result = new DMNResultImpl( parent.getModel() );
+            this.result.setContext( snapshot( parent ) );
+            for ( DMNDecisionResult dr : parent.getDecisionResults() ) {
+                this.result.setDecisionResult( dr.getDecisionId(),
+                                               new DMNDecisionResultImpl( dr.getDecisionId(), dr.getDecisionName(), dr.getEvaluationStatus(), dr.getResult(), new ArrayList<>( dr.getMessages() ) ) );
+            }
+        }
+
+        private DMNContext snapshot(DMNResultImpl parent) {
+            DMNModelImpl model = (DMNModelImpl) parent.getModel();
+            Map<String, Object> entries = new LinkedHashMap<>();
+            for ( Map.Entry<String, Object> entry : parent.getContext().getAll().entrySet() ) {
+                entries.put( entry.getKey(), bind( entry.getValue() ) );
+            }
+            for ( String alias : model.getImportAliasesForNS().keySet() ) {
+                Object aliasContext = entries.get( alias );
+                if ( aliasContext instanceof Map ) {
+                    Map<Object, Object> aliasEntries = new LinkedHashMap<>();
+                    for ( Map.Entry<?, ?> entry : ((Map<?, ?>) aliasContext).entrySet() ) {
+                        aliasEntries.put( entry.getKey(), bind( entry.getValue() ) );
+                    }
+                    entries.put( alias, aliasEntries );
+                }
+            }
+            return new DMNContextImpl( entries );
+        }
+
+        private Object bind(Object value) {
+            // a function is invoked within the result it has been evaluated with, which can't be shared between tasks
+            return value instanceof DMNFunction ? ((DMNFunction) value).bindTo( events, result ) : value;
+        }
+
+        private DecisionTask evaluate(boolean typeCheck) {
+            evaluateDecision( result.getContext(), result, decision, typeCheck, events );
+            return this;
+        }
+
+        private void mergeInto(DMNResultImpl parent) {
+            DMNModelImpl model = (DMNModelImpl) parent.getModel();
+            Map<String, Object> target = parent.getContext().getAll();
+            for ( Map.Entry<String, Object> entry : result.getContext().getAll().entrySet() ) {
+                Object current = target.get( entry.getKey() );
+                if ( !target.containsKey( entry.getKey() ) ) {
+                    target.put( entry.getKey(), entry.getValue() );
+                } else if ( model.getImportAliasesForNS().containsKey( entry.getKey() ) && current instanceof Map && entry.getValue() instanceof Map ) {
+                    ((Map<Object, Object>) current).putAll( (Map<?, ?>) entry.getValue() );
+                }
+            }
+            parent.addAll( result.getMessages() );
+            for ( DMNDecisionResult dr : result.getDecisionResults() ) {
+                if ( dr.getEvaluationStatus() != NOT_EVALUATED && parent.getDecisionResultById( dr.getDecisionId() ).getEvaluationStatus() == NOT_EVALUATED ) {
+                    parent.setDecisionResult( dr.getDecisionId(), dr );
+                }
+            }
+            events.replay( DMNRuntimeImpl.this );
+        }
     }
 
     private void reportFailure(DMNDecisionResultImpl dr, DMNMessage message, DMNDecisionResult.DecisionEvaluationStatus status) {
@@ -495,23 +727,11 @@ public class DMNRuntimeImpl
     }
 
     public List<DMNProfile> getProfiles() {
-        // need list to preserve ordering
-        List<DMNProfile> profiles = new ArrayList<>();
-        runtime.getKieBase().getKiePackages().forEach(kpkg -> {
-            DMNPackageImpl dmnPkg = (DMNPackageImpl) ((InternalKnowledgePackage) kpkg).getResourceTypePackages().get(ResourceType.DMN);
-            if (dmnPkg != null) {
-                for (DMNProfile p : dmnPkg.getProfiles()) {
-                    if (!profiles.contains(p)) {
-                        profiles.add(p);
-                    }
-                }
-            }
-        });
-        return profiles;
+        return runtimeKB.getProfiles();
     }
 
     @Override
     public ClassLoader getRootClassLoader() {
-        return ((KnowledgeBaseImpl) runtime.getKieBase()).getRootClassLoader();
+        return runtimeKB.getRootClassLoader();
     }
 }
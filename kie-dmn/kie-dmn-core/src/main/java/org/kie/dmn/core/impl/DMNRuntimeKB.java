@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.impl;
+
+import java.util.List;
+
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.core.compiler.DMNProfile;
+
+/**
+ * The source of the models and of the profiles of a DMNRuntime.
+ */
+interface DMNRuntimeKB {
+
+    List<DMNModel> getModels();
+
+    DMNModel getModel(String namespace, String modelName);
+
+    List<DMNProfile> getProfiles();
+
+    ClassLoader getRootClassLoader();
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.core.definitions.InternalKnowledgePackage;
+import org.drools.core.impl.KnowledgeBaseImpl;
+import org.kie.api.internal.io.ResourceTypePackage;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieRuntime;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.api.core.DMNPackage;
+import org.kie.dmn.core.compiler.DMNProfile;
+
+/**
+ * Looks up the models in the KieBase of a KieRuntime, so that the changes of the KieBase are visible to the DMNRuntime.
+ */
+class KieRuntimeDMNRuntimeKB implements DMNRuntimeKB {
+
+    private final KieRuntime runtime;
+
+    KieRuntimeDMNRuntimeKB(KieRuntime runtime) {
+        this.runtime = runtime;
+    }
+
+    @Override
+    public List<DMNModel> getModels() {
+        List<DMNModel> models = new ArrayList<>(  );
+        runtime.getKieBase().getKiePackages().forEach( kpkg -> {
+            DMNPackage dmnPkg = (DMNPackage) ((InternalKnowledgePackage) kpkg).getResourceTypePackages().get( ResourceType.DMN );
+            if( dmnPkg != null ) {
+                dmnPkg.getAllModels().values().forEach( model -> models.add( model ) );
+            }
+        } );
+        return models;
+    }
+
+    @Override
+    public DMNModel getModel(String namespace, String modelName) {
+        InternalKnowledgePackage kpkg = (InternalKnowledgePackage) runtime.getKieBase().getKiePackage( namespace );
+        if( kpkg == null ) {
+            return null;
+        }
+        Map<ResourceType, ResourceTypePackage> map = kpkg.getResourceTypePackages();
+        DMNPackage dmnpkg = (DMNPackage) map.get( ResourceType.DMN );
+        return dmnpkg != null ? dmnpkg.getModel( modelName ) : null;
+    }
+
+    @Override
+    public List<DMNProfile> getProfiles() {
+        // need list to preserve ordering
+        List<DMNProfile> profiles = new ArrayList<>();
+        runtime.getKieBase().getKiePackages().forEach(kpkg -> {
+            DMNPackageImpl dmnPkg = (DMNPackageImpl) ((InternalKnowledgePackage) kpkg).getResourceTypePackages().get(ResourceType.DMN);
+            if (dmnPkg != null) {
+                for (DMNProfile p : dmnPkg.getProfiles()) {
+                    if (!profiles.contains(p)) {
+                        profiles.add(p);
+                    }
+                }
+            }
+        });
+        return profiles;
+    }
+
+    @Override
+    public ClassLoader getRootClassLoader() {
+        return ((KnowledgeBaseImpl) runtime.getKieBase()).getRootClassLoader();
+    }
+}
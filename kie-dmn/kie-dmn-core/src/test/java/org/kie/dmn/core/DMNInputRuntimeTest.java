@@ -25,7 +25,11 @@ import static org.kie.dmn.core.util.DynamicTypeUtils.prototype;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.junit.Test;
 import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNDecisionResult;
@@ -36,6 +40,8 @@ import org.kie.dmn.api.core.DMNResult;
 import org.kie.dmn.api.core.DMNRuntime;
 import org.kie.dmn.api.core.ast.InputDataNode;
 import org.kie.dmn.core.api.DMNFactory;
+import org.kie.dmn.core.compiler.ParallelEvaluationOption;
+import org.kie.dmn.core.impl.DMNRuntimeImpl;
 import org.kie.dmn.core.util.DMNRuntimeUtil;
 
 public class DMNInputRuntimeTest {
@@ -59,6 +65,33 @@ public class DMNInputRuntimeTest {
         assertThat( result.get( "Greeting Message" ), is( "Hello John Doe" ) );
     }
 
+    @Test
+    public void testInputStringEvaluateBatch() {
+        final DMNRuntime runtime = DMNRuntimeUtil.createRuntime( "0001-input-data-string.dmn", this.getClass() );
+        final DMNModel dmnModel = runtime.getModel( "https://github.com/kiegroup/drools/kie-dmn", "_0001-input-data-string" );
+        assertThat( dmnModel, notNullValue() );
+
+        for ( boolean parallelDecisions : new boolean[] { false, true } ) {
+            ((DMNRuntimeImpl) runtime).setOption( new ParallelEvaluationOption( parallelDecisions ) );
+            for ( boolean parallel : new boolean[] { false, true } ) {
+                final Stream<DMNContext> contexts = IntStream.range( 0, 1000 ).mapToObj( i -> {
+                    DMNContext context = DMNFactory.newContext();
+                    context.set( "Full Name", "John Doe " + i );
+                    return context;
+                } );
+
+                final List<Object> results = runtime.evaluateAll( dmnModel, contexts, parallel )
+                        .map( r -> r.getDecisionResultByName( "Greeting Message" ).getResult() )
+                        .collect( Collectors.toList() );
+
+                assertThat( results.size(), is( 1000 ) );
+                for ( int i = 0; i < results.size(); i++ ) {
+                    assertThat( results.get( i ), is( "Hello John Doe " + i ) );
+                }
+            }
+        }
+    }
+
     @Test
     public void testInputStringEvaluateDecisionByName() {
         final DMNRuntime runtime = DMNRuntimeUtil.createRuntime( "0001-input-data-string.dmn", this.getClass() );
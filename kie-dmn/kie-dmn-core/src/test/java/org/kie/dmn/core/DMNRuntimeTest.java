@@ -31,6 +31,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.junit.Ignore;
@@ -44,14 +47,21 @@ import org.kie.dmn.api.core.DMNMessageType;
 import org.kie.dmn.api.core.DMNModel;
 import org.kie.dmn.api.core.DMNResult;
 import org.kie.dmn.api.core.DMNRuntime;
+import org.kie.dmn.api.core.event.AfterEvaluateBKMEvent;
 import org.kie.dmn.api.core.event.AfterEvaluateDecisionEvent;
 import org.kie.dmn.api.core.event.AfterEvaluateDecisionTableEvent;
+import org.kie.dmn.api.core.event.AfterInvokeBKMEvent;
+import org.kie.dmn.api.core.event.BeforeEvaluateBKMEvent;
 import org.kie.dmn.api.core.event.BeforeEvaluateDecisionEvent;
 import org.kie.dmn.api.core.event.BeforeEvaluateDecisionTableEvent;
 import org.kie.dmn.api.core.event.DMNRuntimeEventListener;
 import org.kie.dmn.core.api.DMNFactory;
+import org.kie.dmn.core.api.event.DefaultDMNRuntimeEventListener;
 import org.kie.dmn.core.ast.DecisionNodeImpl;
+import org.kie.dmn.core.compiler.BKMMemoizationOption;
+import org.kie.dmn.core.compiler.ParallelEvaluationOption;
 import org.kie.dmn.core.impl.DMNModelImpl;
+import org.kie.dmn.core.impl.DMNRuntimeImpl;
 import org.kie.dmn.core.util.DMNRuntimeUtil;
 import org.kie.dmn.core.util.KieHelper;
 import org.kie.dmn.feel.lang.types.BuiltInType;
@@ -488,6 +498,115 @@ public class DMNRuntimeTest {
         assertThat( dmnModel, notNullValue() );
         assertThat( DMNRuntimeUtil.formatMessages( dmnModel.getMessages() ), dmnModel.hasErrors(), is( false ) );
 
+        DMNContext context = createLendingContext();
+        DMNResult dmnResult = runtime.evaluateAll( dmnModel, context );
+        DMNContext ctx = dmnResult.getContext();
+
+        assertThat( ctx.get( "ApplicationRiskScore" ), is( BigDecimal.valueOf( 130 ) ) );
+        assertThat( ctx.get( "Pre-bureauRiskCategory" ), is( "LOW" ) );
+        assertThat( ctx.get( "BureauCallType" ), is( "MINI" ) );
+        assertThat( ctx.get( "Post-bureauRiskCategory" ), is( "LOW" ) );
+        assertThat( ((BigDecimal)ctx.get( "RequiredMonthlyInstallment" )).setScale( 5, BigDecimal.ROUND_DOWN ),
+                    is( new BigDecimal( "1680.880325608555" ).setScale( 5, BigDecimal.ROUND_DOWN ) ) );
+        assertThat( ctx.get( "Pre-bureauAffordability" ), is( true ) );
+        assertThat( ctx.get( "Eligibility" ), is( "ELIGIBLE" ) );
+        assertThat( ctx.get( "Strategy" ), is( "BUREAU" ) );
+        assertThat( ctx.get( "Post-bureauAffordability" ), is( true ) );
+        assertThat( ctx.get( "Routing" ), is( "ACCEPT" ) );
+    }
+
+    @Test
+    public void testParallelEvaluation() {
+        DMNRuntime runtime = DMNRuntimeUtil.createRuntime( "0004-lending.dmn", getClass() );
+        DMNModel dmnModel = runtime.getModel( "http://www.trisotech.com/definitions/_4e0f0b70-d31c-471c-bd52-5ca709ed362b", "Lending1" );
+        assertThat( dmnModel, notNullValue() );
+
+        List<String> events = new ArrayList<>();
+        runtime.addListener( new DefaultDMNRuntimeEventListener() {
+            @Override
+            public void beforeEvaluateDecision(BeforeEvaluateDecisionEvent event) {
+                events.add( "before " + event.getDecision().getName() );
+            }
+
+            @Override
+            public void afterEvaluateDecision(AfterEvaluateDecisionEvent event) {
+                events.add( "after " + event.getDecision().getName() );
+            }
+
+            @Override
+            public void beforeEvaluateBKM(BeforeEvaluateBKMEvent event) {
+                events.add( "before BKM " + event.getBusinessKnowledgeModel().getName() );
+            }
+
+            @Override
+            public void afterEvaluateBKM(AfterEvaluateBKMEvent event) {
+                events.add( "after BKM " + event.getBusinessKnowledgeModel().getName() );
+            }
+        } );
+
+        DMNResult sequential = runtime.evaluateAll( dmnModel, createLendingContext() );
+        assertThat( DMNRuntimeUtil.formatMessages( sequential.getMessages() ), sequential.hasErrors(), is( false ) );
+        List<String> sequentialEvents = new ArrayList<>( events );
+
+        ((DMNRuntimeImpl) runtime).setOption( new ParallelEvaluationOption( true ) );
+        events.clear();
+        DMNResult parallel = runtime.evaluateAll( dmnModel, createLendingContext() );
+        assertThat( DMNRuntimeUtil.formatMessages( parallel.getMessages() ), parallel.hasErrors(), is( false ) );
+        List<String> parallelEvents = new ArrayList<>( events );
+
+        for ( DMNDecisionResult dr : sequential.getDecisionResults() ) {
+            DMNDecisionResult parallelDr = parallel.getDecisionResultById( dr.getDecisionId() );
+            assertThat( parallelDr.getEvaluationStatus(), is( DMNDecisionResult.DecisionEvaluationStatus.SUCCEEDED ) );
+            assertThat( parallelDr.getResult(), is( dr.getResult() ) );
+            assertThat( parallel.getContext().get( dr.getDecisionName() ), is( sequential.getContext().get( dr.getDecisionName() ) ) );
+            assertTrue( parallelDr.getEvaluationTime() > 0 );
+        }
+        // the BKMs are evaluated once in both modes, only the order of the events may change
+        assertThat( parallelEvents.stream().sorted().collect( Collectors.toList() ),
+                    is( sequentialEvents.stream().sorted().collect( Collectors.toList() ) ) );
+
+        // the events are notified in the same order whatever the scheduling of the decisions
+        for ( int i = 0; i < 10; i++ ) {
+            events.clear();
+            runtime.evaluateAll( dmnModel, createLendingContext() );
+            assertThat( events, is( parallelEvents ) );
+        }
+    }
+
+    @Test
+    public void testStandaloneRuntimeSharedAmongThreads() throws Exception {
+        final KieServices ks = KieServices.Factory.get();
+        final KieContainer kieContainer = KieHelper.getKieContainer(
+                ks.newReleaseId( "org.kie", "dmn-test-" + UUID.randomUUID(), "1.0" ),
+                ks.getResources().newClassPathResource( "0004-lending.dmn", this.getClass() ) );
+
+        DMNRuntime runtime = DMNFactory.newRuntime( kieContainer.getKieBase() );
+        DMNModel dmnModel = runtime.getModel( "http://www.trisotech.com/definitions/_4e0f0b70-d31c-471c-bd52-5ca709ed362b", "Lending1" );
+        assertThat( dmnModel, notNullValue() );
+        assertThat( runtime.getModels(), hasSize( 1 ) );
+
+        DMNResult expected = runtime.evaluateAll( dmnModel, createLendingContext() );
+        assertThat( DMNRuntimeUtil.formatMessages( expected.getMessages() ), expected.hasErrors(), is( false ) );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try {
+            List<Future<DMNResult>> results = new ArrayList<>();
+            for ( int i = 0; i < 20; i++ ) {
+                results.add( executor.submit( () -> runtime.evaluateAll( dmnModel, createLendingContext() ) ) );
+            }
+            for ( Future<DMNResult> result : results ) {
+                DMNResult dmnResult = result.get();
+                assertThat( DMNRuntimeUtil.formatMessages( dmnResult.getMessages() ), dmnResult.hasErrors(), is( false ) );
+                for ( DMNDecisionResult dr : expected.getDecisionResults() ) {
+                    assertThat( dmnResult.getDecisionResultById( dr.getDecisionId() ).getResult(), is( dr.getResult() ) );
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private DMNContext createLendingContext() {
         DMNContext context = DMNFactory.newContext();
         Map applicant = new HashMap();
         Map monthly = new HashMap();
@@ -512,20 +631,7 @@ public class DMNRuntimeTest {
         context.set( "RequestedProduct", product );
         context.set( "BureauData", bureau );
         context.set( "SupportingDocuments", "yes" );
-        DMNResult dmnResult = runtime.evaluateAll( dmnModel, context );
-        DMNContext ctx = dmnResult.getContext();
-
-        assertThat( ctx.get( "ApplicationRiskScore" ), is( BigDecimal.valueOf( 130 ) ) );
-        assertThat( ctx.get( "Pre-bureauRiskCategory" ), is( "LOW" ) );
-        assertThat( ctx.get( "BureauCallType" ), is( "MINI" ) );
-        assertThat( ctx.get( "Post-bureauRiskCategory" ), is( "LOW" ) );
-        assertThat( ((BigDecimal)ctx.get( "RequiredMonthlyInstallment" )).setScale( 5, BigDecimal.ROUND_DOWN ),
-                    is( new BigDecimal( "1680.880325608555" ).setScale( 5, BigDecimal.ROUND_DOWN ) ) );
-        assertThat( ctx.get( "Pre-bureauAffordability" ), is( true ) );
-        assertThat( ctx.get( "Eligibility" ), is( "ELIGIBLE" ) );
-        assertThat( ctx.get( "Strategy" ), is( "BUREAU" ) );
-        assertThat( ctx.get( "Post-bureauAffordability" ), is( true ) );
-        assertThat( ctx.get( "Routing" ), is( "ACCEPT" ) );
+        return context;
     }
 
     @Test
@@ -1264,6 +1370,42 @@ public class DMNRuntimeTest {
         assertThat( (List<?>)result.get("My Decision"), contains( "The person named John Doe is 33 years old.",
                                                                   "The person named 47 is 47 years old.") );
     }
+
+    @Test
+    public void testBKMMemoization() {
+        DMNRuntime runtime = DMNRuntimeUtil.createRuntime( "PersonListHelloBKM.dmn", this.getClass() );
+        DMNModel dmnModel = runtime.getModel(
+                "http://www.trisotech.com/definitions/_ec5a78c7-a317-4c39-8310-db59be60f1c8",
+                "PersonListHelloBKM" );
+        assertThat( dmnModel, notNullValue() );
+        ((DMNRuntimeImpl) runtime).setOption( new BKMMemoizationOption( 10 ) );
+
+        List<AfterInvokeBKMEvent> events = new ArrayList<>();
+        runtime.addListener( new DefaultDMNRuntimeEventListener() {
+            @Override
+            public void afterInvokeBKM(AfterInvokeBKMEvent event) {
+                events.add( event );
+            }
+        } );
+
+        DMNContext context = runtime.newContext();
+        Map<String, Object> p1 = prototype( entry("Full Name", "John Doe"), entry("Age", 33) );
+        Map<String, Object> p2 = prototype( entry("Full Name", "47"), entry("Age", 47) );
+        context.set("My Input Data", Arrays.asList(new Object[]{p1, p2, p1}));
+        DMNResult dmnResult = runtime.evaluateAll( dmnModel, context );
+
+        assertThat( DMNRuntimeUtil.formatMessages( dmnResult.getMessages() ), dmnResult.hasErrors(), is( false ) );
+        assertThat( (List<?>)dmnResult.getContext().get("My Decision"), contains( "The person named John Doe is 33 years old.",
+                                                                                  "The person named 47 is 47 years old.",
+                                                                                  "The person named John Doe is 33 years old.") );
+        assertThat( events.size(), is( 3 ) );
+        assertThat( events.get( 0 ).isMemoized(), is( false ) );
+        assertThat( events.get( 1 ).isMemoized(), is( false ) );
+        assertThat( events.get( 2 ).isMemoized(), is( true ) );
+        assertThat( events.get( 2 ).getBusinessKnowledgeModel().getName(), is( "My BKM" ) );
+        assertThat( events.get( 2 ).getMemoizationHits(), is( 1L ) );
+        assertThat( events.get( 2 ).getMemoizationMisses(), is( 2L ) );
+    }
     
     @Test
     public void testTypeInferenceForNestedContextAnonymousEntry() {
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.compiler;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.kie.dmn.core.ast.BusinessKnowledgeModelNodeImpl;
+import org.kie.dmn.model.v1_1.BusinessKnowledgeModel;
+import org.kie.dmn.model.v1_1.Context;
+import org.kie.dmn.model.v1_1.ContextEntry;
+import org.kie.dmn.model.v1_1.Expression;
+import org.kie.dmn.model.v1_1.FunctionDefinition;
+import org.kie.dmn.model.v1_1.InformationItem;
+import org.kie.dmn.model.v1_1.LiteralExpression;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BKMReferencesAnalyzerTest {
+
+    private final DMNFEELHelper feel = new DMNFEELHelper( Collections.emptyList() );
+
+    @Test
+    public void testReferencesToParametersAndBuiltInFunctions() {
+        assertTrue( referencesOnlyParameters( literal( "\"The person named \" + pName + \" is \" + string(pAge) + \" years old.\"" ), "pName", "pAge" ) );
+        assertTrue( referencesOnlyParameters( literal( "if pAge > 18 then \"adult\" else \"minor\"" ), "pAge" ) );
+        assertTrue( referencesOnlyParameters( literal( "person.age + 1" ), "person" ) );
+        assertTrue( referencesOnlyParameters( literal( "sum( for x in pList return x * 2 )" ), "pList" ) );
+        assertTrue( referencesOnlyParameters( literal( "{ total : pAge * 2, result : total + 1 }.result" ), "pAge" ) );
+    }
+
+    @Test
+    public void testReferencesToTheContextOfTheInvocation() {
+        assertFalse( referencesOnlyParameters( literal( "pAge * rate" ), "pAge" ) );
+        assertFalse( referencesOnlyParameters( literal( "rate.value * pAge" ), "pAge" ) );
+        // the fields of the items of a filter can't be told apart from the names in the context, so they don't qualify
+        assertFalse( referencesOnlyParameters( literal( "pList[ age > 18 ]" ), "pList" ) );
+    }
+
+    @Test
+    public void testContextEntries() {
+        Context context = new Context();
+        context.getContextEntry().add( entry( "doubled", literal( "pAge * 2" ) ) );
+        context.getContextEntry().add( entry( null, literal( "doubled + 1" ) ) );
+        assertTrue( referencesOnlyParameters( context, "pAge" ) );
+
+        context.getContextEntry().add( entry( "other", literal( "doubled + rate" ) ) );
+        assertFalse( referencesOnlyParameters( context, "pAge" ) );
+    }
+
+    @Test
+    public void testNotAnalyzable() {
+        assertFalse( referencesOnlyParameters( literal( "pAge +" ), "pAge" ) );
+        LiteralExpression other = literal( "pAge" );
+        other.setExpressionLanguage( "http://www.example.com/other" );
+        assertFalse( referencesOnlyParameters( other, "pAge" ) );
+    }
+
+    private boolean referencesOnlyParameters(Expression body, String... parameters) {
+        FunctionDefinition funcDef = new FunctionDefinition();
+        for ( String parameter : parameters ) {
+            InformationItem item = new InformationItem();
+            item.setName( parameter );
+            funcDef.getFormalParameter().add( item );
+        }
+        funcDef.setExpression( body );
+        BusinessKnowledgeModel bkm = new BusinessKnowledgeModel();
+        bkm.setName( "My BKM" );
+        bkm.setEncapsulatedLogic( funcDef );
+        return BKMReferencesAnalyzer.referencesOnlyParameters( feel, new BusinessKnowledgeModelNodeImpl( bkm ) );
+    }
+
+    private static LiteralExpression literal(String text) {
+        LiteralExpression literal = new LiteralExpression();
+        literal.setText( text );
+        return literal;
+    }
+
+    private static ContextEntry entry(String name, Expression expression) {
+        ContextEntry entry = new ContextEntry();
+        if ( name != null ) {
+            InformationItem variable = new InformationItem();
+            variable.setName( name );
+            entry.setVariable( variable );
+        }
+        entry.setExpression( expression );
+        return entry;
+    }
+}
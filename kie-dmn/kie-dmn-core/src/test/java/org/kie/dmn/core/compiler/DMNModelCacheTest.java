@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.compiler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+
+import org.drools.core.common.ProjectClassLoader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.io.Resource;
+import org.kie.api.runtime.KieContainer;
+import org.kie.dmn.api.core.DMNContext;
+import org.kie.dmn.api.core.DMNMessage;
+import org.kie.dmn.api.core.DMNMessageType;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.api.core.DMNRuntime;
+import org.kie.dmn.core.DMNRuntimeTest;
+import org.kie.dmn.core.api.DMNFactory;
+import org.kie.dmn.core.impl.DMNModelImpl;
+import org.kie.dmn.core.util.KieHelper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DMNModelCacheTest {
+
+    @Before
+    public void enableCache() {
+        System.setProperty(DMNModelCache.CACHE_SIZE_PROPERTY, "20");
+        DMNModelCache.clear();
+    }
+
+    @After
+    public void disableCache() {
+        System.clearProperty(DMNModelCache.CACHE_SIZE_PROPERTY);
+        DMNModelCache.clear();
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        System.clearProperty(DMNModelCache.CACHE_SIZE_PROPERTY);
+        DMNCompilerImpl compiler = new DMNCompilerImpl();
+        assertNotNull(compiler.compile(resource(), Collections.emptyList()));
+        assertNull(compiler.getCachedModel(resource(), content()));
+    }
+
+    @Test
+    public void testSameContentIsCompiledOnce() {
+        DMNCompilerImpl compiler = new DMNCompilerImpl();
+        assertNull(compiler.getCachedModel(resource(), content()));
+
+        DMNModel model = compiler.compile(resource(), Collections.emptyList());
+        assertNotNull(model);
+        assertFalse(model.hasErrors());
+
+        assertSameCompilation(model, compiler.getCachedModel(resource(), content()));
+        assertSameCompilation(model, compiler.compile(resource(), Collections.emptyList()));
+        assertSameCompilation(model, new DMNCompilerImpl().compile(resource(), Collections.emptyList()));
+    }
+
+    @Test
+    public void testCachedModelIsNotShared() {
+        DMNCompilerImpl compiler = new DMNCompilerImpl();
+        DMNModelImpl model = (DMNModelImpl) compiler.compile(resource(), Collections.emptyList());
+        model.addMessage(DMNMessage.Severity.WARN, "altered by the first caller", DMNMessageType.MISSING_EXPRESSION, model.getDefinitions());
+        model.setRuntimeTypeCheck(true);
+
+        Resource other = resource();
+        DMNModelImpl cached = (DMNModelImpl) compiler.compile(other, Collections.emptyList());
+        assertSameCompilation(model, cached);
+        assertSame(other, cached.getResource());
+        assertTrue(cached.getMessages().isEmpty());
+        assertFalse(cached.isRuntimeTypeCheck());
+    }
+
+    @Test
+    public void testKieContainersOnTheSameKjarShareTheModel() {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "dmn-model-cache", "1.0.0");
+
+        KieContainer kieContainer1 = KieHelper.getKieContainer(releaseId, resource());
+        KieContainer kieContainer2 = KieHelper.getKieContainer(releaseId, resource());
+        assertNotSame(kieContainer1.getClassLoader(), kieContainer2.getClassLoader());
+
+        DMNModel model1 = kieContainer1.newKieSession().getKieRuntime(DMNRuntime.class).getModels().get(0);
+        DMNRuntime runtime2 = kieContainer2.newKieSession().getKieRuntime(DMNRuntime.class);
+        DMNModel model2 = runtime2.getModels().get(0);
+        assertSameCompilation(model1, model2);
+
+        DMNContext context = runtime2.newContext();
+        context.set("Full Name", "John Doe");
+        assertEquals("Hello John Doe", runtime2.evaluateAll(model2, context).getDecisionResultByName("Greeting Message").getResult());
+    }
+
+    @Test
+    public void testClassLoaderDefiningClassesIsAPartition() {
+        ProjectClassLoader empty = ProjectClassLoader.createProjectClassLoader(getClass().getClassLoader());
+        assertSame(getClass().getClassLoader(), DMNModelCache.getPartition(empty));
+
+        ProjectClassLoader defining = ProjectClassLoader.createProjectClassLoader(getClass().getClassLoader());
+        defining.storeClass("org.example.Person", "org/example/Person.class", new byte[0]);
+        assertSame(defining, DMNModelCache.getPartition(defining));
+    }
+
+    @Test
+    public void testDifferentConfigurationIsCompiledAgain() {
+        DMNModel model = new DMNCompilerImpl().compile(resource(), Collections.emptyList());
+
+        DMNCompilerConfigurationImpl config = (DMNCompilerConfigurationImpl) DMNFactory.newCompilerConfiguration();
+        config.setProperties(Collections.singletonMap(RuntimeTypeCheckOption.PROPERTY_NAME, "true"));
+        DMNModel typeChecked = new DMNCompilerImpl(config).compile(resource(), Collections.emptyList());
+
+        assertNotSame(model.getDecisionByName("Greeting Message"), typeChecked.getDecisionByName("Greeting Message"));
+        assertFalse(typeChecked.hasErrors());
+    }
+
+    /**
+     * The models handed out by the cache are copies sharing the compiled nodes.
+     */
+    private static void assertSameCompilation(DMNModel expected, DMNModel actual) {
+        assertNotNull(actual);
+        assertNotSame(expected, actual);
+        assertSame(expected.getDecisionByName("Greeting Message"), actual.getDecisionByName("Greeting Message"));
+    }
+
+    private String content() {
+        try {
+            return DMNCompilerImpl.readContent(resource());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Resource resource() {
+        return KieServices.Factory.get().getResources().newClassPathResource("0001-input-data-string.dmn", DMNRuntimeTest.class);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.core.compiler;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.dmn.api.core.DMNContext;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.api.core.DMNResult;
+import org.kie.dmn.api.core.DMNRuntime;
+import org.kie.dmn.core.DMNRuntimeTest;
+import org.kie.dmn.core.api.DMNFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class DecisionTreeOptionTest {
+
+    @Before
+    public void clearCache() {
+        DMNModelCache.clear();
+    }
+
+    @Test
+    public void testOptionFromCompilerConfiguration() {
+        DMNCompilerConfigurationImpl config = (DMNCompilerConfigurationImpl) DMNFactory.newCompilerConfiguration();
+        assertFalse( config.getOption( DecisionTreeOption.class ).isDecisionTree() );
+        config.setProperties( Collections.singletonMap( DecisionTreeOption.PROPERTY_NAME, "true" ) );
+        assertTrue( config.getOption( DecisionTreeOption.class ).isDecisionTree() );
+    }
+
+    @Test
+    public void testDecisionTreeEvaluatesSameResults() {
+        // literal only entries, compiled into a decision tree
+        String namespace = "http://www.trisotech.com/definitions/_ff54a44d-b8f5-48fc-b2b7-43db767e8a1c";
+        String modelName = "not quite all or nothing P";
+        DMNRuntime tableRuntime = createRuntime( "priority_table.dmn", false );
+        DMNRuntime treeRuntime = createRuntime( "priority_table.dmn", true );
+        for ( Boolean isAffordable : Arrays.asList( true, false, null ) ) {
+            for ( Object riskCategory : Arrays.asList( "Low", "Medium", "High", "Unknown", null, BigDecimal.ONE ) ) {
+                assertSameResult( tableRuntime, treeRuntime, namespace, modelName,
+                                  Arrays.asList( "isAffordable", "RiskCategory" ), Arrays.asList( isAffordable, riskCategory ) );
+            }
+        }
+
+        DMNContext context = treeRuntime.newContext();
+        context.set( "isAffordable", false );
+        context.set( "RiskCategory", "Medium" );
+        DMNResult result = treeRuntime.evaluateAll( treeRuntime.getModel( namespace, modelName ), context );
+        assertEquals( "Declined", result.getContext().get( "Approval Status" ) );
+    }
+
+    @Test
+    public void testDecisionTableWithRangesEvaluatesSameResults() {
+        // range entries, still evaluated by testing the rules in table order
+        String namespace = "https://github.com/kiegroup/kie-dmn";
+        String modelName = "0004-simpletable-U";
+        DMNRuntime tableRuntime = createRuntime( "0004-simpletable-U.dmn", false );
+        DMNRuntime treeRuntime = createRuntime( "0004-simpletable-U.dmn", true );
+        for ( BigDecimal age : Arrays.asList( BigDecimal.valueOf( 10 ), BigDecimal.valueOf( 18 ) ) ) {
+            for ( String riskCategory : Arrays.asList( "Low", "High", "ASD" ) ) {
+                assertSameResult( tableRuntime, treeRuntime, namespace, modelName,
+                                  Arrays.asList( "Age", "RiskCategory", "isAffordable" ), Arrays.asList( age, riskCategory, true ) );
+            }
+        }
+    }
+
+    private void assertSameResult(DMNRuntime tableRuntime, DMNRuntime treeRuntime, String namespace, String modelName, List<String> names, List<?> values) {
+        DMNResult expected = evaluate( tableRuntime, namespace, modelName, names, values );
+        DMNResult actual = evaluate( treeRuntime, namespace, modelName, names, values );
+        assertEquals( values.toString(), expected.getContext().getAll(), actual.getContext().getAll() );
+        assertEquals( values.toString(), expected.getMessages().size(), actual.getMessages().size() );
+    }
+
+    private DMNResult evaluate(DMNRuntime runtime, String namespace, String modelName, List<String> names, List<?> values) {
+        DMNModel model = runtime.getModel( namespace, modelName );
+        assertNotNull( model );
+        assertFalse( model.getMessages().toString(), model.hasErrors() );
+        DMNContext context = runtime.newContext();
+        for ( int i = 0; i < names.size(); i++ ) {
+            context.set( names.get( i ), values.get( i ) );
+        }
+        return runtime.evaluateAll( model, context );
+    }
+
+    private DMNRuntime createRuntime(String resource, boolean decisionTree) {
+        KieServices ks = KieServices.Factory.get();
+        KieFileSystem kfs = ks.newKieFileSystem().generateAndWritePomXML( ks.newReleaseId( "org.kie", "dmn-test-" + UUID.randomUUID(), "1.0" ) );
+        KieModuleModel kmm = ks.newKieModuleModel();
+        kmm.setConfigurationProperty( DecisionTreeOption.PROPERTY_NAME, String.valueOf( decisionTree ) );
+        kfs.writeKModuleXML( kmm.toXML() );
+        kfs.write( ks.getResources().newClassPathResource( resource, DMNRuntimeTest.class ) );
+
+        KieBuilder kieBuilder = ks.newKieBuilder( kfs ).buildAll();
+        assertFalse( kieBuilder.getResults().getMessages().toString(), kieBuilder.getResults().hasMessages( Message.Level.ERROR ) );
+        return ks.newKieContainer( kieBuilder.getKieModule().getReleaseId() ).newKieSession().getKieRuntime( DMNRuntime.class );
+    }
+}
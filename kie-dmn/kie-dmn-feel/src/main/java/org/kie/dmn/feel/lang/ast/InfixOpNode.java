@@ -74,9 +74,16 @@ public class InfixOpNode
         }
     }
 
+    // integers with up to this many digits can be added or multiplied as longs without overflowing
+    private static final int MAX_LONG_DIGITS = 18;
+
+    // returned by the primitive evaluation when the operands are not integers or the result would overflow
+    static final long NOT_A_LONG = Long.MIN_VALUE;
+
     private InfixOperator operator;
     private BaseNode      left;
     private BaseNode      right;
+    private boolean       fixedPrecision;
 
     public InfixOpNode(ParserRuleContext ctx, BaseNode left, String op, BaseNode right) {
         super( ctx );
@@ -97,6 +104,20 @@ public class InfixOpNode
         return this.operator.isBoolean();
     }
 
+    public boolean isFixedPrecision() {
+        return fixedPrecision;
+    }
+
+    /**
+     * When set, additions, subtractions and multiplications of integers are performed on longs whenever
+     * the result is guaranteed to fit, instead of going through the DECIMAL128 rounding of BigDecimal.
+     * Nested operations between literals and variables are computed entirely on longs, and only the final
+     * result is boxed. The result is the same, as a BigDecimal.
+     */
+    public void setFixedPrecision(boolean fixedPrecision) {
+        this.fixedPrecision = fixedPrecision;
+    }
+
     public BaseNode getLeft() {
         return left;
     }
@@ -160,6 +181,13 @@ public class InfixOpNode
 
     @Override
     public Object evaluate(EvaluationContext ctx) {
+        if ( isLongExpression() ) {
+            long result = evaluateLong( ctx );
+            if ( result != NOT_A_LONG ) {
+                return BigDecimal.valueOf( result );
+            }
+            // not integers or overflowing: the operands are side effect free, so they can just be evaluated again
+        }
         Object left = this.left.evaluate( ctx );
         Object right = this.right.evaluate( ctx );
         switch ( operator ) {
@@ -244,6 +272,8 @@ public class InfixOpNode
             return ((OffsetTime) left).plus( (Duration) right);
         } else if ( left instanceof Duration && right instanceof OffsetTime ) {
             return ((OffsetTime) right).plus( (Duration) left);
+        } else if ( fixedPrecision && isLongInteger( left ) && isLongInteger( right ) ) {
+            return BigDecimal.valueOf( ((BigDecimal) left).longValue() + ((BigDecimal) right).longValue() );
         } else {
             return math( left, right, ctx, (l, r) -> l.add( r, MathContext.DECIMAL128 ) );
         }
@@ -289,6 +319,8 @@ public class InfixOpNode
             return ((LocalTime) left).minus( (Duration) right);
         } else if ( left instanceof OffsetTime && right instanceof Duration ) {
             return ((OffsetTime) left).minus( (Duration) right);
+        } else if ( fixedPrecision && isLongInteger( left ) && isLongInteger( right ) ) {
+            return BigDecimal.valueOf( ((BigDecimal) left).longValue() - ((BigDecimal) right).longValue() );
         } else {
             return math( left, right, ctx, (l, r) -> l.subtract( r, MathContext.DECIMAL128 )  );
         }
@@ -309,6 +341,9 @@ public class InfixOpNode
             return Period.ofMonths( EvalHelper.getBigDecimalOrNull( left ).multiply( EvalHelper.getBigDecimalOrNull( ((Period)right).toTotalMonths() ), MathContext.DECIMAL128 ).intValue() );
         } else if ( left instanceof Period && right instanceof Period ) {
             return EvalHelper.getBigDecimalOrNull( ((Period) left).toTotalMonths() ).multiply( EvalHelper.getBigDecimalOrNull( ((Period)right).toTotalMonths() ), MathContext.DECIMAL128 );
+        } else if ( fixedPrecision && isLongInteger( left ) && isLongInteger( right )
+                    && ((BigDecimal) left).precision() + ((BigDecimal) right).precision() <= MAX_LONG_DIGITS ) {
+            return BigDecimal.valueOf( ((BigDecimal) left).longValue() * ((BigDecimal) right).longValue() );
         } else {
             return math( left, right, ctx, (l, r) -> l.multiply( r, MathContext.DECIMAL128 ) );
         }
@@ -334,6 +369,82 @@ public class InfixOpNode
         }
     }
 
+    /**
+     * True when this node is a fixed precision addition, subtraction or multiplication whose operands are only
+     * number literals, variables or other such operations, that can be evaluated on longs without side effects
+     */
+    private boolean isLongExpression() {
+        return fixedPrecision && (operator == InfixOperator.ADD || operator == InfixOperator.SUB || operator == InfixOperator.MULT)
+               && isLongOperand( left ) && isLongOperand( right );
+    }
+
+    private static boolean isLongOperand(BaseNode node) {
+        return node instanceof NumberNode || node instanceof NameRefNode
+               || ( node instanceof InfixOpNode && ((InfixOpNode) node).isLongExpression() );
+    }
+
+    private long evaluateLong(EvaluationContext ctx) {
+        long l = evaluateLong( left, ctx );
+        if ( l == NOT_A_LONG ) {
+            return NOT_A_LONG;
+        }
+        long r = evaluateLong( right, ctx );
+        if ( r == NOT_A_LONG ) {
+            return NOT_A_LONG;
+        }
+        long result;
+        switch ( operator ) {
+            case ADD:
+                result = l + r;
+                // overflow when both operands have a sign different from the result
+                return ((l ^ result) & (r ^ result)) < 0 ? NOT_A_LONG : result;
+            case SUB:
+                result = l - r;
+                // overflow when the operands have different signs and the result has not the sign of the left one
+                return ((l ^ r) & (l ^ result)) < 0 ? NOT_A_LONG : result;
+            case MULT:
+                result = l * r;
+                // same check as Math.multiplyExact, without the exception
+                if ( ((Math.abs( l ) | Math.abs( r )) >>> 31) != 0 && r != 0 && result / r != l ) {
+                    return NOT_A_LONG;
+                }
+                return result;
+            default:
+                return NOT_A_LONG;
+        }
+    }
+
+    private static long evaluateLong(BaseNode node, EvaluationContext ctx) {
+        if ( node instanceof InfixOpNode ) {
+            return ((InfixOpNode) node).evaluateLong( ctx );
+        } else if ( node instanceof NameRefNode ) {
+            String varName = ((NameRefNode) node).getVarName();
+            // an unknown variable is reported by the regular evaluation
+            return ctx.isDefined( varName ) ? longValueOf( ctx.getValue( varName ) ) : NOT_A_LONG;
+        }
+        return longValueOf( ((NumberNode) node).getValue() );
+    }
+
+    /**
+     * Returns the value as a long when it is an integer that fits in MAX_LONG_DIGITS digits, NOT_A_LONG otherwise
+     */
+    static long longValueOf(Object value) {
+        if ( value instanceof BigDecimal ) {
+            return isLongInteger( value ) ? ((BigDecimal) value).longValue() : NOT_A_LONG;
+        } else if ( value instanceof Long || value instanceof Integer ) {
+            return ((Number) value).longValue();
+        }
+        return NOT_A_LONG;
+    }
+
+    private static boolean isLongInteger(Object value) {
+        if ( !(value instanceof BigDecimal) ) {
+            return false;
+        }
+        BigDecimal number = (BigDecimal) value;
+        return number.scale() == 0 && number.precision() <= MAX_LONG_DIGITS;
+    }
+
     private Object math(Object left, Object right, EvaluationContext ctx, BinaryOperator<BigDecimal> op) {
         BigDecimal l = EvalHelper.getBigDecimalOrNull( left );
         BigDecimal r = EvalHelper.getBigDecimalOrNull( right );
@@ -30,15 +30,29 @@ public class NameRefNode
         extends BaseNode {
 
     private Type resultType;
+    private String varName;
 
     public NameRefNode(ParserRuleContext ctx, Type type) {
         super( ctx );
         this.resultType = type;
     }
 
+    @Override
+    public void setText(String text) {
+        super.setText( text );
+        this.varName = null;
+    }
+
+    String getVarName() {
+        if ( varName == null ) {
+            varName = EvalHelper.normalizeVariableName( getText() );
+        }
+        return varName;
+    }
+
     @Override
     public Object evaluate(EvaluationContext ctx) {
-        String varName = EvalHelper.normalizeVariableName( getText() );
+        String varName = getVarName();
         if( ! ctx.isDefined( varName ) ) {
             ctx.notifyEvt( astEvent( FEELEvent.Severity.ERROR, Msg.createMessage( Msg.UNKNOWN_VARIABLE_REFERENCE, getText()), null) );
             return null;
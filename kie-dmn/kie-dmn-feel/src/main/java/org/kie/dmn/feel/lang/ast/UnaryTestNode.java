@@ -19,21 +19,27 @@ package org.kie.dmn.feel.lang.ast;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.BiPredicate;
+import java.util.function.IntPredicate;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.kie.dmn.api.feel.runtime.events.FEELEvent.Severity;
 import org.kie.dmn.feel.lang.EvaluationContext;
 import org.kie.dmn.feel.runtime.Range;
+import org.kie.dmn.feel.runtime.Range.RangeBoundary;
 import org.kie.dmn.feel.runtime.UnaryTest;
 import org.kie.dmn.feel.runtime.UnaryTestImpl;
 import org.kie.dmn.feel.util.EvalHelper;
 import org.kie.dmn.feel.util.Msg;
 
+import static org.kie.dmn.feel.lang.ast.InfixOpNode.NOT_A_LONG;
+import static org.kie.dmn.feel.lang.ast.InfixOpNode.longValueOf;
+
 public class UnaryTestNode
         extends BaseNode {
 
     private UnaryOperator operator;
     private BaseNode      value;
+    private boolean       fixedPrecision;
 
     public enum UnaryOperator {
         LTE( "<=" ),
@@ -98,19 +104,31 @@ public class UnaryTestNode
         this.value = value;
     }
 
+    public boolean isFixedPrecision() {
+        return fixedPrecision;
+    }
+
+    /**
+     * When set, comparisons, equality and range tests between integers are performed on longs,
+     * without coercing the input and the endpoints through EvalHelper. The outcome is the same.
+     */
+    public void setFixedPrecision(boolean fixedPrecision) {
+        this.fixedPrecision = fixedPrecision;
+    }
+
     @Override
     public UnaryTest evaluate(EvaluationContext ctx) {
         switch ( operator ) {
             case LTE:
-                return new UnaryTestImpl( createCompareUnaryTest( (l, r) -> l.compareTo( r ) <= 0 ) , value.getText() );
+                return new UnaryTestImpl( createCompareUnaryTest( c -> c <= 0 ) , value.getText() );
             case LT:
-                return new UnaryTestImpl( createCompareUnaryTest( (l, r) -> l.compareTo( r ) < 0 ) , value.getText() );
+                return new UnaryTestImpl( createCompareUnaryTest( c -> c < 0 ) , value.getText() );
             case GT:
-                return new UnaryTestImpl( createCompareUnaryTest( (l, r) -> l.compareTo( r ) > 0 ) , value.getText() );
+                return new UnaryTestImpl( createCompareUnaryTest( c -> c > 0 ) , value.getText() );
             case GTE:
-                return new UnaryTestImpl( createCompareUnaryTest( (l, r) -> l.compareTo( r ) >= 0 ) , value.getText() );
+                return new UnaryTestImpl( createCompareUnaryTest( c -> c >= 0 ) , value.getText() );
             case EQ:
-                return new UnaryTestImpl( createIsEqualUnaryTest( ) , value.getText() );
+                return new UnaryTestImpl( createIsEqualUnaryTest( ) , value.getText(), getLiteralValue( ctx ) );
             case NE:
                 return new UnaryTestImpl( createIsNotEqualUnaryTest( ) , value.getText() );
             case IN:
@@ -124,9 +142,29 @@ public class UnaryTestNode
         return null;
     }
 
-    private UnaryTest createCompareUnaryTest( BiPredicate<Comparable, Comparable> op ) {
+    /**
+     * Returns the value of the right side of the test when it is a plain literal, null otherwise
+     */
+    private Object getLiteralValue(EvaluationContext ctx) {
+        boolean literal = value instanceof NumberNode || value instanceof StringNode || value instanceof BooleanNode ||
+                          ( value instanceof SignedUnaryNode && ((SignedUnaryNode) value).getExpression() instanceof NumberNode );
+        return literal ? value.evaluate( ctx ) : null;
+    }
+
+    /**
+     * @param test the outcome of the test, given the result of comparing the input to the value
+     */
+    private UnaryTest createCompareUnaryTest( IntPredicate test ) {
+        BiPredicate<Comparable, Comparable> op = (l, r) -> test.test( l.compareTo( r ) );
         return (context, left) -> {
             Object right = value.evaluate( context );
+            if ( fixedPrecision ) {
+                long l = longValueOf( left );
+                long r = longValueOf( right );
+                if ( l != NOT_A_LONG && r != NOT_A_LONG ) {
+                    return test.test( Long.compare( l, r ) );
+                }
+            }
             return EvalHelper.compare( left, right, context, op );
         };
     }
@@ -140,6 +178,13 @@ public class UnaryTestNode
         if (right instanceof Collection) {
             return ((Collection) right).contains(left);
         } else {
+            if ( fixedPrecision ) {
+                long l = longValueOf( left );
+                long r = longValueOf( right );
+                if ( l != NOT_A_LONG && r != NOT_A_LONG ) {
+                    return l == r;
+                }
+            }
             // evaluate single entity
             return EvalHelper.isEqual(left, right, context);
         }
@@ -168,7 +213,7 @@ public class UnaryTestNode
             Object val = value.evaluate( c );
             if (val instanceof Range) {
                 try {
-                    return ((Range) val).includes(o);
+                    return includes( (Range) val, o );
                 } catch (Exception e) {
                     c.notifyEvt(astEvent(Severity.ERROR, Msg.createMessage(Msg.EXPRESSION_IS_RANGE_BUT_VALUE_IS_NOT_COMPARABLE, o.toString(), val.toString())));
                     throw e;
@@ -181,6 +226,20 @@ public class UnaryTestNode
         };
     }
 
+    private Boolean includes(Range range, Object value) {
+        if ( fixedPrecision && range.getLowBoundary() != null && range.getHighBoundary() != null ) {
+            long v = longValueOf( value );
+            long low = longValueOf( range.getLowEndPoint() );
+            long high = longValueOf( range.getHighEndPoint() );
+            if ( v != NOT_A_LONG && low != NOT_A_LONG && high != NOT_A_LONG ) {
+                boolean aboveLow = range.getLowBoundary() == RangeBoundary.OPEN ? low < v : low <= v;
+                boolean belowHigh = range.getHighBoundary() == RangeBoundary.OPEN ? v < high : v <= high;
+                return aboveLow && belowHigh;
+            }
+        }
+        return range.includes( value );
+    }
+
     private UnaryTest createNotUnaryTest() {
         return (c, o) -> {
             Object val = value.evaluate( c );
@@ -203,7 +262,7 @@ public class UnaryTestNode
                     }
                 } else if( test instanceof Range ) {
                     try {
-                        if( ((Range)test).includes( o ) ) {
+                        if( includes( (Range) test, o ) ) {
                             return false;
                         }
                     } catch ( Exception e ) {
@@ -38,6 +38,7 @@ import org.kie.dmn.feel.lang.ast.*;
 import org.kie.dmn.feel.parser.feel11.ASTBuilderVisitor;
 import org.kie.dmn.feel.parser.feel11.FEELParser;
 import org.kie.dmn.feel.parser.feel11.FEEL_1_1Parser;
+import org.kie.dmn.feel.parser.feel11.profiles.FixedPrecisionFEELProfile;
 import org.kie.dmn.feel.runtime.FEELFunction;
 import org.kie.dmn.feel.runtime.UnaryTest;
 import org.kie.dmn.feel.util.ClassLoaderUtil;
@@ -57,6 +58,7 @@ public class FEELImpl
     // pre-cached results from the above profiles...
     private final Optional<ExecutionFrameImpl> customFrame;
     private final Collection<FEELFunction> customFunctions;
+    private final boolean fixedPrecisionArithmetic;
 
     public FEELImpl() {
         this(ClassLoaderUtil.findDefaultClassLoader(), Collections.emptyList());
@@ -83,6 +85,7 @@ public class FEELImpl
         }
         customFrame = Optional.of(frame);
         customFunctions = Collections.unmodifiableCollection(functions.values());
+        fixedPrecisionArithmetic = profiles.stream().anyMatch(FixedPrecisionFEELProfile.class::isInstance);
     }
 
     @Override
@@ -99,6 +102,7 @@ public class FEELImpl
         FEEL_1_1Parser parser = FEELParser.parse(getEventsManager(ctx.getListeners()), expression, ctx.getInputVariableTypes(), ctx.getInputVariables(), ctx.getFEELFunctions(), profiles);
         ParseTree tree = parser.compilation_unit();
         ASTBuilderVisitor v = new ASTBuilderVisitor( ctx.getInputVariableTypes() );
+        v.setFeatFixedPrecisionArithmetic( fixedPrecisionArithmetic );
         BaseNode expr = v.visit( tree );
         CompiledExpression ce = new CompiledExpressionImpl( expr );
         return ce;
@@ -108,6 +112,7 @@ public class FEELImpl
         FEEL_1_1Parser parser = FEELParser.parse(getEventsManager(ctx.getListeners()), expression, ctx.getInputVariableTypes(), ctx.getInputVariables(), ctx.getFEELFunctions(), profiles);
         ParseTree tree = parser.expressionList();
         ASTBuilderVisitor v = new ASTBuilderVisitor(ctx.getInputVariableTypes());
+        v.setFeatFixedPrecisionArithmetic(fixedPrecisionArithmetic);
         BaseNode expr = v.visit(tree);
         CompiledExpression ce = new CompiledExpressionImpl(expr);
         return ce;
@@ -204,11 +209,11 @@ public class FEELImpl
                 } else if ( o instanceof UnaryTestNode || o instanceof DashNode ) {
                     tests.add( o );
                 } else if (o instanceof RangeNode || o instanceof ListNode) {
-                    tests.add( new UnaryTestNode( UnaryTestNode.UnaryOperator.IN, o) );
+                    tests.add( newUnaryTestNode( UnaryTestNode.UnaryOperator.IN, o) );
                 } else if ( isExtendedUnaryTest( o ) ) {
-                    tests.add( new UnaryTestNode( UnaryTestNode.UnaryOperator.TEST, o ) );
+                    tests.add( newUnaryTestNode( UnaryTestNode.UnaryOperator.TEST, o ) );
                 } else {
-                    tests.add( new UnaryTestNode( UnaryTestNode.UnaryOperator.EQ, o ) );
+                    tests.add( newUnaryTestNode( UnaryTestNode.UnaryOperator.EQ, o ) );
                 }
             }
             listNode.setElements( tests );
@@ -221,6 +226,12 @@ public class FEELImpl
         return Collections.emptyList();
     }
 
+    private UnaryTestNode newUnaryTestNode(UnaryTestNode.UnaryOperator op, BaseNode value) {
+        UnaryTestNode test = new UnaryTestNode( op, value );
+        test.setFixedPrecision( fixedPrecisionArithmetic );
+        return test;
+    }
+
     private boolean isExtendedUnaryTest(ASTNode o) {
         if( o instanceof NameRefNode && "?".equals(((NameRefNode)o).getText()) ) {
             return true;
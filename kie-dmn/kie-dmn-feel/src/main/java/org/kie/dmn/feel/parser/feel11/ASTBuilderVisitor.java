@@ -55,6 +55,7 @@ public class ASTBuilderVisitor
         extends FEEL_1_1BaseVisitor<BaseNode> {
     
     private ScopeHelper scopeHelper;
+    private boolean featFixedPrecisionArithmetic;
 
     private static class ScopeHelper {
         Deque<Map<String, Type>> stack;
@@ -94,6 +95,14 @@ public class ASTBuilderVisitor
         this.scopeHelper.addTypes(inputTypes);
     }
 
+    public boolean isFeatFixedPrecisionArithmetic() {
+        return featFixedPrecisionArithmetic;
+    }
+
+    public void setFeatFixedPrecisionArithmetic(boolean featFixedPrecisionArithmetic) {
+        this.featFixedPrecisionArithmetic = featFixedPrecisionArithmetic;
+    }
+
     @Override
     public BaseNode visitNumberLiteral(FEEL_1_1Parser.NumberLiteralContext ctx) {
         return ASTBuilderFactory.newNumberNode( ctx );
@@ -153,7 +162,9 @@ public class ASTBuilderVisitor
         BaseNode left = visit( ctx.multiplicativeExpression() );
         BaseNode right = visit( ctx.powerExpression() );
         String op = ctx.op.getText();
-        return ASTBuilderFactory.newInfixOpNode( ctx, left, op, right );
+        InfixOpNode infix = ASTBuilderFactory.newInfixOpNode( ctx, left, op, right );
+        infix.setFixedPrecision( featFixedPrecisionArithmetic );
+        return infix;
     }
 
     @Override
@@ -161,7 +172,9 @@ public class ASTBuilderVisitor
         BaseNode left = visit( ctx.additiveExpression() );
         BaseNode right = visit( ctx.multiplicativeExpression() );
         String op = ctx.op.getText();
-        return ASTBuilderFactory.newInfixOpNode( ctx, left, op, right );
+        InfixOpNode infix = ASTBuilderFactory.newInfixOpNode( ctx, left, op, right );
+        infix.setFixedPrecision( featFixedPrecisionArithmetic );
+        return infix;
     }
 
     @Override
@@ -203,7 +216,7 @@ public class ASTBuilderVisitor
     public BaseNode visitPositiveUnaryTestIneq(FEEL_1_1Parser.PositiveUnaryTestIneqContext ctx) {
         BaseNode value = visit( ctx.endpoint() );
         String op = ctx.op.getText();
-        return ASTBuilderFactory.newUnaryTestNode( ctx, op, value );
+        return newUnaryTestNode( ctx, op, value );
     }
 
     @Override
@@ -501,7 +514,7 @@ public class ASTBuilderVisitor
             // if it is a single parameter, we need to check if the type is boolean
             BaseNode param = params.getElements().get( 0 );
             if( param instanceof UnaryTestNode ) {
-                return ASTBuilderFactory.newUnaryTestNode( ctx, "not", params );
+                return newUnaryTestNode( ctx, "not", params );
             } else if( param instanceof BooleanNode ) {
                 return ASTBuilderFactory.newFunctionInvocationNode( ctx, name, params );
             } else if( param instanceof NameRefNode ) {
@@ -517,17 +530,23 @@ public class ASTBuilderVisitor
             } else if( param instanceof InfixOpNode && ((InfixOpNode)param).isBoolean() ) {
                 return ASTBuilderFactory.newFunctionInvocationNode( ctx, name, params );
             } else if( param instanceof RangeNode ) {
-                return ASTBuilderFactory.newUnaryTestNode( ctx, "not", params );
+                return newUnaryTestNode( ctx, "not", params );
             } else if( param instanceof DashNode ) {
-                return ASTBuilderFactory.newUnaryTestNode( ctx, "not", params );
+                return newUnaryTestNode( ctx, "not", params );
             } else {
-                return ASTBuilderFactory.newUnaryTestNode( ctx, "not", params );
+                return newUnaryTestNode( ctx, "not", params );
             }
         } else {
-            return ASTBuilderFactory.newUnaryTestNode( ctx, "not", params );
+            return newUnaryTestNode( ctx, "not", params );
         }
     }
 
+    private UnaryTestNode newUnaryTestNode(ParserRuleContext ctx, String op, BaseNode value) {
+        UnaryTestNode test = ASTBuilderFactory.newUnaryTestNode( ctx, op, value );
+        test.setFixedPrecision( featFixedPrecisionArithmetic );
+        return test;
+    }
+
     @Override
     public TypeNode visitType(FEEL_1_1Parser.TypeContext ctx) {
         return ASTBuilderFactory.newTypeNode( ctx );
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.parser.feel11.profiles;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.kie.dmn.feel.lang.FEELProfile;
+import org.kie.dmn.feel.runtime.FEELFunction;
+
+/**
+ * Enables the fixed precision fast path for the arithmetic of integers: additions, subtractions and
+ * multiplications whose result is guaranteed to fit in a long are computed on longs instead of BigDecimals.
+ * Results are unchanged, since such operations are exact in DECIMAL128 too.
+ */
+public class FixedPrecisionFEELProfile implements FEELProfile {
+
+    @Override
+    public List<FEELFunction> getFEELFunctions() {
+        return Collections.emptyList();
+    }
+
+}
@@ -21,10 +21,23 @@ import org.kie.dmn.feel.lang.EvaluationContext;
 public class UnaryTestImpl implements UnaryTest {
     private final String text;
     private final UnaryTest delegate;
+    private final Object equalityValue;
    
     public UnaryTestImpl(UnaryTest delegate, String text) {
+        this(delegate, text, null);
+    }
+
+    /**
+     * @param equalityValue the literal value this test checks the equality against, when it is known at compile time
+     */
+    public UnaryTestImpl(UnaryTest delegate, String text, Object equalityValue) {
         this.text = text;
         this.delegate = delegate;
+        this.equalityValue = equalityValue;
+    }
+
+    public Object getEqualityValue() {
+        return equalityValue;
     }
    
     @Override
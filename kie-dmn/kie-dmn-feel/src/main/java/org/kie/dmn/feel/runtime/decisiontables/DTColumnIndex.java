@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.dmn.feel.lang.ast.DashNode.DashUnaryTest;
+import org.kie.dmn.feel.runtime.UnaryTest;
+import org.kie.dmn.feel.runtime.UnaryTestImpl;
+
+/**
+ * Indexes the input entries of all the rules of a decision table for a single input.
+ * Rules are identified by their position in the decision table.
+ *
+ * Entries made only of equality tests against literals are hashed by those literals, so that the rules
+ * they belong to can be found with a single lookup. Entries containing a dash are satisfied by any value.
+ * All the other entries are opaque and still have to be evaluated.
+ */
+class DTColumnIndex {
+
+    private final int column;
+
+    // rules whose entry is satisfied by any value
+    private final BitSet anyValue = new BitSet();
+    // rules whose entry has to be evaluated
+    private final BitSet opaque = new BitSet();
+    // rules whose entry is indexed by value
+    private final BitSet indexed = new BitSet();
+    private final Map<Object, BitSet> byValue = new HashMap<>();
+    private Class<?> keyType;
+
+    private DTColumnIndex(int column) {
+        this.column = column;
+    }
+
+    static DTColumnIndex build(List<DTDecisionRule> rules, int column) {
+        DTColumnIndex index = new DTColumnIndex( column );
+        for ( int i = 0; i < rules.size(); i++ ) {
+            index.add( i, rules.get( i ).getInputEntry().get( column ) );
+        }
+        return index;
+    }
+
+    private void add(int ruleIndex, UnaryTest entry) {
+        List<UnaryTest> tests = entry instanceof DTInputEntry ? ((DTInputEntry) entry).getTests() : Collections.singletonList( entry );
+        if ( tests.stream().anyMatch( DashUnaryTest.class::isInstance ) ) {
+            anyValue.set( ruleIndex );
+            return;
+        }
+        Object[] keys = new Object[tests.size()];
+        for ( int i = 0; i < keys.length; i++ ) {
+            keys[i] = toKey( tests.get( i ) );
+            if ( keys[i] == null || ( keyType != null && keyType != keys[i].getClass() ) ) {
+                opaque.set( ruleIndex );
+                return;
+            }
+            keyType = keys[i].getClass();
+        }
+        if ( keys.length == 0 ) {
+            // an empty entry never matches, but its evaluation may still notify events
+            opaque.set( ruleIndex );
+            return;
+        }
+        for ( Object key : keys ) {
+            byValue.computeIfAbsent( key, k -> new BitSet() ).set( ruleIndex );
+        }
+        indexed.set( ruleIndex );
+    }
+
+    private static Object toKey(UnaryTest test) {
+        if ( test instanceof UnaryTestImpl ) {
+            Object value = ((UnaryTestImpl) test).getEqualityValue();
+            if ( value instanceof String || value instanceof Boolean ) {
+                return value;
+            }
+            if ( value instanceof BigDecimal ) {
+                return ((BigDecimal) value).stripTrailingZeros();
+            }
+        }
+        return null;
+    }
+
+    int getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns true when no entry has to be evaluated, so that the rules matching any value of the key type
+     * can be found without evaluating any unary test
+     */
+    boolean isTranslatable() {
+        return opaque.isEmpty();
+    }
+
+    /**
+     * Returns the rules whose entry is satisfied by any value
+     */
+    BitSet getAnyValue() {
+        return anyValue;
+    }
+
+    /**
+     * Returns the rules whose entry is indexed, grouped by the literals satisfying their entry
+     */
+    Map<Object, BitSet> getByValue() {
+        return byValue;
+    }
+
+    /**
+     * Estimates how many rules are still candidates after testing this input, assuming that the input values
+     * are evenly distributed among the indexed literals and that all the other entries are satisfied
+     */
+    double estimatedMatches() {
+        double indexedMatches = byValue.isEmpty() ? 0 : (double) indexed.cardinality() / byValue.size();
+        return anyValue.cardinality() + opaque.cardinality() + indexedMatches;
+    }
+
+    /**
+     * Returns the subset of the given candidates that certainly match the given input value
+     */
+    BitSet matching(BitSet candidates, Object value) {
+        BitSet result = (BitSet) anyValue.clone();
+        if ( isIndexable( value ) ) {
+            BitSet hit = byValue.get( keyOf( value ) );
+            if ( hit != null ) {
+                result.or( hit );
+            }
+        }
+        result.and( candidates );
+        return result;
+    }
+
+    /**
+     * Returns the subset of the given candidates whose entry has to be evaluated against the given input value
+     */
+    BitSet toBeEvaluated(BitSet candidates, Object value) {
+        BitSet result = (BitSet) opaque.clone();
+        if ( !isIndexable( value ) ) {
+            // the equality semantic for a value of a different type has to be evaluated by the tests themselves
+            result.or( indexed );
+        }
+        result.and( candidates );
+        return result;
+    }
+
+    /**
+     * Returns true when the given input value can be looked up by value, that is when it has the same type
+     * of the indexed literals
+     */
+    boolean isIndexable(Object value) {
+        return value != null && value.getClass() == keyType;
+    }
+
+    /**
+     * Returns the key of an indexable input value, where the numbers equal by value are the same
+     */
+    static Object keyOf(Object value) {
+        return value instanceof BigDecimal ? ((BigDecimal) value).stripTrailingZeros() : value;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rules of a decision table compiled into a decision tree, whose nodes branch on the value of an input
+ * and whose leaves hold the matching rules. Rules are identified by their position in the decision table.
+ *
+ * Only the tables whose input entries are all literals or dashes can be compiled, since the matching rules are
+ * then found by looking up the input values, without evaluating any unary test. The subtrees reached by the same
+ * rules are shared, and a tree growing over {@link #MAX_NODES} nodes is not compiled.
+ */
+public class DTDecisionTree {
+
+    public static final int MAX_NODES = 10000;
+
+    private static final Node NO_MATCH = new Node( new BitSet() );
+
+    private final Node root;
+    private final int size;
+
+    private DTDecisionTree(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Compiles the given rules into a decision tree
+     * @param rules the rules of the decision table
+     * @param inputs the number of inputs of the decision table
+     * @return the decision tree, or null if the input entries of the rules can't be translated into a tree
+     */
+    public static DTDecisionTree compile(List<DTDecisionRule> rules, int inputs) {
+        if ( rules.isEmpty() ) {
+            return null;
+        }
+        DTColumnIndex[] indexes = new DTColumnIndex[ inputs ];
+        for ( int i = 0; i < inputs; i++ ) {
+            indexes[i] = DTColumnIndex.build( rules, i );
+            if ( !indexes[i].isTranslatable() ) {
+                return null;
+            }
+        }
+        // branching first on the most selective inputs keeps the tree smaller, the order doesn't change the matches
+        Arrays.sort( indexes, Comparator.comparingDouble( DTColumnIndex::estimatedMatches ) );
+        Builder builder = new Builder( indexes );
+        BitSet all = new BitSet( rules.size() );
+        all.set( 0, rules.size() );
+        Node root = builder.build( all, 0 );
+        return root != null ? new DTDecisionTree( root, builder.size ) : null;
+    }
+
+    /**
+     * Finds the rules matching the given input values
+     * @param inputs the values of the inputs of the decision table, in table order
+     * @return the positions of the matching rules, or null if some input value has not the same type of the
+     *         literals it should be compared with, and then the unary tests of the rules have to be evaluated
+     */
+    public BitSet match(Object[] inputs) {
+        Node node = root;
+        while ( node.index != null ) {
+            if ( node.children.isEmpty() ) {
+                // only entries satisfied by any value are left for this input
+                node = node.otherwise;
+                continue;
+            }
+            Object value = inputs[ node.index.getColumn() ];
+            if ( !node.index.isIndexable( value ) ) {
+                return null;
+            }
+            Node child = node.children.get( DTColumnIndex.keyOf( value ) );
+            node = child != null ? child : node.otherwise;
+        }
+        return (BitSet) node.matches.clone();
+    }
+
+    /**
+     * Returns the number of distinct nodes of this tree
+     */
+    public int size() {
+        return size;
+    }
+
+    private static class Node {
+        private final DTColumnIndex index;
+        private final Map<Object, Node> children;
+        private final Node otherwise;
+        private final BitSet matches;
+
+        private Node(DTColumnIndex index, Map<Object, Node> children, Node otherwise) {
+            this.index = index;
+            this.children = children;
+            this.otherwise = otherwise;
+            this.matches = null;
+        }
+
+        private Node(BitSet matches) {
+            this.index = null;
+            this.children = Collections.emptyMap();
+            this.otherwise = null;
+            this.matches = matches;
+        }
+    }
+
+    private static class Builder {
+        private final DTColumnIndex[] indexes;
+        // the nodes already built for the same candidate rules at the same depth
+        private final List<Map<BitSet, Node>> built = new ArrayList<>();
+        private int size;
+
+        private Builder(DTColumnIndex[] indexes) {
+            this.indexes = indexes;
+            for ( int i = 0; i <= indexes.length; i++ ) {
+                built.add( new HashMap<>() );
+            }
+        }
+
+        private Node build(BitSet candidates, int depth) {
+            if ( candidates.isEmpty() ) {
+                return NO_MATCH;
+            }
+            Node node = built.get( depth ).get( candidates );
+            if ( node != null ) {
+                return node;
+            }
+            if ( ++size > MAX_NODES ) {
+                return null;
+            }
+            if ( depth == indexes.length ) {
+                node = new Node( candidates );
+            } else {
+                DTColumnIndex index = indexes[depth];
+                BitSet anyValue = (BitSet) index.getAnyValue().clone();
+                anyValue.and( candidates );
+                Node otherwise = build( anyValue, depth + 1 );
+                if ( otherwise == null ) {
+                    return null;
+                }
+                Map<Object, Node> children = new HashMap<>();
+                for ( Map.Entry<Object, BitSet> entry : index.getByValue().entrySet() ) {
+                    BitSet matching = (BitSet) entry.getValue().clone();
+                    matching.and( candidates );
+                    if ( matching.isEmpty() ) {
+                        continue;
+                    }
+                    matching.or( anyValue );
+                    Node child = build( matching, depth + 1 );
+                    if ( child == null ) {
+                        return null;
+                    }
+                    children.put( entry.getKey(), child );
+                }
+                node = new Node( index, children, otherwise );
+            }
+            built.get( depth ).put( candidates, node );
+            return node;
+        }
+    }
+}
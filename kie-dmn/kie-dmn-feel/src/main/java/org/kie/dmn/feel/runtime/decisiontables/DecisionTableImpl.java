@@ -17,6 +17,7 @@
 package org.kie.dmn.feel.runtime.decisiontables;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -58,6 +59,8 @@ public class DecisionTableImpl {
 
     private FEEL feel;
 
+    private volatile DTColumnIndex[] columnIndexes;
+
     public DecisionTableImpl(String name,
                              List<String> parameterNames,
                              List<DTInputClause> inputs,
@@ -83,6 +86,20 @@ public class DecisionTableImpl {
      * @return
      */
     public FEELFnResult<Object> evaluate(EvaluationContext ctx, Object[] params) {
+        return evaluate( ctx, params, null );
+    }
+
+    /**
+     * Evaluates this decision table returning the result, finding the matching rules with the given decision tree
+     * whenever it can decide them
+     * @param ctx
+     * @param params these are the required information items, not to confuse with the columns of the
+     *               decision table that are expressions derived from these parameters
+     * @param decisionTree the decision tree compiled from this decision table, or null to test the rules in table order
+     * @return
+     * @see #compileDecisionTree()
+     */
+    public FEELFnResult<Object> evaluate(EvaluationContext ctx, Object[] params, DTDecisionTree decisionTree) {
         if ( decisionRules.isEmpty() ) {
             return FEELFnResult.ofError(new FEELEventBase(Severity.WARN, "Decision table is empty", null));
         }
@@ -94,7 +111,7 @@ public class DecisionTableImpl {
             return actualInputMatch.cata( e -> FEELFnResult.ofError(e), e -> FEELFnResult.ofError(null) );
         }
 
-        List<DTDecisionRule> matches = findMatches( ctx, actualInputs );
+        List<DTDecisionRule> matches = findMatches( ctx, actualInputs, decisionTree );
         if( !matches.isEmpty() ) {
             List<Object> results = evaluateResults( ctx, feel, actualInputs, matches );
             Map<Integer, String> msgs = checkResults( ctx, matches, results );
@@ -234,15 +251,23 @@ public class DecisionTableImpl {
      *
      * @param ctx
      * @param params
+     * @param decisionTree
      * @return
      */
-    private List<DTDecisionRule> findMatches(EvaluationContext ctx, Object[] params) {
-        List<DTDecisionRule> matchingDecisionRules = new ArrayList<>();
-        for ( DTDecisionRule decisionRule : decisionRules ) {
-            if ( matches( ctx, params, decisionRule ) ) {
-                matchingDecisionRules.add( decisionRule );
+    private List<DTDecisionRule> findMatches(EvaluationContext ctx, Object[] params, DTDecisionTree decisionTree) {
+        BitSet candidates = decisionTree != null ? decisionTree.match( params ) : null;
+        if ( candidates == null ) {
+            DTColumnIndex[] indexes = getColumnIndexes();
+            candidates = new BitSet( decisionRules.size() );
+            candidates.set( 0, decisionRules.size() );
+            for ( int i = 0; i < params.length && !candidates.isEmpty(); i++ ) {
+                candidates = matches( ctx, params[i], indexes[i], candidates );
             }
         }
+        List<DTDecisionRule> matchingDecisionRules = new ArrayList<>();
+        for ( int i = candidates.nextSetBit( 0 ); i >= 0; i = candidates.nextSetBit( i + 1 ) ) {
+            matchingDecisionRules.add( decisionRules.get( i ) );
+        }
         ctx.notifyEvt( () -> {
             List<Integer> matches = matchingDecisionRules.stream().map( dr -> dr.getIndex() + 1 ).collect( Collectors.toList() );
             return new DecisionTableRulesMatchedEvent(FEELEvent.Severity.INFO,
@@ -256,23 +281,49 @@ public class DecisionTableImpl {
     }
 
     /**
-     * Checks if the parameters match a single rule
+     * Checks which of the candidate rules match a single parameter. The rules whose input entry is
+     * indexed are selected by value, while only the remaining ones have their unary tests evaluated.
      * @param ctx
-     * @param params
-     * @param rule
-     * @return
+     * @param param
+     * @param index the index of the input entries for the column of the parameter
+     * @param candidates the rules matching all the previous parameters
+     * @return the candidate rules matching also this parameter
      */
-    private boolean matches(EvaluationContext ctx, Object[] params, DTDecisionRule rule) {
-        for( int i = 0; i < params.length; i++ ) {
-            CompiledExpression compiledInput = inputs.get(i).getCompiledInput();
-            if ( compiledInput instanceof CompiledExpressionImpl ) {
-                ctx.setValue("?", ((CompiledExpressionImpl) compiledInput).evaluate(ctx));
+    private BitSet matches(EvaluationContext ctx, Object param, DTColumnIndex index, BitSet candidates) {
+        int column = index.getColumn();
+        CompiledExpression compiledInput = inputs.get( column ).getCompiledInput();
+        if ( compiledInput instanceof CompiledExpressionImpl ) {
+            ctx.setValue("?", ((CompiledExpressionImpl) compiledInput).evaluate(ctx));
+        }
+        BitSet matching = index.matching( candidates, param );
+        BitSet toBeEvaluated = index.toBeEvaluated( candidates, param );
+        for ( int i = toBeEvaluated.nextSetBit( 0 ); i >= 0; i = toBeEvaluated.nextSetBit( i + 1 ) ) {
+            if ( satisfies( ctx, param, decisionRules.get( i ).getInputEntry().get( column ) ) ) {
+                matching.set( i );
             }
-            if( ! satisfies( ctx, params[i], rule.getInputEntry().get( i ) ) ) {
-                return false;
+        }
+        return matching;
+    }
+
+    private DTColumnIndex[] getColumnIndexes() {
+        DTColumnIndex[] indexes = columnIndexes;
+        if ( indexes == null ) {
+            indexes = new DTColumnIndex[ inputs.size() ];
+            for ( int i = 0; i < indexes.length; i++ ) {
+                indexes[i] = DTColumnIndex.build( decisionRules, i );
             }
+            columnIndexes = indexes;
         }
-        return true;
+        return indexes;
+    }
+
+    /**
+     * Compiles the rules of this decision table into a decision tree, which finds the matching rules by looking up
+     * the input values when all the input entries are literals or dashes
+     * @return the decision tree, or null if some input entry has to be evaluated
+     */
+    public DTDecisionTree compileDecisionTree() {
+        return DTDecisionTree.compile( decisionRules, inputs.size() );
     }
 
     /**
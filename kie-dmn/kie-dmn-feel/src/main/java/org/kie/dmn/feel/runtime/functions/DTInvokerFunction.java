@@ -19,6 +19,7 @@ package org.kie.dmn.feel.runtime.functions;
 import org.kie.dmn.api.feel.runtime.events.FEELEvent;
 import org.kie.dmn.api.feel.runtime.events.FEELEvent.Severity;
 import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.runtime.decisiontables.DTDecisionTree;
 import org.kie.dmn.feel.runtime.decisiontables.DecisionTableImpl;
 import org.kie.dmn.feel.runtime.events.FEELEventBase;
 import org.kie.dmn.feel.runtime.functions.FEELFnResult;
@@ -33,10 +34,20 @@ public class DTInvokerFunction
     private static final Logger logger = LoggerFactory.getLogger( DTInvokerFunction.class );
 
     private final DecisionTableImpl dt;
+    private final DTDecisionTree decisionTree;
 
     public DTInvokerFunction(DecisionTableImpl dt) {
+        this( dt, null );
+    }
+
+    /**
+     * @param dt the decision table to invoke
+     * @param decisionTree the decision tree compiled from the decision table, or null to test its rules in table order
+     */
+    public DTInvokerFunction(DecisionTableImpl dt, DTDecisionTree decisionTree) {
         super( dt.getName() );
         this.dt = dt;
+        this.decisionTree = decisionTree;
     }
 
     public FEELFnResult<Object> invoke(EvaluationContext ctx, Object[] params) {
@@ -46,7 +57,7 @@ public class DTInvokerFunction
             for( int i = 0; i < params.length; i++ ) {
                 ctx.setValue( dt.getParameterNames().get( i ), params[i] );
             }
-            return dt.evaluate( ctx, params );
+            return dt.evaluate( ctx, params, decisionTree );
         } catch ( Exception e ) {
             String message = "Error invoking decision table '" + getName() + "': " + e.getClass().getSimpleName();
             capturedException = new FEELEventBase( Severity.ERROR, message, e);
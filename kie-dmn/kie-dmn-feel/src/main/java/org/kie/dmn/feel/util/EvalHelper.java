@@ -32,6 +32,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiPredicate;
@@ -48,6 +49,14 @@ public class EvalHelper {
     public static final Logger LOG = LoggerFactory.getLogger( EvalHelper.class );
     private static final Pattern SPACES_PATTERN = Pattern.compile( "[\\s\u00A0]+" );
 
+    // the accessors are attached to the Class itself, so they go away together with its ClassLoader
+    private static final ClassValue<Map<String, Optional<Method>>> ACCESSORS_CACHE = new ClassValue<Map<String, Optional<Method>>>() {
+        @Override
+        protected Map<String, Optional<Method>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     public static String normalizeVariableName(String name) {
         return SPACES_PATTERN.matcher( name.trim() ).replaceAll( " " );
     }
@@ -307,11 +316,16 @@ public class EvalHelper {
 
     /**
      * FEEL annotated or else Java accessor.
+     * The result of the lookup, including a missing accessor, is cached per class and property name.
      * @param clazz
      * @param field
      * @return
      */
     public static Method getGenericAccessor(Class<?> clazz, String field) {
+        return ACCESSORS_CACHE.get( clazz ).computeIfAbsent( field, f -> Optional.ofNullable( lookupGenericAccessor( clazz, f ) ) ).orElse( null );
+    }
+
+    private static Method lookupGenericAccessor(Class<?> clazz, String field) {
         LOG.trace( "getGenericAccessor({}, {})", clazz, field );
         return Stream.of( clazz.getMethods() )
                 .filter( m -> Optional.ofNullable( m.getAnnotation( FEELProperty.class ) )
@@ -319,7 +333,7 @@ public class EvalHelper {
                         .orElse( false )
                 )
                 .findFirst()
-                .orElse( getAccessor( clazz, field ) );
+                .orElseGet( () -> getAccessor( clazz, field ) );
     }
 
     /**
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.CompilerContext;
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.impl.CompiledExpressionImpl;
+import org.kie.dmn.feel.lang.impl.FEELImpl;
+import org.kie.dmn.feel.lang.types.BuiltInType;
+import org.kie.dmn.feel.parser.feel11.profiles.FixedPrecisionFEELProfile;
+import org.kie.dmn.feel.runtime.UnaryTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the evaluation of integer arithmetic and of unary tests with and without the FixedPrecisionFEELProfile.
+ * Run it with -prof gc to compare the allocations too.
+ */
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FixedPrecisionArithmeticBenchmark {
+
+    @Param({"true", "false"})
+    private boolean fixedPrecision;
+
+    @Param({"a + b", "a * b - c", "(a + b) * (c - 2) + a * 3", "a * 1.5 + b"})
+    private String expression;
+
+    @Param({"< 1000, [1000..5000), >= 5000"})
+    private String unaryTests;
+
+    private CompiledExpressionImpl compiledExpression;
+    private List<UnaryTest> compiledUnaryTests;
+    private EvaluationContext evaluationContext;
+    private BigDecimal[] testedValues;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FEELImpl feel = (FEELImpl) ( fixedPrecision ? FEEL.newInstance( Collections.singletonList( new FixedPrecisionFEELProfile() ) ) : FEEL.newInstance() );
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put( "a", new BigDecimal( "1234" ) );
+        inputs.put( "b", new BigDecimal( "5678" ) );
+        inputs.put( "c", new BigDecimal( "42" ) );
+        CompilerContext compilerContext = feel.newCompilerContext();
+        inputs.keySet().forEach( name -> compilerContext.addInputVariableType( name, BuiltInType.NUMBER ) );
+        compiledExpression = (CompiledExpressionImpl) feel.compile( expression, compilerContext );
+        compiledUnaryTests = feel.evaluateUnaryTests( unaryTests );
+        evaluationContext = feel.newEvaluationContext( Collections.emptySet(), inputs );
+        testedValues = new BigDecimal[] { new BigDecimal( "10" ), new BigDecimal( "2500" ), new BigDecimal( "7500" ), new BigDecimal( "3.5" ) };
+    }
+
+    @Benchmark
+    public Object evaluateExpression() {
+        return compiledExpression.evaluate( evaluationContext );
+    }
+
+    @Benchmark
+    public void evaluateUnaryTests(Blackhole bh) {
+        for ( BigDecimal value : testedValues ) {
+            for ( UnaryTest test : compiledUnaryTests ) {
+                bh.consume( test.apply( evaluationContext, value ) );
+            }
+        }
+    }
+}
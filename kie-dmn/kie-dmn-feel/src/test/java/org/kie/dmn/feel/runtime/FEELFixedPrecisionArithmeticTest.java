@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.parser.feel11.profiles.FixedPrecisionFEELProfile;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class FEELFixedPrecisionArithmeticTest {
+
+    private final FEEL feel = FEEL.newInstance();
+    private final FEEL fixedPrecisionFeel = FEEL.newInstance(Arrays.asList(new FixedPrecisionFEELProfile()));
+
+    private static final Map<String, Object> INPUTS = new HashMap<>();
+
+    static {
+        INPUTS.put( "a", new BigDecimal( "3000000000" ) );
+        INPUTS.put( "b", new BigDecimal( "-4000000000" ) );
+        INPUTS.put( "c", new BigDecimal( "1.5" ) );
+        INPUTS.put( "d", null );
+        INPUTS.put( "e", 7 );
+    }
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        final Object[][] cases = new Object[][] {
+                { "10+5" },
+                { "(10 + 20) - (-5 + 3)" },
+                { "(10 + 20) * (-5 * 3)" },
+                { "10 + 20 / ( -5 - 3 )" },
+                { "1.2*10**3" },
+                { "1.5 + 2" },
+                { "0.1 * 3" },
+                { "123456789 * 987654321" },
+                { "999999999999999999 + 999999999999999999" },
+                { "999999999999999999 * 999999999999999999" },
+                { "-999999999999999999 - 999999999999999999" },
+                { "9223372036854775807 + 1" },
+                { "1E+3 + 1" },
+                { "10 * null" },
+                { "a + b * 2 - 10" },
+                { "(a - b) * (a + 1)" },
+                { "a * b * a" },
+                { "a * a * a * a" },
+                { "a * (b + c)" },
+                { "a + d" },
+                { "a * e - e" },
+                { "a + unknown" },
+        };
+        return Arrays.asList( cases );
+    }
+
+    @Parameterized.Parameter(0)
+    public String expression;
+
+    @Test
+    public void testSameResultAsDecimal128() {
+        Object expected = feel.evaluate( expression, INPUTS );
+        Object actual = fixedPrecisionFeel.evaluate( expression, INPUTS );
+        assertThat( "Evaluating: '" + expression + "'", actual, is( expected ) );
+        if ( expected instanceof BigDecimal ) {
+            assertThat( ((BigDecimal) actual).scale(), is( ((BigDecimal) expected).scale() ) );
+        }
+    }
+}
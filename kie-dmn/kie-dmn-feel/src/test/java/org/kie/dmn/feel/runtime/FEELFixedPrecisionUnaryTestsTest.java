@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.EvaluationContext;
+import org.kie.dmn.feel.lang.impl.FEELImpl;
+import org.kie.dmn.feel.parser.feel11.profiles.FixedPrecisionFEELProfile;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class FEELFixedPrecisionUnaryTestsTest {
+
+    private final FEELImpl feel = (FEELImpl) FEEL.newInstance();
+    private final FEELImpl fixedPrecisionFeel = (FEELImpl) FEEL.newInstance(Arrays.asList(new FixedPrecisionFEELProfile()));
+
+    @Parameterized.Parameters(name = "{index}: {1} matches {0}")
+    public static Collection<Object[]> data() {
+        final Object[][] cases = new Object[][] {
+                { "< 10", new BigDecimal( "9" ) },
+                { "< 10", new BigDecimal( "10" ) },
+                { "<= 10", new BigDecimal( "10" ) },
+                { "> 10", new BigDecimal( "10.5" ) },
+                { ">= -10", new BigDecimal( "-10" ) },
+                { "> 999999999999999999", new BigDecimal( "9999999999999999999" ) },
+                { "< 10", 9 },
+                { "< 10", null },
+                { "< 10", "9" },
+                { "10", new BigDecimal( "10" ) },
+                { "10", new BigDecimal( "10.0" ) },
+                { "10", 10L },
+                { "!= 10", new BigDecimal( "11" ) },
+                { "1, 2, 3", new BigDecimal( "2" ) },
+                { "[1..10]", new BigDecimal( "1" ) },
+                { "(1..10]", new BigDecimal( "1" ) },
+                { "[1..10)", new BigDecimal( "10" ) },
+                { "]1..10[", new BigDecimal( "5" ) },
+                { "[1..10]", new BigDecimal( "10.5" ) },
+                { "[1..1.5]", new BigDecimal( "1" ) },
+                { "not([1..10])", new BigDecimal( "5" ) },
+                { "not([1..10])", new BigDecimal( "11" ) },
+                { "not(< 10)", new BigDecimal( "5" ) },
+                { "< 5 + 5", new BigDecimal( "9" ) },
+        };
+        return Arrays.asList( cases );
+    }
+
+    @Parameterized.Parameter(0)
+    public String tests;
+
+    @Parameterized.Parameter(1)
+    public Object input;
+
+    @Test
+    public void testSameOutcomeAsDecimal128() {
+        assertThat( "Testing " + input + " against '" + tests + "'", apply( fixedPrecisionFeel ), is( apply( feel ) ) );
+    }
+
+    private List<Boolean> apply(FEELImpl feel) {
+        EvaluationContext ctx = feel.newEvaluationContext( Collections.emptySet(), Collections.emptyMap() );
+        return feel.evaluateUnaryTests( tests ).stream().map( t -> {
+            try {
+                return t.apply( ctx, input );
+            } catch ( RuntimeException e ) {
+                return null;
+            }
+        } ).collect( Collectors.toList() );
+    }
+}
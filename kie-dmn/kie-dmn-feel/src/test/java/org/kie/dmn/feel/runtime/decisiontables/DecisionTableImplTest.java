@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.decisiontables;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.impl.FEELImpl;
+import org.kie.dmn.feel.lang.types.BuiltInType;
+import org.kie.dmn.feel.runtime.functions.FunctionTestUtil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class DecisionTableImplTest {
+
+    private FEELImpl feel;
+    private DecisionTableImpl decisionTable;
+
+    @Before
+    public void setUp() {
+        feel = (FEELImpl) FEEL.newInstance();
+        List<DTDecisionRule> rules = new ArrayList<>();
+        rules.add( rule( 0, "\"a\"", "< 18" ) );
+        rules.add( rule( 1, "\"a\", \"b\"", "-" ) );
+        rules.add( rule( 2, "-", "[18..65]" ) );
+        rules.add( rule( 3, "\"c\"", "30" ) );
+        rules.add( rule( 4, "not(\"a\")", "-" ) );
+        rules.add( rule( 5, "\"c\"", "30.00" ) );
+        decisionTable = decisionTable( rules );
+    }
+
+    @Test
+    public void testIndexedAndEvaluatedEntriesInRuleOrder() {
+        assertMatches( "a", 10, "r0", "r1" );
+        assertMatches( "b", 30, "r1", "r2", "r4" );
+        assertMatches( "c", 30, "r2", "r3", "r4", "r5" );
+        assertMatches( "a", 70, "r1" );
+        assertMatches( "d", 70, "r4" );
+    }
+
+    @Test
+    public void testNullInputIsNotLookedUpInIndex() {
+        assertMatches( null, 30, "r2", "r4" );
+    }
+
+    @Test
+    public void testDecisionTreeNotCompiledWithEvaluatedEntries() {
+        assertNull( decisionTable.compileDecisionTree() );
+    }
+
+    @Test
+    public void testDecisionTreeMatchesSameRules() {
+        List<DTDecisionRule> rules = new ArrayList<>();
+        rules.add( rule( 0, "\"a\"", "10" ) );
+        rules.add( rule( 1, "\"a\", \"b\"", "-" ) );
+        rules.add( rule( 2, "-", "30" ) );
+        rules.add( rule( 3, "\"c\"", "30.00" ) );
+        rules.add( rule( 4, "-", "-" ) );
+        decisionTable = decisionTable( rules );
+        DTDecisionTree decisionTree = decisionTable.compileDecisionTree();
+        assertNotNull( decisionTree );
+
+        assertEquals( BitSet.valueOf( new long[]{ 0b10011 } ), decisionTree.match( new Object[]{ "a", BigDecimal.valueOf( 10 ) } ) );
+        assertMatches( decisionTree, "a", 10, "r0", "r1", "r4" );
+        assertMatches( decisionTree, "b", 30, "r1", "r2", "r4" );
+        assertMatches( decisionTree, "c", 30, "r2", "r3", "r4" );
+        assertMatches( decisionTree, "d", 70, "r4" );
+    }
+
+    @Test
+    public void testDecisionTreeFallsBackForUndecidableInputs() {
+        List<DTDecisionRule> rules = new ArrayList<>();
+        rules.add( rule( 0, "\"a\"", "30" ) );
+        rules.add( rule( 1, "-", "30" ) );
+        rules.add( rule( 2, "-", "-" ) );
+        decisionTable = decisionTable( rules );
+        DTDecisionTree decisionTree = decisionTable.compileDecisionTree();
+        assertNotNull( decisionTree );
+
+        assertNull( decisionTree.match( new Object[]{ null, BigDecimal.valueOf( 30 ) } ) );
+        assertNull( decisionTree.match( new Object[]{ "a", "30" } ) );
+        assertMatches( decisionTree, null, 30, "r1", "r2" );
+    }
+
+    private void assertMatches(String category, int age, String... expected) {
+        assertMatches( null, category, age, expected );
+    }
+
+    private void assertMatches(DTDecisionTree decisionTree, String category, int age, String... expected) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put( "category", category );
+        variables.put( "age", BigDecimal.valueOf( age ) );
+        FunctionTestUtil.assertResult( decisionTable.evaluate( feel.newEvaluationContext( Collections.emptySet(), variables ), new Object[0], decisionTree ),
+                                       Arrays.asList( (Object[]) expected ) );
+    }
+
+    private DecisionTableImpl decisionTable(List<DTDecisionRule> rules) {
+        List<DTInputClause> inputs = Arrays.asList( new DTInputClause( "category", null, null, null ),
+                                                    new DTInputClause( "age", null, null, null ) );
+        List<DTOutputClause> outputs = Collections.singletonList( new DTOutputClause( "result", null ) );
+        return new DecisionTableImpl( "test", Arrays.asList( "category", "age" ), inputs, outputs, rules, HitPolicy.COLLECT, feel );
+    }
+
+    private DTDecisionRule rule(int index, String categoryEntry, String ageEntry) {
+        DTDecisionRule rule = new DTDecisionRule( index );
+        rule.getInputEntry().add( new DTInputEntry( feel.evaluateUnaryTests( categoryEntry, Collections.singletonMap( "category", BuiltInType.STRING ) ) ) );
+        rule.getInputEntry().add( new DTInputEntry( feel.evaluateUnaryTests( ageEntry, Collections.singletonMap( "age", BuiltInType.NUMBER ) ) ) );
+        rule.getOutputEntry().add( feel.compile( "\"r" + index + "\"", feel.newCompilerContext() ) );
+        return rule;
+    }
+}
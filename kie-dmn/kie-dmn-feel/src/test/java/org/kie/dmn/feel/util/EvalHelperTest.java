@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.util;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+
+import org.junit.Test;
+import org.kie.dmn.feel.lang.FEELProperty;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+public class EvalHelperTest {
+
+    public static class Applicant {
+        public String getName() {
+            return "John";
+        }
+
+        public boolean isEmployed() {
+            return true;
+        }
+
+        @FEELProperty("monthly income")
+        public int getMonthlyIncome() {
+            return 1000;
+        }
+    }
+
+    @Test
+    public void testGenericAccessorIsCached() {
+        Method getter = EvalHelper.getGenericAccessor( Applicant.class, "name" );
+        assertThat( getter.getName(), is( "getName" ) );
+        assertThat( EvalHelper.getGenericAccessor( Applicant.class, "name" ), is( sameInstance( getter ) ) );
+        assertThat( EvalHelper.getGenericAccessor( Applicant.class, "employed" ).getName(), is( "isEmployed" ) );
+        assertThat( EvalHelper.getGenericAccessor( Applicant.class, "monthly income" ).getName(), is( "getMonthlyIncome" ) );
+        assertThat( EvalHelper.getGenericAccessor( Applicant.class, "age" ), is( nullValue() ) );
+        assertThat( EvalHelper.getGenericAccessor( Applicant.class, "age" ), is( nullValue() ) );
+    }
+
+    @Test
+    public void testDefinedValue() {
+        Applicant applicant = new Applicant();
+        assertThat( EvalHelper.getDefinedValue( applicant, "name" ).getValueResult().getOrElse( null ), is( "John" ) );
+        assertThat( EvalHelper.getDefinedValue( applicant, "monthly income" ).getValueResult().getOrElse( null ), is( BigDecimal.valueOf( 1000 ) ) );
+        assertFalse( EvalHelper.getDefinedValue( applicant, "age" ).isDefined() );
+    }
+}
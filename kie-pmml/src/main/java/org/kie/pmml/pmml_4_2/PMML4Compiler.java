@@ -293,8 +293,19 @@ public class PMML4Compiler implements PMMLCompiler {
     
     
     private String getRuleUnitClass(PMML4Unit unit) {
+        return getCompilableRootModel(unit).getRuleUnitClassName();
+    }
+
+    /**
+     * Returns the root model to be compiled into rules. A document holding only neural networks is accepted
+     * by the unit, since they can be scored by an evaluator, but it cannot be compiled.
+     */
+    private PMML4Model getCompilableRootModel(PMML4Unit unit) {
         PMML4Model root = unit.getRootModel();
-        return root.getRuleUnitClassName();
+        if (root == null) {
+            throw new IllegalStateException("BRMS-PMML requires at least one model of the model types that are recognized");
+        }
+        return root;
     }
     
     public String generateTheory( PMML pmml ) {
@@ -544,6 +555,7 @@ public class PMML4Compiler implements PMMLCompiler {
         if (pmml != null) {
             PMML4Unit unit = new PMML4UnitImpl(pmml);
             if (unit != null) {
+                getCompilableRootModel(unit);
                 List<PMML4Model> models = unit.getModels();
                 models.forEach(model -> {
                     Map.Entry<String, String> inputPojo = model.getMappedMiningPojo();
@@ -560,8 +572,41 @@ public class PMML4Compiler implements PMMLCompiler {
         }
         return javaClasses;
     }
-    
-    
+
+    public Map<String,PMML4Evaluator> getEvaluators(String fileName) {
+        InputStream is = getInputStreamByFileName(fileName);
+        if (is != null) {
+            return getEvaluators(is);
+        }
+        return new HashMap<>();
+    }
+
+    /**
+     * Returns the evaluators of the models that can be scored without compiling them
+     * into rules, by model id. The other models are not in the map.
+     * The rule units compiled from the same document are unaffected.
+     */
+    public Map<String,PMML4Evaluator> getEvaluators(InputStream stream) {
+        Map<String,PMML4Evaluator> evaluators = new HashMap<>();
+        PMML pmml = loadModel(PMML, stream);
+        if (pmml != null) {
+            PMML4UnitImpl unit = new PMML4UnitImpl(pmml);
+            List<String> modelIds = new ArrayList<>();
+            for (PMML4Model model : unit.getModels()) {
+                modelIds.add(model.getModelId());
+            }
+            modelIds.addAll(unit.getNeuralNetworkIds());
+            for (String modelId : modelIds) {
+                PMML4Evaluator evaluator = unit.getEvaluator(modelId);
+                if (evaluator != null) {
+                    evaluators.put(modelId, evaluator);
+                }
+            }
+        }
+        return evaluators;
+    }
+
+
     public List<PMMLResource> precompile( String fileName, ClassLoader classLoader, KieBaseModel rootKieBaseModel) {
         InputStream is = getInputStreamByFileName(fileName);
         List<PMMLResource> resources = null;
@@ -589,18 +634,16 @@ public class PMML4Compiler implements PMMLCompiler {
             Miningmodel rootModel = unit.getRootMiningModel();
             resources = buildResourcesFromModel(pmml,rootModel,null,classLoader,module);
         } else {
-            PMML4Model rootModel = unit.getRootModel();
-            if (rootModel != null) {
-                helper.setPack(rootModel.getModelPackageName());
-                KieBaseModel kbm = module.newKieBaseModel(rootModel.getModelId());
-                kbm.addPackage(helper.getPack())
-                    .setDefault(true)
-                    .setEventProcessingMode(EventProcessingOption.CLOUD);
-                PMMLResource resource = new PMMLResource(helper.getPack());
-                resource.setKieBaseModel(kbm);
-                resource.addRules(rootModel.getModelId(), this.compile(pmml, classLoader));
-                resources.add(resource);
-            }
+            PMML4Model rootModel = getCompilableRootModel(unit);
+            helper.setPack(rootModel.getModelPackageName());
+            KieBaseModel kbm = module.newKieBaseModel(rootModel.getModelId());
+            kbm.addPackage(helper.getPack())
+                .setDefault(true)
+                .setEventProcessingMode(EventProcessingOption.CLOUD);
+            PMMLResource resource = new PMMLResource(helper.getPack());
+            resource.setKieBaseModel(kbm);
+            resource.addRules(rootModel.getModelId(), this.compile(pmml, classLoader));
+            resources.add(resource);
         }
         return resources;
     }
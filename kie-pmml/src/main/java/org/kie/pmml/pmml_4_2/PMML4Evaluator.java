@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2;
+
+import org.kie.api.pmml.PMML4Result;
+import org.kie.api.pmml.PMMLRequestData;
+
+/**
+ * Scores a PMML model directly in Java, without compiling it into rules.
+ * Instances are immutable once built, and can be shared between threads.
+ * <p>
+ * Evaluators are opt-in: a PMML resource added to a kie base is still compiled
+ * into rule units, and executing those units inserts the mining fields, the
+ * tree nodes and the segment results as facts that other rules can react to.
+ * An evaluator only returns the result variables, so callers that just need the
+ * scores obtain it from {@link PMML4Compiler#getEvaluators(java.io.InputStream)}
+ * or {@link PMML4Unit#getEvaluator(String)} and score the requests themselves.
+ */
+public interface PMML4Evaluator {
+
+    public String getModelId();
+
+    /**
+     * Scores the model against the parameters of the request. The result
+     * holds the same variables that the rule based execution would add.
+     */
+    public PMML4Result evaluate(PMMLRequestData request);
+
+    /**
+     * Scores every record of the batch. The returned batch has a column for each
+     * variable that evaluate( request ) would add to the result, holding the values
+     * of the variables; records without a prediction have a missing value.
+     */
+    public PMMLBatch evaluate(PMMLBatch batch);
+}
@@ -34,4 +34,10 @@ public interface PMML4Unit {
     public boolean containsMiningModel();
     public Map<String, PMMLDataField> getDataDictionaryMap();
     public String getRootPackage();
+
+    /**
+     * Returns the evaluator scoring the model without rules, or null if the model
+     * can only be executed by its rule unit. See {@link PMML4Evaluator}.
+     */
+    public PMML4Evaluator getEvaluator(String modelId);
 }
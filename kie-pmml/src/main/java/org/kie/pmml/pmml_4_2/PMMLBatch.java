@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A set of records laid out by columns, used to score many records with a
+ * single call to a PMML4Evaluator. Numeric columns are primitive arrays, where
+ * NaN stands for a missing value; other columns are object arrays, where the
+ * missing values are null. Columns are stored as they are passed, not copied.
+ */
+public class PMMLBatch {
+
+    private final int size;
+    private final Map<String, Object> columns = new LinkedHashMap<>();
+
+    public PMMLBatch(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative batch size " + size);
+        }
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public PMMLBatch addColumn(String name, double[] values) {
+        checkSize(name, values.length);
+        columns.put(name, values);
+        return this;
+    }
+
+    public PMMLBatch addColumn(String name, Object[] values) {
+        checkSize(name, values.length);
+        columns.put(name, values);
+        return this;
+    }
+
+    private void checkSize(String name, int length) {
+        if (length != size) {
+            throw new IllegalArgumentException("Column " + name + " has " + length + " values, expected " + size);
+        }
+    }
+
+    public Set<String> getColumnNames() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    public boolean hasColumn(String name) {
+        return columns.containsKey(name);
+    }
+
+    public boolean isNumeric(String name) {
+        return columns.get(name) instanceof double[];
+    }
+
+    /**
+     * Returns the column if it is numeric, null otherwise.
+     */
+    public double[] getNumericColumn(String name) {
+        Object column = columns.get(name);
+        return column instanceof double[] ? (double[]) column : null;
+    }
+
+    /**
+     * Returns the column if it is not numeric, null otherwise.
+     */
+    public Object[] getColumn(String name) {
+        Object column = columns.get(name);
+        return column instanceof Object[] ? (Object[]) column : null;
+    }
+
+    /**
+     * Returns the value of a column in a record, boxing numbers, or null if it is missing.
+     */
+    public Object getValue(String name, int row) {
+        Object column = columns.get(name);
+        if (column instanceof double[]) {
+            double value = ((double[]) column)[row];
+            return Double.isNaN(value) ? null : value;
+        }
+        return column != null ? ((Object[]) column)[row] : null;
+    }
+}
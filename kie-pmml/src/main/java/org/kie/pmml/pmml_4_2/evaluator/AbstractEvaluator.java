@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2.evaluator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.api.pmml.PMML4Result;
+import org.kie.api.pmml.PMMLRequestData;
+import org.kie.dmg.pmml.pmml_4_2.descr.DataDictionary;
+import org.kie.dmg.pmml.pmml_4_2.descr.DataField;
+import org.kie.dmg.pmml.pmml_4_2.descr.MiningField;
+import org.kie.dmg.pmml.pmml_4_2.descr.MiningSchema;
+import org.kie.dmg.pmml.pmml_4_2.descr.Output;
+import org.kie.dmg.pmml.pmml_4_2.descr.OutputField;
+import org.kie.dmg.pmml.pmml_4_2.descr.RESULTFEATURE;
+import org.kie.dmg.pmml.pmml_4_2.descr.Targets;
+import org.kie.pmml.pmml_4_2.PMML4Evaluator;
+import org.kie.pmml.pmml_4_2.PMML4Helper;
+import org.kie.pmml.pmml_4_2.PMMLBatch;
+
+/**
+ * Base class of the evaluators: binds the request parameters to the active
+ * fields of the model, and adds the predicted values to the result under the
+ * same names used by the rules.
+ */
+public abstract class AbstractEvaluator implements PMML4Evaluator {
+
+    protected static final PMML4Helper helper = new PMML4Helper();
+
+    protected final String modelId;
+    protected final InputFields inputs;
+
+    protected AbstractEvaluator(String modelId, InputFields inputs) {
+        this.modelId = modelId;
+        this.inputs = inputs;
+    }
+
+    @Override
+    public String getModelId() {
+        return modelId;
+    }
+
+    @Override
+    public PMML4Result evaluate(PMMLRequestData request) {
+        PMML4Result result = new PMML4Result(request.getCorrelationId());
+        evaluate(inputs.read(request), result);
+        return result;
+    }
+
+    /**
+     * Scores the model against the values of the active fields, indexed as
+     * in the InputFields of the evaluator. Adds nothing when there is no prediction.
+     */
+    protected abstract void evaluate(Object[] values, PMML4Result result);
+
+    /**
+     * Scores the records one at a time. Evaluators that can work on whole
+     * columns override this.
+     */
+    @Override
+    public PMMLBatch evaluate(PMMLBatch batch) {
+        Object[] columns = inputs.readColumns(batch);
+        Object[] values = new Object[inputs.size()];
+        PMMLBatch results = new PMMLBatch(batch.size());
+        for (int row = 0; row < batch.size(); row++) {
+            PMML4Result result = new PMML4Result();
+            evaluate(inputs.readRow(columns, row, values), result);
+            if (result.getResultVariables() == null) {
+                continue;
+            }
+            for (Map.Entry<String, Object> variable : result.getResultVariables().entrySet()) {
+                if (!results.hasColumn(variable.getKey())) {
+                    results.addColumn(variable.getKey(), new Object[batch.size()]);
+                }
+                results.getColumn(variable.getKey())[row] = ((OutputValue) variable.getValue()).getValue();
+            }
+        }
+        return results;
+    }
+
+    protected void addResult(PMML4Result result, String variable, Object value, Double weight) {
+        result.setResultCode("OK");
+        result.addResultVariable(variable, new OutputValue(modelId, value, weight));
+    }
+
+    /**
+     * Converts a value of the PMML document to the (boxed) type of a field.
+     */
+    protected static Object toType(String type, Object value) {
+        if (value == null || !(value instanceof String)) {
+            return value;
+        }
+        String s = ((String) value).trim();
+        try {
+            switch (type) {
+                case "Double":
+                    return Double.valueOf(s);
+                case "Float":
+                    return Float.valueOf(s);
+                case "Integer":
+                    return Integer.valueOf(s);
+                case "Boolean":
+                    return Boolean.valueOf(s);
+                default:
+                    return value;
+            }
+        } catch (NumberFormatException nfe) {
+            return value;
+        }
+    }
+
+    protected static String typeOf(DataField field) {
+        return helper.mapDatatype(field.getDataType(), true);
+    }
+
+    /**
+     * Name of the result variable of a target or an output field.
+     */
+    protected static String variableOf(String fieldName) {
+        return helper.compactUpperCase(fieldName);
+    }
+
+    /**
+     * Returns the data fields of the targets of the model.
+     */
+    protected static List<DataField> findTargets(MiningSchema schema, DataDictionary dictionary) {
+        Map<String, DataField> dataFields = InputFields.getDataFields(dictionary);
+        List<DataField> targets = new ArrayList<>();
+        for (MiningField field : schema.getMiningFields()) {
+            if (InputFields.isTarget(field) && dataFields.containsKey(field.getName())) {
+                targets.add(dataFields.get(field.getName()));
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Returns the data field of the (first) target of the model, or null if it has none.
+     */
+    protected static DataField findTarget(MiningSchema schema, DataDictionary dictionary) {
+        List<DataField> targets = findTargets(schema, dictionary);
+        return targets.isEmpty() ? null : targets.get(0);
+    }
+
+    /**
+     * Targets rescale or default the predicted values: models using them are left to the rules.
+     */
+    protected static boolean hasTargets(List<Serializable> content) {
+        for (Serializable ser : content) {
+            if (ser instanceof Targets) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the output fields, or null if any of them asks for a feature
+     * other than the given ones.
+     */
+    protected static List<OutputField> getOutputFields(Output output, RESULTFEATURE... features) {
+        if (output == null) {
+            return Collections.emptyList();
+        }
+        List<OutputField> outputs = new ArrayList<>();
+        for (OutputField field : output.getOutputFields()) {
+            RESULTFEATURE feature = field.getFeature() != null ? field.getFeature() : RESULTFEATURE.PREDICTED_VALUE;
+            boolean supported = false;
+            for (RESULTFEATURE f : features) {
+                supported |= f == feature;
+            }
+            if (!supported) {
+                return null;
+            }
+            outputs.add(field);
+        }
+        return outputs;
+    }
+}
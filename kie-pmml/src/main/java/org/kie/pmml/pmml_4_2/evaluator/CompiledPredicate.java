@@ -0,0 +1,366 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2.evaluator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.kie.dmg.pmml.pmml_4_2.descr.CompoundPredicate;
+import org.kie.dmg.pmml.pmml_4_2.descr.False;
+import org.kie.dmg.pmml.pmml_4_2.descr.SimplePredicate;
+import org.kie.dmg.pmml.pmml_4_2.descr.SimpleSetPredicate;
+import org.kie.dmg.pmml.pmml_4_2.descr.True;
+
+/**
+ * A PMML predicate bound to the input fields of an evaluator. Predicates use
+ * a three valued logic: they are UNKNOWN when a field they need is missing.
+ */
+interface CompiledPredicate {
+
+    int FALSE = 0;
+    int TRUE = 1;
+    int UNKNOWN = 2;
+
+    int evaluate(Object[] values);
+
+    /**
+     * Compiles the predicate, returning null if it uses fields that are not
+     * inputs of the model, or something the evaluators do not support.
+     */
+    static CompiledPredicate compile(Serializable predicate, InputFields inputs) {
+        if (predicate instanceof True) {
+            return new Constant(TRUE);
+        } else if (predicate instanceof False) {
+            return new Constant(FALSE);
+        } else if (predicate instanceof SimplePredicate) {
+            return Simple.compile((SimplePredicate) predicate, inputs);
+        } else if (predicate instanceof SimpleSetPredicate) {
+            return SimpleSet.compile((SimpleSetPredicate) predicate, inputs);
+        } else if (predicate instanceof CompoundPredicate) {
+            return Compound.compile((CompoundPredicate) predicate, inputs);
+        }
+        return null;
+    }
+
+    static boolean isPredicate(Serializable ser) {
+        return ser instanceof True || ser instanceof False || ser instanceof SimplePredicate
+                || ser instanceof SimpleSetPredicate || ser instanceof CompoundPredicate;
+    }
+
+    final class Constant implements CompiledPredicate {
+
+        private final int value;
+
+        Constant(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int evaluate(Object[] values) {
+            return value;
+        }
+    }
+
+    final class Simple implements CompiledPredicate {
+
+        private static final int EQUAL = 0;
+        private static final int NOT_EQUAL = 1;
+        private static final int LESS_THAN = 2;
+        private static final int LESS_OR_EQUAL = 3;
+        private static final int GREATER_THAN = 4;
+        private static final int GREATER_OR_EQUAL = 5;
+        private static final int IS_MISSING = 6;
+        private static final int IS_NOT_MISSING = 7;
+
+        private final int index;
+        private final int operator;
+        private final boolean numeric;
+        private final double number;
+        private final String literal;
+
+        private Simple(int index, int operator, boolean numeric, double number, String literal) {
+            this.index = index;
+            this.operator = operator;
+            this.numeric = numeric;
+            this.number = number;
+            this.literal = literal;
+        }
+
+        static Simple compile(SimplePredicate sp, InputFields inputs) {
+            int index = inputs.indexOf(sp.getField());
+            int operator = toOperator(sp.getOperator());
+            if (index < 0 || operator < 0) {
+                return null;
+            }
+            if (operator == IS_MISSING || operator == IS_NOT_MISSING) {
+                return new Simple(index, operator, false, Double.NaN, null);
+            }
+            if (sp.getValue() == null) {
+                return null;
+            }
+            if (inputs.isNumeric(index)) {
+                Object number = InputFields.convert(sp.getValue(), true);
+                return number != null ? new Simple(index, operator, true, (Double) number, sp.getValue()) : null;
+            }
+            return new Simple(index, operator, false, Double.NaN, sp.getValue());
+        }
+
+        private static int toOperator(String operator) {
+            if (operator == null) {
+                return -1;
+            }
+            switch (operator) {
+                case "equal":
+                    return EQUAL;
+                case "notEqual":
+                    return NOT_EQUAL;
+                case "lessThan":
+                    return LESS_THAN;
+                case "lessOrEqual":
+                    return LESS_OR_EQUAL;
+                case "greaterThan":
+                    return GREATER_THAN;
+                case "greaterOrEqual":
+                    return GREATER_OR_EQUAL;
+                case "isMissing":
+                    return IS_MISSING;
+                case "isNotMissing":
+                    return IS_NOT_MISSING;
+                default:
+                    return -1;
+            }
+        }
+
+        @Override
+        public int evaluate(Object[] values) {
+            Object v = values[index];
+            if (operator == IS_MISSING) {
+                return v == null ? TRUE : FALSE;
+            } else if (operator == IS_NOT_MISSING) {
+                return v != null ? TRUE : FALSE;
+            } else if (v == null) {
+                return UNKNOWN;
+            }
+            int cmp;
+            if (numeric) {
+                double d = (Double) v;
+                cmp = d < number ? -1 : (d > number ? 1 : 0);
+            } else {
+                cmp = v.toString().compareTo(literal);
+            }
+            boolean test;
+            switch (operator) {
+                case EQUAL:
+                    test = cmp == 0;
+                    break;
+                case NOT_EQUAL:
+                    test = cmp != 0;
+                    break;
+                case LESS_THAN:
+                    test = cmp < 0;
+                    break;
+                case LESS_OR_EQUAL:
+                    test = cmp <= 0;
+                    break;
+                case GREATER_THAN:
+                    test = cmp > 0;
+                    break;
+                default:
+                    test = cmp >= 0;
+            }
+            return test ? TRUE : FALSE;
+        }
+    }
+
+    final class SimpleSet implements CompiledPredicate {
+
+        private final int index;
+        private final boolean in;
+        private final Set<Object> set;
+
+        private SimpleSet(int index, boolean in, Set<Object> set) {
+            this.index = index;
+            this.in = in;
+            this.set = set;
+        }
+
+        static SimpleSet compile(SimpleSetPredicate ssp, InputFields inputs) {
+            int index = inputs.indexOf(ssp.getField());
+            if (index < 0 || ssp.getArray() == null || !("isIn".equals(ssp.getBooleanOperator()) || "isNotIn".equals(ssp.getBooleanOperator()))) {
+                return null;
+            }
+            Set<Object> set = new HashSet<>();
+            for (String token : tokenize(ssp.getArray().getContent())) {
+                Object value = InputFields.convert(token, inputs.isNumeric(index));
+                if (value == null) {
+                    return null;
+                }
+                set.add(value);
+            }
+            return new SimpleSet(index, "isIn".equals(ssp.getBooleanOperator()), set);
+        }
+
+        /**
+         * Splits the content of an Array on white spaces, unless they are within double quotes.
+         */
+        static List<String> tokenize(String content) {
+            List<String> tokens = new ArrayList<>();
+            if (content == null) {
+                return tokens;
+            }
+            StringBuilder sb = null;
+            boolean quoted = false;
+            for (int i = 0; i < content.length(); i++) {
+                char c = content.charAt(i);
+                if (quoted) {
+                    if (c == '\\' && i + 1 < content.length() && content.charAt(i + 1) == '"') {
+                        sb.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        sb.append(c);
+                    }
+                } else if (Character.isWhitespace(c)) {
+                    if (sb != null) {
+                        tokens.add(sb.toString());
+                        sb = null;
+                    }
+                } else {
+                    if (sb == null) {
+                        sb = new StringBuilder();
+                    }
+                    if (c == '"') {
+                        quoted = true;
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+            if (sb != null) {
+                tokens.add(sb.toString());
+            }
+            return tokens;
+        }
+
+        @Override
+        public int evaluate(Object[] values) {
+            Object v = values[index];
+            if (v == null) {
+                return UNKNOWN;
+            }
+            boolean contained = set.contains(v instanceof Double ? v : v.toString());
+            return contained == in ? TRUE : FALSE;
+        }
+    }
+
+    final class Compound implements CompiledPredicate {
+
+        private static final int AND = 0;
+        private static final int OR = 1;
+        private static final int XOR = 2;
+        private static final int SURROGATE = 3;
+
+        private final int operator;
+        private final CompiledPredicate[] predicates;
+
+        private Compound(int operator, CompiledPredicate[] predicates) {
+            this.operator = operator;
+            this.predicates = predicates;
+        }
+
+        static Compound compile(CompoundPredicate cp, InputFields inputs) {
+            int operator;
+            if ("and".equals(cp.getBooleanOperator())) {
+                operator = AND;
+            } else if ("or".equals(cp.getBooleanOperator())) {
+                operator = OR;
+            } else if ("xor".equals(cp.getBooleanOperator())) {
+                operator = XOR;
+            } else if ("surrogate".equals(cp.getBooleanOperator())) {
+                operator = SURROGATE;
+            } else {
+                return null;
+            }
+            List<CompiledPredicate> predicates = new ArrayList<>();
+            for (Serializable ser : cp.getSimplePredicatesAndCompoundPredicatesAndSimpleSetPredicates()) {
+                if (isPredicate(ser)) {
+                    CompiledPredicate predicate = CompiledPredicate.compile(ser, inputs);
+                    if (predicate == null) {
+                        return null;
+                    }
+                    predicates.add(predicate);
+                }
+            }
+            return new Compound(operator, predicates.toArray(new CompiledPredicate[predicates.size()]));
+        }
+
+        @Override
+        public int evaluate(Object[] values) {
+            switch (operator) {
+                case AND: {
+                    int result = TRUE;
+                    for (CompiledPredicate p : predicates) {
+                        int test = p.evaluate(values);
+                        if (test == FALSE) {
+                            return FALSE;
+                        } else if (test == UNKNOWN) {
+                            result = UNKNOWN;
+                        }
+                    }
+                    return result;
+                }
+                case OR: {
+                    int result = FALSE;
+                    for (CompiledPredicate p : predicates) {
+                        int test = p.evaluate(values);
+                        if (test == TRUE) {
+                            return TRUE;
+                        } else if (test == UNKNOWN) {
+                            result = UNKNOWN;
+                        }
+                    }
+                    return result;
+                }
+                case XOR: {
+                    int result = FALSE;
+                    for (CompiledPredicate p : predicates) {
+                        int test = p.evaluate(values);
+                        if (test == UNKNOWN) {
+                            return UNKNOWN;
+                        } else if (test == TRUE) {
+                            result = result == TRUE ? FALSE : TRUE;
+                        }
+                    }
+                    return result;
+                }
+                default: {
+                    for (CompiledPredicate p : predicates) {
+                        int test = p.evaluate(values);
+                        if (test != UNKNOWN) {
+                            return test;
+                        }
+                    }
+                    return UNKNOWN;
+                }
+            }
+        }
+    }
+}
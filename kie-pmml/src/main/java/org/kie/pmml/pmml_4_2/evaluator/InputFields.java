@@ -0,0 +1,291 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2.evaluator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.api.pmml.PMMLRequestData;
+import org.kie.api.pmml.ParameterInfo;
+import org.kie.dmg.pmml.pmml_4_2.descr.DATATYPE;
+import org.kie.dmg.pmml.pmml_4_2.descr.DataDictionary;
+import org.kie.dmg.pmml.pmml_4_2.descr.DataField;
+import org.kie.dmg.pmml.pmml_4_2.descr.FIELDUSAGETYPE;
+import org.kie.dmg.pmml.pmml_4_2.descr.MiningField;
+import org.kie.dmg.pmml.pmml_4_2.descr.MiningSchema;
+import org.kie.dmg.pmml.pmml_4_2.descr.OUTLIERTREATMENTMETHOD;
+import org.kie.pmml.pmml_4_2.PMML4Helper;
+import org.kie.pmml.pmml_4_2.PMML4Model;
+import org.kie.pmml.pmml_4_2.PMMLBatch;
+
+/**
+ * The active fields of a model, each one bound to a position in the array of
+ * values the evaluators work on. Values of numeric fields are held as Double,
+ * the other ones as they were passed. Missing values are replaced as declared
+ * in the mining schema, after treating the outliers; a value that can't be
+ * converted is treated as missing.
+ */
+class InputFields {
+
+    private static final PMML4Helper helper = new PMML4Helper();
+
+    private final String[] names;
+    private final boolean[] numeric;
+    private final Object[] replacements;
+    private final OUTLIERTREATMENTMETHOD[] outliers;
+    private final double[] lowValues;
+    private final double[] highValues;
+    private final Map<String, Integer> indexes;
+
+    private InputFields(List<String> names, List<Boolean> numeric, List<Object> replacements, List<MiningField> fields) {
+        this.names = names.toArray(new String[names.size()]);
+        this.numeric = new boolean[numeric.size()];
+        for (int i = 0; i < this.numeric.length; i++) {
+            this.numeric[i] = numeric.get(i);
+        }
+        this.replacements = replacements.toArray();
+        this.outliers = new OUTLIERTREATMENTMETHOD[fields.size()];
+        this.lowValues = new double[fields.size()];
+        this.highValues = new double[fields.size()];
+        for (int i = 0; i < this.outliers.length; i++) {
+            MiningField field = fields.get(i);
+            Number low = field.getLowValue();
+            Number high = field.getHighValue();
+            this.outliers[i] = numeric.get(i) ? field.getOutliers() : null;
+            this.lowValues[i] = low != null ? low.doubleValue() : Double.NEGATIVE_INFINITY;
+            this.highValues[i] = high != null ? high.doubleValue() : Double.POSITIVE_INFINITY;
+        }
+        this.indexes = new HashMap<>();
+        for (int i = 0; i < this.names.length; i++) {
+            indexes.put(this.names[i], i);
+        }
+    }
+
+    /**
+     * Returns null if some active field is not in the data dictionary, i.e.
+     * it is derived through transformations that are left to the rules.
+     */
+    static InputFields create(PMML4Model model) {
+        return create(model.getMiningSchema(), model.getDataDictionary());
+    }
+
+    static InputFields create(MiningSchema schema, DataDictionary dataDictionary) {
+        Map<String, DataField> dictionary = getDataFields(dataDictionary);
+        List<String> names = new ArrayList<>();
+        List<Boolean> numeric = new ArrayList<>();
+        List<Object> replacements = new ArrayList<>();
+        List<MiningField> fields = new ArrayList<>();
+        for (MiningField field : schema.getMiningFields()) {
+            if (!isActive(field)) {
+                continue;
+            }
+            DataField dataField = dictionary.get(field.getName());
+            if (dataField == null) {
+                return null;
+            }
+            boolean isNumeric = isNumeric(dataField.getDataType());
+            names.add(field.getName());
+            numeric.add(isNumeric);
+            replacements.add(field.getMissingValueReplacement() != null ? convert(field.getMissingValueReplacement(), isNumeric) : null);
+            fields.add(field);
+        }
+        return new InputFields(names, numeric, replacements, fields);
+    }
+
+    static Map<String, DataField> getDataFields(PMML4Model model) {
+        return getDataFields(model.getDataDictionary());
+    }
+
+    static Map<String, DataField> getDataFields(DataDictionary dictionary) {
+        Map<String, DataField> dataFields = new HashMap<>();
+        if (dictionary != null) {
+            for (DataField dataField : dictionary.getDataFields()) {
+                dataFields.put(dataField.getName(), dataField);
+            }
+        }
+        return dataFields;
+    }
+
+    static boolean isActive(MiningField field) {
+        return field.getUsageType() == null || field.getUsageType() == FIELDUSAGETYPE.ACTIVE;
+    }
+
+    static boolean isTarget(MiningField field) {
+        return field.getUsageType() == FIELDUSAGETYPE.PREDICTED || field.getUsageType() == FIELDUSAGETYPE.TARGET;
+    }
+
+    static boolean isNumeric(DATATYPE dataType) {
+        String type = helper.mapDatatype(dataType, true);
+        return "Double".equals(type) || "Float".equals(type) || "Integer".equals(type);
+    }
+
+    static Object convert(Object value, boolean numeric) {
+        if (value == null || !numeric) {
+            return value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        try {
+            return Double.valueOf(value.toString().trim());
+        } catch (NumberFormatException nfe) {
+            return null;
+        }
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    String getName(int index) {
+        return names[index];
+    }
+
+    boolean isNumeric(int index) {
+        return numeric[index];
+    }
+
+    Object convert(int index, Object value) {
+        Object converted = treatOutliers(index, convert(value, numeric[index]));
+        return converted != null ? converted : replacements[index];
+    }
+
+    private Object treatOutliers(int index, Object value) {
+        if (value == null || outliers[index] == null) {
+            return value;
+        }
+        double d = treatOutliers(index, (Double) value);
+        return Double.isNaN(d) ? null : d;
+    }
+
+    private double treatOutliers(int index, double value) {
+        if (value >= lowValues[index] && value <= highValues[index]) {
+            return value;
+        }
+        switch (outliers[index]) {
+            case AS_MISSING_VALUES:
+                return Double.NaN;
+            case AS_EXTREME_VALUES:
+                return value < lowValues[index] ? lowValues[index] : highValues[index];
+            default:
+                return value;
+        }
+    }
+
+    Object[] read(PMMLRequestData request) {
+        Object[] values = new Object[names.length];
+        for (Object obj : request.getRequestParams()) {
+            ParameterInfo param = (ParameterInfo) obj;
+            int index = indexOf(param.getName());
+            if (index >= 0) {
+                values[index] = treatOutliers(index, convert(param.getValue(), numeric[index]));
+            }
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                values[i] = replacements[i];
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the columns of the inputs in the batch: a double[] for the numeric
+     * fields, an Object[] for the other ones. Missing columns have all the values
+     * missing. The columns of the batch are copied only when some value has to
+     * be converted, replaced or treated as an outlier.
+     */
+    Object[] readColumns(PMMLBatch batch) {
+        Object[] columns = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = numeric[i] ? readNumericColumn(batch, i) : readColumn(batch, i);
+        }
+        return columns;
+    }
+
+    private double[] readNumericColumn(PMMLBatch batch, int index) {
+        double[] column = batch.getNumericColumn(names[index]);
+        if (column == null) {
+            Object[] values = batch.getColumn(names[index]);
+            column = new double[batch.size()];
+            for (int row = 0; row < column.length; row++) {
+                Object value = values != null ? convert(values[row], true) : null;
+                column[row] = value != null ? (Double) value : Double.NaN;
+            }
+        } else if (outliers[index] != null || replacements[index] != null) {
+            column = column.clone();
+        }
+        if (outliers[index] != null) {
+            for (int row = 0; row < column.length; row++) {
+                column[row] = treatOutliers(index, column[row]);
+            }
+        }
+        if (replacements[index] != null) {
+            double replacement = (Double) replacements[index];
+            for (int row = 0; row < column.length; row++) {
+                if (Double.isNaN(column[row])) {
+                    column[row] = replacement;
+                }
+            }
+        }
+        return column;
+    }
+
+    private Object[] readColumn(PMMLBatch batch, int index) {
+        Object[] column = batch.getColumn(names[index]);
+        if (column == null) {
+            column = new Object[batch.size()];
+            if (batch.isNumeric(names[index])) {
+                for (int row = 0; row < column.length; row++) {
+                    column[row] = batch.getValue(names[index], row);
+                }
+            }
+        } else if (replacements[index] != null) {
+            column = column.clone();
+        }
+        if (replacements[index] != null) {
+            for (int row = 0; row < column.length; row++) {
+                if (column[row] == null) {
+                    column[row] = replacements[index];
+                }
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Fills the values of a record from the columns returned by readColumns.
+     */
+    Object[] readRow(Object[] columns, int row, Object[] values) {
+        for (int i = 0; i < columns.length; i++) {
+            if (numeric[i]) {
+                double value = ((double[]) columns[i])[row];
+                values[i] = Double.isNaN(value) ? null : value;
+            } else {
+                values[i] = ((Object[]) columns[i])[row];
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,766 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2.evaluator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.api.pmml.PMML4Result;
+import org.kie.dmg.pmml.pmml_4_2.descr.ACTIVATIONFUNCTION;
+import org.kie.dmg.pmml.pmml_4_2.descr.DataDictionary;
+import org.kie.dmg.pmml.pmml_4_2.descr.DataField;
+import org.kie.dmg.pmml.pmml_4_2.descr.DerivedField;
+import org.kie.dmg.pmml.pmml_4_2.descr.LinearNorm;
+import org.kie.dmg.pmml.pmml_4_2.descr.LocalTransformations;
+import org.kie.dmg.pmml.pmml_4_2.descr.MININGFUNCTION;
+import org.kie.dmg.pmml.pmml_4_2.descr.MiningSchema;
+import org.kie.dmg.pmml.pmml_4_2.descr.NNNORMALIZATIONMETHOD;
+import org.kie.dmg.pmml.pmml_4_2.descr.NeuralInput;
+import org.kie.dmg.pmml.pmml_4_2.descr.NeuralInputs;
+import org.kie.dmg.pmml.pmml_4_2.descr.NeuralLayer;
+import org.kie.dmg.pmml.pmml_4_2.descr.NeuralNetwork;
+import org.kie.dmg.pmml.pmml_4_2.descr.NeuralOutput;
+import org.kie.dmg.pmml.pmml_4_2.descr.NeuralOutputs;
+import org.kie.dmg.pmml.pmml_4_2.descr.Neuron;
+import org.kie.dmg.pmml.pmml_4_2.descr.NormContinuous;
+import org.kie.dmg.pmml.pmml_4_2.descr.NormDiscrete;
+import org.kie.dmg.pmml.pmml_4_2.descr.OUTLIERTREATMENTMETHOD;
+import org.kie.dmg.pmml.pmml_4_2.descr.Output;
+import org.kie.dmg.pmml.pmml_4_2.descr.OutputField;
+import org.kie.dmg.pmml.pmml_4_2.descr.RESULTFEATURE;
+import org.kie.dmg.pmml.pmml_4_2.descr.Synapse;
+import org.kie.pmml.pmml_4_2.PMMLBatch;
+
+/**
+ * Evaluates NeuralNetworks as the neural templates do, layer by layer. The
+ * connections are compiled into arrays of source neurons and weights, and the
+ * values of each neuron are kept in a column, so that a whole block of records
+ * goes through a connection in a single loop.
+ *
+ * Inputs can be field references, NormContinuous or NormDiscrete derived fields;
+ * outputs are field references or NormContinuous fields for regressions, and
+ * NormDiscrete fields, one per category, for classifications.
+ */
+public class NeuralNetworkEvaluator extends AbstractEvaluator {
+
+    /**
+     * Records are propagated in blocks, so that the neuron columns stay small.
+     */
+    static final int BLOCK_SIZE = 1024;
+
+    private final int neuronCount;
+    private final InputNeuron[] inputNeurons;
+    private final Layer[] layers;
+    private final Target[] targets;
+    private final OutputField[] outputs;
+    private final Target[] outputTargets;
+    /**
+     * The buffers of the evaluation of single records, reused as long as the thread scores records.
+     */
+    private final ThreadLocal<RecordBuffers> recordBuffers = ThreadLocal.withInitial(RecordBuffers::new);
+
+    private NeuralNetworkEvaluator(String modelId, InputFields inputs, int neuronCount, List<InputNeuron> inputNeurons,
+                                   List<Layer> layers, List<Target> targets, List<OutputField> outputs) {
+        super(modelId, inputs);
+        this.neuronCount = neuronCount;
+        this.inputNeurons = inputNeurons.toArray(new InputNeuron[inputNeurons.size()]);
+        this.layers = layers.toArray(new Layer[layers.size()]);
+        this.targets = targets.toArray(new Target[targets.size()]);
+        this.outputs = outputs.toArray(new OutputField[outputs.size()]);
+        this.outputTargets = new Target[this.outputs.length];
+        for (int i = 0; i < this.outputs.length; i++) {
+            this.outputTargets[i] = findTarget(targets, this.outputs[i]);
+        }
+    }
+
+    private class RecordBuffers {
+        // one value per active field, as a column of a single record
+        final Object[] columns = new Object[inputs.size()];
+        // the values of the neurons, plus a last row for the normalization of the layers
+        final double[][] neurons = new double[neuronCount + 1][1];
+
+        RecordBuffers() {
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = inputs.isNumeric(i) ? new double[1] : new Object[1];
+            }
+        }
+    }
+
+    /**
+     * Returns null if the network uses anything the evaluator does not support.
+     */
+    public static NeuralNetworkEvaluator create(String modelId, NeuralNetwork nn, DataDictionary dictionary) {
+        List<Serializable> content = nn.getExtensionsAndNeuralLayersAndNeuralInputs();
+        MiningSchema schema = null;
+        Output output = null;
+        NeuralInputs neuralInputs = null;
+        NeuralOutputs neuralOutputs = null;
+        List<NeuralLayer> neuralLayers = new ArrayList<>();
+        for (Serializable ser : content) {
+            if (ser instanceof MiningSchema) {
+                schema = (MiningSchema) ser;
+            } else if (ser instanceof Output) {
+                output = (Output) ser;
+            } else if (ser instanceof NeuralInputs) {
+                neuralInputs = (NeuralInputs) ser;
+            } else if (ser instanceof NeuralOutputs) {
+                neuralOutputs = (NeuralOutputs) ser;
+            } else if (ser instanceof NeuralLayer) {
+                neuralLayers.add((NeuralLayer) ser);
+            } else if (ser instanceof LocalTransformations) {
+                return null;
+            }
+        }
+        if (schema == null || neuralInputs == null || neuralOutputs == null || neuralLayers.isEmpty() || hasTargets(content)) {
+            return null;
+        }
+        InputFields inputs = InputFields.create(schema, dictionary);
+        if (inputs == null) {
+            return null;
+        }
+
+        Map<String, Integer> neuronIndexes = new HashMap<>();
+        List<InputNeuron> inputNeurons = new ArrayList<>();
+        for (NeuralInput ni : neuralInputs.getNeuralInputs()) {
+            InputNeuron neuron = InputNeuron.compile(ni.getDerivedField(), inputs);
+            if (neuron == null || neuronIndexes.put(ni.getId(), neuronIndexes.size()) != null) {
+                return null;
+            }
+            inputNeurons.add(neuron);
+        }
+
+        List<Layer> layers = new ArrayList<>();
+        for (NeuralLayer nl : neuralLayers) {
+            Layer layer = Layer.compile(nn, nl, neuronIndexes);
+            if (layer == null) {
+                return null;
+            }
+            layers.add(layer);
+        }
+
+        boolean classification = nn.getFunctionName() == MININGFUNCTION.CLASSIFICATION;
+        List<Target> targets = Target.compile(neuralOutputs, neuronIndexes, findTargets(schema, dictionary), classification);
+        List<OutputField> outputs = classification
+                ? getOutputFields(output, RESULTFEATURE.PREDICTED_VALUE, RESULTFEATURE.PROBABILITY)
+                : getOutputFields(output, RESULTFEATURE.PREDICTED_VALUE);
+        if (targets == null || targets.isEmpty() || outputs == null) {
+            return null;
+        }
+        for (OutputField field : outputs) {
+            if (findTarget(targets, field) == null) {
+                return null;
+            }
+        }
+        return new NeuralNetworkEvaluator(modelId, inputs, neuronIndexes.size(), inputNeurons, layers, targets, outputs);
+    }
+
+    private static Target findTarget(List<Target> targets, OutputField field) {
+        for (Target target : targets) {
+            if (field.getTargetField() == null || field.getTargetField().equals(target.field)) {
+                return target;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected void evaluate(Object[] values, PMML4Result result) {
+        RecordBuffers buffers = recordBuffers.get();
+        Object[] columns = buffers.columns;
+        for (int i = 0; i < values.length; i++) {
+            if (inputs.isNumeric(i)) {
+                ((double[]) columns[i])[0] = values[i] != null ? (Double) values[i] : Double.NaN;
+            } else {
+                ((Object[]) columns[i])[0] = values[i];
+            }
+        }
+        double[][] neurons = propagate(columns, 0, 1, buffers.neurons);
+
+        for (Target target : targets) {
+            if (target.categories == null) {
+                double value = target.value(neurons, 0);
+                if (!Double.isNaN(value)) {
+                    addResult(result, target.variable, value, null);
+                }
+            } else {
+                int winner = target.winner(neurons, 0);
+                if (winner >= 0) {
+                    addResult(result, target.variable, target.categories[winner], neurons[target.neurons[winner]][0]);
+                }
+            }
+        }
+        for (int i = 0; i < outputs.length; i++) {
+            OutputField output = outputs[i];
+            Target target = outputTargets[i];
+            if (target.categories == null) {
+                double value = target.value(neurons, 0);
+                if (!Double.isNaN(value)) {
+                    addResult(result, variableOf(output.getName()), value, null);
+                }
+                continue;
+            }
+            int winner = target.winner(neurons, 0);
+            if (winner < 0) {
+                continue;
+            }
+            if (output.getFeature() != RESULTFEATURE.PROBABILITY) {
+                addResult(result, variableOf(output.getName()), target.categories[winner], neurons[target.neurons[winner]][0]);
+            } else {
+                int category = output.getValue() == null ? winner : target.indexOf(output.getValue());
+                if (category >= 0) {
+                    addResult(result, variableOf(output.getName()), neurons[target.neurons[category]][0], null);
+                }
+            }
+        }
+    }
+
+    @Override
+    public PMMLBatch evaluate(PMMLBatch batch) {
+        Object[] columns = inputs.readColumns(batch);
+        int size = batch.size();
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Target target : targets) {
+            results.put(target.variable, target.categories == null ? new double[size] : new Object[size]);
+        }
+        for (int i = 0; i < outputs.length; i++) {
+            OutputField output = outputs[i];
+            Target target = outputTargets[i];
+            boolean numeric = target.categories == null || output.getFeature() == RESULTFEATURE.PROBABILITY;
+            results.put(variableOf(output.getName()), numeric ? new double[size] : new Object[size]);
+        }
+
+        // one buffer for all the blocks of the batch, with a last row for the normalization of the layers
+        double[][] neurons = new double[neuronCount + 1][Math.min(BLOCK_SIZE, Math.max(size, 1))];
+        for (int from = 0; from < size; from += BLOCK_SIZE) {
+            int n = Math.min(BLOCK_SIZE, size - from);
+            propagate(columns, from, n, neurons);
+            for (Target target : targets) {
+                target.write(neurons, from, n, results.get(target.variable), null, false);
+            }
+            for (int i = 0; i < outputs.length; i++) {
+                OutputField output = outputs[i];
+                Target target = outputTargets[i];
+                target.write(neurons, from, n, results.get(variableOf(output.getName())),
+                             output.getValue(), output.getFeature() == RESULTFEATURE.PROBABILITY);
+            }
+        }
+
+        PMMLBatch batchResults = new PMMLBatch(size);
+        for (Map.Entry<String, Object> column : results.entrySet()) {
+            if (column.getValue() instanceof double[]) {
+                batchResults.addColumn(column.getKey(), (double[]) column.getValue());
+            } else {
+                batchResults.addColumn(column.getKey(), (Object[]) column.getValue());
+            }
+        }
+        return batchResults;
+    }
+
+    /**
+     * Computes the values of all the neurons for the records [from, from + n) of the columns.
+     * The last row of the neurons is a scratch buffer.
+     */
+    private double[][] propagate(Object[] columns, int from, int n, double[][] neurons) {
+        for (int i = 0; i < inputNeurons.length; i++) {
+            inputNeurons[i].compute(columns, from, n, neurons[i]);
+        }
+        for (Layer layer : layers) {
+            layer.propagate(neurons, n, neurons[neuronCount]);
+        }
+        return neurons;
+    }
+
+    /**
+     * Returns the points of a piecewise linear function, or null if there are
+     * less than two or their abscissas are not increasing.
+     */
+    private static double[][] points(List<LinearNorm> norms, boolean inverse) {
+        if (norms.size() < 2) {
+            return null;
+        }
+        double[] xs = new double[norms.size()];
+        double[] ys = new double[norms.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = inverse ? norms.get(i).getNorm() : norms.get(i).getOrig();
+            ys[i] = inverse ? norms.get(i).getOrig() : norms.get(i).getNorm();
+            if (i > 0 && xs[i] <= xs[i - 1]) {
+                return null;
+            }
+        }
+        return new double[][] { xs, ys };
+    }
+
+    /**
+     * Interpolates the piecewise linear function, extrapolating the first and the last tract.
+     */
+    private static double interpolate(double x, double[] xs, double[] ys) {
+        int i = 1;
+        while (i < xs.length - 1 && x > xs[i]) {
+            i++;
+        }
+        return ys[i - 1] + (x - xs[i - 1]) * (ys[i] - ys[i - 1]) / (xs[i] - xs[i - 1]);
+    }
+
+    static final class InputNeuron {
+
+        private int field;
+        private boolean numeric;
+        // NormContinuous
+        private double[] xs;
+        private double[] ys;
+        private OUTLIERTREATMENTMETHOD outliers;
+        // NormDiscrete
+        private boolean discrete;
+        private String value;
+        private double number;
+        private double mapMissingTo = Double.NaN;
+
+        static InputNeuron compile(DerivedField df, InputFields inputs) {
+            if (df == null) {
+                return null;
+            }
+            InputNeuron neuron = new InputNeuron();
+            String fieldName;
+            Object mapMissingTo;
+            if (df.getFieldRef() != null) {
+                fieldName = df.getFieldRef().getField();
+                mapMissingTo = df.getFieldRef().getMapMissingTo();
+            } else if (df.getNormContinuous() != null) {
+                NormContinuous nc = df.getNormContinuous();
+                double[][] points = points(nc.getLinearNorms(), false);
+                if (points == null) {
+                    return null;
+                }
+                fieldName = nc.getField();
+                mapMissingTo = nc.getMapMissingTo();
+                neuron.xs = points[0];
+                neuron.ys = points[1];
+                neuron.outliers = nc.getOutliers();
+            } else if (df.getNormDiscrete() != null) {
+                NormDiscrete nd = df.getNormDiscrete();
+                Object number = InputFields.convert(nd.getValue(), true);
+                fieldName = nd.getField();
+                mapMissingTo = nd.getMapMissingTo();
+                neuron.discrete = true;
+                neuron.value = nd.getValue();
+                neuron.number = number != null ? (Double) number : Double.NaN;
+            } else {
+                return null;
+            }
+            neuron.field = inputs.indexOf(fieldName);
+            if (neuron.field < 0) {
+                return null;
+            }
+            neuron.numeric = inputs.isNumeric(neuron.field);
+            if (!neuron.numeric && !neuron.discrete) {
+                return null;
+            }
+            if (mapMissingTo != null) {
+                Object missing = InputFields.convert(mapMissingTo, true);
+                if (missing == null) {
+                    return null;
+                }
+                neuron.mapMissingTo = (Double) missing;
+            }
+            return neuron;
+        }
+
+        void compute(Object[] columns, int from, int n, double[] out) {
+            if (!numeric) {
+                Object[] column = (Object[]) columns[field];
+                for (int r = 0; r < n; r++) {
+                    Object v = column[from + r];
+                    out[r] = v == null ? mapMissingTo
+                            : (v instanceof Double ? (Double) v == number : value.equals(v.toString())) ? 1.0 : 0.0;
+                }
+                return;
+            }
+            double[] column = (double[]) columns[field];
+            for (int r = 0; r < n; r++) {
+                double x = column[from + r];
+                if (Double.isNaN(x)) {
+                    out[r] = mapMissingTo;
+                } else if (discrete) {
+                    out[r] = x == number ? 1.0 : 0.0;
+                } else if (xs == null) {
+                    out[r] = x;
+                } else if (x < xs[0] || x > xs[xs.length - 1]) {
+                    out[r] = outliers == OUTLIERTREATMENTMETHOD.AS_MISSING_VALUES ? mapMissingTo
+                            : outliers == OUTLIERTREATMENTMETHOD.AS_EXTREME_VALUES ? (x < xs[0] ? ys[0] : ys[ys.length - 1])
+                            : interpolate(x, xs, ys);
+                } else {
+                    out[r] = interpolate(x, xs, ys);
+                }
+            }
+        }
+    }
+
+    static final class Layer {
+
+        private static final int IDENTITY = 0;
+        private static final int THRESHOLD = 1;
+        private static final int LOGISTIC = 2;
+        private static final int TANH = 3;
+        private static final int EXPONENTIAL = 4;
+        private static final int RECIPROCAL = 5;
+        private static final int SQUARE = 6;
+        private static final int GAUSS = 7;
+        private static final int SINE = 8;
+        private static final int COSINE = 9;
+        private static final int ELLIOTT = 10;
+        private static final int ARCTAN = 11;
+
+        private int[] neurons;
+        private double[] biases;
+        private int[][] sources;
+        private double[][] weights;
+        private int activation;
+        private double threshold;
+        private NNNORMALIZATIONMETHOD normalization;
+
+        static Layer compile(NeuralNetwork nn, NeuralLayer nl, Map<String, Integer> neuronIndexes) {
+            Layer layer = new Layer();
+            ACTIVATIONFUNCTION activation = nl.getActivationFunction() != null ? nl.getActivationFunction() : nn.getActivationFunction();
+            layer.activation = toActivation(activation != null ? activation.value() : null);
+            if (layer.activation < 0) {
+                return null;
+            }
+            Number threshold = nl.getThreshold();
+            Number defaultThreshold = nn.getThreshold();
+            layer.threshold = threshold != null ? threshold.doubleValue() : (defaultThreshold != null ? defaultThreshold.doubleValue() : 0.0);
+            layer.normalization = nl.getNormalizationMethod();
+            if (layer.normalization == null || layer.normalization == NNNORMALIZATIONMETHOD.NONE) {
+                layer.normalization = nn.getNormalizationMethod();
+            }
+            if (layer.normalization == NNNORMALIZATIONMETHOD.NONE) {
+                layer.normalization = null;
+            }
+
+            List<Neuron> neurons = nl.getNeurons();
+            layer.neurons = new int[neurons.size()];
+            layer.biases = new double[neurons.size()];
+            layer.sources = new int[neurons.size()][];
+            layer.weights = new double[neurons.size()][];
+            for (int j = 0; j < neurons.size(); j++) {
+                Neuron neuron = neurons.get(j);
+                Number bias = neuron.getBias();
+                layer.biases[j] = bias != null ? bias.doubleValue() : 0.0;
+                List<Synapse> cons = neuron.getCons();
+                layer.sources[j] = new int[cons.size()];
+                layer.weights[j] = new double[cons.size()];
+                for (int k = 0; k < cons.size(); k++) {
+                    // connections can only come from the inputs or the previous layers
+                    Integer source = neuronIndexes.get(cons.get(k).getFrom());
+                    if (source == null) {
+                        return null;
+                    }
+                    layer.sources[j][k] = source;
+                    layer.weights[j][k] = cons.get(k).getWeight();
+                }
+            }
+            for (int j = 0; j < neurons.size(); j++) {
+                if (neuronIndexes.containsKey(neurons.get(j).getId())) {
+                    return null;
+                }
+                layer.neurons[j] = neuronIndexes.size();
+                neuronIndexes.put(neurons.get(j).getId(), layer.neurons[j]);
+            }
+            return layer;
+        }
+
+        /**
+         * Same functions as PMML4Helper.mapNeuralActivation, -1 for the unsupported ones.
+         */
+        private static int toActivation(String functor) {
+            if (functor == null) {
+                return IDENTITY;
+            }
+            switch (functor) {
+                case "identity":
+                    return IDENTITY;
+                case "threshold":
+                    return THRESHOLD;
+                case "logistic":
+                    return LOGISTIC;
+                case "tanh":
+                    return TANH;
+                case "exponential":
+                    return EXPONENTIAL;
+                case "reciprocal":
+                    return RECIPROCAL;
+                case "square":
+                    return SQUARE;
+                case "Gauss":
+                    return GAUSS;
+                case "sine":
+                    return SINE;
+                case "cosine":
+                    return COSINE;
+                case "Elliott":
+                    return ELLIOTT;
+                case "arctan":
+                    return ARCTAN;
+                default:
+                    return -1;
+            }
+        }
+
+        void propagate(double[][] values, int n, double[] sum) {
+            for (int j = 0; j < neurons.length; j++) {
+                double[] out = values[neurons[j]];
+                Arrays.fill(out, 0, n, biases[j]);
+                int[] from = sources[j];
+                double[] w = weights[j];
+                for (int k = 0; k < from.length; k++) {
+                    double[] in = values[from[k]];
+                    double weight = w[k];
+                    for (int r = 0; r < n; r++) {
+                        out[r] += weight * in[r];
+                    }
+                }
+                activate(out, n);
+            }
+            if (normalization == NNNORMALIZATIONMETHOD.SOFTMAX) {
+                for (int j = 0; j < neurons.length; j++) {
+                    double[] out = values[neurons[j]];
+                    for (int r = 0; r < n; r++) {
+                        out[r] = Math.exp(out[r]);
+                    }
+                }
+            }
+            if (normalization != null) {
+                Arrays.fill(sum, 0, n, 0);
+                for (int j = 0; j < neurons.length; j++) {
+                    double[] out = values[neurons[j]];
+                    for (int r = 0; r < n; r++) {
+                        sum[r] += out[r];
+                    }
+                }
+                for (int j = 0; j < neurons.length; j++) {
+                    double[] out = values[neurons[j]];
+                    for (int r = 0; r < n; r++) {
+                        out[r] /= sum[r];
+                    }
+                }
+            }
+        }
+
+        private void activate(double[] x, int n) {
+            switch (activation) {
+                case THRESHOLD:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = Double.isNaN(x[r]) ? x[r] : (x[r] > threshold ? 1.0 : 0.0);
+                    }
+                    break;
+                case LOGISTIC:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = 1.0 / (1.0 + Math.exp(-x[r]));
+                    }
+                    break;
+                case TANH:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = Math.tanh(x[r]);
+                    }
+                    break;
+                case EXPONENTIAL:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = Math.exp(x[r]);
+                    }
+                    break;
+                case RECIPROCAL:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = 1.0 / x[r];
+                    }
+                    break;
+                case SQUARE:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = x[r] * x[r];
+                    }
+                    break;
+                case GAUSS:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = Math.exp(-x[r] * x[r]);
+                    }
+                    break;
+                case SINE:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = Math.sin(x[r]);
+                    }
+                    break;
+                case COSINE:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = Math.cos(x[r]);
+                    }
+                    break;
+                case ELLIOTT:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = x[r] / (1.0 + Math.abs(x[r]));
+                    }
+                    break;
+                case ARCTAN:
+                    for (int r = 0; r < n; r++) {
+                        x[r] = 2.0 * Math.atan(x[r]) / Math.PI;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * A target field, computed from one output neuron (regression) or from one
+     * neuron per category (classification).
+     */
+    static final class Target {
+
+        private String field;
+        private String variable;
+        private int[] neurons;
+        // regression
+        private double[] xs;
+        private double[] ys;
+        // classification
+        private Object[] categories;
+        private String[] labels;
+
+        static List<Target> compile(NeuralOutputs neuralOutputs, Map<String, Integer> neuronIndexes,
+                                    List<DataField> targetFields, boolean classification) {
+            Map<String, DataField> fields = new HashMap<>();
+            for (DataField field : targetFields) {
+                fields.put(field.getName(), field);
+            }
+            Map<String, List<NeuralOutput>> byField = new LinkedHashMap<>();
+            for (NeuralOutput no : neuralOutputs.getNeuralOutputs()) {
+                DerivedField df = no.getDerivedField();
+                String fieldName = df == null ? null
+                        : df.getFieldRef() != null ? df.getFieldRef().getField()
+                        : df.getNormContinuous() != null ? df.getNormContinuous().getField()
+                        : df.getNormDiscrete() != null ? df.getNormDiscrete().getField()
+                        : null;
+                if (fieldName == null || !fields.containsKey(fieldName) || !neuronIndexes.containsKey(no.getOutputNeuron())) {
+                    return null;
+                }
+                byField.computeIfAbsent(fieldName, k -> new ArrayList<>()).add(no);
+            }
+
+            List<Target> targets = new ArrayList<>();
+            for (Map.Entry<String, List<NeuralOutput>> entry : byField.entrySet()) {
+                Target target = new Target();
+                target.field = entry.getKey();
+                target.variable = variableOf(entry.getKey());
+                List<NeuralOutput> outs = entry.getValue();
+                target.neurons = new int[outs.size()];
+                for (int i = 0; i < outs.size(); i++) {
+                    target.neurons[i] = neuronIndexes.get(outs.get(i).getOutputNeuron());
+                }
+                if (classification) {
+                    String type = typeOf(fields.get(entry.getKey()));
+                    target.categories = new Object[outs.size()];
+                    target.labels = new String[outs.size()];
+                    for (int i = 0; i < outs.size(); i++) {
+                        NormDiscrete nd = outs.get(i).getDerivedField().getNormDiscrete();
+                        if (nd == null) {
+                            return null;
+                        }
+                        target.labels[i] = nd.getValue();
+                        target.categories[i] = toType(type, nd.getValue());
+                    }
+                } else {
+                    if (outs.size() != 1) {
+                        return null;
+                    }
+                    NormContinuous nc = outs.get(0).getDerivedField().getNormContinuous();
+                    if (nc != null) {
+                        // the neural templates invert the normalization, swapping orig and norm
+                        double[][] points = points(nc.getLinearNorms(), true);
+                        if (points == null) {
+                            return null;
+                        }
+                        target.xs = points[0];
+                        target.ys = points[1];
+                    } else if (outs.get(0).getDerivedField().getFieldRef() == null) {
+                        return null;
+                    }
+                }
+                targets.add(target);
+            }
+            return targets;
+        }
+
+        int indexOf(String label) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i].equals(label)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        double value(double[][] values, int r) {
+            double y = values[neurons[0]][r];
+            return xs == null || Double.isNaN(y) ? y : interpolate(y, xs, ys);
+        }
+
+        /**
+         * Returns the index of the most probable category, or -1 if the record has no prediction.
+         */
+        int winner(double[][] values, int r) {
+            int winner = 0;
+            for (int i = 0; i < neurons.length; i++) {
+                double p = values[neurons[i]][r];
+                if (Double.isNaN(p)) {
+                    return -1;
+                }
+                if (p > values[neurons[winner]][r]) {
+                    winner = i;
+                }
+            }
+            return winner;
+        }
+
+        /**
+         * Writes the values of a block of records in a result column: the value of
+         * a regression, the category or the probability of a classification.
+         */
+        void write(double[][] values, int from, int n, Object column, String label, boolean probability) {
+            if (categories == null) {
+                double[] out = (double[]) column;
+                for (int r = 0; r < n; r++) {
+                    out[from + r] = value(values, r);
+                }
+                return;
+            }
+            int category = label != null ? indexOf(label) : -1;
+            for (int r = 0; r < n; r++) {
+                int winner = winner(values, r);
+                if (!probability) {
+                    ((Object[]) column)[from + r] = winner >= 0 ? categories[winner] : null;
+                } else if (winner < 0 || (label != null && category < 0)) {
+                    ((double[]) column)[from + r] = Double.NaN;
+                } else {
+                    ((double[]) column)[from + r] = values[neurons[label != null ? category : winner]][r];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2.evaluator;
+
+import java.io.Serializable;
+
+/**
+ * Result variable added by the evaluators: it exposes the same properties
+ * as the output types generated for the rule based execution, so that
+ * PMML4Result.getResultValue( name, "value" ) works the same way.
+ */
+public class OutputValue implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String context;
+    private Object value;
+    private Double weight;
+    private boolean valid = true;
+    private boolean missing = false;
+
+    public OutputValue() { }
+
+    public OutputValue(String context, Object value, Double weight) {
+        this.context = context;
+        this.value = value;
+        this.weight = weight;
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    public void setContext(String context) {
+        this.context = context;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public void setValue(Object value) {
+        this.value = value;
+    }
+
+    public Double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Double weight) {
+        this.weight = weight;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    public boolean isMissing() {
+        return missing;
+    }
+
+    public void setMissing(boolean missing) {
+        this.missing = missing;
+    }
+
+    @Override
+    public String toString() {
+        return "OutputValue [context=" + context + ", value=" + value + ", weight=" + weight + "]";
+    }
+}
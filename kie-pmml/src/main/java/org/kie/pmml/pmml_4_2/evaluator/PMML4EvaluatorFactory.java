@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2.evaluator;
+
+import org.kie.dmg.pmml.pmml_4_2.descr.DataDictionary;
+import org.kie.dmg.pmml.pmml_4_2.descr.NeuralNetwork;
+import org.kie.pmml.pmml_4_2.PMML4Evaluator;
+import org.kie.pmml.pmml_4_2.PMML4Model;
+import org.kie.pmml.pmml_4_2.model.Regression;
+import org.kie.pmml.pmml_4_2.model.Treemodel;
+
+public class PMML4EvaluatorFactory {
+    static PMML4EvaluatorFactory instance = new PMML4EvaluatorFactory();
+
+    private PMML4EvaluatorFactory() {
+        // Nothing to do for now
+    }
+
+    public static PMML4EvaluatorFactory getInstance() {
+        return PMML4EvaluatorFactory.instance;
+    }
+
+    /**
+     * Returns an evaluator for the model, or null if the model has to be
+     * executed by the rules: only regression and tree models are supported,
+     * and only as long as they don't use derived fields, targets, aggregating
+     * missing value strategies or output features other than the predicted
+     * value and the probabilities of a classification.
+     */
+    public PMML4Evaluator getEvaluator(PMML4Model model) {
+        if (model == null || model.getMiningSchema() == null) {
+            return null;
+        }
+        switch (model.getModelType()) {
+            case REGRESSION:
+                return RegressionEvaluator.create((Regression) model);
+            case TREE:
+                return TreeEvaluator.create((Treemodel) model);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns an evaluator for the neural network, or null if the network has to be
+     * executed by the rules: radial basis neurons, local transformations and targets
+     * are not supported.
+     */
+    public PMML4Evaluator getEvaluator(String modelId, NeuralNetwork network, DataDictionary dictionary) {
+        if (network == null) {
+            return null;
+        }
+        return NeuralNetworkEvaluator.create(modelId, network, dictionary);
+    }
+}
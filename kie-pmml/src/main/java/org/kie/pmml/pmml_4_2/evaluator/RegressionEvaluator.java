@@ -0,0 +1,497 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2.evaluator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.kie.api.pmml.PMML4Result;
+import org.kie.dmg.pmml.pmml_4_2.descr.CategoricalPredictor;
+import org.kie.dmg.pmml.pmml_4_2.descr.DataField;
+import org.kie.dmg.pmml.pmml_4_2.descr.FieldRef;
+import org.kie.dmg.pmml.pmml_4_2.descr.MININGFUNCTION;
+import org.kie.dmg.pmml.pmml_4_2.descr.NumericPredictor;
+import org.kie.dmg.pmml.pmml_4_2.descr.OPTYPE;
+import org.kie.dmg.pmml.pmml_4_2.descr.OutputField;
+import org.kie.dmg.pmml.pmml_4_2.descr.PredictorTerm;
+import org.kie.dmg.pmml.pmml_4_2.descr.REGRESSIONNORMALIZATIONMETHOD;
+import org.kie.dmg.pmml.pmml_4_2.descr.RESULTFEATURE;
+import org.kie.dmg.pmml.pmml_4_2.descr.RegressionModel;
+import org.kie.dmg.pmml.pmml_4_2.descr.RegressionTable;
+import org.kie.pmml.pmml_4_2.PMMLBatch;
+import org.kie.pmml.pmml_4_2.model.Regression;
+
+/**
+ * Evaluates regression and classification RegressionModels, with the same
+ * normalizations applied by the regression templates. The tables are compiled
+ * into arrays of field indexes and coefficients when the evaluator is built;
+ * batches are scored a table at a time, with loops over the input columns.
+ */
+public class RegressionEvaluator extends AbstractEvaluator {
+
+    private final String targetVariable;
+    private final String targetType;
+    private final boolean classification;
+    private final REGRESSIONNORMALIZATIONMETHOD normalization;
+    private final Table[] tables;
+    private final OutputField[] outputs;
+
+    private RegressionEvaluator(Regression model, InputFields inputs, DataField target, boolean classification,
+                                REGRESSIONNORMALIZATIONMETHOD normalization, List<Table> tables, List<OutputField> outputs) {
+        super(model.getModelId(), inputs);
+        this.targetVariable = variableOf(target.getName());
+        this.targetType = typeOf(target);
+        this.classification = classification;
+        this.normalization = normalization;
+        this.tables = tables.toArray(new Table[tables.size()]);
+        this.outputs = outputs.toArray(new OutputField[outputs.size()]);
+    }
+
+    /**
+     * Returns null if the model uses anything the evaluator does not support.
+     */
+    public static RegressionEvaluator create(Regression model) {
+        RegressionModel raw = (RegressionModel) model.getRawModel();
+        InputFields inputs = InputFields.create(model);
+        DataField target = findTarget(model.getMiningSchema(), model.getDataDictionary());
+        if (inputs == null || target == null || hasTargets(raw.getExtensionsAndRegressionTablesAndMiningSchemas())) {
+            return null;
+        }
+
+        boolean classification = raw.getFunctionName() == MININGFUNCTION.CLASSIFICATION;
+        REGRESSIONNORMALIZATIONMETHOD normalization = raw.getNormalizationMethod() != null ? raw.getNormalizationMethod() : REGRESSIONNORMALIZATIONMETHOD.NONE;
+        if (!isSupported(normalization, classification) || (classification && target.getOptype() == OPTYPE.ORDINAL)) {
+            return null;
+        }
+
+        List<Table> tables = new ArrayList<>();
+        for (Serializable ser : raw.getExtensionsAndRegressionTablesAndMiningSchemas()) {
+            if (ser instanceof RegressionTable) {
+                Table table = Table.compile((RegressionTable) ser, inputs);
+                if (table == null) {
+                    return null;
+                }
+                tables.add(table);
+            }
+        }
+        if (tables.isEmpty() || (!classification && tables.size() > 1)) {
+            return null;
+        }
+
+        List<OutputField> outputs = classification
+                ? getOutputFields(model.getOutput(), RESULTFEATURE.PREDICTED_VALUE, RESULTFEATURE.PROBABILITY)
+                : getOutputFields(model.getOutput(), RESULTFEATURE.PREDICTED_VALUE);
+        if (outputs == null) {
+            return null;
+        }
+        return new RegressionEvaluator(model, inputs, target, classification, normalization, tables, outputs);
+    }
+
+    private static boolean isSupported(REGRESSIONNORMALIZATIONMETHOD normalization, boolean classification) {
+        switch (normalization) {
+            case NONE:
+            case EXP:
+            case SOFTMAX:
+            case LOGIT:
+                return true;
+            case PROBIT:
+            case CLOGLOG:
+            case LOGLOG:
+            case CAUCHIT:
+                return classification;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected void evaluate(Object[] values, PMML4Result result) {
+        if (classification) {
+            classify(values, result);
+        } else {
+            double x = tables[0].score(values);
+            if (Double.isNaN(x)) {
+                return;
+            }
+            Double y = normalizeRegression(x);
+            addResult(result, targetVariable, y, null);
+            for (OutputField output : outputs) {
+                addResult(result, variableOf(output.getName()), y, null);
+            }
+        }
+    }
+
+    private void classify(Object[] values, PMML4Result result) {
+        double[] weights = new double[tables.length];
+        double sum = 0.0;
+        int winner = 0;
+        for (int i = 0; i < tables.length; i++) {
+            double x = tables[i].score(values);
+            if (Double.isNaN(x)) {
+                return;
+            }
+            weights[i] = normalizeClassification(x);
+            sum += weights[i];
+            if (weights[i] > weights[winner]) {
+                winner = i;
+            }
+        }
+        if (normalization == REGRESSIONNORMALIZATIONMETHOD.SOFTMAX && sum > 0.0) {
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] /= sum;
+            }
+        }
+
+        Object category = toType(targetType, tables[winner].category);
+        addResult(result, targetVariable, category, weights[winner]);
+        for (OutputField output : outputs) {
+            String variable = variableOf(output.getName());
+            if (output.getFeature() == RESULTFEATURE.PROBABILITY) {
+                if (output.getValue() == null) {
+                    addResult(result, variable, weights[winner], null);
+                } else {
+                    for (int i = 0; i < tables.length; i++) {
+                        if (output.getValue().equals(tables[i].category)) {
+                            addResult(result, variable, weights[i], null);
+                        }
+                    }
+                }
+            } else {
+                addResult(result, variable, category, weights[winner]);
+            }
+        }
+    }
+
+    @Override
+    public PMMLBatch evaluate(PMMLBatch batch) {
+        Object[] columns = inputs.readColumns(batch);
+        int size = batch.size();
+        PMMLBatch results = new PMMLBatch(size);
+        if (!classification) {
+            double[] y = tables[0].score(columns, size);
+            for (int row = 0; row < size; row++) {
+                y[row] = normalizeRegression(y[row]);
+            }
+            results.addColumn(targetVariable, y);
+            for (OutputField output : outputs) {
+                results.addColumn(variableOf(output.getName()), y);
+            }
+            return results;
+        }
+
+        double[][] weights = new double[tables.length][];
+        for (int i = 0; i < tables.length; i++) {
+            weights[i] = tables[i].score(columns, size);
+            for (int row = 0; row < size; row++) {
+                weights[i][row] = normalizeClassification(weights[i][row]);
+            }
+        }
+        // a missing weight makes the sum NaN, so the whole record is missing
+        double[] sum = new double[size];
+        for (double[] w : weights) {
+            for (int row = 0; row < size; row++) {
+                sum[row] += w[row];
+            }
+        }
+        if (normalization == REGRESSIONNORMALIZATIONMETHOD.SOFTMAX) {
+            for (double[] w : weights) {
+                for (int row = 0; row < size; row++) {
+                    if (sum[row] > 0.0) {
+                        w[row] /= sum[row];
+                    }
+                }
+            }
+        }
+
+        Object[] categories = new Object[size];
+        double[] probabilities = new double[size];
+        Object[] values = new Object[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            values[i] = toType(targetType, tables[i].category);
+        }
+        for (int row = 0; row < size; row++) {
+            if (Double.isNaN(sum[row])) {
+                probabilities[row] = Double.NaN;
+                continue;
+            }
+            int winner = 0;
+            for (int i = 1; i < tables.length; i++) {
+                if (weights[i][row] > weights[winner][row]) {
+                    winner = i;
+                }
+            }
+            categories[row] = values[winner];
+            probabilities[row] = weights[winner][row];
+        }
+
+        results.addColumn(targetVariable, categories);
+        for (OutputField output : outputs) {
+            String variable = variableOf(output.getName());
+            if (output.getFeature() != RESULTFEATURE.PROBABILITY) {
+                results.addColumn(variable, categories);
+            } else if (output.getValue() == null) {
+                results.addColumn(variable, probabilities);
+            } else {
+                for (int i = 0; i < tables.length; i++) {
+                    if (output.getValue().equals(tables[i].category)) {
+                        double[] p = weights[i];
+                        for (int row = 0; row < size; row++) {
+                            if (Double.isNaN(sum[row])) {
+                                p[row] = Double.NaN;
+                            }
+                        }
+                        results.addColumn(variable, p);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private double normalizeRegression(double x) {
+        switch (normalization) {
+            case EXP:
+                return Math.exp(x);
+            case SOFTMAX:
+            case LOGIT:
+                return 1.0 / (1.0 + Math.exp(-x));
+            default:
+                return x;
+        }
+    }
+
+    private double normalizeClassification(double x) {
+        switch (normalization) {
+            case EXP:
+            case SOFTMAX:
+                return Math.exp(x);
+            case LOGIT:
+                return 1.0 / (1.0 + Math.exp(-x));
+            case PROBIT:
+                return probitPhi(x);
+            case CLOGLOG:
+                return 1.0 - Math.exp(-Math.exp(x));
+            case LOGLOG:
+                return Math.exp(-Math.exp(-x));
+            case CAUCHIT:
+                return 0.5 + Math.atan(x) / Math.PI;
+            default:
+                return x;
+        }
+    }
+
+    /**
+     * Same approximation of the normal cdf used by the probitPhi function of the templates.
+     */
+    static double probitPhi(double z) {
+        if (z < -8.0) {
+            return 0.0;
+        }
+        if (z > 8.0) {
+            return 1.0;
+        }
+        double sum = 0.0;
+        double term = z;
+        for (int i = 3; sum + term != sum; i += 2) {
+            sum = sum + term;
+            term = term * z * z / i;
+        }
+        return 0.5 + sum * Math.exp(-z * z / 2.0) / Math.sqrt(2 * Math.PI);
+    }
+
+    static final class Table {
+
+        private String category;
+        private double intercept;
+
+        private int[] numericIndexes;
+        private double[] numericCoefficients;
+        private double[] numericExponents;
+
+        private int[] categoricalIndexes;
+        private String[] categoricalValues;
+        private double[] categoricalNumbers;
+        private double[] categoricalCoefficients;
+
+        private int[][] termIndexes;
+        private double[] termCoefficients;
+
+        static Table compile(RegressionTable rt, InputFields inputs) {
+            Table table = new Table();
+            table.category = rt.getTargetCategory();
+            Number intercept = rt.getIntercept();
+            table.intercept = intercept != null ? intercept.doubleValue() : 0.0;
+
+            List<NumericPredictor> numerics = rt.getNumericPredictors();
+            table.numericIndexes = new int[numerics.size()];
+            table.numericCoefficients = new double[numerics.size()];
+            table.numericExponents = new double[numerics.size()];
+            for (int i = 0; i < numerics.size(); i++) {
+                NumericPredictor np = numerics.get(i);
+                int index = inputs.indexOf(np.getName());
+                if (index < 0 || !inputs.isNumeric(index)) {
+                    return null;
+                }
+                Number exponent = np.getExponent();
+                table.numericIndexes[i] = index;
+                table.numericCoefficients[i] = np.getCoefficient();
+                table.numericExponents[i] = exponent != null ? exponent.doubleValue() : 1.0;
+            }
+
+            List<CategoricalPredictor> categoricals = rt.getCategoricalPredictors();
+            table.categoricalIndexes = new int[categoricals.size()];
+            table.categoricalValues = new String[categoricals.size()];
+            table.categoricalNumbers = new double[categoricals.size()];
+            table.categoricalCoefficients = new double[categoricals.size()];
+            for (int i = 0; i < categoricals.size(); i++) {
+                CategoricalPredictor cp = categoricals.get(i);
+                int index = inputs.indexOf(cp.getName());
+                if (index < 0) {
+                    return null;
+                }
+                Object number = InputFields.convert(cp.getValue(), true);
+                table.categoricalIndexes[i] = index;
+                table.categoricalValues[i] = cp.getValue();
+                table.categoricalNumbers[i] = number != null ? (Double) number : Double.NaN;
+                table.categoricalCoefficients[i] = cp.getCoefficient();
+            }
+
+            List<PredictorTerm> terms = rt.getPredictorTerms();
+            table.termIndexes = new int[terms.size()][];
+            table.termCoefficients = new double[terms.size()];
+            for (int i = 0; i < terms.size(); i++) {
+                PredictorTerm pt = terms.get(i);
+                List<FieldRef> refs = pt.getFieldReves();
+                table.termIndexes[i] = new int[refs.size()];
+                for (int j = 0; j < refs.size(); j++) {
+                    int index = inputs.indexOf(refs.get(j).getField());
+                    if (index < 0 || !inputs.isNumeric(index)) {
+                        return null;
+                    }
+                    table.termIndexes[i][j] = index;
+                }
+                table.termCoefficients[i] = pt.getCoefficient();
+            }
+            return table;
+        }
+
+        /**
+         * Returns NaN if any of the fields used by the table is missing.
+         */
+        double score(Object[] values) {
+            double x = intercept;
+            for (int i = 0; i < numericIndexes.length; i++) {
+                Object v = values[numericIndexes[i]];
+                if (v == null) {
+                    return Double.NaN;
+                }
+                double d = (Double) v;
+                x += numericCoefficients[i] * (numericExponents[i] == 1.0 ? d : Math.pow(d, numericExponents[i]));
+            }
+            for (int i = 0; i < categoricalIndexes.length; i++) {
+                Object v = values[categoricalIndexes[i]];
+                if (v == null) {
+                    return Double.NaN;
+                }
+                boolean match = v instanceof Double
+                        ? (Double) v == categoricalNumbers[i]
+                        : categoricalValues[i].equals(v.toString());
+                if (match) {
+                    x += categoricalCoefficients[i];
+                }
+            }
+            for (int i = 0; i < termIndexes.length; i++) {
+                double product = termCoefficients[i];
+                for (int index : termIndexes[i]) {
+                    Object v = values[index];
+                    if (v == null) {
+                        return Double.NaN;
+                    }
+                    product *= (Double) v;
+                }
+                x += product;
+            }
+            return x;
+        }
+
+        /**
+         * Scores the table against all the records, with NaN where any of the fields used
+         * by the table is missing. The columns are the ones returned by InputFields.readColumns.
+         */
+        double[] score(Object[] columns, int size) {
+            double[] x = new double[size];
+            Arrays.fill(x, intercept);
+            for (int i = 0; i < numericIndexes.length; i++) {
+                double[] column = (double[]) columns[numericIndexes[i]];
+                double coefficient = numericCoefficients[i];
+                double exponent = numericExponents[i];
+                if (exponent == 1.0) {
+                    for (int row = 0; row < size; row++) {
+                        x[row] += coefficient * column[row];
+                    }
+                } else {
+                    for (int row = 0; row < size; row++) {
+                        x[row] += coefficient * Math.pow(column[row], exponent);
+                    }
+                }
+            }
+            for (int i = 0; i < categoricalIndexes.length; i++) {
+                Object column = columns[categoricalIndexes[i]];
+                double coefficient = categoricalCoefficients[i];
+                if (column instanceof double[]) {
+                    double[] numbers = (double[]) column;
+                    double value = categoricalNumbers[i];
+                    for (int row = 0; row < size; row++) {
+                        if (Double.isNaN(numbers[row])) {
+                            x[row] = Double.NaN;
+                        } else if (numbers[row] == value) {
+                            x[row] += coefficient;
+                        }
+                    }
+                } else {
+                    Object[] objects = (Object[]) column;
+                    for (int row = 0; row < size; row++) {
+                        Object v = objects[row];
+                        if (v == null) {
+                            x[row] = Double.NaN;
+                        } else if (v instanceof Double ? (Double) v == categoricalNumbers[i] : categoricalValues[i].equals(v.toString())) {
+                            x[row] += coefficient;
+                        }
+                    }
+                }
+            }
+            if (termIndexes.length > 0) {
+                double[] product = new double[size];
+                for (int i = 0; i < termIndexes.length; i++) {
+                    Arrays.fill(product, termCoefficients[i]);
+                    for (int index : termIndexes[i]) {
+                        double[] column = (double[]) columns[index];
+                        for (int row = 0; row < size; row++) {
+                            product[row] *= column[row];
+                        }
+                    }
+                    for (int row = 0; row < size; row++) {
+                        x[row] += product[row];
+                    }
+                }
+            }
+            return x;
+        }
+    }
+}
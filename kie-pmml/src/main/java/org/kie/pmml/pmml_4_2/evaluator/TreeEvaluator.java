@@ -0,0 +1,495 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2.evaluator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.api.pmml.PMML4Result;
+import org.kie.dmg.pmml.pmml_4_2.descr.DataField;
+import org.kie.dmg.pmml.pmml_4_2.descr.MISSINGVALUESTRATEGY;
+import org.kie.dmg.pmml.pmml_4_2.descr.NOTRUECHILDSTRATEGY;
+import org.kie.dmg.pmml.pmml_4_2.descr.Node;
+import org.kie.dmg.pmml.pmml_4_2.descr.OutputField;
+import org.kie.dmg.pmml.pmml_4_2.descr.RESULTFEATURE;
+import org.kie.dmg.pmml.pmml_4_2.descr.ScoreDistribution;
+import org.kie.dmg.pmml.pmml_4_2.descr.SimplePredicate;
+import org.kie.dmg.pmml.pmml_4_2.descr.TreeModel;
+import org.kie.pmml.pmml_4_2.PMMLBatch;
+import org.kie.pmml.pmml_4_2.model.Treemodel;
+
+/**
+ * Evaluates TreeModels the way the tree templates do: the nodes are visited
+ * depth first, in document order, backtracking from the subtrees where no
+ * leaf is true. The missing value strategies that aggregate over several
+ * nodes are left to the rules.
+ *
+ * The tree is compiled into flat arrays indexed by node, in document order:
+ * each node has the index of its first child, of its next sibling and of its
+ * default child. Splits comparing a numeric field with a constant are kept
+ * inline (field, operator and threshold) and read straight from the numeric
+ * columns; any other predicate is a CompiledPredicate.
+ */
+public class TreeEvaluator extends AbstractEvaluator {
+
+    private static final int NONE = -1;
+
+    /**
+     * Returned by the visit when the missing value strategy asks for a null prediction.
+     */
+    private static final int NO_PREDICTION = -2;
+
+    // inline split operators
+    private static final int PREDICATE = 0;
+    private static final int EQUAL = 1;
+    private static final int NOT_EQUAL = 2;
+    private static final int LESS_THAN = 3;
+    private static final int LESS_OR_EQUAL = 4;
+    private static final int GREATER_THAN = 5;
+    private static final int GREATER_OR_EQUAL = 6;
+    private static final int IS_MISSING = 7;
+    private static final int IS_NOT_MISSING = 8;
+
+    private final String targetVariable;
+    private final String[] outputVariables;
+    private final MISSINGVALUESTRATEGY missingValueStrategy;
+    private final double missingValuePenalty;
+    private final boolean returnLastPrediction;
+
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] defaultChild;
+    private final int[] operators;
+    private final int[] fields;
+    private final double[] thresholds;
+    private final CompiledPredicate[] predicates;
+    private final Object[] scores;
+    private final double[] confidences;
+
+    private TreeEvaluator(Treemodel model, InputFields inputs, DataField target, NodeArrays nodes,
+                          MISSINGVALUESTRATEGY missingValueStrategy, double missingValuePenalty,
+                          boolean returnLastPrediction, List<OutputField> outputs) {
+        super(model.getModelId(), inputs);
+        this.targetVariable = variableOf(target.getName());
+        this.outputVariables = new String[outputs.size()];
+        for (int i = 0; i < outputVariables.length; i++) {
+            outputVariables[i] = variableOf(outputs.get(i).getName());
+        }
+        this.missingValueStrategy = missingValueStrategy;
+        this.missingValuePenalty = missingValuePenalty;
+        this.returnLastPrediction = returnLastPrediction;
+
+        int size = nodes.size;
+        this.firstChild = Arrays.copyOf(nodes.firstChild, size);
+        this.nextSibling = Arrays.copyOf(nodes.nextSibling, size);
+        this.defaultChild = Arrays.copyOf(nodes.defaultChild, size);
+        this.operators = Arrays.copyOf(nodes.operators, size);
+        this.fields = Arrays.copyOf(nodes.fields, size);
+        this.thresholds = Arrays.copyOf(nodes.thresholds, size);
+        this.predicates = Arrays.copyOf(nodes.predicates, size);
+        this.confidences = Arrays.copyOf(nodes.confidences, size);
+        this.scores = new Object[size];
+        String targetType = typeOf(target);
+        for (int i = 0; i < size; i++) {
+            scores[i] = toType(targetType, nodes.scores[i]);
+        }
+    }
+
+    /**
+     * Returns null if the model uses anything the evaluator does not support.
+     */
+    public static TreeEvaluator create(Treemodel model) {
+        TreeModel raw = (TreeModel) model.getRawModel();
+        InputFields inputs = InputFields.create(model);
+        DataField target = findTarget(model.getMiningSchema(), model.getDataDictionary());
+        List<OutputField> outputs = getOutputFields(model.getOutput(), RESULTFEATURE.PREDICTED_VALUE);
+        if (inputs == null || target == null || outputs == null || hasTargets(raw.getExtensionsAndNodesAndMiningSchemas())) {
+            return null;
+        }
+
+        MISSINGVALUESTRATEGY strategy = raw.getMissingValueStrategy() != null ? raw.getMissingValueStrategy() : MISSINGVALUESTRATEGY.NONE;
+        if (strategy == MISSINGVALUESTRATEGY.AGGREGATE_NODES || strategy == MISSINGVALUESTRATEGY.WEIGHTED_CONFIDENCE) {
+            return null;
+        }
+        Number penalty = raw.getMissingValuePenalty();
+
+        Node rawRoot = null;
+        for (Serializable ser : raw.getExtensionsAndNodesAndMiningSchemas()) {
+            if (ser instanceof Node) {
+                rawRoot = (Node) ser;
+            }
+        }
+        if (rawRoot == null) {
+            return null;
+        }
+        NodeArrays nodes = new NodeArrays(inputs);
+        if (nodes.compile(rawRoot) < 0 || !nodes.resolveDefaultChildren()) {
+            return null;
+        }
+
+        boolean returnLastPrediction = raw.getNoTrueChildStrategy() == NOTRUECHILDSTRATEGY.RETURN_LAST_PREDICTION
+                && strategy == MISSINGVALUESTRATEGY.NONE;
+        return new TreeEvaluator(model, inputs, target, nodes, strategy,
+                                 penalty != null ? penalty.doubleValue() : 1.0, returnLastPrediction, outputs);
+    }
+
+    @Override
+    protected void evaluate(Object[] values, PMML4Result result) {
+        Object[] columns = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            columns[i] = inputs.isNumeric(i)
+                    ? new double[] { values[i] != null ? (Double) values[i] : Double.NaN }
+                    : new Object[] { values[i] };
+        }
+        Cursor cursor = new Cursor(columns, values);
+        int node = find(cursor);
+        if (node < 0) {
+            return;
+        }
+        Double weight = cursor.confidence * confidences[node];
+        addResult(result, targetVariable, scores[node], weight);
+        for (String output : outputVariables) {
+            addResult(result, output, scores[node], weight);
+        }
+    }
+
+    @Override
+    public PMMLBatch evaluate(PMMLBatch batch) {
+        int size = batch.size();
+        Object[] predictions = new Object[size];
+        Cursor cursor = new Cursor(inputs.readColumns(batch), new Object[inputs.size()]);
+        for (int row = 0; row < size; row++) {
+            cursor.moveTo(row);
+            int node = find(cursor);
+            predictions[row] = node >= 0 ? scores[node] : null;
+        }
+
+        PMMLBatch results = new PMMLBatch(size).addColumn(targetVariable, predictions);
+        for (String output : outputVariables) {
+            results.addColumn(output, predictions.clone());
+        }
+        return results;
+    }
+
+    /**
+     * Returns the node whose score is the prediction for the record of the cursor,
+     * or a negative value if there is no prediction.
+     */
+    private int find(Cursor cursor) {
+        if (test(0, cursor) != CompiledPredicate.TRUE) {
+            return NONE;
+        }
+        int node = firstChild[0] == NONE ? 0 : visit(0, cursor);
+        return node >= 0 && scores[node] != null ? node : NONE;
+    }
+
+    /**
+     * Looks for a true leaf below the node. Returns NONE when there is none,
+     * so that the caller goes on with the siblings of the node.
+     */
+    private int visit(int node, Cursor cursor) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            int next = child;
+            double baseConfidence = cursor.confidence;
+            int test = test(child, cursor);
+            if (test == CompiledPredicate.UNKNOWN) {
+                switch (missingValueStrategy) {
+                    case NULL_PREDICTION:
+                        return NO_PREDICTION;
+                    case LAST_PREDICTION:
+                        return node;
+                    case DEFAULT_CHILD:
+                        // the default child is taken once, if it is unknown as well it is not true
+                        if (defaultChild[child] != NONE) {
+                            next = defaultChild[child];
+                            cursor.confidence *= missingValuePenalty;
+                            test = test(next, cursor);
+                        }
+                        break;
+                    default:
+                        test = CompiledPredicate.FALSE;
+                }
+            }
+            if (test == CompiledPredicate.TRUE) {
+                if (firstChild[next] == NONE) {
+                    return next;
+                }
+                int found = visit(next, cursor);
+                if (found != NONE) {
+                    return found;
+                }
+            }
+            cursor.confidence = baseConfidence;
+        }
+        return returnLastPrediction ? node : NONE;
+    }
+
+    private int test(int node, Cursor cursor) {
+        int operator = operators[node];
+        if (operator == PREDICATE) {
+            return predicates[node].evaluate(cursor.values());
+        }
+        double x = cursor.numeric[fields[node]][cursor.row];
+        if (Double.isNaN(x)) {
+            return operator == IS_MISSING ? CompiledPredicate.TRUE
+                    : operator == IS_NOT_MISSING ? CompiledPredicate.FALSE
+                    : CompiledPredicate.UNKNOWN;
+        }
+        double threshold = thresholds[node];
+        boolean test;
+        switch (operator) {
+            case LESS_THAN:
+                test = x < threshold;
+                break;
+            case LESS_OR_EQUAL:
+                test = x <= threshold;
+                break;
+            case GREATER_THAN:
+                test = x > threshold;
+                break;
+            case GREATER_OR_EQUAL:
+                test = x >= threshold;
+                break;
+            case EQUAL:
+                test = x == threshold;
+                break;
+            case NOT_EQUAL:
+                test = x != threshold;
+                break;
+            case IS_MISSING:
+                test = false;
+                break;
+            default:
+                test = true;
+        }
+        return test ? CompiledPredicate.TRUE : CompiledPredicate.FALSE;
+    }
+
+    /**
+     * The record being scored. The boxed values are only needed by the compiled
+     * predicates, so they are read from the columns the first time one asks for them.
+     */
+    private final class Cursor {
+
+        private final Object[] columns;
+        private final double[][] numeric;
+        private final Object[] values;
+        private int row;
+        private boolean valuesRead;
+        private double confidence = 1.0;
+
+        Cursor(Object[] columns, Object[] values) {
+            this.columns = columns;
+            this.values = values;
+            this.numeric = new double[columns.length][];
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] instanceof double[]) {
+                    numeric[i] = (double[]) columns[i];
+                }
+            }
+        }
+
+        void moveTo(int row) {
+            this.row = row;
+            this.valuesRead = false;
+            this.confidence = 1.0;
+        }
+
+        Object[] values() {
+            if (!valuesRead) {
+                inputs.readRow(columns, row, values);
+                valuesRead = true;
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Collects the nodes in growing arrays while the tree is compiled.
+     */
+    private static final class NodeArrays {
+
+        private final InputFields inputs;
+        private final Map<String, Integer> nodesById = new HashMap<>();
+        private final List<String> defaultChildIds = new ArrayList<>();
+        private int size;
+        private int[] firstChild = new int[16];
+        private int[] nextSibling = new int[16];
+        private int[] defaultChild = new int[16];
+        private int[] operators = new int[16];
+        private int[] fields = new int[16];
+        private double[] thresholds = new double[16];
+        private CompiledPredicate[] predicates = new CompiledPredicate[16];
+        private String[] scores = new String[16];
+        private double[] confidences = new double[16];
+
+        NodeArrays(InputFields inputs) {
+            this.inputs = inputs;
+        }
+
+        /**
+         * Adds the node and its subtree, returning the index of the node or -1
+         * if something could not be compiled.
+         */
+        int compile(Node raw) {
+            int node = add();
+            defaultChildIds.add(raw.getDefaultChild());
+            boolean hasPredicate = false;
+            for (Serializable ser : raw.getExtensionsAndSimplePredicatesAndCompoundPredicates()) {
+                if (CompiledPredicate.isPredicate(ser)) {
+                    hasPredicate = true;
+                    if (!compilePredicate(node, ser)) {
+                        return -1;
+                    }
+                }
+            }
+            if (!hasPredicate) {
+                return -1;
+            }
+            setScore(node, raw);
+
+            int previous = NONE;
+            for (Node rawChild : raw.getNodes()) {
+                int child = compile(rawChild);
+                if (child < 0) {
+                    return -1;
+                }
+                if (previous == NONE) {
+                    firstChild[node] = child;
+                } else {
+                    nextSibling[previous] = child;
+                }
+                previous = child;
+            }
+            if (raw.getId() != null) {
+                nodesById.put(raw.getId(), node);
+            }
+            return node;
+        }
+
+        private int add() {
+            if (size == firstChild.length) {
+                int capacity = size * 2;
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                defaultChild = Arrays.copyOf(defaultChild, capacity);
+                operators = Arrays.copyOf(operators, capacity);
+                fields = Arrays.copyOf(fields, capacity);
+                thresholds = Arrays.copyOf(thresholds, capacity);
+                predicates = Arrays.copyOf(predicates, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+                confidences = Arrays.copyOf(confidences, capacity);
+            }
+            firstChild[size] = NONE;
+            nextSibling[size] = NONE;
+            defaultChild[size] = NONE;
+            return size++;
+        }
+
+        /**
+         * Keeps a comparison of a numeric field with a constant inline, compiles any other predicate.
+         */
+        private boolean compilePredicate(int node, Serializable ser) {
+            if (ser instanceof SimplePredicate) {
+                SimplePredicate sp = (SimplePredicate) ser;
+                int field = inputs.indexOf(sp.getField());
+                int operator = toOperator(sp.getOperator());
+                Object threshold = InputFields.convert(sp.getValue(), true);
+                if (field >= 0 && inputs.isNumeric(field) && operator != PREDICATE
+                        && (threshold != null || operator == IS_MISSING || operator == IS_NOT_MISSING)) {
+                    operators[node] = operator;
+                    fields[node] = field;
+                    thresholds[node] = threshold != null ? (Double) threshold : Double.NaN;
+                    return true;
+                }
+            }
+            operators[node] = PREDICATE;
+            predicates[node] = CompiledPredicate.compile(ser, inputs);
+            return predicates[node] != null;
+        }
+
+        private static int toOperator(String operator) {
+            if (operator == null) {
+                return PREDICATE;
+            }
+            switch (operator) {
+                case "equal":
+                    return EQUAL;
+                case "notEqual":
+                    return NOT_EQUAL;
+                case "lessThan":
+                    return LESS_THAN;
+                case "lessOrEqual":
+                    return LESS_OR_EQUAL;
+                case "greaterThan":
+                    return GREATER_THAN;
+                case "greaterOrEqual":
+                    return GREATER_OR_EQUAL;
+                case "isMissing":
+                    return IS_MISSING;
+                case "isNotMissing":
+                    return IS_NOT_MISSING;
+                default:
+                    return PREDICATE;
+            }
+        }
+
+        /**
+         * Uses the score of the node, or the most frequent value of its distribution.
+         * The confidence of the score is the declared one, or else its frequency.
+         */
+        private void setScore(int node, Node raw) {
+            ScoreDistribution best = null;
+            double total = 0.0;
+            for (ScoreDistribution sd : raw.getScoreDistributions()) {
+                total += sd.getRecordCount();
+                if (raw.getScore() != null ? raw.getScore().equals(sd.getValue())
+                                           : best == null || sd.getRecordCount() > best.getRecordCount()) {
+                    best = sd;
+                }
+            }
+            scores[node] = raw.getScore() != null ? raw.getScore() : (best != null ? best.getValue() : null);
+            confidences[node] = 1.0;
+            if (best != null) {
+                Number declared = best.getConfidence();
+                if (declared != null) {
+                    confidences[node] = declared.doubleValue();
+                } else if (total > 0.0) {
+                    confidences[node] = best.getRecordCount() / total;
+                }
+            }
+        }
+
+        private boolean resolveDefaultChildren() {
+            for (int node = 0; node < size; node++) {
+                String id = defaultChildIds.get(node);
+                if (id != null) {
+                    Integer child = nodesById.get(id);
+                    if (child == null) {
+                        return false;
+                    }
+                    defaultChild[node] = child;
+                }
+            }
+            return true;
+        }
+    }
+}
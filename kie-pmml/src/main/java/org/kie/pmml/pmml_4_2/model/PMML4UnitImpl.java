@@ -18,6 +18,7 @@ package org.kie.pmml.pmml_4_2.model;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,10 +30,14 @@ import org.kie.dmg.pmml.pmml_4_2.descr.DataDictionary;
 import org.kie.dmg.pmml.pmml_4_2.descr.DataField;
 import org.kie.dmg.pmml.pmml_4_2.descr.Extension;
 import org.kie.dmg.pmml.pmml_4_2.descr.MiningField;
+import org.kie.dmg.pmml.pmml_4_2.descr.NeuralNetwork;
 import org.kie.dmg.pmml.pmml_4_2.descr.PMML;
 import org.drools.core.io.impl.ClassPathResource;
+import org.kie.pmml.pmml_4_2.PMML4Evaluator;
+import org.kie.pmml.pmml_4_2.PMML4Helper;
 import org.kie.pmml.pmml_4_2.PMML4Model;
 import org.kie.pmml.pmml_4_2.PMML4Unit;
+import org.kie.pmml.pmml_4_2.evaluator.PMML4EvaluatorFactory;
 import org.kie.pmml.pmml_4_2.extensions.PMMLExtensionNames;
 
 public class PMML4UnitImpl implements PMML4Unit {
@@ -41,6 +46,8 @@ public class PMML4UnitImpl implements PMML4Unit {
     private PMML rawPmml;
     private Map<String,PMML4Model> modelsMap;
     private Map<String, PMMLDataField> dataDictionaryMap;
+    private Map<String, NeuralNetwork> neuralNetworks = new HashMap<>();
+    private Map<String, PMML4Evaluator> evaluators = new HashMap<>();
 
     public PMML4UnitImpl(PMML rawPmml) {
         this.rawPmml = rawPmml;
@@ -69,6 +76,7 @@ public class PMML4UnitImpl implements PMML4Unit {
     private void initFromPMML() {
     	if (this.rawPmml != null) {
     		initDataDictionaryMap();
+    		initNeuralNetworksMap();
     		initModelsMap();
     	}
     }
@@ -103,11 +111,32 @@ public class PMML4UnitImpl implements PMML4Unit {
     			modelsMap.put(model.getModelId(), model);
     			addChildModelsToMap(model);
     		}
-    	} else {
+    	} else if (neuralNetworks.isEmpty()) {
     		throw new IllegalStateException("BRMS-PMML requires at least one model of the model types that are recognized");
     	}
     }
 
+    /**
+     * Initializes the internal map of the neural networks, by model id. They are not PMML4Models,
+     * as they are only compiled by the templates, but they can be scored by an evaluator.
+     * The id is derived from the model name as for the PMML4Models.
+     */
+    private void initNeuralNetworksMap() {
+    	PMML4Helper helper = new PMML4Helper();
+    	for (Object o : rawPmml.getAssociationModelsAndBaselineModelsAndClusteringModels()) {
+    		if (o instanceof NeuralNetwork && ((NeuralNetwork) o).getModelName() != null) {
+    			neuralNetworks.put(helper.compactAsJavaId(((NeuralNetwork) o).getModelName(), true), (NeuralNetwork) o);
+    		}
+    	}
+    }
+
+    /**
+     * @return the ids of the neural networks, which are not among the PMML4Models of the unit
+     */
+    public Collection<String> getNeuralNetworkIds() {
+    	return Collections.unmodifiableCollection(neuralNetworks.keySet());
+    }
+
     /**
      * Recursive method that adds children models (i.e. models contained within models)
      * to the internal map of models
@@ -282,4 +311,19 @@ public class PMML4UnitImpl implements PMML4Unit {
     	
     	return packageNames;
     }
+
+    /**
+     * Returns the evaluator of the model or of the neural network, built the first time it is asked for,
+     * or null if the model does not exist or can only be executed by the rules.
+     */
+    @Override
+    public synchronized PMML4Evaluator getEvaluator(String modelId) {
+        if (!evaluators.containsKey(modelId)) {
+            PMML4Evaluator evaluator = neuralNetworks.containsKey(modelId)
+                    ? PMML4EvaluatorFactory.getInstance().getEvaluator(modelId, neuralNetworks.get(modelId), rawPmml.getDataDictionary())
+                    : PMML4EvaluatorFactory.getInstance().getEvaluator(modelsMap.get(modelId));
+            evaluators.put(modelId, evaluator);
+        }
+        return evaluators.get(modelId);
+    }
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.api.KieBase;
+import org.kie.api.io.Resource;
+import org.kie.api.io.ResourceType;
+import org.kie.api.pmml.PMMLRequestData;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.utils.KieHelper;
+import org.kie.pmml.pmml_4_2.PMML4Compiler;
+import org.kie.pmml.pmml_4_2.PMML4Evaluator;
+import org.kie.pmml.pmml_4_2.PMMLBatch;
+import org.kie.pmml.pmml_4_2.PMMLExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the rules generated by the tree templates with the TreeEvaluator,
+ * scoring the same records against a full binary tree of the given depth.
+ */
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TreeEvaluationBenchmark {
+
+    private static final String MODEL_NAME = "DeepTree";
+
+    @Param({"4", "8", "12"})
+    private int depth;
+
+    @Param({"10"})
+    private int numberOfFields;
+
+    @Param({"1000"})
+    private int numberOfRecords;
+
+    private PMMLExecutor executor;
+    private PMML4Evaluator evaluator;
+    private PMMLRequestData[] requests;
+    private PMMLBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String pmml = generateTree(depth, numberOfFields);
+
+        Resource resource = ResourceFactory.newByteArrayResource(pmml.getBytes(StandardCharsets.UTF_8));
+        resource.setSourcePath("deep_tree.pmml");
+        KieBase kieBase = new KieHelper().addResource(resource, ResourceType.PMML).build();
+        executor = new PMMLExecutor(kieBase);
+
+        evaluator = new PMML4Compiler().getEvaluators(new ByteArrayInputStream(pmml.getBytes(StandardCharsets.UTF_8))).get(MODEL_NAME);
+        if (evaluator == null) {
+            throw new IllegalStateException("No evaluator for " + MODEL_NAME);
+        }
+
+        Random random = new Random(0);
+        requests = new PMMLRequestData[numberOfRecords];
+        double[][] columns = new double[numberOfFields][numberOfRecords];
+        for (int i = 0; i < numberOfRecords; i++) {
+            requests[i] = new PMMLRequestData(String.valueOf(i), MODEL_NAME);
+            for (int f = 0; f < numberOfFields; f++) {
+                columns[f][i] = random.nextDouble();
+                requests[i].addRequestParam("x" + f, columns[f][i]);
+            }
+        }
+        batch = new PMMLBatch(numberOfRecords);
+        for (int f = 0; f < numberOfFields; f++) {
+            batch.addColumn("x" + f, columns[f]);
+        }
+    }
+
+    @Benchmark
+    public void rules(Blackhole bh) {
+        for (PMMLRequestData request : requests) {
+            bh.consume(executor.run(request));
+        }
+    }
+
+    @Benchmark
+    public void evaluator(Blackhole bh) {
+        for (PMMLRequestData request : requests) {
+            bh.consume(evaluator.evaluate(request));
+        }
+    }
+
+    @Benchmark
+    public void evaluatorBatch(Blackhole bh) {
+        bh.consume(evaluator.evaluate(batch));
+    }
+
+    /**
+     * Generates a full binary tree: each level splits on the next field, at a
+     * threshold depending on the position of the node, and the leaves have their
+     * own score.
+     */
+    public static String generateTree(int depth, int numberOfFields) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<PMML version=\"4.2\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns=\"http://www.dmg.org/PMML-4_2\">\n");
+        sb.append("  <Header copyright=\"JBOSS\"/>\n");
+        sb.append("  <DataDictionary numberOfFields=\"").append(numberOfFields + 1).append("\">\n");
+        for (int f = 0; f < numberOfFields; f++) {
+            sb.append("    <DataField dataType=\"double\" name=\"x").append(f).append("\" optype=\"continuous\"/>\n");
+        }
+        sb.append("    <DataField dataType=\"string\" name=\"y\" optype=\"categorical\"/>\n");
+        sb.append("  </DataDictionary>\n");
+        sb.append("  <TreeModel functionName=\"classification\" modelName=\"").append(MODEL_NAME).append("\">\n");
+        sb.append("    <MiningSchema>\n");
+        for (int f = 0; f < numberOfFields; f++) {
+            sb.append("      <MiningField name=\"x").append(f).append("\"/>\n");
+        }
+        sb.append("      <MiningField name=\"y\" usageType=\"predicted\"/>\n");
+        sb.append("    </MiningSchema>\n");
+        sb.append("    <Node id=\"n1\" score=\"leaf0\">\n");
+        sb.append("      <True/>\n");
+        appendChildren(sb, 1, 1, depth, numberOfFields);
+        sb.append("    </Node>\n");
+        sb.append("  </TreeModel>\n");
+        sb.append("</PMML>\n");
+        return sb.toString();
+    }
+
+    private static void appendChildren(StringBuilder sb, int position, int level, int depth, int numberOfFields) {
+        if (level > depth) {
+            return;
+        }
+        String field = "x" + ((level - 1) % numberOfFields);
+        String threshold = String.valueOf((position % 7 + 1) / 8.0);
+        appendNode(sb, 2 * position, "lessThan", field, threshold, level, depth, numberOfFields);
+        appendNode(sb, 2 * position + 1, "greaterOrEqual", field, threshold, level, depth, numberOfFields);
+    }
+
+    private static void appendNode(StringBuilder sb, int position, String operator, String field, String threshold,
+                                   int level, int depth, int numberOfFields) {
+        StringBuilder indent = new StringBuilder("      ");
+        for (int i = 0; i < level; i++) {
+            indent.append("  ");
+        }
+        sb.append(indent).append("<Node id=\"n").append(position).append("\" score=\"leaf").append(position).append("\">\n");
+        sb.append(indent).append("  <SimplePredicate field=\"").append(field).append("\" operator=\"").append(operator)
+                .append("\" value=\"").append(threshold).append("\"/>\n");
+        appendChildren(sb, position, level + 1, depth, numberOfFields);
+        sb.append(indent).append("</Node>\n");
+    }
+}
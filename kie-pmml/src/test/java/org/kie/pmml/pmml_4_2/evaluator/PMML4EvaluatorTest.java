@@ -0,0 +1,279 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.pmml.pmml_4_2.evaluator;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+import org.kie.api.pmml.PMML4Result;
+import org.kie.api.pmml.PMMLRequestData;
+import org.kie.pmml.pmml_4_2.PMML4Compiler;
+import org.kie.pmml.pmml_4_2.PMML4Evaluator;
+import org.kie.pmml.pmml_4_2.PMMLBatch;
+import org.kie.pmml.pmml_4_2.benchmark.TreeEvaluationBenchmark;
+import org.kie.pmml.pmml_4_2.model.PMML4UnitImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PMML4EvaluatorTest {
+
+    private static final String FOLDER = "org/kie/pmml/pmml_4_2/";
+
+    @Test
+    public void testRegression() {
+        PMML4Evaluator evaluator = getEvaluator("test_regression.pmml", "LinReg");
+
+        PMMLRequestData request = new PMMLRequestData("123", "LinReg");
+        request.addRequestParam("fld1", 0.9);
+        request.addRequestParam("fld2", 0.3);
+        request.addRequestParam("fld3", "x");
+        PMML4Result result = evaluator.evaluate(request);
+
+        assertEquals("OK", result.getResultCode());
+        double chkVal = 0.5 + 5 * 0.9 * 0.9 + 2 * 0.3 - 3.0 + 0.4 * 0.9 * 0.3;
+        chkVal = 1.0 / (1.0 + Math.exp(-chkVal));
+        assertEquals(chkVal, result.getResultValue("Fld4", "value", Double.class).orElse(null), 1e-6);
+    }
+
+    @Test
+    public void testRegressionMissingInput() {
+        PMML4Evaluator evaluator = getEvaluator("test_regression.pmml", "LinReg");
+
+        PMMLRequestData request = new PMMLRequestData("123", "LinReg");
+        request.addRequestParam("fld1", 0.9);
+        request.addRequestParam("fld3", "x");
+        PMML4Result result = evaluator.evaluate(request);
+
+        assertFalse(result.getResultValue("Fld4", "value", Double.class).isPresent());
+    }
+
+    @Test
+    public void testClassification() {
+        PMML4Evaluator evaluator = getEvaluator("test_regression_clax.pmml", "LinReg");
+
+        PMMLRequestData request = new PMMLRequestData("123", "LinReg");
+        request.addRequestParam("fld1", 1.0);
+        request.addRequestParam("fld2", 1.0);
+        request.addRequestParam("fld3", "x");
+        PMML4Result result = evaluator.evaluate(request);
+
+        assertEquals("catC", result.getResultValue("RegOut", "value", String.class).orElse(null));
+        assertEquals(0.709228, result.getResultValue("RegProb", "value", Double.class).orElse(null), 1e-6);
+        assertEquals(0.010635, result.getResultValue("RegProbA", "value", Double.class).orElse(null), 1e-6);
+    }
+
+    @Test
+    public void testSimpleTree() {
+        PMML4Evaluator evaluator = getEvaluator("test_tree_simple.pmml", "TreeTest");
+
+        PMMLRequestData request = new PMMLRequestData("123", "TreeTest");
+        request.addRequestParam("fld1", 30.0);
+        request.addRequestParam("fld2", 60.0);
+        request.addRequestParam("fld3", "false");
+        request.addRequestParam("fld4", "optA");
+        PMML4Result result = evaluator.evaluate(request);
+
+        assertEquals("OK", result.getResultCode());
+        assertEquals("tgtY", result.getResultValue("Fld5", "value", String.class).orElse(null));
+    }
+
+    @Test
+    public void testTreeNoTrueChildStrategies() {
+        PMML4Evaluator evaluator = getEvaluator("test_tree_return_null_notruechild_strategy.pmml", "TreeTest");
+        assertEquals("tgtY", evaluateTree(evaluator, 30.0, "Fld2"));
+        assertNull(evaluateTree(evaluator, 50.0, "Fld2"));
+
+        evaluator = getEvaluator("test_tree_return_last_notruechild_strategy.pmml", "TreeTest");
+        assertEquals("tgtY", evaluateTree(evaluator, 30.0, "Fld2"));
+        assertEquals("tgtX", evaluateTree(evaluator, 50.0, "Fld2"));
+    }
+
+    @Test
+    public void testTreeMissingValueStrategies() {
+        PMML4Evaluator evaluator = getEvaluator("test_tree_default_child_missing_value_strategy.pmml", "TreeTest");
+        assertEquals("tgtY", evaluateTree(evaluator, 30.0, "Fld3"));
+        assertEquals("tgtZ", evaluateTree(evaluator, 100.0, "Fld3"));
+
+        evaluator = getEvaluator("test_tree_return_null_missing_value_strategy.pmml", "TreeTest");
+        assertEquals("tgtY", evaluateTree(evaluator, 30.0, "Fld3"));
+        assertNull(evaluateTree(evaluator, 100.0, "Fld3"));
+    }
+
+    @Test
+    public void testUnsupportedModel() {
+        Map<String, PMML4Evaluator> evaluators = new PMML4Compiler().getEvaluators(FOLDER + "test_tree_weightedconfidence_missing_value_strategy.pmml");
+        assertFalse(evaluators.containsKey("TreeTest"));
+    }
+
+    @Test
+    public void testBatchRegression() {
+        PMML4Evaluator evaluator = getEvaluator("test_regression.pmml", "LinReg");
+
+        PMMLBatch batch = new PMMLBatch(3)
+                .addColumn("fld1", new double[] { 0.9, 0.1, 0.5 })
+                .addColumn("fld2", new double[] { 0.3, Double.NaN, 0.7 })
+                .addColumn("fld3", new Object[] { "x", "x", "y" });
+        PMMLBatch results = evaluator.evaluate(batch);
+
+        assertEquals(3, results.size());
+        for (int row = 0; row < 3; row++) {
+            PMMLRequestData request = new PMMLRequestData("123", "LinReg");
+            for (String column : batch.getColumnNames()) {
+                if (batch.getValue(column, row) != null) {
+                    request.addRequestParam(column, batch.getValue(column, row));
+                }
+            }
+            Double expected = evaluator.evaluate(request).getResultValue("Fld4", "value", Double.class).orElse(null);
+            if (expected == null) {
+                assertNull(results.getValue("Fld4", row));
+            } else {
+                assertEquals(expected, (Double) results.getValue("Fld4", row), 1e-9);
+            }
+        }
+        assertNull(results.getValue("Fld4", 1));
+    }
+
+    @Test
+    public void testBatchClassification() {
+        PMML4Evaluator evaluator = getEvaluator("test_regression_clax.pmml", "LinReg");
+
+        PMMLBatch batch = new PMMLBatch(2)
+                .addColumn("fld1", new double[] { 1.0, 1.0 })
+                .addColumn("fld2", new double[] { 1.0, 1.0 })
+                .addColumn("fld3", new Object[] { "x", null });
+        PMMLBatch results = evaluator.evaluate(batch);
+
+        assertEquals("catC", results.getValue("RegOut", 0));
+        assertEquals(0.709228, (Double) results.getValue("RegProb", 0), 1e-6);
+        assertEquals(0.010635, (Double) results.getValue("RegProbA", 0), 1e-6);
+    }
+
+    @Test
+    public void testBatchTree() {
+        PMML4Evaluator evaluator = getEvaluator("test_tree_default_child_missing_value_strategy.pmml", "TreeTest");
+
+        PMMLBatch results = evaluator.evaluate(new PMMLBatch(2).addColumn("fld1", new double[] { 30.0, 100.0 }));
+
+        assertEquals("tgtY", results.getValue("Fld3", 0));
+        assertEquals("tgtZ", results.getValue("Fld3", 1));
+    }
+
+    @Test
+    public void testDeepTree() {
+        String pmml = TreeEvaluationBenchmark.generateTree(3, 2);
+        PMML4Evaluator evaluator = new PMML4Compiler().getEvaluators(new ByteArrayInputStream(pmml.getBytes(StandardCharsets.UTF_8))).get("DeepTree");
+        assertNotNull(evaluator);
+
+        // the thresholds are in (0, 1]: 0 always goes left, 1 always goes right
+        PMMLBatch results = evaluator.evaluate(new PMMLBatch(3)
+                                                       .addColumn("x0", new double[] { 0.0, 1.0, Double.NaN })
+                                                       .addColumn("x1", new double[] { 0.0, 1.0, 0.0 }));
+        assertEquals("leaf8", results.getValue("Y", 0));
+        assertEquals("leaf15", results.getValue("Y", 1));
+        assertNull(results.getValue("Y", 2));
+
+        PMMLRequestData request = new PMMLRequestData("123", "DeepTree");
+        request.addRequestParam("x0", 1.0);
+        request.addRequestParam("x1", 1.0);
+        assertEquals("leaf15", evaluator.evaluate(request).getResultValue("Y", "value", String.class).orElse(null));
+    }
+
+    @Test
+    public void testNeuralNetwork() {
+        PMML4Evaluator evaluator = getEvaluator("mock_cold.xml", "MockCold");
+
+        PMMLRequestData request = new PMMLRequestData("123", "MockCold");
+        request.addRequestParam("temp", 28.0);
+        PMML4Result result = evaluator.evaluate(request);
+
+        assertEquals("OK", result.getResultCode());
+        assertEquals(0.44, result.getResultValue("ColdRisk", "value", Double.class).orElse(null), 1e-6);
+        assertEquals(0.44, result.getResultValue("Cold", "value", Double.class).orElse(null), 1e-6);
+    }
+
+    @Test
+    public void testNeuralNetworkBatch() {
+        PMML4Evaluator evaluator = getEvaluator("test_ann_regression.xml", "NeuralInsurance");
+        assertEquals("NeuralInsurance", evaluator.getModelId());
+
+        PMMLRequestData request = new PMMLRequestData("123", "Neural Insurance");
+        request.addRequestParam("gender", "male");
+        request.addRequestParam("no of claims", "3");
+        request.addRequestParam("domicile", "urban");
+        request.addRequestParam("age of car", 8.0);
+        PMML4Result result = evaluator.evaluate(request);
+        double amount = result.getResultValue("AmountOfClaims", "value", Double.class).orElse(null);
+        assertEquals(828, (int) Math.floor(amount));
+        assertEquals(amount, result.getResultValue("OutAmOfClaims", "value", Double.class).orElse(null), 1e-9);
+        // the buffers of the previous record are reused
+        assertEquals(amount, evaluator.evaluate(request).getResultValue("AmountOfClaims", "value", Double.class).orElse(null), 1e-9);
+
+        PMMLBatch batch = new PMMLBatch(2)
+                .addColumn("gender", new Object[] { "male", "male" })
+                .addColumn("no of claims", new Object[] { "3", "3" })
+                .addColumn("domicile", new Object[] { "urban", null })
+                .addColumn("age of car", new double[] { 8.0, 8.0 });
+        PMMLBatch results = evaluator.evaluate(batch);
+        assertEquals(amount, (Double) results.getValue("AmountOfClaims", 0), 1e-9);
+        assertNull(results.getValue("AmountOfClaims", 1));
+    }
+
+    @Test
+    public void testNeuralNetworkEvaluatorFromTheUnit() {
+        PMML4UnitImpl unit = new PMML4UnitImpl(FOLDER + "test_ann_regression.xml");
+        assertEquals(Collections.singletonList("NeuralInsurance"), new ArrayList<>(unit.getNeuralNetworkIds()));
+        PMML4Evaluator evaluator = unit.getEvaluator("NeuralInsurance");
+        assertTrue(evaluator instanceof NeuralNetworkEvaluator);
+        assertSame(evaluator, unit.getEvaluator("NeuralInsurance"));
+        assertNull(unit.getEvaluator("Neural Insurance"));
+    }
+
+    @Test
+    public void testNeuralNetworksOnlyAreNotCompiled() {
+        PMML4Compiler compiler = new PMML4Compiler();
+        assertTrue(compiler.precompile(FOLDER + "test_ann_regression.xml", null, null).isEmpty());
+        assertFalse(compiler.getResults().isEmpty());
+        try {
+            compiler.getJavaClasses(FOLDER + "test_ann_regression.xml");
+            fail("A document holding only neural networks cannot be compiled into rules");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private PMML4Evaluator getEvaluator(String source, String modelId) {
+        PMML4Evaluator evaluator = new PMML4Compiler().getEvaluators(FOLDER + source).get(modelId);
+        assertNotNull(evaluator);
+        return evaluator;
+    }
+
+    private String evaluateTree(PMML4Evaluator evaluator, double fld1, String target) {
+        PMMLRequestData request = new PMMLRequestData("123", "TreeTest");
+        request.addRequestParam("fld1", fld1);
+        return evaluator.evaluate(request).getResultValue(target, "value", String.class).orElse(null);
+    }
+}